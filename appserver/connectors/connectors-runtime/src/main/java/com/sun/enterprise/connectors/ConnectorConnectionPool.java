@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.connectors;
 
@@ -108,6 +108,8 @@ public class ConnectorConnectionPool implements Serializable {
     //This property will be set by ConnectorConnectionPoolDeployer or
     //JdbcConnectionPoolDeployer.
     private boolean preferValidateOverRecreate_ = false;
+    private boolean backgroundValidation_ = false;
+    private int backgroundValidationInterval_ = DEFAULT_BACKGROUND_VALIDATION_INTERVAL;
 
     private String validateAtmostOncePeriod_ = null;
 
@@ -122,6 +124,7 @@ public class ConnectorConnectionPool implements Serializable {
     public static final String DEFAULT_CON_CREATION_RETRY_INTERVAL = "10";
     public static final String DEFAULT_VALIDATE_ATMOST_ONCE_PERIOD = "0";
     public static final String DEFAULT_LEAK_TIMEOUT = "0";
+    public static final int DEFAULT_BACKGROUND_VALIDATION_INTERVAL = 60;
 
     private static Logger _logger = LogDomains.getLogger(ConnectorConnectionPool.class, LogDomains.RSR_LOGGER);
     private String name;
@@ -252,6 +255,8 @@ public class ConnectorConnectionPool implements Serializable {
                 (getConCreationRetryInterval());
         clone.setConCreationRetryAttempts(getConCreationRetryAttempts());
         clone.setPreferValidateOverRecreate(isPreferValidateOverRecreate());
+        clone.setBackgroundValidation(isBackgroundValidation());
+        clone.setBackgroundValidationInterval(getBackgroundValidationInterval());
         clone.setPooling(isPoolingOn());
         clone.setPingDuringPoolCreation(getPingDuringPoolCreation());
         return clone;
@@ -754,6 +759,10 @@ public class ConnectorConnectionPool implements Serializable {
             sb.append(isConnectionValidationRequired_);
             sb.append("\npreferValidateOverRecreate_ ");
             sb.append(preferValidateOverRecreate_);
+            sb.append("\nbackgroundValidation_ ");
+            sb.append(backgroundValidation_);
+            sb.append("\nbackgroundValidationInterval_ ");
+            sb.append(backgroundValidationInterval_);
 
             sb.append("\nmatchConnections_ ");
             sb.append(matchConnections_);
@@ -882,6 +891,31 @@ public class ConnectorConnectionPool implements Serializable {
         preferValidateOverRecreate_ = preferValidateOverRecreate;
     }
 
+    /**
+     * When background validation is on, idle connections are validated in batches by a background task
+     * and the pool is kept pre-filled ahead of demand, instead of validating every connection on borrow.
+     *
+     * @return true if background validation is enabled
+     */
+    public boolean isBackgroundValidation() {
+        return backgroundValidation_;
+    }
+
+    public void setBackgroundValidation(boolean backgroundValidation) {
+        backgroundValidation_ = backgroundValidation;
+    }
+
+    /**
+     * @return interval in seconds between two background validation passes
+     */
+    public int getBackgroundValidationInterval() {
+        return backgroundValidationInterval_;
+    }
+
+    public void setBackgroundValidationInterval(int backgroundValidationInterval) {
+        backgroundValidationInterval_ = backgroundValidationInterval;
+    }
+
     public long getDynamicReconfigWaitTimeout() {
         return dynamicReconfigWaitTimeout;
     }
@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.deployer;
 
@@ -546,6 +547,24 @@ public class ConnectorConnectionPoolDeployer extends AbstractConnectorResourceDe
                                 value);
                     }
                     ccp.setPreferValidateOverRecreate(toBoolean(value, false));
+                } else if ("BACKGROUND-VALIDATION".equals(ep.getName().toUpperCase(locale))) {
+                    String value = ep.getValue();
+                    if (_logger.isLoggable(Level.FINE)) {
+                        _logger.fine(" ConnectorConnectionPoolDeployer::  " +
+                                "Setting BACKGROUND-VALIDATION to " + value);
+                    }
+                    ccp.setBackgroundValidation(toBoolean(value, false));
+                } else if ("BACKGROUND-VALIDATION-INTERVAL-IN-SECONDS".equals(ep.getName().toUpperCase(locale))) {
+                    String value = ep.getValue();
+                    if (_logger.isLoggable(Level.FINE)) {
+                        _logger.fine(" ConnectorConnectionPoolDeployer::  " +
+                                "Setting BACKGROUND-VALIDATION-INTERVAL-IN-SECONDS to " + value);
+                    }
+                    try {
+                        ccp.setBackgroundValidationInterval(Integer.parseInt(value));
+                    } catch (NumberFormatException nfe) {
+                        ccp.setBackgroundValidationInterval(ConnectorConnectionPool.DEFAULT_BACKGROUND_VALIDATION_INTERVAL);
+                    }
                 }
             }
         }
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.listener;
 
@@ -117,6 +117,13 @@ public interface PoolLifeCycleListener {
      */
     void connectionsFreed(int count);
 
+    /**
+     * indicates that a background validation pass has completed.
+     * @param count number of connections validated
+     * @param timeTakenInMillis time taken by the validation pass
+     */
+    void connectionsValidated(int count, long timeTakenInMillis);
+
     /**
      * indicates that connection count that is used has to be decremented.
      */
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019-2021] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.pool;
 
@@ -53,9 +53,11 @@ import com.sun.enterprise.resource.allocator.ResourceAllocator;
 import com.sun.enterprise.resource.listener.PoolLifeCycleListener;
 import com.sun.enterprise.resource.pool.datastructure.DataStructure;
 import com.sun.enterprise.resource.pool.datastructure.DataStructureFactory;
+import com.sun.enterprise.resource.pool.resizer.BackgroundValidator;
 import com.sun.enterprise.resource.pool.resizer.Resizer;
 import com.sun.enterprise.resource.pool.waitqueue.PoolWaitQueue;
 import com.sun.enterprise.resource.pool.waitqueue.PoolWaitQueueFactory;
+import com.sun.enterprise.resource.pool.waitqueue.WaitTimeHistogram;
 import com.sun.enterprise.transaction.api.JavaEETransaction;
 import com.sun.enterprise.util.i18n.StringManager;
 import com.sun.logging.LogDomains;
@@ -67,6 +69,7 @@ import jakarta.resource.ResourceException;
 import jakarta.resource.spi.RetryableUnavailableException;
 import jakarta.transaction.Transaction;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.glassfish.api.admin.ServerEnvironment;
@@ -101,6 +104,11 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
     protected boolean preferValidateOverRecreate = false;
     // hold on to the resizer task so we can cancel/reschedule it.
     protected Resizer resizerTask;
+    protected BackgroundValidator backgroundValidatorTask;
+    protected boolean backgroundValidation = false;
+    protected long backgroundValidationIntervalInMillis;
+    // number of resources handed out, used to estimate the borrow rate for pre-filling
+    private final LongAdder borrowCount = new LongAdder();
 
 
     protected volatile boolean poolInitialized = false;
@@ -134,6 +142,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
 
     protected PoolWaitQueue waitQueue;
     protected PoolWaitQueue reconfigWaitQueue;
+    private final WaitTimeHistogram waitTimeHistogram = new WaitTimeHistogram();
     private long reconfigWaitTime ;
     protected String poolWaitQueueClass;
 
@@ -238,6 +247,8 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         // if the idle time out is 0, then don't schedule the resizer task
         if (idletime > 0) {
             scheduleResizerTask();
+        } else {
+            scheduleBackgroundValidatorTask();
         }
 
         //Need to set the numConnFree of monitoring statistics to the steadyPoolSize
@@ -272,12 +283,53 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         if (_logger.isLoggable(Level.FINEST)) {
             _logger.finest("scheduled resizer task");
         }
+        scheduleBackgroundValidatorTask();
     }
 
     protected Resizer initializeResizer() {
         return new Resizer(poolInfo, ds, this, this, preferValidateOverRecreate);
     }
 
+    /**
+     * Schedules the background validation task when background validation is enabled.
+     * If a task is currently scheduled, it would be canceled first.
+     */
+    private void scheduleBackgroundValidatorTask() {
+        if (backgroundValidatorTask != null) {
+            backgroundValidatorTask.cancel();
+            backgroundValidatorTask = null;
+        }
+
+        if (!backgroundValidation || backgroundValidationIntervalInMillis <= 0) {
+            return;
+        }
+
+        backgroundValidatorTask = new BackgroundValidator(poolInfo, ds, this, this,
+                backgroundValidationIntervalInMillis, borrowCount::sum, () -> poolLifeCycleListener,
+                this::returnIdleResource);
+
+        if (timer == null) {
+            timer = ConnectorRuntime.getRuntime().getTimer();
+        }
+
+        timer.scheduleAtFixedRate(backgroundValidatorTask, backgroundValidationIntervalInMillis,
+                backgroundValidationIntervalInMillis);
+        if (_logger.isLoggable(Level.FINEST)) {
+            _logger.finest("scheduled background validator task");
+        }
+    }
+
+    /**
+     * Puts a free resource that a background task took out of the data structure back, and hands it
+     * to a request waiting for a resource, if any.
+     *
+     * @param h ResourceHandle
+     */
+    private void returnIdleResource(ResourceHandle h) {
+        ds.returnResource(h);
+        notifyWaitingThreads();
+    }
+
     /**
      * add a resource with status busy and not enlisted
      *
@@ -373,8 +425,12 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         long remainingWaitTime = 0;
         this.resourceStartTime.set(startTime);
 
+        //with a fair wait queue, new requests do not overtake the ones already waiting
+        boolean queueBehindWaiters = waitQueue.isFair() && waitQueue.getQueueLength() > 0;
+        boolean handedOff = false;
+
         while (true) {
-            if (gateway.allowed()) {
+            if (!queueBehindWaiters && gateway.allowed()) {
                 //See comment #1 above
                 JavaEETransaction jtx = ((JavaEETransaction) txn);
                 Set resourcesSet = null;
@@ -393,6 +449,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
             }
             if (result != null) {
                 // got one, return it
+                borrowCount.increment();
                 if (poolLifeCycleListener != null) {
                     poolLifeCycleListener.connectionAcquired(result.getId());
                     elapsedWaitTime = System.currentTimeMillis() - startTime;
@@ -417,33 +474,8 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
                 }
 
                 if (!blocked) {
-                    //add to wait-queue
-                    Object waitMonitor = new Object();
-                    if (poolLifeCycleListener != null) {
-                        poolLifeCycleListener.connectionRequestQueued();
-                    }
-                    synchronized (waitMonitor) {
-                        waitQueue.addToQueue(waitMonitor);
-                        try {
-                            logFine("Resource Pool: getting on wait queue");
-                            waitMonitor.wait(remainingWaitTime);
-
-                        } catch (InterruptedException ex) {
-                           poolManagerTaskInterrupted(ex);         
-                        }
-
-                        //try to remove in case that the monitor has timed
-                        // out.  We dont expect the queue to grow to great numbers
-                        // so the overhead for removing inexistant objects is low.
-                        if (_logger.isLoggable(Level.FINE)) {
-                            _logger.log(Level.FINE, "removing wait monitor from queue: {0}", waitMonitor);
-                        }
-                        if (waitQueue.removeFromQueue(waitMonitor)) {
-                            if (poolLifeCycleListener != null) {
-                                poolLifeCycleListener.connectionRequestDequeued();
-                            }
-                        }
-                    }
+                    handedOff = waitInQueue(remainingWaitTime, handedOff);
+                    queueBehindWaiters = false;
                 } else {
                     //add to reconfig-wait-queue
                     Object reconfigWaitMonitor = new Object();
@@ -484,6 +516,34 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         return result;
     }
 
+    /**
+     * Waits in the wait queue until a released resource is handed over or the
+     * remaining wait time has expired.
+     *
+     * @param remainingWaitTime time left to wait in ms, 0 to wait indefinitely
+     * @param retry whether the request was handed a resource before but did not get one
+     * @return true if a resource was handed over
+     * @throws PoolingException if interrupted
+     */
+    private boolean waitInQueue(long remainingWaitTime, boolean retry) throws PoolingException {
+        if (poolLifeCycleListener != null) {
+            poolLifeCycleListener.connectionRequestQueued();
+        }
+        long waitStart = System.currentTimeMillis();
+        try {
+            logFine("Resource Pool: getting on wait queue");
+            return waitQueue.await(remainingWaitTime, retry, () -> ds.getFreeListSize() > 0);
+        } catch (InterruptedException ex) {
+            poolManagerTaskInterrupted(ex);
+            return false;
+        } finally {
+            waitTimeHistogram.record(System.currentTimeMillis() - waitStart);
+            if (poolLifeCycleListener != null) {
+                poolLifeCycleListener.connectionRequestDequeued();
+            }
+        }
+    }
+
     private void poolManagerWaitTimeExpired() throws PoolingException {
         // wait time has expired
         if (poolLifeCycleListener != null) {
@@ -668,6 +728,11 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
                 validationPeriod = idletime;
             boolean validationRequired = true;
             long currentTime = h.getLastValidated();
+            if (backgroundValidation && validationPeriod < backgroundValidationIntervalInMillis) {
+                //idle connections are validated in the background, trust them
+                //for the background validation interval
+                validationPeriod = backgroundValidationIntervalInMillis;
+            }
             if (validationPeriod > 0) {
                 currentTime = System.currentTimeMillis();
                 long timeSinceValidation = currentTime - h.getLastValidated();
@@ -1238,23 +1303,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
 
     protected void notifyWaitingThreads() {
         // notify the first thread in the waitqueue
-        Object waitMonitor = null;
-        synchronized (waitQueue) {
-            if (waitQueue.getQueueLength() > 0) {
-                waitMonitor = waitQueue.remove();
-                if(poolLifeCycleListener != null) {
-                    poolLifeCycleListener.connectionRequestDequeued();
-                }
-            }
-        }
-        if (waitMonitor != null) {
-            synchronized (waitMonitor) {
-                if (_logger.isLoggable(Level.FINE)) {
-                    _logger.log(Level.FINE, "Notifying wait monitor : " + waitMonitor.toString());
-                }
-                waitMonitor.notifyAll();
-            }
-        } else {
+        if (!waitQueue.signal()) {
             logFine(" Wait monitor is null");
         }
     }
@@ -1306,6 +1355,11 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         sb.append((matchConnections ? "on" : "off"));
         sb.append(" validation=");
         sb.append((validation ? "on" : "off"));
+        sb.append(" waitTimeP50<=");
+        sb.append(waitTimeHistogram.getPercentile(50));
+        sb.append("ms waitTimeP99<=");
+        sb.append(waitTimeHistogram.getPercentile(99));
+        sb.append("ms");
         return sb.toString();
     }
 
@@ -1482,6 +1536,15 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
 
         validateAtmostPeriodInMilliSeconds_ =
                 Integer.parseInt(poolResource.getValidateAtmostOncePeriod()) * 1000L;
+
+        boolean oldBackgroundValidation = backgroundValidation;
+        long oldBackgroundValidationInterval = backgroundValidationIntervalInMillis;
+        backgroundValidation = poolResource.isBackgroundValidation();
+        backgroundValidationIntervalInMillis = poolResource.getBackgroundValidationInterval() * 1000L;
+        if (poolInitialized && (oldBackgroundValidation != backgroundValidation
+                || oldBackgroundValidationInterval != backgroundValidationIntervalInMillis)) {
+            scheduleBackgroundValidatorTask();
+        }
         boolean connectionLeakReclaim_ = poolResource.isConnectionReclaim();
         long connectionLeakTimeoutInMilliSeconds_ = Integer.parseInt(
                 poolResource.getConnectionLeakTracingTimeout()) * 1000L;
@@ -1556,6 +1619,11 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         }
         resizerTask = null;
 
+        if (backgroundValidatorTask != null) {
+            backgroundValidatorTask.cancel();
+        }
+        backgroundValidatorTask = null;
+
         if (timer != null) {
             timer.purge();
         }
@@ -1570,6 +1638,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         _logger.log(Level.INFO, "Free connections :" + ds.getFreeListSize());
         _logger.log(Level.INFO, "Total connections :" + ds.getResourcesSize());
         _logger.log(Level.INFO, "Pool's matching is :" + matchConnections);
+        _logger.log(Level.INFO, "Wait time histogram :" + waitTimeHistogram);
     }
 
 
@@ -1678,6 +1747,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener,
         int numUsed = (this.poolInitialized) ? ds.getResourcesSize()-ds.getFreeListSize() : 0;
         poolStatus.setNumConnFree(numFree);
         poolStatus.setNumConnUsed(numUsed);
+        poolStatus.setWaitTimeHistogram(waitTimeHistogram);
         return poolStatus;
     }
 }
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.pool;
 
@@ -183,6 +183,12 @@ public class PoolLifeCycleListenerRegistry implements PoolLifeCycleListener {
         }
     }
 
+    public void connectionsValidated(int count, long timeTakenInMillis) {
+        for (PoolLifeCycleListener listener : poolListenersList) {
+            listener.connectionsValidated(count, timeTakenInMillis);
+        }
+    }
+
     public void decrementConnectionUsed(long resourceHandleId) {
         for (PoolLifeCycleListener listener : poolListenersList) {
             listener.decrementConnectionUsed(resourceHandleId);
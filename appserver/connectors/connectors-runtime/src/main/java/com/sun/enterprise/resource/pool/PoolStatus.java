@@ -37,10 +37,12 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.enterprise.resource.pool;
 
 
+import com.sun.enterprise.resource.pool.waitqueue.WaitTimeHistogram;
 import org.glassfish.resourcebase.resources.api.PoolInfo;
 
 /**
@@ -60,6 +62,9 @@ public class PoolStatus {
     //Number of connections in the pool that are being used currently.
     private int numConnUsed;
 
+    //Time connection requests spent in the wait queue
+    private WaitTimeHistogram waitTimeHistogram;
+
     public int getNumConnFree() {
         return numConnFree;
     }
@@ -76,6 +81,14 @@ public class PoolStatus {
         this.numConnUsed = numConnUsed;
     }
 
+    public WaitTimeHistogram getWaitTimeHistogram() {
+        return waitTimeHistogram;
+    }
+
+    public void setWaitTimeHistogram(WaitTimeHistogram waitTimeHistogram) {
+        this.waitTimeHistogram = waitTimeHistogram;
+    }
+
     public PoolInfo getPoolInfo() {
         return poolInfo;
     }
@@ -38,6 +38,8 @@
  * holder.
  */
 
+// Portions Copyright [2026] Payara Foundation and/or affiliates
+
 package com.sun.enterprise.resource.pool.datastructure;
 
 import com.sun.appserv.connectors.internal.api.PoolingException;
@@ -68,6 +70,8 @@ public class DataStructureFactory {
                 ds = new ListDataStructure(parameters, maxPoolSize, handler, strategyClass);
             }else if(className.equals(RWLockDataStructure.class.getName())){
                 ds = new RWLockDataStructure(maxPoolSize, handler);
+            }else if(className.equals(StripedDataStructure.class.getName())){
+                ds = new StripedDataStructure(parameters, maxPoolSize, handler, strategyClass);
             }else{
                 ds = initializeCustomDataStructureInPrivilegedMode(className, parameters, maxPoolSize, handler, strategyClass);
             }
@@ -0,0 +1,301 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.resource.pool.datastructure;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.resource.pool.ResourceHandler;
+import com.sun.logging.LogDomains;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lock-free datastructure for pool. Free resources are spread over a number of stripes, each thread
+ * prefers the stripe it hashes to and steals from the other stripes when its own stripe is empty.
+ * <p>
+ * The number of stripes defaults to the number of available processors rounded up to the next power
+ * of two and can be overridden by passing an integer as the data structure parameters of the pool.
+ * <p>
+ * Every resource has a slot whose state moves between free, busy and removed with compare and set,
+ * so that a resource is handed out, returned or removed exactly once even when these race. Slots of
+ * removed resources that are still queued in a stripe are dropped when they are polled.
+ */
+public class StripedDataStructure implements DataStructure {
+
+    private static final int MAX_STRIPES = 64;
+
+    private final ResourceHandler handler;
+    private volatile int maxSize;
+
+    private final ConcurrentHashMap<ResourceHandle, Slot> allResources;
+    private final ConcurrentLinkedDeque<Slot>[] stripes;
+    private final int stripeMask;
+
+    private final LongAdder freeCount = new LongAdder();
+    private final AtomicInteger remainingCapacity;
+
+    protected static final Logger _logger = LogDomains.getLogger(StripedDataStructure.class, LogDomains.RSR_LOGGER);
+
+    @SuppressWarnings("unchecked")
+    public StripedDataStructure(String parameters, int maxSize, ResourceHandler handler, String strategyClass) {
+        int stripeCount = stripeCount(parameters);
+        this.stripes = new ConcurrentLinkedDeque[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentLinkedDeque<>();
+        }
+        this.stripeMask = stripeCount - 1;
+        this.allResources = new ConcurrentHashMap<>(Math.min(maxSize, 1000));
+        this.maxSize = maxSize;
+        this.handler = handler;
+        this.remainingCapacity = new AtomicInteger(maxSize);
+        if (_logger.isLoggable(Level.FINEST)) {
+            _logger.log(Level.FINEST, "pool.datastructure.stripedds.init", stripeCount);
+        }
+    }
+
+    private static int stripeCount(String parameters) {
+        int requested = Runtime.getRuntime().availableProcessors();
+        if (parameters != null && !parameters.trim().isEmpty()) {
+            try {
+                requested = Integer.parseInt(parameters.trim());
+            } catch (NumberFormatException e) {
+                _logger.log(Level.WARNING, "Ignoring invalid stripe count [{0}] for pool data structure", parameters);
+            }
+        }
+        int count = 1;
+        while (count < requested && count < MAX_STRIPES) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    /**
+     * Spreads the thread id so that threads created one after the other do not share a stripe
+     * just because their ids are consecutive.
+     */
+    private int homeStripe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h & stripeMask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int addResource(ResourceAllocator allocator, int count) throws PoolingException {
+        int reserved = reserveCapacity(count);
+        int numResAdded = 0;
+        try {
+            for (; numResAdded < reserved; numResAdded++) {
+                ResourceHandle handle = handler.createResource(allocator);
+                Slot slot = new Slot(handle);
+                allResources.put(handle, slot);
+                freeCount.increment();
+                stripes[homeStripe()].offerLast(slot);
+            }
+        } catch (Exception e) {
+            remainingCapacity.addAndGet(reserved - numResAdded);
+            throw new PoolingException(e.getMessage(), e);
+        }
+        return numResAdded;
+    }
+
+    /**
+     * Takes up to {@code count} units of the remaining capacity in one go.
+     *
+     * @return the number of resources that may be created
+     */
+    private int reserveCapacity(int count) {
+        while (true) {
+            int capacity = remainingCapacity.get();
+            int granted = Math.min(capacity, count);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (remainingCapacity.compareAndSet(capacity, capacity - granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ResourceHandle getResource() {
+        int home = homeStripe();
+        // most recently returned resource of our own stripe first, it is the one most likely to be warm
+        ResourceHandle resourceHandle = take(stripes[home], true);
+        // otherwise steal the least recently used resource of the other stripes
+        for (int i = 1; resourceHandle == null && i < stripes.length; i++) {
+            resourceHandle = take(stripes[(home + i) & stripeMask], false);
+        }
+        return resourceHandle;
+    }
+
+    private ResourceHandle take(ConcurrentLinkedDeque<Slot> stripe, boolean first) {
+        Slot slot;
+        while ((slot = first ? stripe.pollFirst() : stripe.pollLast()) != null) {
+            // a slot that is not free any more belongs to a removed resource, drop it
+            if (slot.state.compareAndSet(Slot.FREE, Slot.BUSY)) {
+                freeCount.decrement();
+                slot.handle.setBusy(true);
+                return slot.handle;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void removeResource(ResourceHandle resource) {
+        Slot slot = allResources.remove(resource);
+        if (slot != null) {
+            release(slot);
+            handler.deleteResource(resource);
+        }
+    }
+
+    private void release(Slot slot) {
+        if (slot.state.getAndSet(Slot.REMOVED) == Slot.FREE) {
+            freeCount.decrement();
+            removeFromStripes(slot);
+        }
+        remainingCapacity.incrementAndGet();
+    }
+
+    private void removeFromStripes(Slot slot) {
+        for (ConcurrentLinkedDeque<Slot> stripe : stripes) {
+            if (stripe.remove(slot)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void returnResource(ResourceHandle resource) {
+        Slot slot = allResources.get(resource);
+        // nothing to do for a resource that was removed or is not busy
+        if (slot != null && slot.state.compareAndSet(Slot.BUSY, Slot.FREE)) {
+            resource.setBusy(false);
+            freeCount.increment();
+            stripes[homeStripe()].offerFirst(slot);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getFreeListSize() {
+        return Math.max(0, freeCount.intValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void removeAll() {
+        ArrayList<ResourceHandle> removedResources = new ArrayList<>(allResources.size());
+        for (ResourceHandle resourceHandle : allResources.keySet()) {
+            Slot slot = allResources.remove(resourceHandle);
+            if (slot != null) {
+                release(slot);
+                removedResources.add(resourceHandle);
+            }
+        }
+        for (ResourceHandle resourceHandle : removedResources) {
+            handler.deleteResource(resourceHandle);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getResourcesSize() {
+        return allResources.size();
+    }
+
+    /**
+     * Set maxSize based on the new max pool size set on the connection pool
+     * during a reconfiguration.
+     *
+     * @param maxSize
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        int delta = maxSize - this.maxSize;
+        // remaining capacity might be negative after this, but its up to ConnectionPool to remove some of the resources
+        // before asking for new ones
+        remainingCapacity.getAndUpdate(x -> x + delta);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ArrayList<ResourceHandle> getAllResources() {
+        return new ArrayList<>(allResources.keySet());
+    }
+
+    private static final class Slot {
+
+        static final int FREE = 0;
+        static final int BUSY = 1;
+        static final int REMOVED = 2;
+
+        final ResourceHandle handle;
+        final AtomicInteger state = new AtomicInteger(FREE);
+
+        Slot(ResourceHandle handle) {
+            this.handle = handle;
+        }
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.pool.monitor;
 
@@ -248,6 +248,17 @@ public class ConnectionPoolEmitterImpl implements PoolLifeCycleListener {
         poolProbeProvider.connectionsFreedEvent(poolName, appName, moduleName, count);
     }
 
+    /**
+     * Fires probe event related to the fact the given connection pool has
+     * completed a background validation pass.
+     *
+     * @param count number of connections validated
+     * @param timeTakenInMillis time taken by the validation pass
+     */
+    public void connectionsValidated(int count, long timeTakenInMillis) {
+        poolProbeProvider.connectionsValidatedEvent(poolName, appName, moduleName, count, timeTakenInMillis);
+    }
+
     /**
      * Fires probe event related to the fact the given jdbc connection pool has
      * got a decrement connection used event.
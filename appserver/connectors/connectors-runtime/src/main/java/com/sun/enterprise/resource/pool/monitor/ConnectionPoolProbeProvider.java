@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.pool.monitor;
 
@@ -142,6 +142,20 @@ public abstract class ConnectionPoolProbeProvider {
     public void connectionsFreedEvent(String poolName, String appName, String moduleName, int count) {
     }
 
+    /**
+     * Emits probe event/notification that the given connection pool
+     * <code>poolName</code> has completed a background validation pass.
+     *
+     * @param poolName for which the validation pass was run
+     * @param appName application-name in which the pool is defined
+     * @param moduleName module-name in which the pool is defined
+     * @param count number of connections validated
+     * @param timeTakenInMillis time taken by the validation pass
+     */
+    public void connectionsValidatedEvent(String poolName, String appName, String moduleName,
+            int count, long timeTakenInMillis) {
+    }
+
     /**
      * Emits probe event/notification that a connection request is served in the
      * time <code>timeTakenInMillis</code> for the given  connection pool
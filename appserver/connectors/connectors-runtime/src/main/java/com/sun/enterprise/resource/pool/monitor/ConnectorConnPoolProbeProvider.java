@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.pool.monitor;
 
@@ -169,6 +169,23 @@ public class ConnectorConnPoolProbeProvider extends ConnectionPoolProbeProvider
             @ProbeParam("moduleName") String moduleName,
             @ProbeParam("count") int count) { }
 
+    /**
+     * Emits probe event/notification that the given jca connection pool
+     * <code>poolName</code> has completed a background validation pass.
+     *
+     * @param poolName for which the validation pass was run
+     * @param count number of connections validated
+     * @param timeTakenInMillis time taken by the validation pass
+     */
+    @Probe(name="connectionsValidatedEvent")
+    @Override
+    public void connectionsValidatedEvent(
+            @ProbeParam("poolName") String poolName,
+            @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName,
+            @ProbeParam("count") int count,
+            @ProbeParam("timeTakenInMillis") long timeTakenInMillis) { }
+
     /**
      * Emits probe event/notification that a connection request is served in the
      * time <code>timeTakenInMillis</code> for the given jca connection pool
@@ -38,21 +38,24 @@
  * holder.
  *
 */
-// Portions Copyright [2016-2019] [Payara Foundation]
+// Portions Copyright [2016-2026] [Payara Foundation]
 
 package com.sun.enterprise.resource.pool.monitor;
 
 import com.sun.enterprise.connectors.ConnectorRuntime;
 import com.sun.enterprise.resource.pool.PoolLifeCycleListenerRegistry;
 import com.sun.enterprise.resource.pool.PoolStatus;
+import com.sun.enterprise.resource.pool.waitqueue.WaitTimeHistogram;
 import org.glassfish.external.probe.provider.annotations.ProbeListener;
 import org.glassfish.external.probe.provider.annotations.ProbeParam;
 import org.glassfish.external.statistics.CountStatistic;
 import org.glassfish.external.statistics.RangeStatistic;
+import org.glassfish.external.statistics.StringStatistic;
 import org.glassfish.external.statistics.annotations.Reset;
 import org.glassfish.external.statistics.impl.CountStatisticImpl;
 import org.glassfish.external.statistics.impl.RangeStatisticImpl;
 import org.glassfish.external.statistics.impl.StatisticImpl;
+import org.glassfish.external.statistics.impl.StringStatisticImpl;
 import org.glassfish.gmbal.AMXMetadata;
 import org.glassfish.gmbal.Description;
 import org.glassfish.gmbal.ManagedAttribute;
@@ -141,6 +144,20 @@ public class ConnectorConnPoolStatsProvider {
     private CountStatisticImpl waitQueueLength = new CountStatisticImpl(
             "WaitQueueLength", StatisticImpl.UNIT_COUNT,
             "Number of connection requests in the queue waiting to be serviced.");
+    private CountStatisticImpl numConnBackgroundValidated = new CountStatisticImpl(
+            "NumConnBackgroundValidated", StatisticImpl.UNIT_COUNT,
+            "The total number of idle connections validated by background " +
+            "validation from the start time until the last sample time.");
+    private StringStatisticImpl connRequestWaitTimeHistogram = new StringStatisticImpl(
+            "ConnRequestWaitTimeHistogram", "String",
+            "Number of connection requests that waited in the queue, per power of two " +
+            "wait time bucket in milliseconds, since the pool was created.");
+    private RangeStatisticImpl backgroundValidationTime = new RangeStatisticImpl(
+            0, 0, 0,
+            "BackgroundValidationTime", StatisticImpl.UNIT_MILLISECOND,
+            "The longest and shortest times taken by a background validation " +
+            "pass. The current value indicates the time taken by the last pass.",
+            System.currentTimeMillis(), System.currentTimeMillis());
     private static final String JCA_PROBE_LISTENER = "glassfish:jca:connection-pool:";
 
     public ConnectorConnPoolStatsProvider(PoolInfo poolInfo, Logger logger) {
@@ -376,6 +393,29 @@ public class ConnectorConnPoolStatsProvider {
         }
     }
 
+    /**
+     * When a background validation pass completes, add the number of
+     * connections validated and record the time taken by the pass.
+     */
+    @ProbeListener(JCA_PROBE_LISTENER + "connectionsValidatedEvent")
+    public void connectionsValidatedEvent(
+            @ProbeParam("poolName") String poolName,
+            @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName,
+            @ProbeParam("count") int count,
+            @ProbeParam("timeTakenInMillis") long timeTakenInMillis) {
+
+        PoolInfo poolInfo = new PoolInfo(poolName, appName, moduleName);
+        if(this.poolInfo.equals(poolInfo)) {
+            if(logger.isLoggable(Level.FINEST)) {
+                logger.finest("Connections validated event received - " +
+                    "poolName = " + poolName + " count = " + count);
+            }
+            numConnBackgroundValidated.increment(count);
+            backgroundValidationTime.setCurrent(timeTakenInMillis);
+        }
+    }
+
     /**
      * When connection destroyed event is got increment numConnDestroyed.
      */
@@ -483,6 +523,8 @@ public class ConnectorConnPoolStatsProvider {
         averageConnWaitTime.reset();
         totalConnRequestWaitTime.reset();
         waitQueueLength.reset();
+        numConnBackgroundValidated.reset();
+        backgroundValidationTime.reset();
     }
 
     /**
@@ -710,4 +752,24 @@ public class ConnectorConnPoolStatsProvider {
     public CountStatistic getWaitQueueLength() {
         return waitQueueLength;
     }
+
+    @ManagedAttribute(id="numconnbackgroundvalidated")
+    public CountStatistic getNumConnBackgroundValidated() {
+        return numConnBackgroundValidated;
+    }
+
+    @ManagedAttribute(id="backgroundvalidationtime")
+    public RangeStatistic getBackgroundValidationTime() {
+        return backgroundValidationTime;
+    }
+
+    @ManagedAttribute(id="connrequestwaittimehistogram")
+    public StringStatistic getConnRequestWaitTimeHistogram() {
+        PoolStatus status = ConnectorRuntime.getRuntime().getPoolManager().getPoolStatus(poolInfo);
+        WaitTimeHistogram histogram = status == null ? null : status.getWaitTimeHistogram();
+        if (histogram != null) {
+            connRequestWaitTimeHistogram.setCurrent(histogram.toString());
+        }
+        return connRequestWaitTimeHistogram;
+    }
 }
@@ -0,0 +1,298 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.enterprise.resource.pool.resizer;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.resource.listener.PoolLifeCycleListener;
+import com.sun.enterprise.resource.pool.PoolProperties;
+import com.sun.enterprise.resource.pool.ResourceHandler;
+import com.sun.enterprise.resource.pool.datastructure.DataStructure;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Background validator and pre-filler for a connection pool.<br>
+ *
+ * Instead of validating a connection on every borrow, idle free connections that have not
+ * been validated within the validation interval are taken out of the pool in a batch and
+ * validated in parallel on a shared background executor. Valid connections are returned to
+ * the pool, invalid ones are destroyed.<br>
+ *
+ * After each pass the pool is pre-filled ahead of demand: the borrow rate and the physical
+ * connection creation time are tracked as exponentially weighted moving averages, and
+ * enough free connections are kept to cover the requests expected to arrive while a new
+ * connection is being created (borrow rate x creation time).<br>
+ *
+ * The timer thread only selects and hands out work, it never blocks on the database: both
+ * the validation and the pre-fill run on the background executor. Connections are returned
+ * through the pool so that requests waiting for a connection are woken up.
+ */
+public class BackgroundValidator extends Resizer {
+
+    /**
+     * Weight given to the latest sample in the moving averages
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    /**
+     * Shared across pools, validation is I/O bound so threads are cheap and are released when idle
+     */
+    private static final ThreadPoolExecutor VALIDATION_EXECUTOR;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        VALIDATION_EXECUTOR = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), runnable -> {
+                    Thread thread = new Thread(runnable, "connection-pool-validator-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        VALIDATION_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final long validationIntervalInMillis;
+    private final LongSupplier borrowCount;
+    private final Supplier<PoolLifeCycleListener> listener;
+    private final Consumer<ResourceHandle> returnToPool;
+    private final AtomicBoolean passInProgress = new AtomicBoolean();
+
+    private long lastBorrowCount;
+    private long lastRunTime;
+    private double borrowRatePerMilli = -1;
+    private double creationTimeInMillis = -1;
+
+    /**
+     * @param validationIntervalInMillis how long a validated connection is trusted without re-validation
+     * @param borrowCount total number of connections handed out by the pool so far
+     * @param listener supplies the pool's current life cycle listener, may supply null
+     * @param returnToPool puts a free resource taken out of the data structure back and notifies waiting requests
+     */
+    public BackgroundValidator(PoolInfo poolInfo, DataStructure dataStructure, PoolProperties pp,
+            ResourceHandler handler, long validationIntervalInMillis, LongSupplier borrowCount,
+            Supplier<PoolLifeCycleListener> listener, Consumer<ResourceHandle> returnToPool) {
+        super(poolInfo, dataStructure, pp, handler, false);
+        this.validationIntervalInMillis = validationIntervalInMillis;
+        this.borrowCount = borrowCount;
+        this.listener = listener;
+        this.returnToPool = returnToPool;
+        this.lastBorrowCount = borrowCount.getAsLong();
+        this.lastRunTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public void run() {
+        debug("Background validator for pool " + poolInfo);
+        try {
+            // a slow database must not make passes pile up behind each other
+            if (passInProgress.compareAndSet(false, true)) {
+                validateIdleResources();
+            }
+        } catch (Exception ex) {
+            passInProgress.set(false);
+            Object[] params = new Object[]{poolInfo, ex.getMessage()};
+            _logger.log(Level.WARNING, "resource_pool.resize_pool_error", params);
+        }
+    }
+
+    /**
+     * Takes out of the pool the free resources that are due for validation and submits them
+     * for parallel validation. The rest of the free resources are returned to the pool at once.
+     * At most half of the free resources are held for validation so that requests are still served.
+     */
+    protected void validateIdleResources() {
+        long startTime = System.currentTimeMillis();
+        int batchSize = Math.max(1, dataStructure.getFreeListSize() / 2);
+        List<ResourceHandle> toValidate = new ArrayList<>(batchSize);
+        List<ResourceHandle> toReturn = new ArrayList<>();
+        ResourceHandle h;
+        try {
+            while ((h = dataStructure.getResource()) != null) {
+                if (toValidate.size() < batchSize
+                        && startTime - h.getLastValidated() >= validationIntervalInMillis) {
+                    toValidate.add(h);
+                } else {
+                    toReturn.add(h);
+                }
+            }
+        } finally {
+            for (ResourceHandle resourceHandle : toReturn) {
+                returnToPool.accept(resourceHandle);
+            }
+        }
+
+        if (toValidate.isEmpty()) {
+            // the pre-fill opens connections, keep it off the timer thread
+            try {
+                VALIDATION_EXECUTOR.execute(() -> passCompleted(0, startTime));
+            } catch (RejectedExecutionException e) {
+                passInProgress.set(false);
+            }
+            return;
+        }
+
+        CompletableFuture<?>[] validations = new CompletableFuture<?>[toValidate.size()];
+        for (int i = 0; i < validations.length; i++) {
+            ResourceHandle handle = toValidate.get(i);
+            try {
+                validations[i] = CompletableFuture.runAsync(() -> validate(handle), VALIDATION_EXECUTOR);
+            } catch (RuntimeException e) {
+                // the executor refused the task, do not lose the connection
+                returnToPool.accept(handle);
+                validations[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        // async, as the validations may all be complete already and the pre-fill would then run here
+        CompletableFuture.allOf(validations)
+                .whenCompleteAsync((result, failure) -> passCompleted(validations.length, startTime), VALIDATION_EXECUTOR)
+                .exceptionally(failure -> {
+                    passInProgress.set(false);
+                    return null;
+                });
+    }
+
+    /**
+     * Validates a single resource, returning it to the pool if valid and destroying it otherwise.
+     */
+    private void validate(ResourceHandle h) {
+        boolean valid = false;
+        try {
+            ResourceAllocator alloc = h.getResourceAllocator();
+            valid = alloc.isConnectionValid(h);
+        } catch (Exception e) {
+            if (_logger.isLoggable(Level.FINE)) {
+                _logger.log(Level.FINE, "Exception while validating connection " + h + " of pool " + poolInfo, e);
+            }
+        }
+        if (valid) {
+            h.setLastValidated(System.currentTimeMillis());
+            returnToPool.accept(h);
+        } else {
+            dataStructure.removeResource(h);
+            handler.invalidConnectionDetected(h);
+        }
+    }
+
+    private void passCompleted(int validated, long startTime) {
+        try {
+            long timeTaken = System.currentTimeMillis() - startTime;
+            if (validated > 0) {
+                debug("Validated " + validated + " idle resources of pool [ " + poolInfo + " ] in " + timeTaken + " ms");
+                PoolLifeCycleListener poolLifeCycleListener = listener.get();
+                if (poolLifeCycleListener != null) {
+                    poolLifeCycleListener.connectionsValidated(validated, timeTaken);
+                }
+            }
+            preFillPool();
+        } catch (Exception ex) {
+            Object[] params = new Object[]{poolInfo, ex.getMessage()};
+            _logger.log(Level.WARNING, "resource_pool.resize_pool_error", params);
+        } finally {
+            passInProgress.set(false);
+        }
+    }
+
+    /**
+     * Creates free resources ahead of demand so that the expected number of requests arriving
+     * while a connection is being created can be served without waiting (Little's law).
+     * Never goes beyond the maximum pool size.
+     */
+    protected void preFillPool() {
+        long now = System.currentTimeMillis();
+        long borrowed = borrowCount.getAsLong();
+        long elapsed = now - lastRunTime;
+        if (elapsed > 0) {
+            double rate = (double) (borrowed - lastBorrowCount) / elapsed;
+            borrowRatePerMilli = borrowRatePerMilli < 0 ? rate : ewma(borrowRatePerMilli, rate);
+            lastBorrowCount = borrowed;
+            lastRunTime = now;
+        }
+
+        if (borrowRatePerMilli <= 0 || pool.getWaitQueueLength() > 0) {
+            // idle pool, or requests are already waiting and will trigger creation themselves
+            return;
+        }
+
+        int headroom;
+        if (creationTimeInMillis < 0) {
+            // no creation time sampled yet, create a single connection to get one
+            headroom = 1;
+        } else {
+            headroom = (int) Math.ceil(borrowRatePerMilli * creationTimeInMillis);
+        }
+        int toCreate = Math.min(headroom - dataStructure.getFreeListSize(),
+                pool.getMaxPoolSize() - dataStructure.getResourcesSize());
+        for (int i = 0; i < toCreate; i++) {
+            long start = System.nanoTime();
+            try {
+                handler.createResourceAndAddToPool();
+            } catch (PoolingException ex) {
+                Object[] params = new Object[]{poolInfo, ex.getMessage()};
+                _logger.log(Level.WARNING, "resource_pool.resize_pool_error", params);
+                return;
+            }
+            double sample = (System.nanoTime() - start) / 1_000_000d;
+            creationTimeInMillis = creationTimeInMillis < 0 ? sample : ewma(creationTimeInMillis, sample);
+        }
+        if (toCreate > 0) {
+            debug("Pre-filled pool [ " + poolInfo + " ] with " + toCreate + " resources");
+        }
+    }
+
+    private static double ewma(double average, double sample) {
+        return average + EWMA_ALPHA * (sample - average);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.enterprise.resource.pool.waitqueue;
+
+import com.sun.logging.LogDomains;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fair wait queue with direct hand-off for the connection pool.<br>
+ *
+ * Waiting threads are parked in FIFO order. When a resource is returned to the pool,
+ * {@link #signal()} hands the turn to the oldest waiter that can still be served within
+ * its max-wait deadline, so exactly one thread is woken per returned resource and
+ * newly arriving requests do not overtake threads that have been waiting longer.
+ * Waiters whose deadline has already passed are woken to fail fast instead of being
+ * handed a resource they can no longer use.<br>
+ *
+ * A waiter that is signalled and times out at the same moment never loses the signal:
+ * whichever happens first wins and a signal arriving too late is passed on to the next waiter.
+ *
+ * @see PoolWaitQueue#FAIR_HANDOFF_WAIT_QUEUE
+ */
+public class FairHandoffPoolWaitQueue implements PoolWaitQueue {
+
+    private static final int WAITING = 0;
+    private static final int SIGNALLED = 1;
+    private static final int CANCELLED = 2;
+
+    protected final static Logger _logger = LogDomains.getLogger(FairHandoffPoolWaitQueue.class, LogDomains.RSR_LOGGER);
+
+    private final ConcurrentLinkedDeque<Object> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger length = new AtomicInteger();
+
+    public FairHandoffPoolWaitQueue() {
+        debug("Initializing fair hand-off Pool Wait Queue");
+    }
+
+    /**
+     * A thread waiting for a resource
+     */
+    static final class Waiter {
+        private final Thread thread = Thread.currentThread();
+        private final long enqueueTime = System.nanoTime();
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Waiter(long maxWaitInMillis) {
+            deadline = maxWaitInMillis > 0 ? enqueueTime + TimeUnit.MILLISECONDS.toNanos(maxWaitInMillis) : 0;
+        }
+
+        private boolean hasDeadline() {
+            return deadline != 0;
+        }
+
+        private boolean isExpired(long now) {
+            return hasDeadline() && now - deadline >= 0;
+        }
+    }
+
+    @Override
+    public boolean isFair() {
+        return true;
+    }
+
+    /**
+     * Queues the calling thread behind the requests already waiting, or at the head of the queue
+     * when retrying, and parks it until it is handed a turn or its deadline passes.
+     */
+    @Override
+    public boolean await(long maxWaitInMillis, boolean retry, BooleanSupplier resourceAvailable)
+            throws InterruptedException {
+        Waiter waiter = enqueue(maxWaitInMillis, retry);
+        if (resourceAvailable.getAsBoolean()) {
+            // a resource was released before this request was queued
+            signal();
+        }
+        return await(waiter);
+    }
+
+    /**
+     * Adds the calling thread to the queue.
+     *
+     * @param maxWaitInMillis time the thread is prepared to wait, 0 to wait indefinitely
+     * @param retry true if the thread was signalled before but could not get a resource,
+     * it then keeps its place at the head of the queue
+     * @return the waiter to pass to {@link #await(Waiter)}
+     */
+    Waiter enqueue(long maxWaitInMillis, boolean retry) {
+        Waiter waiter = new Waiter(maxWaitInMillis);
+        if (retry) {
+            queue.addFirst(waiter);
+        } else {
+            queue.addLast(waiter);
+        }
+        length.incrementAndGet();
+        return waiter;
+    }
+
+    /**
+     * Parks the calling thread until it is handed a turn or its deadline passes.
+     *
+     * @param waiter as returned by {@link #enqueue(long, boolean)} on the calling thread
+     * @return true if a resource was handed over, false if the deadline has passed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    boolean await(Waiter waiter) throws InterruptedException {
+        while (waiter.state.get() == WAITING) {
+            if (Thread.interrupted()) {
+                if (cancel(waiter)) {
+                    throw new InterruptedException();
+                }
+                // signalled concurrently, take the turn and let the caller see the interrupt
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (waiter.hasDeadline()) {
+                long remaining = waiter.deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    if (cancel(waiter)) {
+                        return false;
+                    }
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        return waiter.state.get() == SIGNALLED;
+    }
+
+    /**
+     * Hands the turn to the oldest waiter that can still be served in time.
+     * Waiters that have passed their deadline are woken so that they fail fast.
+     *
+     * @return true if a waiter was handed the turn
+     */
+    @Override
+    public boolean signal() {
+        Object o;
+        while ((o = queue.pollFirst()) != null) {
+            if (!(o instanceof Waiter)) {
+                // plain wait monitor added through addToQueue
+                length.decrementAndGet();
+                synchronized (o) {
+                    o.notifyAll();
+                }
+                return true;
+            }
+            Waiter waiter = (Waiter) o;
+            if (waiter.isExpired(System.nanoTime())) {
+                if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+                    length.decrementAndGet();
+                    LockSupport.unpark(waiter.thread);
+                }
+                continue;
+            }
+            if (waiter.state.compareAndSet(WAITING, SIGNALLED)) {
+                length.decrementAndGet();
+                LockSupport.unpark(waiter.thread);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if this call cancelled the waiter, false if it had been signalled already
+     */
+    private boolean cancel(Waiter waiter) {
+        // the thread winning the state change accounts for the queue length
+        if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+            length.decrementAndGet();
+            queue.removeFirstOccurrence(waiter);
+            return true;
+        }
+        return waiter.state.get() == CANCELLED;
+    }
+
+    @Override
+    public int getQueueLength() {
+        return length.get();
+    }
+
+    @Override
+    public void addToQueue(Object o) {
+        queue.addLast(o);
+        length.incrementAndGet();
+    }
+
+    @Override
+    public boolean removeFromQueue(Object o) {
+        if (o instanceof Waiter) {
+            return cancel((Waiter) o);
+        }
+        if (queue.removeFirstOccurrence(o)) {
+            length.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Object remove() {
+        Object o;
+        while ((o = queue.pollFirst()) != null) {
+            if (!(o instanceof Waiter)) {
+                length.decrementAndGet();
+                return o;
+            }
+            Waiter waiter = (Waiter) o;
+            if (waiter.state.compareAndSet(WAITING, SIGNALLED)) {
+                length.decrementAndGet();
+                LockSupport.unpark(waiter.thread);
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object peek() {
+        return queue.peekFirst();
+    }
+
+    @Override
+    public Collection getQueueContents() {
+        Collection<Object> contents = new ArrayList<>();
+        Iterator<Object> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Object o = iterator.next();
+            if (!(o instanceof Waiter) || ((Waiter) o).state.get() == WAITING) {
+                contents.add(o);
+            }
+        }
+        return contents;
+    }
+
+    protected void debug(String debugStatement) {
+        if (_logger.isLoggable(Level.FINE)) {
+            _logger.log(Level.FINE, debugStatement);
+        }
+    }
+}
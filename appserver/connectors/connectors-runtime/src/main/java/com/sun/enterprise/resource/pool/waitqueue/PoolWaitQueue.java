@@ -37,10 +37,12 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.pool.waitqueue;
 
 import java.util.Collection;
+import java.util.function.BooleanSupplier;
 
 /**
  * Represents the pool wait queue<br>
@@ -51,6 +53,7 @@ import java.util.Collection;
 public interface PoolWaitQueue {
     String DEFAULT_WAIT_QUEUE = "DEFAULT_WAIT_QUEUE";
     String THREAD_PRIORITY_BASED_WAIT_QUEUE = "THREAD_PRIORITY_BASED_WAIT_QUEUE";
+    String FAIR_HANDOFF_WAIT_QUEUE = "FAIR_HANDOFF_WAIT_QUEUE";
 
     /**
      * returns the length of wait queue
@@ -98,4 +101,63 @@ public interface PoolWaitQueue {
      * @return Collection
      */
     Collection getQueueContents();
+
+    /**
+     * Whether a new resource request has to queue behind the requests that are already waiting
+     * instead of trying to get a free resource straight away.
+     * @return true if the queue serves requests strictly in arrival order
+     */
+    default boolean isFair() {
+        return false;
+    }
+
+    /**
+     * Makes the calling thread wait in the queue until it is woken by {@link #signal()} or the
+     * wait time expires.<br>
+     * The default implementation waits on a monitor added through {@link #addToQueue(Object)},
+     * in no particular order with respect to retries.
+     *
+     * @param maxWaitInMillis time to wait, 0 to wait indefinitely
+     * @param retry true if the request was woken before but could not get a resource
+     * @param resourceAvailable may be checked once the request is queued, so that a resource released
+     * just before is not missed
+     * @return true if the request was woken to take a released resource, false if it stopped waiting
+     * without being woken, e.g. because the wait time expired
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    default boolean await(long maxWaitInMillis, boolean retry, BooleanSupplier resourceAvailable)
+            throws InterruptedException {
+        Object waitMonitor = new Object();
+        synchronized (waitMonitor) {
+            addToQueue(waitMonitor);
+            try {
+                waitMonitor.wait(maxWaitInMillis);
+            } catch (InterruptedException e) {
+                removeFromQueue(waitMonitor);
+                throw e;
+            }
+            // still queued means nobody woke the request up
+            return !removeFromQueue(waitMonitor);
+        }
+    }
+
+    /**
+     * Wakes up the request that is next in line for a released resource.
+     * @return true if a waiting request was woken
+     */
+    default boolean signal() {
+        Object waitMonitor = null;
+        synchronized (this) {
+            if (getQueueLength() > 0) {
+                waitMonitor = remove();
+            }
+        }
+        if (waitMonitor == null) {
+            return false;
+        }
+        synchronized (waitMonitor) {
+            waitMonitor.notifyAll();
+        }
+        return true;
+    }
 }
@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.resource.pool.waitqueue;
 
@@ -60,7 +61,11 @@ public class PoolWaitQueueFactory {
     public static PoolWaitQueue createPoolWaitQueue(String className) throws PoolingException {
         PoolWaitQueue waitQueue;
 
-        if (className != null) {
+        if (PoolWaitQueue.FAIR_HANDOFF_WAIT_QUEUE.equals(className)
+                || FairHandoffPoolWaitQueue.class.getName().equals(className)) {
+            waitQueue = new FairHandoffPoolWaitQueue();
+            debug("Initializing Fair Hand-off Pool Wait Queue");
+        } else if (className != null) {
             waitQueue = initializeCustomWaitQueueInPrivilegedMode(className);
         } else {
             waitQueue = new DefaultPoolWaitQueue();
@@ -0,0 +1,138 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.resource.pool.waitqueue;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Power-of-two histogram of the time connection requests spend waiting, in milliseconds.<br>
+ *
+ * Bucket i counts waits shorter than 2^i ms (and at least 2^(i-1) ms), the last bucket
+ * counts everything longer. Recording is lock free.
+ */
+public class WaitTimeHistogram {
+
+    static final int BUCKETS = 16;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    public WaitTimeHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single wait.
+     *
+     * @param waitTimeInMillis time waited, negative values are counted as 0
+     */
+    public void record(long waitTimeInMillis) {
+        int bucket = 64 - Long.numberOfLeadingZeros(Math.max(0, waitTimeInMillis));
+        buckets[Math.min(bucket, BUCKETS - 1)].increment();
+    }
+
+    /**
+     * @return number of waits per bucket
+     */
+    public long[] getCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the upper bound, in milliseconds, of the bucket holding the given percentile of waits.
+     *
+     * @param percentile between 0 and 100
+     * @return upper bound of the wait time in ms, 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = getCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    /**
+     * @return the non-empty buckets as {@code <upper bound>ms=<count>}, the last one as {@code >=<lower bound>ms}
+     */
+    @Override
+    public String toString() {
+        long[] counts = getCounts();
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            if (i == BUCKETS - 1) {
+                sb.append(">=").append(1L << (i - 1)).append("ms=");
+            } else {
+                sb.append('<').append(1L << i).append("ms=");
+            }
+            sb.append(counts[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.resource.pool.datastructure;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.resource.pool.ResourceHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StripedDataStructureTest {
+
+    private static final int THREADS = 8;
+
+    private CountingHandler handler;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        handler = new CountingHandler();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void addResourceStopsAtMaxSize() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("4", 5, handler, null);
+        assertEquals(3, ds.addResource(null, 3));
+        assertEquals(2, ds.addResource(null, 3));
+        assertEquals(0, ds.addResource(null, 1));
+        assertEquals(5, ds.getResourcesSize());
+        assertEquals(5, ds.getFreeListSize());
+    }
+
+    @Test
+    public void failedCreationReleasesReservedCapacity() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("4", 5, handler, null);
+        handler.failAfter.set(2);
+        try {
+            ds.addResource(null, 5);
+        } catch (PoolingException expected) {
+            // the third resource failed
+        }
+        handler.failAfter.set(Integer.MAX_VALUE);
+        assertEquals(2, ds.getResourcesSize());
+        assertEquals(3, ds.addResource(null, 5));
+    }
+
+    @Test
+    public void returnedResourceIsHandedOutAgain() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("1", 1, handler, null);
+        ds.addResource(null, 1);
+        ResourceHandle handle = ds.getResource();
+        assertNotNull(handle);
+        assertTrue(handle.isBusy());
+        assertNull(ds.getResource());
+        ds.returnResource(handle);
+        assertFalse(handle.isBusy());
+        assertSame(handle, ds.getResource());
+    }
+
+    @Test
+    public void removedResourceIsNotReturnedToTheFreeList() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("2", 2, handler, null);
+        ds.addResource(null, 1);
+        ResourceHandle handle = ds.getResource();
+        ds.removeResource(handle);
+        ds.returnResource(handle);
+        assertEquals(0, ds.getFreeListSize());
+        assertEquals(0, ds.getResourcesSize());
+        assertNull(ds.getResource());
+        assertEquals(1, handler.deleted.get());
+    }
+
+    @Test
+    public void freeResourceRemovedIsNotHandedOut() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("2", 2, handler, null);
+        ds.addResource(null, 1);
+        ds.removeResource(ds.getAllResources().get(0));
+        assertNull(ds.getResource());
+        assertEquals(0, ds.getFreeListSize());
+    }
+
+    @Test
+    public void doubleReturnDoesNotDuplicateResource() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("1", 1, handler, null);
+        ds.addResource(null, 1);
+        ResourceHandle handle = ds.getResource();
+        ds.returnResource(handle);
+        ds.returnResource(handle);
+        assertEquals(1, ds.getFreeListSize());
+        assertSame(handle, ds.getResource());
+        assertNull(ds.getResource());
+    }
+
+    @Test
+    public void resourcesAreStolenFromOtherStripes() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("8", 4, handler, null);
+        // all resources land in the stripe of this thread
+        ds.addResource(null, 4);
+        List<Future<ResourceHandle>> taken = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            taken.add(executor.submit(ds::getResource));
+        }
+        Set<ResourceHandle> distinct = ConcurrentHashMap.newKeySet();
+        for (Future<ResourceHandle> future : taken) {
+            ResourceHandle handle = future.get(10, TimeUnit.SECONDS);
+            assertNotNull(handle);
+            distinct.add(handle);
+        }
+        assertEquals(4, distinct.size());
+        assertEquals(0, ds.getFreeListSize());
+    }
+
+    @Test
+    public void concurrentBorrowersNeverShareAResource() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("4", 4, handler, null);
+        ds.addResource(null, 4);
+        Set<ResourceHandle> inUse = ConcurrentHashMap.newKeySet();
+        AtomicInteger shared = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                ResourceHandle handle = ds.getResource();
+                if (handle == null) {
+                    continue;
+                }
+                if (!inUse.add(handle)) {
+                    shared.incrementAndGet();
+                }
+                inUse.remove(handle);
+                ds.returnResource(handle);
+            }
+        });
+        assertEquals(0, shared.get());
+        assertEquals(4, ds.getResourcesSize());
+        assertEquals(4, ds.getFreeListSize());
+    }
+
+    @Test
+    public void concurrentRemovalNeverHandsOutRemovedResources() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("4", 64, handler, null);
+        AtomicInteger removedHandedOut = new AtomicInteger();
+        Set<ResourceHandle> removed = ConcurrentHashMap.newKeySet();
+        ds.addResource(null, 64);
+        runConcurrently(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                ResourceHandle handle = ds.getResource();
+                if (handle == null) {
+                    ds.addResource(null, 1);
+                    continue;
+                }
+                if (removed.contains(handle)) {
+                    removedHandedOut.incrementAndGet();
+                }
+                if (i % 3 == 0) {
+                    removed.add(handle);
+                    ds.removeResource(handle);
+                }
+                // returning a removed resource must be a no-op
+                ds.returnResource(handle);
+            }
+        });
+        assertEquals(0, removedHandedOut.get());
+        for (ResourceHandle handle : ds.getAllResources()) {
+            assertFalse(removed.contains(handle));
+        }
+        assertEquals(ds.getResourcesSize(), ds.getFreeListSize());
+        assertEquals(handler.created.get() - ds.getResourcesSize(), handler.deleted.get());
+    }
+
+    @Test
+    public void removeAllWhileBorrowingLeavesNothingBehind() throws Exception {
+        StripedDataStructure ds = new StripedDataStructure("4", 32, handler, null);
+        ds.addResource(null, 32);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> borrower = executor.submit(() -> {
+            started.countDown();
+            for (int i = 0; i < 50_000; i++) {
+                ResourceHandle handle = ds.getResource();
+                if (handle != null) {
+                    ds.returnResource(handle);
+                }
+            }
+        });
+        started.await();
+        ds.removeAll();
+        borrower.get(30, TimeUnit.SECONDS);
+        assertEquals(0, ds.getResourcesSize());
+        assertEquals(0, ds.getFreeListSize());
+        assertNull(ds.getResource());
+        assertEquals(32, handler.deleted.get());
+        assertEquals(32, ds.addResource(null, 32));
+    }
+
+    private void runConcurrently(ThrowingRunnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private static class CountingHandler implements ResourceHandler {
+
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger deleted = new AtomicInteger();
+        final AtomicInteger failAfter = new AtomicInteger(Integer.MAX_VALUE);
+
+        @Override
+        public void deleteResource(ResourceHandle resourceHandle) {
+            deleted.incrementAndGet();
+        }
+
+        @Override
+        public ResourceHandle createResource(ResourceAllocator allocator) throws PoolingException {
+            if (created.get() >= failAfter.get()) {
+                throw new PoolingException("creation failed");
+            }
+            created.incrementAndGet();
+            return new ResourceHandle(null, null, null, null);
+        }
+
+        @Override
+        public void createResourceAndAddToPool() {
+        }
+
+        @Override
+        public Set getInvalidConnections(Set connections) {
+            return connections;
+        }
+
+        @Override
+        public void invalidConnectionDetected(ResourceHandle h) {
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.resource.pool.resizer;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.resource.pool.PoolProperties;
+import com.sun.enterprise.resource.pool.ResourceHandler;
+import com.sun.enterprise.resource.pool.datastructure.StripedDataStructure;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BackgroundValidatorTest {
+
+    private static final int MAX_POOL_SIZE = 8;
+    private static final long INTERVAL = 60_000;
+
+    private final Set<ResourceHandle> invalid = ConcurrentHashMap.newKeySet();
+    private final List<String> validatingThreads = new CopyOnWriteArrayList<>();
+    private final ResourceAllocator allocator = (ResourceAllocator) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {ResourceAllocator.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("isConnectionValid")) {
+                    validatingThreads.add(Thread.currentThread().getName());
+                    return !invalid.contains(args[0]);
+                }
+                return null;
+            });
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final List<ResourceHandle> returned = new CopyOnWriteArrayList<>();
+    private final TestHandler handler = new TestHandler();
+    private StripedDataStructure dataStructure;
+    private CountDownLatch returns;
+
+    @Before
+    public void setUp() {
+        dataStructure = new StripedDataStructure("1", MAX_POOL_SIZE, handler, null);
+    }
+
+    private BackgroundValidator validator(int expectedReturns) {
+        returns = new CountDownLatch(expectedReturns);
+        return new BackgroundValidator(new PoolInfo("test-pool"), dataStructure, new TestPoolProperties(), handler,
+                INTERVAL, borrowCount::get, () -> null, h -> {
+                    dataStructure.returnResource(h);
+                    returned.add(h);
+                    returns.countDown();
+                });
+    }
+
+    private void addResources(int count, long lastValidated) throws PoolingException {
+        dataStructure.addResource(allocator, count);
+        for (ResourceHandle h : dataStructure.getAllResources()) {
+            h.setLastValidated(lastValidated);
+        }
+    }
+
+    @Test
+    public void validatesAtMostHalfOfTheFreeResources() throws Exception {
+        addResources(4, 0);
+        // 2 are validated, 2 are put back at once
+        validator(4).run();
+        assertTrue(returns.await(10, TimeUnit.SECONDS));
+        assertEquals(2, validatingThreads.size());
+        assertEquals(4, dataStructure.getFreeListSize());
+    }
+
+    @Test
+    public void validResourcesAreReturnedThroughThePool() throws Exception {
+        addResources(2, 0);
+        validator(2).run();
+        assertTrue(returns.await(10, TimeUnit.SECONDS));
+        int validated = 0;
+        for (ResourceHandle h : returned) {
+            if (h.getLastValidated() > 0) {
+                validated++;
+            }
+        }
+        assertEquals(1, validated);
+    }
+
+    @Test
+    public void invalidResourcesAreRemoved() throws Exception {
+        addResources(2, 0);
+        invalid.addAll(dataStructure.getAllResources());
+        // one is validated and removed, the other one goes back without validation
+        validator(1).run();
+        assertTrue(returns.await(10, TimeUnit.SECONDS));
+        assertTrue(handler.invalidDetected.await(10, TimeUnit.SECONDS));
+        assertEquals(1, dataStructure.getResourcesSize());
+    }
+
+    @Test
+    public void validationRunsOffTheTimerThread() throws Exception {
+        addResources(2, 0);
+        validator(2).run();
+        assertTrue(returns.await(10, TimeUnit.SECONDS));
+        for (String thread : validatingThreads) {
+            assertTrue(thread, thread.startsWith("connection-pool-validator-"));
+        }
+    }
+
+    @Test
+    public void preFillRunsOffTheTimerThreadWhenNothingNeedsValidation() throws Exception {
+        BackgroundValidator validator = validator(0);
+        borrowCount.set(1000);
+        Thread.sleep(5);
+        validator.run();
+        assertTrue(handler.created.await(10, TimeUnit.SECONDS));
+        assertFalse(handler.creatingThread.equals(Thread.currentThread().getName()));
+        assertTrue(handler.creatingThread, handler.creatingThread.startsWith("connection-pool-validator-"));
+        assertEquals(1, dataStructure.getResourcesSize());
+    }
+
+    @Test
+    public void preFillNeverExceedsMaxPoolSize() throws Exception {
+        addResources(MAX_POOL_SIZE, System.currentTimeMillis());
+        BackgroundValidator validator = validator(MAX_POOL_SIZE);
+        borrowCount.set(1_000_000);
+        Thread.sleep(5);
+        validator.run();
+        assertTrue(returns.await(10, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(0, handler.createCalls.get());
+        assertEquals(MAX_POOL_SIZE, dataStructure.getResourcesSize());
+    }
+
+    private class TestHandler implements ResourceHandler {
+
+        final CountDownLatch created = new CountDownLatch(1);
+        final CountDownLatch invalidDetected = new CountDownLatch(1);
+        final AtomicInteger createCalls = new AtomicInteger();
+        volatile String creatingThread;
+
+        @Override
+        public void deleteResource(ResourceHandle resourceHandle) {
+        }
+
+        @Override
+        public ResourceHandle createResource(ResourceAllocator alloc) {
+            return new ResourceHandle(null, null, alloc, null);
+        }
+
+        @Override
+        public void createResourceAndAddToPool() throws PoolingException {
+            createCalls.incrementAndGet();
+            creatingThread = Thread.currentThread().getName();
+            dataStructure.addResource(allocator, 1);
+            created.countDown();
+        }
+
+        @Override
+        public Set getInvalidConnections(Set connections) {
+            return connections;
+        }
+
+        @Override
+        public void invalidConnectionDetected(ResourceHandle h) {
+            invalidDetected.countDown();
+        }
+    }
+
+    private static class TestPoolProperties implements PoolProperties {
+
+        @Override
+        public int getSteadyPoolSize() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return MAX_POOL_SIZE;
+        }
+
+        @Override
+        public int getResizeQuantity() {
+            return 1;
+        }
+
+        @Override
+        public long getIdleTimeout() {
+            return 0;
+        }
+
+        @Override
+        public int getWaitQueueLength() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.resource.pool.waitqueue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PoolWaitQueueTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Future<Boolean> await(PoolWaitQueue queue, long maxWait, boolean retry) throws InterruptedException {
+        int queued = queue.getQueueLength();
+        Future<Boolean> result = executor.submit(() -> queue.await(maxWait, retry, () -> false));
+        waitFor(() -> queue.getQueueLength() == queued + 1);
+        return result;
+    }
+
+    private static void waitFor(Callable<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        try {
+            while (!condition.call()) {
+                if (System.currentTimeMillis() > deadline) {
+                    fail("condition not met in time");
+                }
+                Thread.sleep(1);
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void assertStillWaiting(Future<Boolean> waiter) throws Exception {
+        try {
+            waiter.get(50, TimeUnit.MILLISECONDS);
+            fail("waiter should still be waiting");
+        } catch (TimeoutException expected) {
+        }
+    }
+
+    @Test
+    public void fairQueueWakesWaitersInArrivalOrder() throws Exception {
+        PoolWaitQueue queue = new FairHandoffPoolWaitQueue();
+        assertTrue(queue.isFair());
+        Future<Boolean> first = await(queue, 0, false);
+        Future<Boolean> second = await(queue, 0, false);
+
+        assertTrue(queue.signal());
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertStillWaiting(second);
+        assertEquals(1, queue.getQueueLength());
+
+        assertTrue(queue.signal());
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+        assertEquals(0, queue.getQueueLength());
+        assertFalse(queue.signal());
+    }
+
+    @Test
+    public void fairQueueKeepsRetryingWaiterAtTheHead() throws Exception {
+        PoolWaitQueue queue = new FairHandoffPoolWaitQueue();
+        Future<Boolean> waiting = await(queue, 0, false);
+        Future<Boolean> retrying = await(queue, 0, true);
+
+        assertTrue(queue.signal());
+        assertTrue(retrying.get(10, TimeUnit.SECONDS));
+        assertStillWaiting(waiting);
+
+        assertTrue(queue.signal());
+        assertTrue(waiting.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void fairQueueWaiterTimesOut() throws Exception {
+        PoolWaitQueue queue = new FairHandoffPoolWaitQueue();
+        assertFalse(queue.await(20, false, () -> false));
+        assertEquals(0, queue.getQueueLength());
+        assertFalse(queue.signal());
+    }
+
+    @Test
+    public void fairQueueSkipsExpiredWaiters() throws Exception {
+        PoolWaitQueue queue = new FairHandoffPoolWaitQueue();
+        Future<Boolean> expiring = await(queue, 20, false);
+        Future<Boolean> waiting = await(queue, 0, false);
+        assertFalse(expiring.get(10, TimeUnit.SECONDS));
+
+        assertTrue(queue.signal());
+        assertTrue(waiting.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void fairQueueDoesNotMissResourceReleasedBeforeQueueing() throws Exception {
+        PoolWaitQueue queue = new FairHandoffPoolWaitQueue();
+        assertTrue(queue.await(0, false, () -> true));
+        assertEquals(0, queue.getQueueLength());
+    }
+
+    @Test
+    public void fairQueueInterruptedWaiterLeavesTheQueue() throws Exception {
+        PoolWaitQueue queue = new FairHandoffPoolWaitQueue();
+        Thread.currentThread().interrupt();
+        try {
+            queue.await(0, false, () -> false);
+            fail("expected InterruptedException");
+        } catch (InterruptedException expected) {
+        }
+        assertEquals(0, queue.getQueueLength());
+    }
+
+    @Test
+    public void defaultQueueSignalWakesWaiter() throws Exception {
+        PoolWaitQueue queue = new DefaultPoolWaitQueue();
+        assertFalse(queue.isFair());
+        Future<Boolean> waiter = await(queue, 0, false);
+
+        assertTrue(queue.signal());
+        assertTrue(waiter.get(10, TimeUnit.SECONDS));
+        assertEquals(0, queue.getQueueLength());
+        assertFalse(queue.signal());
+    }
+
+    @Test
+    public void defaultQueueWaiterTimesOut() throws Exception {
+        PoolWaitQueue queue = new DefaultPoolWaitQueue();
+        assertFalse(queue.await(20, false, () -> false));
+        assertEquals(0, queue.getQueueLength());
+    }
+
+    @Test
+    public void defaultQueueInterruptedWaiterLeavesTheQueue() throws Exception {
+        PoolWaitQueue queue = new DefaultPoolWaitQueue();
+        Thread.currentThread().interrupt();
+        try {
+            queue.await(0, false, () -> false);
+            fail("expected InterruptedException");
+        } catch (InterruptedException expected) {
+        }
+        assertEquals(0, queue.getQueueLength());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.resource.pool.waitqueue;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WaitTimeHistogramTest {
+
+    @Test
+    public void waitsArePlacedInPowerOfTwoBuckets() {
+        WaitTimeHistogram histogram = new WaitTimeHistogram();
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(3);
+        histogram.record(4);
+        histogram.record(Long.MAX_VALUE);
+
+        long[] counts = histogram.getCounts();
+        assertEquals(WaitTimeHistogram.BUCKETS, counts.length);
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, counts[2]);
+        assertEquals(1, counts[3]);
+        assertEquals(1, counts[WaitTimeHistogram.BUCKETS - 1]);
+    }
+
+    @Test
+    public void percentileIsUpperBoundOfBucket() {
+        WaitTimeHistogram histogram = new WaitTimeHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(0);
+        }
+        histogram.record(100);
+
+        assertEquals(1, histogram.getPercentile(50));
+        assertEquals(1, histogram.getPercentile(99));
+        assertEquals(128, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void toStringListsNonEmptyBuckets() {
+        WaitTimeHistogram histogram = new WaitTimeHistogram();
+        assertEquals("[]", histogram.toString());
+        histogram.record(0);
+        histogram.record(5);
+        histogram.record(5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals("[<1ms=1, <8ms=2, >=16384ms=1]", histogram.toString());
+    }
+
+    @Test
+    public void resetClearsAllBuckets() {
+        WaitTimeHistogram histogram = new WaitTimeHistogram();
+        histogram.record(10);
+        histogram.reset();
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals("[]", histogram.toString());
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2017-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2017-2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.ejb.config;
 
@@ -431,7 +431,13 @@ public interface EjbContainer extends ConfigBeanProxy, PropertyBag, ConfigExtens
         @PropertyDesc(name = "thread-keep-alive-seconds"),
         @PropertyDesc(name = "thread-queue-capacity"),
         @PropertyDesc(name = "allow-core-thread-timeout"),
-        @PropertyDesc(name = "prestart-all-core-threads")
+        @PropertyDesc(name = "prestart-all-core-threads"),
+        @PropertyDesc(name = "bean-pool-type",
+        defaultValue = "default",
+        values = {"default", "striped"}),
+        @PropertyDesc(name = "singleton-lock-type",
+        defaultValue = "fair",
+        values = {"fair", "nonfair", "stamped", "striped"})
     })
     @Element
     List<Property> getProperty();
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2024] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.ejb.containers;
 
@@ -51,6 +51,7 @@ import com.sun.ejb.MethodLockInfo;
 import com.sun.ejb.codegen.EjbOptionalIntfGenerator;
 import com.sun.ejb.codegen.ServiceInterfaceGenerator;
 import com.sun.ejb.containers.interceptors.InterceptorManager;
+import com.sun.ejb.containers.interceptors.InterceptorUtil;
 import com.sun.ejb.containers.interceptors.SystemInterceptorProxy;
 import com.sun.ejb.containers.util.MethodMap;
 import com.sun.ejb.monitoring.probes.EjbCacheProbeProvider;
@@ -91,6 +92,7 @@ import fish.payara.cluster.DistributedLockType;
 import fish.payara.notification.requesttracing.RequestTraceSpanLog;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
@@ -132,6 +134,7 @@ import org.glassfish.deployment.common.DeploymentException;
 import org.glassfish.deployment.common.Descriptor;
 import org.glassfish.ejb.LogFacade;
 import org.glassfish.ejb.api.EjbEndpointFacade;
+import org.glassfish.ejb.config.EjbContainer;
 import org.glassfish.ejb.deployment.descriptor.EjbApplicationExceptionInfo;
 import org.glassfish.ejb.deployment.descriptor.EjbBundleDescriptorImpl;
 import org.glassfish.ejb.deployment.descriptor.EjbDescriptor;
@@ -1663,6 +1666,30 @@ public abstract class BaseContainer implements Container, EjbContainerFacade, Ja
         return javaGlobalPrefix.toString();
     }
 
+    /**
+     * Looks up a bean setting as the {@code <name>.<ejb-name>} and
+     * {@code <name>} properties of glassfish-ejb-jar.xml
+     * {@code <enterprise-beans>}, then of the EJB container configuration.
+     *
+     * @return the first value found, or null if the setting is not configured
+     */
+    protected String getBeanConfigProperty(String name) {
+        String beanProp = name + "." + ejbDescriptor.getName();
+        EjbBundleDescriptorImpl bundle = ejbDescriptor.getEjbBundleDescriptor();
+        String value = bundle.getEnterpriseBeansProperty(beanProp);
+        if (value == null) {
+            value = bundle.getEnterpriseBeansProperty(name);
+        }
+        EjbContainer ejbContainer = ejbContainerUtilImpl.getEjbContainer();
+        if (value == null && ejbContainer != null) {
+            value = ejbContainer.getPropertyValue(beanProp);
+            if (value == null) {
+                value = ejbContainer.getPropertyValue(name);
+            }
+        }
+        return value;
+    }
+
     // This method is used to create the ejb after the around_construct interceptor chain has completed.
     public void createEjbInstanceForInterceptors(Object[] params, EJBContextImpl context) throws Exception {
         Object instance;
@@ -4242,11 +4269,20 @@ public abstract class BaseContainer implements Container, EjbContainerFacade, Ja
         try {
             onEjbMethodStart(inv.invocationInfo.str_method_sig);
             if (inv.useFastPath) {
-                return inv.getBeanMethod().invoke(inv.ejb, inv.methodParams);
+                MethodHandle handle = getBeanMethodHandle(inv, inv.getBeanMethod());
+                if (handle == null) {
+                    return inv.getBeanMethod().invoke(inv.ejb, inv.methodParams);
+                }
+                try {
+                    return (Object) handle.invokeExact(inv.ejb, inv.methodParams);
+                } catch (Throwable t) {
+                    InterceptorUtil.checkBeanMethodCall(t, inv.getBeanMethod(), inv.ejb, inv.methodParams);
+                    throw new InvocationTargetException(t);
+                }
             } else {
 
-                return securityManager.invoke(beanClassMethod, inv.isLocal, target,
-                        params);
+                return securityManager.invoke(getBeanMethodHandle(inv, beanClassMethod),
+                        beanClassMethod, inv.isLocal, target, params);
             }
         } catch (InvocationTargetException ite) {
             inv.exception = ite.getCause();
@@ -4832,14 +4868,23 @@ public abstract class BaseContainer implements Container, EjbContainerFacade, Ja
     {
         try {
 
-            return securityManager.invoke(inv.getBeanMethod(), inv.isLocal, inv.ejb,
-                                       inv.getParameters());
+            return securityManager.invoke(getBeanMethodHandle(inv, inv.getBeanMethod()),
+                    inv.getBeanMethod(), inv.isLocal, inv.ejb, inv.getParameters());
 
         } catch(InvocationTargetException ite) {
             throw ite.getCause();
         }
     }
 
+    /**
+     * Returns the handle the invocation's interceptor chain bound for the
+     * bean method at container start, or null to invoke it reflectively.
+     */
+    private static MethodHandle getBeanMethodHandle(EjbInvocation inv, Method beanClassMethod) {
+        InterceptorManager.InterceptorChain chain = inv.getInterceptorChain();
+        return (chain == null) ? null : chain.getBeanMethodHandle(beanClassMethod);
+    }
+
     protected abstract EjbMonitoringStatsProvider getMonitoringStatsProvider(
             String appName, String modName, String ejbName);
 
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2023] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.ejb.containers;
 
@@ -47,13 +47,13 @@ import com.sun.ejb.ComponentContext;
 import com.sun.ejb.EjbInvocation;
 import com.sun.ejb.InvocationInfo;
 import com.sun.ejb.MethodLockInfo;
+import com.sun.ejb.monitoring.stats.SingletonLockStatsProvider;
 import com.sun.enterprise.security.SecurityManager;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import jakarta.ejb.ConcurrentAccessException;
 import jakarta.ejb.ConcurrentAccessTimeoutException;
-import jakarta.ejb.IllegalLoopbackException;
 import jakarta.ejb.LockType;
 import org.glassfish.ejb.deployment.descriptor.EjbDescriptor;
 
@@ -63,26 +63,50 @@ import org.glassfish.ejb.deployment.descriptor.EjbDescriptor;
 public class CMCSingletonContainer
         extends AbstractSingletonContainer {
 
-    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock(true);
+    private static final String SINGLETON_LOCK_TYPE_PROP = "singleton-lock-type";
 
-    private final ReentrantReadWriteLock.ReadLock readLock = rwLock.readLock();
+    private final SingletonLock singletonLock;
 
-    private final ReentrantReadWriteLock.WriteLock writeLock = rwLock.writeLock();
+    private final Lock readLock;
+
+    private final Lock writeLock;
 
     private final static long NO_BLOCKING = 0;
     private final static long BLOCK_INDEFINITELY = -1;
 
     private final MethodLockInfo defaultMethodLockInfo;
 
+    private SingletonLockStatsProvider lockProbeListener;
+
     public CMCSingletonContainer(EjbDescriptor desc, ClassLoader cl, SecurityManager sm)
             throws Exception {
         super(desc, cl, sm);
 
+        singletonLock = SingletonLock.create(SingletonLock.Type.of(getBeanConfigProperty(SINGLETON_LOCK_TYPE_PROP)));
+        readLock = singletonLock.readLock();
+        writeLock = singletonLock.writeLock();
+
         // In absence of any method lock info default is WRITE lock with no timeout.
         defaultMethodLockInfo = new MethodLockInfo();
         defaultMethodLockInfo.setLockType(LockType.WRITE, clusteredLookup.isDistributedLockEnabled());
     }
 
+    @Override
+    protected void registerMonitorableComponents() {
+        super.registerMonitorableComponents();
+        lockProbeListener = new SingletonLockStatsProvider(singletonLock,
+                containerInfo.appName, containerInfo.modName, containerInfo.ejbName);
+        lockProbeListener.register();
+    }
+
+    @Override
+    protected void doConcreteContainerShutdown(boolean appBeingUndeployed) {
+        super.doConcreteContainerShutdown(appBeingUndeployed);
+        if (lockProbeListener != null) {
+            lockProbeListener.unregister();
+        }
+    }
+
     @Override
     protected ComponentContext _getContext(EjbInvocation invocation) {
         super._getContext(invocation);
@@ -155,13 +179,20 @@ public class CMCSingletonContainer
             theLock = lockInfo.isReadLockedMethod() ? readLock : writeLock;
         }
 
-        if ( (rwLock.getReadHoldCount() > 0) &&
-                (!rwLock.isWriteLockedByCurrentThread()) ) {
-            if( lockInfo.isWriteLockedMethod() ) {
-                throw new IllegalLoopbackException("Illegal Reentrant Access : Attempt to make " +
-                        "a loopback call on a Write Lock method '" + invInfo.targetMethod1 +
-                        "' while a Read lock is already held");
+        if (lockInfo.isWriteLockedMethod()) {
+            singletonLock.checkWriteLoopback(invInfo.targetMethod1);
+        }
+
+        // Try the local lock without waiting first, so that only contended
+        // acquisitions are timed
+        long waitStart = 0;
+        if (!lockInfo.isDistributed()) {
+            if (tryLockNow(theLock)) {
+                singletonLock.recordAcquisition();
+                invocation.setCMCLock(theLock);
+                return;
             }
+            waitStart = System.nanoTime();
         }
 
         /*
@@ -170,6 +201,32 @@ public class CMCSingletonContainer
          * lock, the lock is guaranteed to be unlocked in releaseContext()
          * even if exceptions were thrown in _getContext()
          */
+        boolean acquired = false;
+        try {
+            acquire(theLock, lockInfo);
+            acquired = true;
+        } finally {
+            if (waitStart != 0) {
+                singletonLock.recordContention(System.nanoTime() - waitStart, acquired);
+            }
+        }
+
+        //Now that we have acquired the lock, remember it
+        invocation.setCMCLock(theLock);
+    }
+
+    private static boolean tryLockNow(Lock theLock) {
+        try {
+            // unlike tryLock(), this honours the fairness of a fair lock
+            return theLock.tryLock(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException inEx) {
+            // leave it to the blocking acquisition to deal with
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void acquire(Lock theLock, MethodLockInfo lockInfo) {
         if (!lockInfo.hasTimeout() ||
                 ( (lockInfo.hasTimeout() && (lockInfo.getTimeout() == BLOCK_INDEFINITELY) )) ) {
             theLock.lock();
@@ -194,9 +251,6 @@ public class CMCSingletonContainer
                 throw cae;
             }
         }
-
-        //Now that we have acquired the lock, remember it
-        invocation.setCMCLock(theLock);
     }
 
     /**
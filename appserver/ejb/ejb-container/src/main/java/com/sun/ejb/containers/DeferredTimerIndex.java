@@ -0,0 +1,101 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Timer ids ordered by expiration. A timer id is only held once, at the
+ * expiration it was last added with.
+ */
+class DeferredTimerIndex {
+
+    private final TreeMap<Long, List<TimerPrimaryKey>> byExpiration = new TreeMap<>();
+    private final Map<TimerPrimaryKey, Long> expirations = new HashMap<>();
+
+    synchronized void add(TimerPrimaryKey timerId, long expiration) {
+        remove(timerId);
+        expirations.put(timerId, expiration);
+        byExpiration.computeIfAbsent(expiration, e -> new ArrayList<>(1)).add(timerId);
+    }
+
+    synchronized boolean remove(TimerPrimaryKey timerId) {
+        Long previous = expirations.remove(timerId);
+        if (previous == null) {
+            return false;
+        }
+        List<TimerPrimaryKey> ids = byExpiration.get(previous);
+        ids.remove(timerId);
+        if (ids.isEmpty()) {
+            byExpiration.remove(previous);
+        }
+        return true;
+    }
+
+    synchronized List<TimerPrimaryKey> pollDue(long horizon, int max) {
+        List<TimerPrimaryKey> result = new ArrayList<>();
+        while (result.size() < max && !byExpiration.isEmpty()
+                && byExpiration.firstKey() <= horizon) {
+            List<TimerPrimaryKey> ids = byExpiration.firstEntry().getValue();
+            while (result.size() < max && !ids.isEmpty()) {
+                TimerPrimaryKey timerId = ids.remove(ids.size() - 1);
+                expirations.remove(timerId);
+                result.add(timerId);
+            }
+            if (ids.isEmpty()) {
+                byExpiration.pollFirstEntry();
+            }
+        }
+        return result;
+    }
+
+    synchronized void clear() {
+        byExpiration.clear();
+        expirations.clear();
+    }
+
+    synchronized int size() {
+        return expirations.size();
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 package com.sun.ejb.containers;
 
 import java.io.Serializable;
@@ -53,6 +53,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TimerTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jakarta.ejb.CreateException;
@@ -75,6 +76,7 @@ import org.glassfish.ejb.deployment.descriptor.EjbDescriptor;
 import org.glassfish.ejb.deployment.descriptor.ScheduledTimerDescriptor;
 import org.glassfish.server.ServerEnvironmentImpl;
 import com.sun.ejb.PersistentTimerService;
+import com.sun.ejb.monitoring.stats.EjbTimerWheelStatsProvider;
 import fish.payara.nucleus.requesttracing.RequestTracingService;
 import fish.payara.notification.requesttracing.RequestTraceSpan;
 import fish.payara.nucleus.healthcheck.stuck.StuckThreadsStore;
@@ -116,7 +118,7 @@ public abstract class EJBTimerService {
     // A cache of timer info for all timers *owned* by this server instance. 
     protected TimerCache timerCache_;
 
-    private boolean shutdown_;
+    private volatile boolean shutdown_;
     
     private RequestTracingService requestTracing;
     private StuckThreadsStore stuckThreadsStore;
@@ -161,6 +163,25 @@ public abstract class EJBTimerService {
     private static final String RESCHEDULE_FAILED_TIMER = "reschedule-failed-timer";
     private boolean rescheduleFailedTimer = false;
 
+    // Resolution of the timing wheel that expirations are scheduled on
+    private static final String TIMER_WHEEL_TICK = "timer-wheel-tick-millis";
+    private long timerWheelTickMillis_ = EJBTimerWheel.DEFAULT_TICK_MILLIS;
+
+    // Shared by the persistent and non-persistent timer services
+    private static volatile EJBTimerWheel timerWheel;
+    private static EjbTimerWheelStatsProvider timerWheelStatsProvider;
+
+    // Persistent timers that are not due within this window are not restored
+    // straight away, but kept as index entries until they come into it.
+    // 0 restores every timer at once.
+    private static final String TIMER_RESTORE_WINDOW = "timer-restore-window-millis";
+    private static final long RESTORE_WINDOW = 5 * 60 * 1000;
+    protected static final int RESTORE_BATCH_SIZE = 500;
+    private long restoreWindow_ = RESTORE_WINDOW;
+
+    private final DeferredTimerIndex deferredTimers_ = new DeferredTimerIndex();
+    private TimerTask deferredTimerLoader_;
+
     private static final Object LOCK = new Object();
 
     // Flag that allows to load EJBTimerService on the 1st access and
@@ -474,6 +495,18 @@ public abstract class EJBTimerService {
 
                 rescheduleFailedTimer = Boolean.valueOf(ejbt.getPropertyValue(RESCHEDULE_FAILED_TIMER));
 
+                valString = ejbt.getPropertyValue(TIMER_WHEEL_TICK);
+                val = (valString != null) ? Long.parseLong(valString) : -1;
+                if( val > 0 ) {
+                    timerWheelTickMillis_ = val;
+                }
+
+                valString = ejbt.getPropertyValue(TIMER_RESTORE_WINDOW);
+                val = (valString != null) ? Long.parseLong(valString) : -1;
+                if( val >= 0 ) {
+                    restoreWindow_ = val;
+                }
+
                 // Load confing listener
                 ejbContainerUtil.getServices().getService(EJBTimerServiceConfigListener.class);
             }
@@ -539,6 +572,7 @@ public abstract class EJBTimerService {
     private void shutdown() {
         // Set flag to prevent any new timer expirations.
         shutdown_ = true;
+        stopDeferredTimerLoader();
     }
 
     /**
@@ -571,6 +605,7 @@ public abstract class EJBTimerService {
 
     protected void stopTimers(Set<TimerPrimaryKey> timerIds) {
         for(TimerPrimaryKey nextTimerId: timerIds) {
+            deferredTimers_.remove(nextTimerId);
             RuntimeTimerState nextTimerState = null;
             try {
                 nextTimerState = getTimerState(nextTimerId);
@@ -639,8 +674,7 @@ public abstract class EJBTimerService {
                     timerState.scheduled(timerTask);
                 }
 
-                java.util.Timer jdkTimer = ejbContainerUtil.getTimer();
-                jdkTimer.schedule(timerTask, timerExpiration);            
+                getTimerWheel().schedule(timerTask);
             }
         } else {
             
@@ -652,6 +686,43 @@ public abstract class EJBTimerService {
     }
 
 
+    private EJBTimerWheel getTimerWheel() {
+        EJBTimerWheel wheel = timerWheel;
+        if (wheel == null) {
+            synchronized (LOCK) {
+                wheel = timerWheel;
+                if (wheel == null) {
+                    wheel = new EJBTimerWheel(timerWheelTickMillis_);
+                    timerWheelStatsProvider = new EjbTimerWheelStatsProvider(wheel);
+                    timerWheelStatsProvider.register();
+                    timerWheel = wheel;
+                }
+            }
+        }
+        return wheel;
+    }
+
+    /**
+     * Stops the timer wheel and removes its monitoring stats. A timer
+     * scheduled afterwards starts a new wheel.
+     */
+    static void stopTimerWheel() {
+        EJBTimerWheel wheel;
+        EjbTimerWheelStatsProvider statsProvider;
+        synchronized (LOCK) {
+            wheel = timerWheel;
+            statsProvider = timerWheelStatsProvider;
+            timerWheel = null;
+            timerWheelStatsProvider = null;
+        }
+        if (statsProvider != null) {
+            statsProvider.unregister();
+        }
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
     /**
      * Called by #cancelTimerSynchronization() to cancel the next scheduled expiration 
      * for a timer.
@@ -759,6 +830,104 @@ public abstract class EJBTimerService {
         return nextExpirationTime;
     }
 
+    /**
+     * Called while restoring a persistent timer, before its runtime state is
+     * created. If the timer is not due within the restore window, it is kept
+     * as an index entry and handed to {@link #restoreDeferredTimers(Collection)}
+     * once it comes into the window.
+     *
+     * @return true if restoration of the timer has been deferred
+     */
+    protected boolean deferRestoration(TimerPrimaryKey timerId, Date initialExpiration,
+            Date lastExpiration, long intervalDuration, EJBTimerSchedule ts) {
+        if (restoreWindow_ <= 0) {
+            return false;
+        }
+
+        // Mirrors the missed expiration checks done when a timer is
+        // restored: anything that would be delivered straight away, or
+        // never again, is not deferred.
+        long now = System.currentTimeMillis();
+        Date expiration;
+        if (ts == null && intervalDuration <= 0) {
+            expiration = initialExpiration;
+        } else if (lastExpiration == null) {
+            if (now > initialExpiration.getTime()) {
+                return false;
+            }
+            expiration = (ts != null) ? getNextScheduledTimeout(ts)
+                    : calcNextFixedRateExpiration(initialExpiration, intervalDuration);
+        } else if (ts != null) {
+            if (ts.getNextTimeout(lastExpiration).getTimeInMillis() < now) {
+                return false;
+            }
+            expiration = getNextScheduledTimeout(ts);
+        } else {
+            if (now - lastExpiration.getTime() > intervalDuration) {
+                return false;
+            }
+            expiration = calcNextFixedRateExpiration(initialExpiration, intervalDuration);
+        }
+
+        if (expiration == null || expiration.getTime() <= now + restoreWindow_) {
+            return false;
+        }
+
+        deferredTimers_.add(timerId, expiration.getTime());
+        startDeferredTimerLoader();
+        return true;
+    }
+
+    /**
+     * Restores timers whose restoration was deferred and that are now due
+     * within the restore window. Called with at most
+     * {@value #RESTORE_BATCH_SIZE} ids at a time; ids of timers that have
+     * since been removed or moved to another server must be ignored.
+     */
+    protected void restoreDeferredTimers(Collection<TimerPrimaryKey> timerIds) {
+    }
+
+    /**
+     * @return number of timers whose restoration is still deferred
+     */
+    public int getDeferredTimerCount() {
+        return deferredTimers_.size();
+    }
+
+    private synchronized void startDeferredTimerLoader() {
+        if (deferredTimerLoader_ == null && !shutdown_) {
+            deferredTimerLoader_ = new TimerTask() {
+                @Override
+                public void run() {
+                    loadDeferredTimers();
+                }
+            };
+            long period = Math.max(1000, restoreWindow_ / 2);
+            ejbContainerUtil.getTimer().scheduleAtFixedRate(deferredTimerLoader_, period, period);
+        }
+    }
+
+    private synchronized void stopDeferredTimerLoader() {
+        if (deferredTimerLoader_ != null) {
+            deferredTimerLoader_.cancel();
+            deferredTimerLoader_ = null;
+        }
+        deferredTimers_.clear();
+    }
+
+    private void loadDeferredTimers() {
+        long horizon = System.currentTimeMillis() + restoreWindow_;
+        List<TimerPrimaryKey> batch;
+        while (!shutdown_
+                && !(batch = deferredTimers_.pollDue(horizon, RESTORE_BATCH_SIZE)).isEmpty()) {
+            try {
+                restoreDeferredTimers(batch);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Error restoring deferred EJB timers", e);
+            }
+        }
+    }
+
     /**
      * Remove all traces of a timer.  This should be written defensively
      * so that if expunge is called multiple times for the same timer id,
@@ -767,6 +936,7 @@ public abstract class EJBTimerService {
     protected void expungeTimer(TimerPrimaryKey timerId, 
                               boolean removeTimerBean) {
         timerCache_.removeTimer(timerId);
+        deferredTimers_.remove(timerId);
     }
 
     /**
@@ -1638,6 +1808,7 @@ public abstract class EJBTimerService {
             persistentTimerService.shutdown();
             shutdown = true;
         }
+        stopTimerWheel();
         if (shutdown) {
             DateFormat dateFormat
                     = new SimpleDateFormat(TIMER_SERVICE_DOWNTIME_FORMAT);
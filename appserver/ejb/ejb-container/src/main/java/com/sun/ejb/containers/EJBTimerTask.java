@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.ejb.containers;
 
@@ -52,7 +53,7 @@ import jakarta.ejb.Timer;
 import com.sun.logging.LogDomains;
 
 /*
- * JDK timer task for timer expirations.  
+ * Task for timer expirations, scheduled on the {@link EJBTimerWheel}.
  *
  * @author Kenneth Saks
  */
@@ -61,6 +62,10 @@ public class EJBTimerTask extends TimerTask {
     private Date timeout_;
     private TimerPrimaryKey timerId_;
     private EJBTimerService timerService_;
+    private volatile boolean cancelled_;
+
+    // tick this task expires at, maintained by the EJBTimerWheel thread
+    long wheelTick;
 
     EJBTimerTask(Date timeout, TimerPrimaryKey timerId, 
                  EJBTimerService timerService)
@@ -79,5 +84,15 @@ public class EJBTimerTask extends TimerTask {
         return timeout_;
     }
 
+    @Override
+    public boolean cancel() {
+        cancelled_ = true;
+        return super.cancel();
+    }
+
+    boolean isCancelled() {
+        return cancelled_;
+    }
+
 } 
 
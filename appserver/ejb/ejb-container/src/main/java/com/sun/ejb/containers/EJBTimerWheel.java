@@ -0,0 +1,299 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hierarchical timing wheel for EJB timer expirations.
+ * <p>
+ * Time is divided into ticks. The wheel has {@value #LEVELS} levels of
+ * {@value #WHEEL_SIZE} buckets each; a bucket on level n covers
+ * WHEEL_SIZE<sup>n</sup> ticks. A task goes into the lowest level whose range
+ * covers its expiration, and is moved down a level whenever the wheel reaches
+ * the bucket it is in, so scheduling and expiring a task are constant-time
+ * whatever the number of timers.
+ * <p>
+ * All buckets belong to the wheel thread. Other threads only add tasks to a
+ * concurrent inbox, and cancelling a task just marks it, so the wheel never
+ * takes a lock shared with callers. The wheel thread only marks the timer as
+ * delivered; the timeout itself runs on the EJB thread pool (see
+ * {@link EJBTimerService#taskExpired(TimerPrimaryKey)}), so a slow timeout
+ * method does not delay other expirations.
+ *
+ * @since 6.2025.1
+ */
+public final class EJBTimerWheel {
+
+    private static final Logger logger = EJBTimerService.logger;
+
+    static final long DEFAULT_TICK_MILLIS = 50L;
+    static final int WHEEL_BITS = 8;
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    static final int LEVELS = 4;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+    private static final long STOP_TIMEOUT_MILLIS = 5000L;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final ArrayDeque<EJBTimerTask>[][] buckets;
+    private final Queue<EJBTimerTask> inbox = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // only accessed by the wheel thread
+    private long currentTick;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder totalLag = new LongAdder();
+    private final AtomicLong maxLag = new AtomicLong();
+    private volatile long lastLag;
+
+    EJBTimerWheel(long tickMillis) {
+        this(tickMillis, System.currentTimeMillis(), true);
+    }
+
+    /**
+     * @param startMillis time of tick 0
+     * @param startThread false to leave turning the wheel to the caller of
+     *        {@link #advanceTo(long)}
+     */
+    @SuppressWarnings("unchecked")
+    EJBTimerWheel(long tickMillis, long startMillis, boolean startThread) {
+        this.tickMillis = tickMillis > 0 ? tickMillis : DEFAULT_TICK_MILLIS;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayDeque[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                buckets[level][slot] = new ArrayDeque<>();
+            }
+        }
+        if (startThread) {
+            thread = new Thread(this::run, "payara-ejb-timer-wheel");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            thread = null;
+        }
+    }
+
+    /**
+     * Schedules the task to run at its timeout, or on the next tick if the
+     * timeout has already passed.
+     */
+    void schedule(EJBTimerTask task) {
+        scheduled.increment();
+        inbox.add(task);
+    }
+
+    /**
+     * Stops the wheel thread and waits for it to finish. Tasks which have not
+     * expired yet are dropped.
+     */
+    void stop() {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    boolean isStopped() {
+        return !running && (thread == null || !thread.isAlive());
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                advanceTo((System.currentTimeMillis() - startMillis) / tickMillis);
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "Error in EJB timer wheel", t);
+            }
+            long sleepMillis = startMillis + (currentTick + 1) * tickMillis - System.currentTimeMillis();
+            if (running && sleepMillis > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(sleepMillis));
+            }
+        }
+    }
+
+    /**
+     * Places newly scheduled tasks and turns the wheel up to the given tick,
+     * expiring every task due on the way. Only called by the wheel thread.
+     */
+    void advanceTo(long targetTick) {
+        drainInbox();
+        while (running && currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            expire(buckets[0][(int) (currentTick & WHEEL_MASK)]);
+        }
+    }
+
+    /**
+     * @return number of tasks waiting in the buckets of the given level
+     */
+    int countOnLevel(int level) {
+        int count = 0;
+        for (ArrayDeque<EJBTimerTask> bucket : buckets[level]) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    private void drainInbox() {
+        EJBTimerTask task;
+        while ((task = inbox.poll()) != null) {
+            long timeout = task.getTimeout().getTime() - startMillis;
+            // round up so that a task never expires before its timeout
+            task.wheelTick = timeout <= 0 ? 0 : (timeout + tickMillis - 1) / tickMillis;
+            place(task);
+        }
+    }
+
+    private void place(EJBTimerTask task) {
+        if (task.isCancelled()) {
+            discarded.increment();
+            return;
+        }
+        long delta = task.wheelTick - currentTick;
+        if (delta <= 0) {
+            fire(task);
+            return;
+        }
+        // tasks beyond the range of the wheel wait in the top level and are
+        // placed again when it comes round
+        long tick = delta > MAX_DELTA ? currentTick + MAX_DELTA : task.wheelTick;
+        int level = 0;
+        while (level < LEVELS - 1 && (tick - currentTick) >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        buckets[level][slot].add(task);
+    }
+
+    /**
+     * Moves the tasks of every higher level bucket that starts at the current
+     * tick down the wheel, highest level first.
+     */
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            long span = 1L << (WHEEL_BITS * level);
+            if ((currentTick & (span - 1)) == 0) {
+                ArrayDeque<EJBTimerTask> bucket =
+                        buckets[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+                int count = bucket.size();
+                for (int i = 0; i < count; i++) {
+                    place(bucket.poll());
+                }
+            }
+        }
+    }
+
+    private void expire(ArrayDeque<EJBTimerTask> bucket) {
+        int count = bucket.size();
+        for (int i = 0; i < count; i++) {
+            place(bucket.poll());
+        }
+    }
+
+    private void fire(EJBTimerTask task) {
+        long lag = Math.max(0, System.currentTimeMillis() - task.getTimeout().getTime());
+        lastLag = lag;
+        totalLag.add(lag);
+        maxLag.accumulateAndGet(lag, Math::max);
+        expired.increment();
+        try {
+            task.run();
+        } catch (Throwable t) {
+            logger.log(Level.WARNING, "Error expiring EJB timer task", t);
+        }
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * @return number of scheduled tasks which have neither expired nor been
+     *         found cancelled yet
+     */
+    public long getPendingCount() {
+        return scheduled.sum() - expired.sum() - discarded.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * @return time between the timeout of the most recently expired task and
+     *         its hand-off to the timer service, in milliseconds
+     */
+    public long getLastLagMillis() {
+        return lastLag;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLag.get();
+    }
+
+    public long getAverageLagMillis() {
+        long count = expired.sum();
+        return count == 0 ? 0 : totalLag.sum() / count;
+    }
+}
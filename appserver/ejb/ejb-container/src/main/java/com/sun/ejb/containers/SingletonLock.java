@@ -0,0 +1,532 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import jakarta.ejb.IllegalLoopbackException;
+
+/**
+ * Read/write lock guarding a singleton with container managed concurrency.
+ * <p>
+ * The implementation is chosen with the {@code singleton-lock-type} property:
+ * <ul>
+ * <li>{@code fair} - a fair {@link ReentrantReadWriteLock}. Readers queue
+ * behind any waiting writer. This is the default.</li>
+ * <li>{@code nonfair} - a non-fair {@link ReentrantReadWriteLock}, which lets
+ * readers barge ahead of queued threads.</li>
+ * <li>{@code stamped} - a {@link StampedLock}, made reentrant per thread so
+ * that loopback calls keep working.</li>
+ * <li>{@code striped} - one non-fair lock per stripe. A reader only locks the
+ * stripe of its thread, so readers on different stripes don't contend; a
+ * writer locks every stripe.</li>
+ * </ul>
+ * Every strategy keeps the {@code @Lock} and {@code @AccessTimeout}
+ * semantics of the fair lock: WRITE excludes all other calls, READ calls run
+ * concurrently, and the holder of the write lock may call back into the bean.
+ * <p>
+ * Also keeps the lock wait statistics published for the singleton.
+ *
+ * @since 6.2025.1
+ */
+public abstract class SingletonLock {
+
+    public enum Type {
+        FAIR, NONFAIR, STAMPED, STRIPED;
+
+        /**
+         * @return the type of the given name, or {@link #FAIR} if there is none
+         */
+        public static Type of(String name) {
+            if (name != null) {
+                try {
+                    return valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+                } catch (IllegalArgumentException e) {
+                    // fall through to the default
+                }
+            }
+            return FAIR;
+        }
+    }
+
+    private final Type type;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contentions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    SingletonLock(Type type) {
+        this.type = type;
+    }
+
+    static SingletonLock create(Type type) {
+        switch (type) {
+            case NONFAIR:
+                return new Reentrant(type, false);
+            case STAMPED:
+                return new Stamped();
+            case STRIPED:
+                return new Striped(Runtime.getRuntime().availableProcessors());
+            default:
+                return new Reentrant(type, true);
+        }
+    }
+
+    /**
+     * @return the read lock, which the container looks up once and then
+     *         uses from every calling thread
+     */
+    abstract Lock readLock();
+
+    /**
+     * @return the write lock, which the container looks up once and then
+     *         uses from every calling thread
+     */
+    abstract Lock writeLock();
+
+    /**
+     * @return true if the current thread holds the read lock but not the
+     *         write lock, in which case it must not take the write lock
+     */
+    abstract boolean isReadLockedByCurrentThreadOnly();
+
+    /**
+     * @param method the WRITE method about to be called
+     * @throws IllegalLoopbackException if the current thread only holds the
+     *         read lock, as waiting for the write lock would never return
+     */
+    void checkWriteLoopback(Object method) {
+        if (isReadLockedByCurrentThreadOnly()) {
+            throw new IllegalLoopbackException("Illegal Reentrant Access : Attempt to make " +
+                    "a loopback call on a Write Lock method '" + method +
+                    "' while a Read lock is already held");
+        }
+    }
+
+    void recordAcquisition() {
+        acquisitions.increment();
+    }
+
+    /**
+     * Records a lock request which had to wait.
+     *
+     * @param acquired false if the request timed out or was interrupted
+     */
+    void recordContention(long waitedNanos, boolean acquired) {
+        if (acquired) {
+            acquisitions.increment();
+        } else {
+            timeouts.increment();
+        }
+        contentions.increment();
+        waitNanos.add(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getAcquisitionCount() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * @return number of lock requests which could not be granted straight away
+     */
+    public long getContentionCount() {
+        return contentions.sum();
+    }
+
+    /**
+     * @return number of lock requests which gave up waiting for the lock
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    private static class Reentrant extends SingletonLock {
+
+        private final ReentrantReadWriteLock rwLock;
+
+        Reentrant(Type type, boolean fair) {
+            super(type);
+            rwLock = new ReentrantReadWriteLock(fair);
+        }
+
+        @Override
+        Lock readLock() {
+            return rwLock.readLock();
+        }
+
+        @Override
+        Lock writeLock() {
+            return rwLock.writeLock();
+        }
+
+        @Override
+        boolean isReadLockedByCurrentThreadOnly() {
+            return rwLock.getReadHoldCount() > 0 && !rwLock.isWriteLockedByCurrentThread();
+        }
+    }
+
+    static class Striped extends SingletonLock {
+
+        private final ReentrantReadWriteLock[] stripes;
+        private final int mask;
+        private final Lock readLock = new StripedReadLock();
+        private final Lock writeLock = new StripedWriteLock();
+
+        Striped(int concurrency) {
+            super(Type.STRIPED);
+            int size = Integer.highestOneBit(Math.max(1, Math.min(concurrency, 64)) * 2 - 1);
+            stripes = new ReentrantReadWriteLock[size];
+            for (int i = 0; i < size; i++) {
+                stripes[i] = new ReentrantReadWriteLock(false);
+            }
+            mask = size - 1;
+        }
+
+        // a thread always uses the same stripe, so that nested READ calls
+        // reenter the lock they hold instead of queueing behind a writer
+        private ReentrantReadWriteLock stripe() {
+            return stripes[(int) Thread.currentThread().getId() & mask];
+        }
+
+        @Override
+        Lock readLock() {
+            return readLock;
+        }
+
+        @Override
+        Lock writeLock() {
+            return writeLock;
+        }
+
+        @Override
+        boolean isReadLockedByCurrentThreadOnly() {
+            ReentrantReadWriteLock stripe = stripe();
+            return stripe.getReadHoldCount() > 0 && !stripe.isWriteLockedByCurrentThread();
+        }
+
+        /**
+         * Read lock of the stripe of the calling thread. The stripe is picked
+         * on every call, so the same instance can be used by all threads.
+         */
+        private class StripedReadLock implements Lock {
+
+            @Override
+            public void lock() {
+                stripe().readLock().lock();
+            }
+
+            @Override
+            public void lockInterruptibly() throws InterruptedException {
+                stripe().readLock().lockInterruptibly();
+            }
+
+            @Override
+            public boolean tryLock() {
+                return stripe().readLock().tryLock();
+            }
+
+            @Override
+            public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+                return stripe().readLock().tryLock(time, unit);
+            }
+
+            @Override
+            public void unlock() {
+                stripe().readLock().unlock();
+            }
+
+            @Override
+            public Condition newCondition() {
+                throw new UnsupportedOperationException();
+            }
+        }
+
+        /**
+         * Locks the stripes in order, so writers cannot deadlock each other.
+         */
+        private class StripedWriteLock implements Lock {
+
+            @Override
+            public void lock() {
+                for (ReentrantReadWriteLock stripe : stripes) {
+                    stripe.writeLock().lock();
+                }
+            }
+
+            @Override
+            public void lockInterruptibly() throws InterruptedException {
+                int locked = 0;
+                try {
+                    for (; locked < stripes.length; locked++) {
+                        stripes[locked].writeLock().lockInterruptibly();
+                    }
+                } finally {
+                    if (locked < stripes.length) {
+                        unlock(locked);
+                    }
+                }
+            }
+
+            @Override
+            public boolean tryLock() {
+                for (int i = 0; i < stripes.length; i++) {
+                    if (!stripes[i].writeLock().tryLock()) {
+                        unlock(i);
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+                // the timeout applies to acquiring all the stripes
+                long deadline = System.nanoTime() + unit.toNanos(time);
+                int locked = 0;
+                try {
+                    for (; locked < stripes.length; locked++) {
+                        if (!stripes[locked].writeLock().tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } finally {
+                    if (locked < stripes.length) {
+                        unlock(locked);
+                    }
+                }
+            }
+
+            @Override
+            public void unlock() {
+                unlock(stripes.length);
+            }
+
+            private void unlock(int count) {
+                for (int i = count - 1; i >= 0; i--) {
+                    stripes[i].writeLock().unlock();
+                }
+            }
+
+            @Override
+            public Condition newCondition() {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+
+    private static class Stamped extends SingletonLock {
+
+        private static class Holds {
+            int reads;
+            int writes;
+            // whether the outermost read actually holds a read lock, rather
+            // than running under this thread's write lock
+            boolean sharedRead;
+        }
+
+        private final StampedLock stampedLock = new StampedLock();
+        // only set while the thread holds a lock, so that a thread which
+        // merely checks its holds doesn't leave an entry behind
+        private final ThreadLocal<Holds> holds = new ThreadLocal<>();
+        private final Lock readLock = new ReentrantView(stampedLock.asReadLock(), false);
+        private final Lock writeLock = new ReentrantView(stampedLock.asWriteLock(), true);
+
+        Stamped() {
+            super(Type.STAMPED);
+        }
+
+        @Override
+        Lock readLock() {
+            return readLock;
+        }
+
+        @Override
+        Lock writeLock() {
+            return writeLock;
+        }
+
+        @Override
+        boolean isReadLockedByCurrentThreadOnly() {
+            Holds h = holds.get();
+            return h != null && h.reads > 0 && h.writes == 0;
+        }
+
+        private Holds currentHolds() {
+            Holds h = holds.get();
+            if (h == null) {
+                h = new Holds();
+                holds.set(h);
+            }
+            return h;
+        }
+
+        /**
+         * Counts the holds of the current thread, and only goes to the
+         * StampedLock for the outermost acquisition.
+         */
+        private class ReentrantView implements Lock {
+
+            private final Lock view;
+            private final boolean write;
+
+            ReentrantView(Lock view, boolean write) {
+                this.view = view;
+                this.write = write;
+            }
+
+            // returns true if the current thread already holds a lock
+            // covering this one
+            private boolean reenter(Holds h) {
+                if (write ? h.writes > 0 : (h.reads > 0 || h.writes > 0)) {
+                    acquired(h, false);
+                    return true;
+                }
+                return false;
+            }
+
+            private void acquired(Holds h, boolean locked) {
+                if (write) {
+                    h.writes++;
+                } else {
+                    if (h.reads == 0) {
+                        h.sharedRead = locked;
+                    }
+                    h.reads++;
+                }
+            }
+
+            @Override
+            public void lock() {
+                Holds h = currentHolds();
+                if (!reenter(h)) {
+                    view.lock();
+                    acquired(h, true);
+                }
+            }
+
+            @Override
+            public void lockInterruptibly() throws InterruptedException {
+                Holds h = currentHolds();
+                if (!reenter(h)) {
+                    view.lockInterruptibly();
+                    acquired(h, true);
+                }
+            }
+
+            @Override
+            public boolean tryLock() {
+                Holds h = currentHolds();
+                if (reenter(h)) {
+                    return true;
+                }
+                if (view.tryLock()) {
+                    acquired(h, true);
+                    return true;
+                }
+                release(h);
+                return false;
+            }
+
+            @Override
+            public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+                Holds h = currentHolds();
+                if (reenter(h)) {
+                    return true;
+                }
+                if (view.tryLock(time, unit)) {
+                    acquired(h, true);
+                    return true;
+                }
+                release(h);
+                return false;
+            }
+
+            @Override
+            public void unlock() {
+                Holds h = holds.get();
+                if (h == null || (write ? h.writes == 0 : h.reads == 0)) {
+                    throw new IllegalMonitorStateException();
+                }
+                if (write) {
+                    if (--h.writes == 0) {
+                        view.unlock();
+                    }
+                } else if (--h.reads == 0 && h.sharedRead) {
+                    h.sharedRead = false;
+                    view.unlock();
+                }
+                release(h);
+            }
+
+            private void release(Holds h) {
+                if (h.reads == 0 && h.writes == 0) {
+                    holds.remove();
+                }
+            }
+
+            @Override
+            public Condition newCondition() {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+}
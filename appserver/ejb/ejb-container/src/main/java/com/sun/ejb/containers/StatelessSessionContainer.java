@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.ejb.containers;
 
@@ -47,6 +47,7 @@ import com.sun.ejb.containers.util.pool.AbstractPool;
 import com.sun.ejb.containers.util.pool.BlockingPool;
 import com.sun.ejb.containers.util.pool.NonBlockingPool;
 import com.sun.ejb.containers.util.pool.ObjectFactory;
+import com.sun.ejb.containers.util.pool.StripedPool;
 import com.sun.ejb.monitoring.stats.EjbMonitoringStatsProvider;
 import com.sun.ejb.monitoring.stats.EjbPoolStatsProvider;
 import com.sun.ejb.monitoring.stats.StatelessSessionBeanStatsProvider;
@@ -120,6 +121,9 @@ public class StatelessSessionContainer extends BaseContainer {
     private EJBObjectImpl theRemoteBusinessObjectImpl = null;
     private final Map<String, Remote> theRemoteBusinessStubs = new HashMap<>();
 
+    private static final String BEAN_POOL_TYPE_PROP = "bean-pool-type";
+    private static final String STRIPED_BEAN_POOL = "striped";
+
     private AbstractPool pool;
 
     private IASEjbExtraDescriptors iased = null;
@@ -236,6 +240,12 @@ public class StatelessSessionContainer extends BaseContainer {
                 getContainerId(), ejbDescriptor.getName(), sessionCtxFactory, //
                 poolProp.steadyPoolSize, poolProp.poolResizeQuantity, poolProp.maxPoolSize, //
                 poolProp.poolIdleTimeoutInSeconds, loader, Boolean.parseBoolean(val), poolProp.maxWaitTimeInMillis);
+        } else if (!Boolean.parseBoolean(val)
+                && STRIPED_BEAN_POOL.equalsIgnoreCase(getBeanConfigProperty(BEAN_POOL_TYPE_PROP))) {
+            pool = new StripedPool( //
+                getContainerId(), ejbDescriptor.getName(), sessionCtxFactory, //
+                poolProp.steadyPoolSize, poolProp.poolResizeQuantity, poolProp.maxPoolSize, //
+                poolProp.poolIdleTimeoutInSeconds, loader);
         } else {
             pool = new NonBlockingPool( //
                 getContainerId(), ejbDescriptor.getName(), sessionCtxFactory, //
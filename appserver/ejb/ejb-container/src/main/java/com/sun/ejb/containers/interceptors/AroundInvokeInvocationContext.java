@@ -37,9 +37,11 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.ejb.containers.interceptors;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.InvocationTargetException;
@@ -124,6 +126,15 @@ public class AroundInvokeInvocationContext extends CallbackInvocationContext
       */
     public  Object invokeBeanMethod() throws Throwable {
 
+        MethodHandle handle = chain.getBeanMethodHandle(method);
+        if (handle != null) {
+            try {
+                return (Object) handle.invokeExact(getTarget(), parameters);
+            } catch (RuntimeException e) {
+                InterceptorUtil.checkBeanMethodCall(e, method, getTarget(), parameters);
+                throw e;
+            }
+        }
         try {
 
             return method.invoke(getTarget(), parameters);
@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.ejb.containers.interceptors;
 
@@ -149,7 +150,7 @@ public final class InterceptorInvocationHandler
                 (method.getName(), method.getParameterTypes());
 
             InterceptorManager.InterceptorChain chain =
-                    interceptorManager.getAroundInvokeChain(null, beanClassMethod);
+                    interceptorManager.getCachedAroundInvokeChain(beanClassMethod);
 
             Object[] theArgs = (args == null) ? emptyArray : args;
 
@@ -36,12 +36,13 @@
  * and therefore, elected the GPL Version 2 license, then the option applies
  * only if the new code is made subject to such option by the copyright
  * holder.
- * Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+ * Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
  */
 
 package com.sun.ejb.containers.interceptors;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedExceptionAction;
@@ -52,6 +53,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jakarta.annotation.PostConstruct;
@@ -115,6 +117,9 @@ public class InterceptorManager {
 
     List<InterceptorDescriptor> frameworkInterceptors = new LinkedList<>();
 
+    // Around invoke chains of beans without an EJB descriptor, built once per method
+    private final Map<Method, InterceptorChain> beanMethodChains = new ConcurrentHashMap<>();
+
 
     public InterceptorManager(Logger _logger, BaseContainer container,
                               Class<?>[] lcAnnotationClasses, String[] pre30LCMethodNames)
@@ -267,11 +272,20 @@ public class InterceptorManager {
 
         AroundInvokeInterceptor[] inter = interceptors.toArray(
                 new AroundInvokeInterceptor[interceptors.size()]);
-        return new AroundInvokeChainImpl(inter);
+        return new AroundInvokeChainImpl(inter, beanMethod);
+    }
+
+    /**
+     * Returns the around invoke chain for a method of a bean without an EJB
+     * descriptor. The chain, and the method handles it binds, are built on the
+     * first call for a method and reused afterwards.
+     */
+    public InterceptorManager.InterceptorChain getCachedAroundInvokeChain(Method beanMethod) {
+        return beanMethodChains.computeIfAbsent(beanMethod, m -> getAroundInvokeChain(null, m));
     }
 
     public InterceptorManager.InterceptorChain getAroundTimeoutChain(
-            MethodDescriptor mDesc, @SuppressWarnings("unused") Method beanMethod) {
+            MethodDescriptor mDesc, Method beanMethod) {
 
 
         ArrayList<AroundInvokeInterceptor> interceptors =
@@ -325,7 +339,7 @@ public class InterceptorManager {
 
         AroundInvokeInterceptor[] inter = interceptors.toArray(
                 new AroundInvokeInterceptor[interceptors.size()]);
-        return new AroundInvokeChainImpl(inter);
+        return new AroundInvokeChainImpl(inter, beanMethod);
     }
 
     private void addAroundInvokeInterceptors(
@@ -804,6 +818,15 @@ public class InterceptorManager {
     public interface InterceptorChain {
 	public Object invokeNext(int index, AroundInvokeContext invCtx)
 	    throws Throwable;
+
+        /**
+         * Returns the handle bound for the bean method when this chain was
+         * built, typed {@code (Object, Object[])Object}, or null if the chain
+         * was built for another method or no handle could be bound.
+         */
+        default MethodHandle getBeanMethodHandle(Method beanMethod) {
+            return null;
+        }
     }
 
 
@@ -818,12 +841,20 @@ class AroundInvokeChainImpl
 
     protected AroundInvokeInterceptor[] interceptors;
     protected int size;
+    protected Method beanMethod;
+    protected MethodHandle beanMethodHandle;
 
 
     protected AroundInvokeChainImpl(AroundInvokeInterceptor[] interceptors) {
+        this(interceptors, null);
+    }
+
+    protected AroundInvokeChainImpl(AroundInvokeInterceptor[] interceptors, Method beanMethod) {
 
         this.interceptors = interceptors;
         this.size = (interceptors == null) ? 0 : interceptors.length;
+        this.beanMethod = beanMethod;
+        this.beanMethodHandle = InterceptorUtil.bindBeanMethod(beanMethod);
     }
 
     @Override
@@ -834,6 +865,14 @@ class AroundInvokeChainImpl
             inv.invokeBeanMethod();
     }
 
+    @Override
+    public MethodHandle getBeanMethodHandle(Method method) {
+        if (beanMethodHandle == null || !(beanMethod == method || beanMethod.equals(method))) {
+            return null;
+        }
+        return beanMethodHandle;
+    }
+
     @Override
     public String toString() {
         StringBuilder bldr = new StringBuilder();
@@ -849,6 +888,8 @@ class AroundInvokeChainImpl
 class AroundInvokeInterceptor {
     protected int index;
     protected Method method;
+    // bound once when the chain is built, null if only reflection can be used
+    protected MethodHandle handle;
 
     AroundInvokeInterceptor(int index, Method method) {
         this.index = index;
@@ -872,7 +913,7 @@ class AroundInvokeInterceptor {
         } catch(Exception e) {
             throw new EJBException(e);
         }
-
+        handle = InterceptorUtil.bindInterceptorMethod(method);
     }
 
     Object intercept(final InterceptorManager.AroundInvokeContext invCtx) throws Throwable {
@@ -885,6 +926,9 @@ class AroundInvokeInterceptor {
                 PrivilegedExceptionAction<Object> action = () -> method.invoke(interceptors[index], invCtx);
                 return AccessController.doPrivileged(action);
             }
+            if (handle != null) {
+                return (Object) handle.invokeExact(interceptors[index], (Object) invCtx);
+            }
             return method.invoke(interceptors[index], invCtx);
         } catch (java.lang.reflect.InvocationTargetException invEx) {
             throw invEx.getCause();
@@ -920,6 +964,9 @@ class BeanAroundInvokeInterceptor
                 PrivilegedExceptionAction<Object> action = () -> method.invoke(invCtx.getTarget(), invCtx);
                 return AccessController.doPrivileged(action);
             }
+            if (handle != null) {
+                return (Object) handle.invokeExact(invCtx.getTarget(), (Object) invCtx);
+            }
             return method.invoke(invCtx.getTarget(), invCtx);
         } catch (java.lang.reflect.InvocationTargetException invEx) {
             throw invEx.getCause();
@@ -936,6 +983,8 @@ class BeanAroundInvokeInterceptor
 class CallbackInterceptor {
     protected int index;
     protected Method method;
+    // bound once when the chain is built, null if only reflection can be used
+    protected MethodHandle handle;
 
     CallbackInterceptor(int index, Method method) {
         this.index = index;
@@ -959,7 +1008,7 @@ class CallbackInterceptor {
         } catch(Exception e) {
             throw new EJBException(e);
         }
-
+        handle = InterceptorUtil.bindInterceptorMethod(method);
     }
 
     Object intercept(final CallbackInvocationContext invContext) 
@@ -975,6 +1024,9 @@ class CallbackInterceptor {
                 PrivilegedExceptionAction<Object> action = () -> method.invoke(interceptors[index], invContext);
                 return AccessController.doPrivileged(action);
             }
+            if (handle != null) {
+                return (Object) handle.invokeExact(interceptors[index], (Object) invContext);
+            }
             return method.invoke(interceptors[index], invContext);
         } catch (java.lang.reflect.InvocationTargetException invEx) {
             throw invEx.getCause();
@@ -1018,6 +1070,8 @@ class BeanCallbackInterceptor
                     return null;
                 };
                 AccessController.doPrivileged(action);
+            } else if (handle != null) {
+                handle.invokeExact(invContext.getTarget());
             } else {
                 method.invoke(invContext.getTarget(), NULL_ARGS);
             }
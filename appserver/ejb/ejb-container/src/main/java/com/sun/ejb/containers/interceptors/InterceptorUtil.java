@@ -37,10 +37,14 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2018-2019] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2018-2026] [Payara Foundation and/or its affiliates]
 package com.sun.ejb.containers.interceptors;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Set;
 import java.util.Collections;
 import java.util.HashMap;
@@ -119,4 +123,74 @@ public class InterceptorUtil {
         }
     }
 
+    /**
+     * Binds a method handle for an interceptor or callback method, so that it
+     * can be invoked without going through {@code Method.invoke} on every call.
+     * The handle is typed {@code (Object, Object)Object} for methods taking an
+     * {@code InvocationContext}, where a void method returns null, and
+     * {@code (Object)void} for bean callbacks without parameters.
+     *
+     * @param method interceptor method, already made accessible
+     * @return the handle, or null if the method can only be invoked reflectively
+     */
+    static MethodHandle bindInterceptorMethod(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 1) {
+            return null;
+        }
+        try {
+            MethodType type = method.getParameterCount() == 0
+                    ? MethodType.methodType(void.class, Object.class)
+                    : MethodType.methodType(Object.class, Object.class, Object.class);
+            return MethodHandles.lookup().unreflect(method).asType(type);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Binds a method handle for a bean business or timeout method. The handle
+     * is typed {@code (Object, Object[])Object}: it takes the bean instance and
+     * the argument array, returns null for a void method and throws the
+     * exception of the bean method as is, not wrapped in an
+     * {@code InvocationTargetException}.
+     *
+     * @param method bean class method
+     * @return the handle, or null if the method can only be invoked reflectively
+     */
+    public static MethodHandle bindBeanMethod(Method method) {
+        if (method == null || Modifier.isStatic(method.getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tells apart a failed call through a handle from
+     * {@link #bindBeanMethod(Method)} that the bean method threw from one that
+     * the adapters of the handle threw for an unfit target or argument. Where
+     * {@code Method.invoke} throws IllegalArgumentException, the adapters throw
+     * ClassCastException or NullPointerException, which would otherwise pass
+     * as thrown by the bean. Only called once the call has failed.
+     *
+     * @param failure what the call through the handle threw
+     * @throws IllegalArgumentException if the failure is a runtime exception and
+     *         the target or the arguments do not fit the method
+     */
+    public static void checkBeanMethodCall(Throwable failure, Method method, Object target, Object[] args) {
+        if (!(failure instanceof RuntimeException)) {
+            // the adapters only throw unchecked exceptions
+            return;
+        }
+        if (!method.getDeclaringClass().isInstance(target)) {
+            throw new IllegalArgumentException("Object is not an instance of the class declaring method: " + method);
+        }
+        checkSetParameters(args, method);
+    }
+
 }
@@ -0,0 +1,495 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers.util.pool;
+
+import com.sun.ejb.containers.EJBContextImpl;
+import com.sun.ejb.containers.EjbContainerUtilImpl;
+import com.sun.enterprise.util.Utility;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * <p>StripedPool is a non-blocking pool which does not share a single lock
+ * between all callers. Free objects are kept in a number of stripes, one per
+ * processor, and a thread always starts with the stripe its id maps to, so
+ * that a thread mostly gets back the instance it returned last. Stripes hold
+ * a limited number of objects; anything beyond that goes to a shared overflow
+ * queue. When both the thread's stripe and the overflow queue are empty, the
+ * other stripes are searched before a new object is created.
+ *
+ * <p>Steady pool size, maximum pool size and idle timeout behave as in
+ * {@link NonBlockingPool}: objects are created on demand, the pool never keeps
+ * more than maxPoolSize free objects, the pool is refilled up to steadyPoolSize
+ * in the background, and objects above steadyPoolSize which have been idle for
+ * longer than the idle timeout are destroyed resizeQuantity at a time.
+ *
+ * @since 6.2025.1
+ */
+public class StripedPool
+    extends AbstractPool
+{
+
+    /**
+     * Number of free objects a stripe holds before objects go to the overflow queue
+     */
+    static final int STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final Deque<Object> overflow = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger destroyed = new AtomicInteger();
+    private final LongAdder success = new LongAdder();
+
+    private final AtomicBoolean resizeScheduled = new AtomicBoolean();
+    private final AtomicBoolean inResizing = new AtomicBoolean();
+    private final boolean maintainSteadySize;
+    private TimerTask poolTimerTask;
+    private volatile boolean poolClosed;
+
+    public StripedPool(long beanId, String poolName, ObjectFactory factory,
+        int steadyPoolSize, int resizeQuantity,
+        int maxPoolSize, int idleTimeoutInSeconds,
+        ClassLoader loader)
+    {
+        this.poolName = poolName;
+        this.beanId = beanId;
+        this.factory = factory;
+        this.steadyPoolSize = (steadyPoolSize <= 0) ? 0 : steadyPoolSize;
+        this.resizeQuantity = (resizeQuantity <= 0) ? 0 : resizeQuantity;
+        this.maxPoolSize = (maxPoolSize <= 0) ? Integer.MAX_VALUE : maxPoolSize;
+        this.steadyPoolSize = Math.min(this.steadyPoolSize, this.maxPoolSize);
+        this.idleTimeoutInSeconds = (idleTimeoutInSeconds <= 0) ? 0 : idleTimeoutInSeconds;
+        this.containerClassLoader = loader;
+        this.maintainSteadySize = this.steadyPoolSize > 0;
+
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = stripeCount - 1;
+
+        if ((this.idleTimeoutInSeconds > 0) && (this.resizeQuantity > 0)) {
+            try {
+                this.poolTimerTask = new PoolResizeTimerTask();
+                EjbContainerUtilImpl.getInstance().getTimer().scheduleAtFixedRate
+                    (poolTimerTask, this.idleTimeoutInSeconds * 1000L,
+                     this.idleTimeoutInSeconds * 1000L);
+                if (_logger.isLoggable(Level.FINE)) {
+                    _logger.log(Level.FINE, "[Pool-{0}]: Added PoolResizeTimerTask...", poolName);
+                }
+            } catch (Throwable th) {
+                _logger.log(Level.WARNING, "[Pool-" + poolName + "]: Could not add"
+                            + " PoolTimerTask. Continuing anyway...", th);
+            }
+        }
+    }
+
+    @Override
+    public Object getObject(Object param)
+    {
+        Object obj = poll();
+        if (maintainSteadySize && idleCount.get() < steadyPoolSize) {
+            scheduleResize();
+        }
+        if (obj != null) {
+            success.increment();
+            return obj;
+        }
+
+        poolProbeNotifier.ejbObjectAddedEvent(beanId, appName, modName, ejbName);
+        created.incrementAndGet();
+        try {
+            return factory.create(param);
+        } catch (RuntimeException th) {
+            poolProbeNotifier.ejbObjectAddFailedEvent(beanId, appName, modName, ejbName);
+            created.decrementAndGet();
+            throw th;
+        }
+    }
+
+    /**
+     * Return an object back to the pool. An object that is obtained through
+     *	getObject() must always be returned back to the pool using either
+     *	returnObject(obj) or through destroyObject(obj).
+     * @param object
+     */
+    @Override
+    public void returnObject(Object object) {
+        if (!poolClosed && offer(object)) {
+            return;
+        }
+        poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+        destroyed.incrementAndGet();
+        try {
+            factory.destroy(object);
+        } catch (Exception ex) {
+            _logger.log(Level.FINE, "exception in returnObj", ex);
+        }
+    }
+
+    /**
+     * Destroys an Object. This method tells that the object should be
+     * destroyed and cannot be reused.
+     * @param object Object to be destroyed.
+     */
+    @Override
+    public void destroyObject(Object object) {
+        poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+        destroyed.incrementAndGet();
+        try {
+            factory.destroy(object);
+        } catch (Exception ex) {
+            _logger.log(Level.FINE, "exception in destroyObject", ex);
+        }
+    }
+
+    /**
+    * Close the pool
+    */
+    @Override
+    public void close() {
+        if (poolClosed) {
+            return;
+        }
+        poolClosed = true;
+        if (poolTimerTask != null) {
+            try {
+                poolTimerTask.cancel();
+            } catch (Throwable th) {
+                //Can safely ignore this!!
+            }
+        }
+
+        // since we're calling into ejb code, we need to set context
+        // class loader
+        ClassLoader origLoader = Utility.setContextClassLoader(containerClassLoader);
+        try {
+            Object obj;
+            while ((obj = poll()) != null) {
+                poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+                destroyed.incrementAndGet();
+                try {
+                    factory.destroy(obj);
+                } catch (Throwable th) {
+                    _logger.log(Level.FINE, "exception in close", th);
+                }
+            }
+            unregisterProbeProvider();
+        } finally {
+            Utility.setContextClassLoader(origLoader);
+        }
+        if (_logger.isLoggable(Level.FINE)) {
+            _logger.log(Level.FINE, "[Pool-{0}]: Pool closed....", poolName);
+        }
+        this.poolTimerTask = null;
+        this.containerClassLoader = null;
+    }
+
+    @Override
+    protected void removeIdleObjects() {
+    }
+
+    /**
+     * Takes a free object from the calling thread's stripe, the overflow
+     * queue or any other stripe, in that order.
+     */
+    private Object poll() {
+        int home = stripeIndex();
+        Object obj = stripes[home].poll();
+        if (obj == null) {
+            obj = overflow.pollFirst();
+            for (int i = 1; obj == null && i < stripes.length; i++) {
+                obj = stripes[(home + i) & stripeMask].poll();
+            }
+        }
+        if (obj != null) {
+            idleCount.decrementAndGet();
+        }
+        return obj;
+    }
+
+    /**
+     * Keeps a free object unless the pool already holds maxPoolSize of them.
+     */
+    private boolean offer(Object obj) {
+        if (idleCount.incrementAndGet() > maxPoolSize) {
+            idleCount.decrementAndGet();
+            return false;
+        }
+        if (!stripes[stripeIndex()].offer(obj)) {
+            overflow.offerFirst(obj);
+        }
+        return true;
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32));
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    private void scheduleResize() {
+        if (poolClosed || !resizeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            EjbContainerUtilImpl.getInstance().addWork(() -> {
+                try {
+                    doResize();
+                } finally {
+                    resizeScheduled.set(false);
+                }
+            });
+        } catch (Exception ex) {
+            resizeScheduled.set(false);
+            _logger.log(Level.WARNING, "[Pool-" + poolName + "]: Cannot perform pool resize task", ex);
+        }
+    }
+
+    protected void doResize() {
+        if (poolClosed || !inResizing.compareAndSet(false, true)) {
+            return;
+        }
+        final Thread currentThread = Thread.currentThread();
+        final ClassLoader previousClassLoader = Utility.setContextClassLoader(containerClassLoader);
+        try {
+            int curSize = idleCount.get();
+            if (curSize > steadyPoolSize) {
+                if (idleTimeoutInSeconds > 0 && resizeQuantity > 0) {
+                    removeIdle(Math.min(resizeQuantity, curSize - steadyPoolSize));
+                }
+            } else if (curSize < steadyPoolSize && maintainSteadySize) {
+                preload(Math.min(steadyPoolSize, maxPoolSize) - curSize);
+            }
+        } catch (Throwable th) {
+            _logger.log(Level.WARNING, "[Pool-" + poolName + "]: Exception during reSize", th);
+        } finally {
+            inResizing.set(false);
+            Utility.setContextClassLoader(previousClassLoader);
+        }
+        if (_logger.isLoggable(Level.FINE)) {
+            _logger.log(Level.FINE, "[Pool-{0}]: Resize completed on {1}; after reSize: {2}",
+                    new Object[]{poolName, currentThread.getName(), getAllAttrValues()});
+        }
+    }
+
+    /**
+     * Destroys up to count objects which have not been used within the idle
+     * timeout. The least recently returned objects sit at the tail of each
+     * queue.
+     */
+    private void removeIdle(int count) {
+        long allowedIdleTime = System.currentTimeMillis() - idleTimeoutInSeconds * 1000L;
+        List<Object> removeList = new ArrayList<>();
+        removeIdle(overflow, count, allowedIdleTime, removeList, null);
+        for (int i = 0; i < stripes.length && removeList.size() < count; i++) {
+            removeIdle(stripes[i].objects, count, allowedIdleTime, removeList, stripes[i].size);
+        }
+        for (Object obj : removeList) {
+            poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+            destroyed.incrementAndGet();
+            try {
+                factory.destroy(obj);
+            } catch (Throwable th) {
+                _logger.log(Level.FINE, "exception in doResize", th);
+            }
+        }
+    }
+
+    private void removeIdle(Deque<Object> objects, int count, long allowedIdleTime,
+            List<Object> removeList, AtomicInteger size) {
+        while (removeList.size() < count) {
+            Object obj = objects.pollLast();
+            if (obj == null) {
+                return;
+            }
+            if (obj instanceof EJBContextImpl && ((EJBContextImpl) obj).getLastTimeUsed() > allowedIdleTime) {
+                objects.offerLast(obj);
+                return;
+            }
+            if (size != null) {
+                size.decrementAndGet();
+            }
+            idleCount.decrementAndGet();
+            removeList.add(obj);
+        }
+    }
+
+    private void preload(int count) {
+        for (int i = 0; i < count && !poolClosed; i++) {
+            Object obj;
+            try {
+                obj = factory.create(null);
+            } catch (Exception ex) {
+                //Need not throw this exception up since we are pre-populating
+                return;
+            }
+            poolProbeNotifier.ejbObjectAddedEvent(beanId, appName, modName, ejbName);
+            created.incrementAndGet();
+            if (idleCount.incrementAndGet() > maxPoolSize) {
+                idleCount.decrementAndGet();
+                destroyObject(obj);
+                return;
+            }
+            overflow.offerLast(obj);
+        }
+    }
+
+    /* *************** For Monitoring ***********************/
+    /* ******************************************************/
+
+    @Override
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    @Override
+    public int getDestroyedCount() {
+        return destroyed.get();
+    }
+
+    @Override
+    public int getPoolSuccess() {
+        return success.intValue();
+    }
+
+    @Override
+    public int getSize() {
+        return idleCount.get();
+    }
+
+    @Override
+    public int getNumBeansInPool() {
+        return idleCount.get();
+    }
+
+    @Override
+    public int getTotalBeansCreated() {
+        return created.get();
+    }
+
+    @Override
+    public int getTotalBeansDestroyed() {
+        return destroyed.get();
+    }
+
+    @Override
+    public void appendStats(StringBuilder sbuf) {
+        sbuf.append("[Pool: ")
+            .append("SZ=").append(idleCount.get()).append("; ")
+            .append("CC=").append(created.get()).append("; ")
+            .append("DC=").append(destroyed.get()).append("; ")
+            .append("WC=0; ")
+            .append("MSG=0");
+        if (configData != null) {
+            sbuf.append(configData);
+        }
+        sbuf.append("]");
+    }
+
+    @Override
+    public String getAllMonitoredAttrbuteValues() {
+        StringBuilder sbuf = new StringBuilder();
+        sbuf.append("createdCount=").append(created.get()).append(";")
+            .append("destroyedCount=").append(destroyed.get()).append(";")
+            .append("waitCount=0;")
+            .append("size=").append(idleCount.get()).append(";")
+            .append("maxPoolSize=").append(maxPoolSize).append(";");
+        return sbuf.toString();
+    }
+
+    @Override
+    public String getAllAttrValues() {
+        StringBuilder sbuf = new StringBuilder("[Pool-" + poolName + "] ");
+        sbuf.append("CC=").append(created.get()).append("; ")
+            .append("DC=").append(destroyed.get()).append("; ")
+            .append("CS=").append(idleCount.get()).append("; ")
+            .append("SS=").append(steadyPoolSize).append("; ")
+            .append("MS=").append(maxPoolSize).append(";")
+            .append("ST=").append(stripes.length).append(";");
+        return sbuf.toString();
+    }
+
+    /**
+     * Free objects of one stripe, most recently returned first
+     */
+    private static final class Stripe {
+        final Deque<Object> objects = new ConcurrentLinkedDeque<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        Object poll() {
+            Object obj = objects.pollFirst();
+            if (obj != null) {
+                size.decrementAndGet();
+            }
+            return obj;
+        }
+
+        boolean offer(Object obj) {
+            if (size.incrementAndGet() > STRIPE_CAPACITY) {
+                size.decrementAndGet();
+                return false;
+            }
+            objects.offerFirst(obj);
+            return true;
+        }
+    }
+
+    private class PoolResizeTimerTask
+        extends TimerTask
+    {
+        @Override
+        public void run() {
+            scheduleResize();
+        }
+    }
+}
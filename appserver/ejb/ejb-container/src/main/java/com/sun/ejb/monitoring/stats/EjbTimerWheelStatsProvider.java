@@ -0,0 +1,134 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.monitoring.stats;
+
+import com.sun.ejb.containers.EJBTimerWheel;
+import org.glassfish.external.probe.provider.StatsProviderManager;
+import org.glassfish.external.statistics.CountStatistic;
+import org.glassfish.external.statistics.impl.CountStatisticImpl;
+import org.glassfish.gmbal.AMXMetadata;
+import org.glassfish.gmbal.Description;
+import org.glassfish.gmbal.ManagedAttribute;
+import org.glassfish.gmbal.ManagedObject;
+
+/**
+ * Provides monitoring stats for the {@link EJBTimerWheel} that schedules
+ * EJB timer expirations.
+ *
+ * @since 6.2025.1
+ */
+@AMXMetadata(type="timer-wheel-mon", group="monitoring", isSingleton=true)
+@ManagedObject
+@Description("EJB Timer Wheel Statistics")
+public class EjbTimerWheelStatsProvider {
+
+    private final EJBTimerWheel timerWheel;
+    private boolean registered = false;
+
+    private CountStatisticImpl pendingTimers = new CountStatisticImpl(
+            "NumPendingTimers", "count",
+            "Number of timer expirations waiting on the timer wheel");
+    private CountStatisticImpl expiredTimers = new CountStatisticImpl(
+            "NumExpiredTimers", "count",
+            "Number of timer expirations dispatched by the timer wheel");
+    private CountStatisticImpl lastLag = new CountStatisticImpl(
+            "LastExpirationLag", "Milliseconds",
+            "Delay between the timeout of the last expired timer and its dispatch");
+    private CountStatisticImpl averageLag = new CountStatisticImpl(
+            "AverageExpirationLag", "Milliseconds",
+            "Average delay between timer timeouts and their dispatch");
+    private CountStatisticImpl maxLag = new CountStatisticImpl(
+            "MaxExpirationLag", "Milliseconds",
+            "Longest delay between a timer timeout and its dispatch");
+
+    public EjbTimerWheelStatsProvider(EJBTimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
+    public void register() {
+        String node = EjbMonitoringUtils.registerSingleComponent("timer-wheel",
+                this);
+        if (node != null) {
+            registered = true;
+        }
+    }
+
+    public void unregister() {
+        if (registered) {
+            registered = false;
+            StatsProviderManager.unregister(this);
+        }
+    }
+
+    @ManagedAttribute(id="numpendingtimers")
+    @Description("Number of timer expirations waiting on the timer wheel")
+    public CountStatistic getPendingTimers() {
+        pendingTimers.setCount(timerWheel.getPendingCount());
+        return pendingTimers;
+    }
+
+    @ManagedAttribute(id="numexpiredtimers")
+    @Description("Number of timer expirations dispatched by the timer wheel")
+    public CountStatistic getExpiredTimers() {
+        expiredTimers.setCount(timerWheel.getExpiredCount());
+        return expiredTimers;
+    }
+
+    @ManagedAttribute(id="lastexpirationlag")
+    @Description("Delay between the timeout of the last expired timer and its dispatch")
+    public CountStatistic getLastLag() {
+        lastLag.setCount(timerWheel.getLastLagMillis());
+        return lastLag;
+    }
+
+    @ManagedAttribute(id="averageexpirationlag")
+    @Description("Average delay between timer timeouts and their dispatch")
+    public CountStatistic getAverageLag() {
+        averageLag.setCount(timerWheel.getAverageLagMillis());
+        return averageLag;
+    }
+
+    @ManagedAttribute(id="maxexpirationlag")
+    @Description("Longest delay between a timer timeout and its dispatch")
+    public CountStatistic getMaxLag() {
+        maxLag.setCount(timerWheel.getMaxLagMillis());
+        return maxLag;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.monitoring.stats;
+
+import com.sun.ejb.containers.SingletonLock;
+import org.glassfish.external.probe.provider.StatsProviderManager;
+import org.glassfish.external.statistics.CountStatistic;
+import org.glassfish.external.statistics.StringStatistic;
+import org.glassfish.external.statistics.impl.CountStatisticImpl;
+import org.glassfish.external.statistics.impl.StringStatisticImpl;
+import org.glassfish.gmbal.AMXMetadata;
+import org.glassfish.gmbal.Description;
+import org.glassfish.gmbal.ManagedAttribute;
+import org.glassfish.gmbal.ManagedObject;
+
+/**
+ * Provides lock statistics for a singleton with container managed
+ * concurrency.
+ *
+ * @since 6.2025.1
+ */
+@AMXMetadata(type="singleton-lock-mon", group="monitoring", isSingleton=false)
+@ManagedObject
+@Description("Singleton Lock Statistics")
+public class SingletonLockStatsProvider {
+
+    private final SingletonLock delegate;
+    private final String appName;
+    private final String moduleName;
+    private final String beanName;
+    private boolean registered = false;
+
+    private StringStatisticImpl lockType = new StringStatisticImpl(
+            "LockType", "String",
+            "Lock strategy of the singleton");
+    private CountStatisticImpl acquisitions = new CountStatisticImpl(
+            "LockAcquisitionCount", "count",
+            "Number of times the singleton lock has been acquired");
+    private CountStatisticImpl contentions = new CountStatisticImpl(
+            "LockContentionCount", "count",
+            "Number of lock requests that had to wait for the singleton lock");
+    private CountStatisticImpl timeouts = new CountStatisticImpl(
+            "LockTimeoutCount", "count",
+            "Number of lock requests that gave up waiting for the singleton lock");
+    private CountStatisticImpl totalWait = new CountStatisticImpl(
+            "TotalLockWaitTime", "Milliseconds",
+            "Total time spent waiting for the singleton lock");
+    private CountStatisticImpl maxWait = new CountStatisticImpl(
+            "MaxLockWaitTime", "Milliseconds",
+            "Longest time spent waiting for the singleton lock");
+
+    public SingletonLockStatsProvider(SingletonLock delegate, String appName,
+            String moduleName, String beanName) {
+        this.delegate = delegate;
+        this.appName = appName;
+        this.moduleName = moduleName;
+        this.beanName = beanName;
+    }
+
+    public void register() {
+        String invokerId = EjbMonitoringUtils.getInvokerId(appName, moduleName, beanName);
+        String node = EjbMonitoringUtils.registerSubComponent(
+                appName, moduleName, beanName, "singleton-lock", this, invokerId);
+        if (node != null) {
+            registered = true;
+        }
+    }
+
+    public void unregister() {
+        if (registered) {
+            registered = false;
+            StatsProviderManager.unregister(this);
+        }
+    }
+
+    @ManagedAttribute(id="locktype")
+    @Description("Lock strategy of the singleton")
+    public StringStatistic getLockType() {
+        lockType.setCurrent(delegate.getType().name().toLowerCase());
+        return lockType;
+    }
+
+    @ManagedAttribute(id="lockacquisitioncount")
+    @Description("Number of times the singleton lock has been acquired")
+    public CountStatistic getLockAcquisitionCount() {
+        acquisitions.setCount(delegate.getAcquisitionCount());
+        return acquisitions;
+    }
+
+    @ManagedAttribute(id="lockcontentioncount")
+    @Description("Number of lock requests that had to wait for the singleton lock")
+    public CountStatistic getLockContentionCount() {
+        contentions.setCount(delegate.getContentionCount());
+        return contentions;
+    }
+
+    @ManagedAttribute(id="locktimeoutcount")
+    @Description("Number of lock requests that gave up waiting for the singleton lock")
+    public CountStatistic getLockTimeoutCount() {
+        timeouts.setCount(delegate.getTimeoutCount());
+        return timeouts;
+    }
+
+    @ManagedAttribute(id="totallockwaittime")
+    @Description("Total time spent waiting for the singleton lock")
+    public CountStatistic getTotalLockWaitTime() {
+        totalWait.setCount(delegate.getTotalWaitMillis());
+        return totalWait;
+    }
+
+    @ManagedAttribute(id="maxlockwaittime")
+    @Description("Longest time spent waiting for the singleton lock")
+    public CountStatistic getMaxLockWaitTime() {
+        maxWait.setCount(delegate.getMaxWaitMillis());
+        return maxWait;
+    }
+}
@@ -37,10 +37,11 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 package org.glassfish.ejb.security.application;
 
 import com.sun.ejb.EjbInvocation;
+import com.sun.ejb.containers.interceptors.InterceptorUtil;
 import com.sun.enterprise.deployment.EjbIORConfigurationDescriptor;
 import com.sun.enterprise.deployment.RunAsIdentityDescriptor;
 import com.sun.enterprise.security.SecurityContext;
@@ -68,6 +69,8 @@ import org.glassfish.external.probe.provider.StatsProviderManager;
 import javax.security.auth.Subject;
 import javax.security.auth.SubjectDomainCombiner;
 import jakarta.security.jacc.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -415,6 +418,30 @@ public final class EJBSecurityManager implements SecurityManager {
         }
     }
 
+    /**
+     * Same as {@link #invoke(Method, boolean, Object, Object[])}, but when the method runs in the caller's security
+     * context it is called through the given handle. An exception thrown by the method is wrapped in an
+     * InvocationTargetException, as reflection would do.
+     *
+     * @param beanMethodHandle handle bound for beanClassMethod, typed {@code (Object, Object[])Object}, may be null
+     */
+    @Override
+    public Object invoke(MethodHandle beanMethodHandle, Method beanClassMethod, boolean isLocal, Object beanObject, Object[] parameters) throws Throwable {
+        if (beanMethodHandle == null || !((isLocal && getUsesCallerIdentity()) || System.getSecurityManager() == null)) {
+            return invoke(beanClassMethod, isLocal, beanObject, parameters);
+        }
+
+        String oldContextId = setPolicyContext(contextId);
+        try {
+            return (Object) beanMethodHandle.invokeExact(beanObject, parameters);
+        } catch (Throwable t) {
+            InterceptorUtil.checkBeanMethodCall(t, beanClassMethod, beanObject, parameters);
+            throw new InvocationTargetException(t);
+        } finally {
+            resetPolicyContext(oldContextId, contextId);
+        }
+    }
+
     @Override
     public void resetPolicyContext() {
         try {
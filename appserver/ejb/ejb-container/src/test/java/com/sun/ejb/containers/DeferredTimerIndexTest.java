@@ -0,0 +1,135 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeferredTimerIndexTest {
+
+    @Test
+    public void readdingTimerMovesItToTheNewExpiration() {
+        DeferredTimerIndex index = new DeferredTimerIndex();
+        TimerPrimaryKey timer = new TimerPrimaryKey("a");
+
+        index.add(timer, 100L);
+        index.add(new TimerPrimaryKey("a"), 500L);
+
+        assertEquals(1, index.size());
+        assertTrue(index.pollDue(100L, 10).isEmpty());
+        assertEquals(Arrays.asList(timer), index.pollDue(500L, 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void batchesSplitTimersSharingAnExpiration() {
+        DeferredTimerIndex index = new DeferredTimerIndex();
+        index.add(new TimerPrimaryKey("a"), 100L);
+        index.add(new TimerPrimaryKey("b"), 100L);
+        index.add(new TimerPrimaryKey("c"), 100L);
+
+        List<TimerPrimaryKey> first = index.pollDue(100L, 2);
+        List<TimerPrimaryKey> second = index.pollDue(100L, 2);
+
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        HashSet<TimerPrimaryKey> all = new HashSet<>(first);
+        all.addAll(second);
+        assertEquals(new HashSet<>(Arrays.asList(new TimerPrimaryKey("a"),
+                new TimerPrimaryKey("b"), new TimerPrimaryKey("c"))), all);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void batchesSpanSeveralExpirationsInOrder() {
+        DeferredTimerIndex index = new DeferredTimerIndex();
+        index.add(new TimerPrimaryKey("late"), 300L);
+        index.add(new TimerPrimaryKey("early"), 100L);
+        index.add(new TimerPrimaryKey("middle"), 200L);
+
+        assertEquals(Arrays.asList(new TimerPrimaryKey("early"), new TimerPrimaryKey("middle")),
+                index.pollDue(300L, 2));
+        assertEquals(Arrays.asList(new TimerPrimaryKey("late")), index.pollDue(300L, 2));
+    }
+
+    @Test
+    public void horizonIsInclusive() {
+        DeferredTimerIndex index = new DeferredTimerIndex();
+        index.add(new TimerPrimaryKey("due"), 1000L);
+        index.add(new TimerPrimaryKey("later"), 1001L);
+
+        assertEquals(Arrays.asList(new TimerPrimaryKey("due")), index.pollDue(1000L, 10));
+        assertEquals(1, index.size());
+        assertTrue(index.pollDue(1000L, 10).isEmpty());
+        assertEquals(Arrays.asList(new TimerPrimaryKey("later")), index.pollDue(1001L, 10));
+    }
+
+    @Test
+    public void removedTimerIsNotPolled() {
+        DeferredTimerIndex index = new DeferredTimerIndex();
+        index.add(new TimerPrimaryKey("a"), 100L);
+        index.add(new TimerPrimaryKey("b"), 100L);
+
+        assertTrue(index.remove(new TimerPrimaryKey("a")));
+        assertFalse(index.remove(new TimerPrimaryKey("a")));
+
+        assertEquals(1, index.size());
+        assertEquals(Arrays.asList(new TimerPrimaryKey("b")), index.pollDue(100L, 10));
+        assertFalse(index.remove(new TimerPrimaryKey("b")));
+    }
+
+    @Test
+    public void clearDropsAllTimers() {
+        DeferredTimerIndex index = new DeferredTimerIndex();
+        index.add(new TimerPrimaryKey("a"), 100L);
+        index.add(new TimerPrimaryKey("b"), 200L);
+
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertTrue(index.pollDue(Long.MAX_VALUE, 10).isEmpty());
+    }
+}
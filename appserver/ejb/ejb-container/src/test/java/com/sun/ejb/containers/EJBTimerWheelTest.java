@@ -0,0 +1,226 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EJBTimerWheelTest {
+
+    private static final long TICK_MILLIS = 10L;
+
+    private final List<EJBTimerTask> fired = new ArrayList<>();
+
+    @Test
+    public void taskIsPlacedOnTheLowestLevelCoveringItsTimeout() {
+        EJBTimerWheel wheel = newWheel();
+
+        wheel.schedule(task(5));
+        wheel.schedule(task(300));
+        wheel.schedule(task(70_000));
+        wheel.schedule(task(20_000_000));
+        wheel.advanceTo(0);
+
+        assertEquals(1, wheel.countOnLevel(0));
+        assertEquals(1, wheel.countOnLevel(1));
+        assertEquals(1, wheel.countOnLevel(2));
+        assertEquals(1, wheel.countOnLevel(3));
+        assertEquals(4, wheel.getPendingCount());
+    }
+
+    @Test
+    public void taskBeyondTheRangeOfTheWheelWaitsOnTheTopLevel() {
+        EJBTimerWheel wheel = newWheel();
+
+        wheel.schedule(task(1L << 33));
+        wheel.advanceTo(0);
+
+        assertEquals(1, wheel.countOnLevel(EJBTimerWheel.LEVELS - 1));
+    }
+
+    @Test
+    public void taskFiresAtItsTickFromEveryLevel() {
+        for (long tick : new long[] {1, 5, 255, 256, 300, 65_535, 65_536, 70_000, 196_615}) {
+            fired.clear();
+            EJBTimerWheel wheel = newWheel();
+            EJBTimerTask task = task(tick);
+            wheel.schedule(task);
+
+            assertEquals("tick " + tick, tick, advanceUntilFired(wheel, task, tick + 1));
+            assertEquals(1, wheel.getExpiredCount());
+            assertEquals(0, wheel.getPendingCount());
+        }
+    }
+
+    @Test
+    public void taskCascadesDownAsTheWheelTurns() {
+        EJBTimerWheel wheel = newWheel();
+        EJBTimerTask task = task(70_000);
+        wheel.schedule(task);
+
+        wheel.advanceTo(65_535);
+        assertEquals(1, wheel.countOnLevel(2));
+
+        wheel.advanceTo(65_536);
+        assertEquals(0, wheel.countOnLevel(2));
+        assertEquals(1, wheel.countOnLevel(1));
+
+        wheel.advanceTo(69_888);
+        assertEquals(0, wheel.countOnLevel(1));
+        assertEquals(1, wheel.countOnLevel(0));
+
+        wheel.advanceTo(69_999);
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(70_000);
+        assertEquals(task, fired.get(0));
+        assertEquals(0, wheel.countOnLevel(0));
+    }
+
+    @Test
+    public void taskNeverFiresBeforeItsTimeout() {
+        EJBTimerWheel wheel = newWheel();
+        EJBTimerTask task = new RecordingTask(10 * TICK_MILLIS + 1);
+        wheel.schedule(task);
+
+        assertEquals(11, advanceUntilFired(wheel, task, 20));
+    }
+
+    @Test
+    public void overdueTaskFiresWhenItIsPlaced() {
+        EJBTimerWheel wheel = newWheel();
+        wheel.advanceTo(100);
+
+        EJBTimerTask task = task(50);
+        wheel.schedule(task);
+        wheel.advanceTo(100);
+
+        assertEquals(task, fired.get(0));
+    }
+
+    @Test
+    public void cancelledTaskIsDropped() {
+        EJBTimerWheel wheel = newWheel();
+        EJBTimerTask kept = task(300);
+        EJBTimerTask cancelled = task(300);
+        wheel.schedule(kept);
+        wheel.schedule(cancelled);
+        cancelled.cancel();
+
+        wheel.advanceTo(300);
+
+        assertEquals(1, fired.size());
+        assertEquals(kept, fired.get(0));
+        assertEquals(1, wheel.getExpiredCount());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void wheelThreadExpiresTasksAndStops() throws Exception {
+        EJBTimerWheel wheel = new EJBTimerWheel(5);
+        CountDownLatch expired = new CountDownLatch(1);
+        try {
+            wheel.schedule(new EJBTimerTask(new Date(System.currentTimeMillis() + 20), null, null) {
+                @Override
+                public void run() {
+                    expired.countDown();
+                }
+            });
+            assertTrue(expired.await(5, TimeUnit.SECONDS));
+        } finally {
+            wheel.stop();
+        }
+        assertTrue(wheel.isStopped());
+    }
+
+    @Test
+    public void stoppedWheelDoesNotExpireTasks() {
+        EJBTimerWheel wheel = newWheel();
+        wheel.schedule(task(5));
+        wheel.stop();
+
+        wheel.advanceTo(10);
+
+        assertTrue(fired.isEmpty());
+        assertTrue(wheel.isStopped());
+        assertEquals(1, wheel.getPendingCount());
+    }
+
+    private static EJBTimerWheel newWheel() {
+        return new EJBTimerWheel(TICK_MILLIS, 0L, false);
+    }
+
+    private EJBTimerTask task(long tick) {
+        return new RecordingTask(tick * TICK_MILLIS);
+    }
+
+    /**
+     * Turns the wheel one tick at a time until the task fires.
+     *
+     * @return the tick the task fired at, or -1 if it did not fire by maxTick
+     */
+    private long advanceUntilFired(EJBTimerWheel wheel, EJBTimerTask task, long maxTick) {
+        for (long tick = 0; tick <= maxTick; tick++) {
+            wheel.advanceTo(tick);
+            if (fired.contains(task)) {
+                return tick;
+            }
+        }
+        return -1;
+    }
+
+    private final class RecordingTask extends EJBTimerTask {
+
+        RecordingTask(long timeoutMillis) {
+            super(new Date(timeoutMillis), null, null);
+        }
+
+        @Override
+        public void run() {
+            fired.add(this);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import jakarta.ejb.IllegalLoopbackException;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingletonLockTest {
+
+    private static final long SHORT_WAIT_MILLIS = 50L;
+    private static final long LONG_WAIT_MILLIS = 5000L;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readLoopbackReentersReadLockWhileWriterWaits() throws Exception {
+        for (SingletonLock.Type type : SingletonLock.Type.values()) {
+            SingletonLock lock = SingletonLock.create(type);
+            lock.readLock().lock();
+            Future<Boolean> writer;
+            try {
+                // a queued writer must not block a nested READ call
+                writer = inOtherThread(() -> tryAndRelease(lock.writeLock(), LONG_WAIT_MILLIS));
+                Thread.sleep(SHORT_WAIT_MILLIS);
+
+                assertTrue(type.name(), lock.readLock().tryLock(LONG_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+                assertTrue(type.name(), lock.isReadLockedByCurrentThreadOnly());
+                lock.readLock().unlock();
+                assertFalse(type.name(), writer.isDone());
+            } finally {
+                lock.readLock().unlock();
+            }
+            assertFalse(type.name(), lock.isReadLockedByCurrentThreadOnly());
+            assertTrue(type.name(), writer.get());
+        }
+    }
+
+    @Test
+    public void readLoopbackIsAllowedUnderWriteLock() throws Exception {
+        for (SingletonLock.Type type : SingletonLock.Type.values()) {
+            SingletonLock lock = SingletonLock.create(type);
+            lock.writeLock().lock();
+            try {
+                assertTrue(type.name(), lock.readLock().tryLock(SHORT_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+                assertFalse(type.name(), lock.isReadLockedByCurrentThreadOnly());
+                lock.checkWriteLoopback("write");
+                lock.readLock().unlock();
+
+                assertTrue(type.name(), lock.writeLock().tryLock(SHORT_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+                lock.writeLock().unlock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            assertTrue(type.name(), inOtherThread(() -> tryAndRelease(lock.writeLock())).get());
+        }
+    }
+
+    @Test
+    public void writeLoopbackUnderReadLockIsIllegal() {
+        for (SingletonLock.Type type : SingletonLock.Type.values()) {
+            SingletonLock lock = SingletonLock.create(type);
+            lock.checkWriteLoopback("write");
+            lock.readLock().lock();
+            try {
+                lock.checkWriteLoopback("write");
+                fail(type.name() + " allowed a WRITE call under a read lock");
+            } catch (IllegalLoopbackException e) {
+                assertTrue(e.getMessage().contains("'write'"));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    @Test
+    public void writeLockExcludesOtherThreads() throws Exception {
+        for (SingletonLock.Type type : SingletonLock.Type.values()) {
+            SingletonLock lock = SingletonLock.create(type);
+            lock.writeLock().lock();
+            try {
+                assertFalse(type.name(), inOtherThread(() -> tryAndRelease(lock.readLock())).get());
+                assertFalse(type.name(), inOtherThread(() -> tryAndRelease(lock.writeLock())).get());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            assertTrue(type.name(), inOtherThread(() -> tryAndRelease(lock.readLock())).get());
+            assertTrue(type.name(), inOtherThread(() -> tryAndRelease(lock.writeLock())).get());
+        }
+    }
+
+    @Test
+    public void readLockExcludesWritersButNotReaders() throws Exception {
+        for (SingletonLock.Type type : SingletonLock.Type.values()) {
+            SingletonLock lock = SingletonLock.create(type);
+            lock.readLock().lock();
+            try {
+                assertTrue(type.name(), inOtherThread(() -> tryAndRelease(lock.readLock())).get());
+                assertFalse(type.name(), inOtherThread(() -> tryAndRelease(lock.writeLock())).get());
+            } finally {
+                lock.readLock().unlock();
+            }
+            assertTrue(type.name(), inOtherThread(() -> tryAndRelease(lock.writeLock())).get());
+        }
+    }
+
+    @Test
+    public void stripedWriteLockTimeoutReleasesTheStripesItTook() throws Exception {
+        SingletonLock lock = new SingletonLock.Striped(4);
+        CountDownLatch readLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // hold the read lock of the last stripe, so the writer takes the
+        // other stripes before timing out
+        Thread reader = onStripe(3, () -> {
+            lock.readLock().lock();
+            readLocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+        reader.start();
+        assertTrue(readLocked.await(LONG_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+        assertFalse(lock.writeLock().tryLock(SHORT_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        release.countDown();
+        reader.join(LONG_WAIT_MILLIS);
+
+        // a stripe left locked by this thread would keep the write lock from
+        // any other thread
+        assertTrue(inOtherThread(() -> tryAndRelease(lock.writeLock())).get());
+    }
+
+    @Test
+    public void locksLookedUpByTheContainerWorkOnCallingThreads() throws Exception {
+        for (SingletonLock.Type type : SingletonLock.Type.values()) {
+            // CMCSingletonContainer looks the locks up once, on the deploying thread
+            SingletonLock lock = inOtherThread(() -> SingletonLock.create(type)).get();
+            Lock readLock = inOtherThread(lock::readLock).get();
+            Lock writeLock = inOtherThread(lock::writeLock).get();
+
+            assertLoopbackAndExclusion(type.name(), lock, readLock, writeLock);
+        }
+    }
+
+    @Test
+    public void stripedReadLockUsesTheStripeOfTheCallingThread() throws Exception {
+        SingletonLock.Striped lock = new SingletonLock.Striped(4);
+        Lock[] locks = new Lock[2];
+        Thread deployer = onStripe(0, () -> {
+            locks[0] = lock.readLock();
+            locks[1] = lock.writeLock();
+        });
+        deployer.start();
+        deployer.join(LONG_WAIT_MILLIS);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = onStripe(1, () -> {
+            try {
+                assertLoopbackAndExclusion("striped", lock, locks[0], locks[1]);
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        caller.start();
+        caller.join(LONG_WAIT_MILLIS);
+
+        assertFalse(caller.isAlive());
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private void assertLoopbackAndExclusion(String type, SingletonLock lock, Lock readLock, Lock writeLock)
+            throws Exception {
+        readLock.lock();
+        try {
+            assertTrue(type, lock.isReadLockedByCurrentThreadOnly());
+            assertFalse(type, inOtherThread(() -> tryAndRelease(writeLock)).get());
+            try {
+                lock.checkWriteLoopback("write");
+                fail(type + " allowed a WRITE call under a read lock");
+            } catch (IllegalLoopbackException e) {
+                // expected
+            }
+        } finally {
+            readLock.unlock();
+        }
+        assertFalse(type, lock.isReadLockedByCurrentThreadOnly());
+        assertTrue(type, inOtherThread(() -> tryAndRelease(writeLock)).get());
+    }
+
+    // stripes are picked by thread id
+    private static Thread onStripe(int stripe, Runnable task) {
+        Thread thread;
+        do {
+            thread = new Thread(task);
+        } while ((thread.getId() & 3) != stripe);
+        return thread;
+    }
+
+    @Test
+    public void stampedLockDoesNotTrackThreadsWhichHoldNothing() {
+        SingletonLock lock = SingletonLock.create(SingletonLock.Type.STAMPED);
+        assertFalse(lock.isReadLockedByCurrentThreadOnly());
+
+        try {
+            lock.readLock().unlock();
+            fail("unlocked a read lock which was not held");
+        } catch (IllegalMonitorStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void timedOutRequestsAreNotCountedAsAcquisitions() {
+        SingletonLock lock = SingletonLock.create(SingletonLock.Type.FAIR);
+        lock.recordAcquisition();
+        lock.recordContention(TimeUnit.MILLISECONDS.toNanos(3), true);
+        lock.recordContention(TimeUnit.MILLISECONDS.toNanos(7), false);
+
+        assertEquals(2, lock.getAcquisitionCount());
+        assertEquals(2, lock.getContentionCount());
+        assertEquals(1, lock.getTimeoutCount());
+        assertEquals(10, lock.getTotalWaitMillis());
+        assertEquals(7, lock.getMaxWaitMillis());
+    }
+
+    private <T> Future<T> inOtherThread(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    private static boolean tryAndRelease(Lock lock) throws InterruptedException {
+        return tryAndRelease(lock, SHORT_WAIT_MILLIS);
+    }
+
+    private static boolean tryAndRelease(Lock lock, long waitMillis) throws InterruptedException {
+        if (lock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+            lock.unlock();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers.interceptors;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jakarta.interceptor.InvocationContext;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class AroundInvokeInvocationContextTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    public void chainCallsInterceptorsInOrderBeforeTheBeanMethod() throws Throwable {
+        Bean bean = new Bean(calls);
+        Method greet = Bean.class.getMethod("greet", String.class);
+        AroundInvokeChainImpl chain = newChain(greet);
+
+        Object result = invoke(chain, bean, greet, "world");
+
+        assertEquals("hello payara", result);
+        assertEquals(Arrays.asList("first", "second", "bean", "greet payara"), calls);
+    }
+
+    @Test
+    public void exceptionOfTheBeanMethodReachesInterceptorsAsIs() throws Throwable {
+        Bean bean = new Bean(calls);
+        Method fail = Bean.class.getMethod("fail", String.class);
+        AroundInvokeChainImpl chain = newChain(fail);
+
+        try {
+            invoke(chain, bean, fail, "world");
+            fail();
+        } catch (BeanException e) {
+            assertEquals("payara", e.getMessage());
+        }
+        assertEquals(Arrays.asList("first", "second", "bean", "second caught BeanException",
+                "first caught BeanException"), calls);
+    }
+
+    @Test
+    public void unfitArgumentsFailAsIllegalArgumentLikeReflection() throws Throwable {
+        Bean bean = new Bean(calls);
+        Method greet = Bean.class.getMethod("greet", String.class);
+        AroundInvokeChainImpl chain = new AroundInvokeChainImpl(new AroundInvokeInterceptor[0], greet);
+
+        try {
+            invoke(chain, bean, greet, 42);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void chainBindsTheHandleForItsOwnMethodOnly() throws Exception {
+        AroundInvokeChainImpl chain = newChain(Bean.class.getMethod("greet", String.class));
+
+        assertNotNull(chain.getBeanMethodHandle(Bean.class.getMethod("greet", String.class)));
+        assertNull(chain.getBeanMethodHandle(Bean.class.getMethod("fail", String.class)));
+        assertNull(new AroundInvokeChainImpl(new AroundInvokeInterceptor[0]).getBeanMethodHandle(
+                Bean.class.getMethod("greet", String.class)));
+    }
+
+    @Test
+    public void beanMethodIsInvokedReflectivelyWithoutAHandle() throws Throwable {
+        Bean bean = new Bean(calls);
+        Method greet = Bean.class.getMethod("greet", String.class);
+        AroundInvokeChainImpl chain = newChain(Bean.class.getMethod("fail", String.class));
+
+        assertEquals("hello payara", invoke(chain, bean, greet, "world"));
+        assertEquals("greet payara", calls.get(calls.size() - 1));
+    }
+
+    @Test
+    public void beanCallbackIsInvokedThroughTheChain() throws Throwable {
+        Bean bean = new Bean(calls);
+        CallbackChainImpl chain = new CallbackChainImpl(new CallbackInterceptor[] {
+            new BeanCallbackInterceptor(Bean.class.getDeclaredMethod("postConstruct"))
+        });
+
+        chain.invokeNext(0, new CallbackInvocationContext(bean, new Object[0], chain));
+
+        assertEquals(Arrays.asList("postConstruct"), calls);
+    }
+
+    private static AroundInvokeChainImpl newChain(Method beanMethod) throws Exception {
+        return new AroundInvokeChainImpl(new AroundInvokeInterceptor[] {
+            new AroundInvokeInterceptor(0, First.class.getDeclaredMethod("around", InvocationContext.class)),
+            new AroundInvokeInterceptor(1, Second.class.getDeclaredMethod("around", InvocationContext.class)),
+            new BeanAroundInvokeInterceptor(Bean.class.getDeclaredMethod("aroundInvoke", InvocationContext.class))
+        }, beanMethod);
+    }
+
+    private Object invoke(AroundInvokeChainImpl chain, Bean bean, Method method, Object... params) throws Throwable {
+        Object[] interceptors = { new First(calls), new Second(calls) };
+        AroundInvokeInvocationContext ctx =
+                new AroundInvokeInvocationContext(bean, interceptors, chain, method, params);
+        return chain.invokeNext(0, ctx);
+    }
+
+    public static class Bean {
+        private final List<String> calls;
+
+        Bean(List<String> calls) {
+            this.calls = calls;
+        }
+
+        public String greet(String name) {
+            calls.add("greet " + name);
+            return "hello " + name;
+        }
+
+        public String fail(String name) throws BeanException {
+            throw new BeanException(name);
+        }
+
+        private Object aroundInvoke(InvocationContext ctx) throws Exception {
+            calls.add("bean");
+            return ctx.proceed();
+        }
+
+        private void postConstruct() {
+            calls.add("postConstruct");
+        }
+    }
+
+    public static class First {
+        private final List<String> calls;
+
+        First(List<String> calls) {
+            this.calls = calls;
+        }
+
+        private Object around(InvocationContext ctx) throws Exception {
+            calls.add("first");
+            try {
+                return ctx.proceed();
+            } catch (Exception e) {
+                calls.add("first caught " + e.getClass().getSimpleName());
+                throw e;
+            }
+        }
+    }
+
+    public static class Second {
+        private final List<String> calls;
+
+        Second(List<String> calls) {
+            this.calls = calls;
+        }
+
+        private Object around(InvocationContext ctx) throws Exception {
+            calls.add("second");
+            ctx.setParameters(new Object[] {"payara"});
+            try {
+                return ctx.proceed();
+            } catch (Exception e) {
+                calls.add("second caught " + e.getClass().getSimpleName());
+                throw e;
+            }
+        }
+    }
+
+    public static class BeanException extends Exception {
+        BeanException(String message) {
+            super(message);
+        }
+    }
+}
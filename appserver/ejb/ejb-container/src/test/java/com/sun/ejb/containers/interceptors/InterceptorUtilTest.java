@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers.interceptors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.interceptor.InvocationContext;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class InterceptorUtilTest {
+
+    @Test
+    public void beanMethodHandleTakesTheArgumentArray() throws Throwable {
+        MethodHandle handle = InterceptorUtil.bindBeanMethod(Bean.class.getMethod("add", int.class, Integer.class));
+
+        assertNotNull(handle);
+        assertEquals(5, (Object) handle.invokeExact((Object) new Bean(), new Object[] {2, 3}));
+    }
+
+    @Test
+    public void beanMethodHandleOfVoidMethodReturnsNull() throws Throwable {
+        Bean bean = new Bean();
+        MethodHandle handle = InterceptorUtil.bindBeanMethod(Bean.class.getMethod("record", String.class));
+
+        assertNull((Object) handle.invokeExact((Object) bean, new Object[] {"called"}));
+        assertEquals("called", bean.calls.get(0));
+    }
+
+    @Test
+    public void beanMethodHandleAcceptsNullArgumentsForNoArgMethod() throws Throwable {
+        MethodHandle handle = InterceptorUtil.bindBeanMethod(Bean.class.getMethod("hello"));
+
+        assertEquals("hello", (Object) handle.invokeExact((Object) new Bean(), (Object[]) null));
+        assertEquals("hello", (Object) handle.invokeExact((Object) new Bean(), new Object[0]));
+    }
+
+    @Test
+    public void beanMethodHandleThrowsTheExceptionAsIs() throws Throwable {
+        MethodHandle handle = InterceptorUtil.bindBeanMethod(Bean.class.getMethod("fail"));
+
+        try {
+            Object result = (Object) handle.invokeExact((Object) new Bean(), new Object[0]);
+            fail("returned " + result);
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void adapterFailuresAreReportedAsIllegalArguments() throws Throwable {
+        Method add = Bean.class.getMethod("add", int.class, Integer.class);
+        MethodHandle handle = InterceptorUtil.bindBeanMethod(add);
+
+        assertIllegalArgument(handle, add, new Bean(), new Object[] { "1", 2 });
+        assertIllegalArgument(handle, add, new Bean(), new Object[] { null, 2 });
+        assertIllegalArgument(handle, add, new Bean(), new Object[] { 1 });
+        assertIllegalArgument(handle, add, "not a bean", new Object[] { 1, 2 });
+    }
+
+    @Test
+    public void beanFailuresAreNotReportedAsIllegalArguments() throws Throwable {
+        Method add = Bean.class.getMethod("add", int.class, Integer.class);
+        MethodHandle handle = InterceptorUtil.bindBeanMethod(add);
+        Object[] args = { 1, null };
+
+        try {
+            Object result = (Object) handle.invokeExact((Object) new Bean(), args);
+            fail("returned " + result);
+        } catch (NullPointerException e) {
+            // thrown by the bean unboxing its Integer argument
+            InterceptorUtil.checkBeanMethodCall(e, add, new Bean(), args);
+        }
+    }
+
+    private static void assertIllegalArgument(MethodHandle handle, Method method, Object target, Object[] args) {
+        try {
+            Object result = (Object) handle.invokeExact(target, args);
+            fail("returned " + result);
+        } catch (Throwable t) {
+            try {
+                InterceptorUtil.checkBeanMethodCall(t, method, target, args);
+                fail(t + " was not reported as an illegal argument");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void staticMethodsAreNotBound() throws Exception {
+        assertNull(InterceptorUtil.bindBeanMethod(Bean.class.getMethod("create")));
+        assertNull(InterceptorUtil.bindInterceptorMethod(Bean.class.getMethod("create")));
+        assertNull(InterceptorUtil.bindBeanMethod(null));
+    }
+
+    @Test
+    public void interceptorMethodHandleTakesTheContext() throws Throwable {
+        Method method = Interceptor.class.getDeclaredMethod("around", InvocationContext.class);
+        method.setAccessible(true);
+        MethodHandle handle = InterceptorUtil.bindInterceptorMethod(method);
+
+        assertNotNull(handle);
+        assertSame(Interceptor.RESULT, (Object) handle.invokeExact((Object) new Interceptor(), (Object) null));
+    }
+
+    @Test
+    public void callbackMethodHandleWithoutParametersReturnsVoid() throws Throwable {
+        Bean bean = new Bean();
+        Method method = Bean.class.getDeclaredMethod("postConstruct");
+        method.setAccessible(true);
+        MethodHandle handle = InterceptorUtil.bindInterceptorMethod(method);
+
+        handle.invokeExact((Object) bean);
+        assertEquals("postConstruct", bean.calls.get(0));
+    }
+
+    public static class Bean {
+        final List<String> calls = new ArrayList<>();
+
+        public int add(int a, Integer b) {
+            return a + b;
+        }
+
+        public void record(String call) {
+            calls.add(call);
+        }
+
+        public String hello() {
+            return "hello";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+
+        public static Bean create() {
+            return new Bean();
+        }
+
+        private void postConstruct() {
+            calls.add("postConstruct");
+        }
+    }
+
+    public static class Interceptor {
+        static final Object RESULT = new Object();
+
+        private Object around(InvocationContext ctx) {
+            return RESULT;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.ejb.containers.util.pool;
+
+import com.sun.ejb.monitoring.probes.EjbPoolProbeProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StripedPoolTest {
+
+    @Test
+    public void returnedObjectIsReusedByTheSameThread() {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 0, 0, 0, 0);
+
+        Object first = pool.getObject(null);
+        pool.returnObject(first);
+
+        assertSame(first, pool.getObject(null));
+        assertEquals(1, factory.created.get());
+        assertEquals(1, pool.getPoolSuccess());
+        assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void objectsAboveStripeCapacityAreKept() {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 0, 0, 0, 0);
+        int count = StripedPool.STRIPE_CAPACITY * 2;
+
+        List<Object> borrowed = borrow(pool, count);
+        borrowed.forEach(pool::returnObject);
+        assertEquals(count, pool.getSize());
+
+        List<Object> again = borrow(pool, count);
+        assertEquals(count, factory.created.get());
+        assertEquals(count, identities(again).size());
+        assertTrue(identities(again).containsAll(borrowed));
+    }
+
+    @Test
+    public void threadStealsFromAnotherThreadsStripe() throws Exception {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 0, 0, 0, 0);
+        int count = StripedPool.STRIPE_CAPACITY / 2;
+
+        List<Object> returned = runOnNewThread(() -> {
+            List<Object> objects = borrow(pool, count);
+            objects.forEach(pool::returnObject);
+            return objects;
+        });
+        List<Object> stolen = runOnNewThread(() -> borrow(pool, count));
+
+        assertEquals(count, factory.created.get());
+        assertEquals(identities(returned), identities(stolen));
+        assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void objectsAboveMaxPoolSizeAreDestroyed() {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 0, 0, 5, 0);
+
+        borrow(pool, 8).forEach(pool::returnObject);
+
+        assertEquals(5, pool.getSize());
+        assertEquals(3, factory.destroyed.get());
+        assertEquals(3, pool.getDestroyedCount());
+    }
+
+    @Test
+    public void resizeFillsThePoolToSteadySize() {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 4, 0, 10, 0);
+
+        pool.doResize();
+        assertEquals(4, pool.getSize());
+        assertEquals(4, factory.created.get());
+
+        List<Object> borrowed = borrow(pool, 4);
+        assertEquals(4, factory.created.get());
+        assertEquals(0, pool.getSize());
+
+        pool.doResize();
+        assertEquals(4, pool.getSize());
+        borrowed.forEach(pool::returnObject);
+        assertEquals(8, pool.getSize());
+    }
+
+    @Test
+    public void resizeRemovesIdleObjectsDownToSteadySize() {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 2, 3, 0, 60);
+
+        borrow(pool, StripedPool.STRIPE_CAPACITY + 4).forEach(pool::returnObject);
+        int size = StripedPool.STRIPE_CAPACITY + 4;
+        assertEquals(size, pool.getSize());
+
+        while (size > 2) {
+            pool.doResize();
+            size -= Math.min(3, size - 2);
+            assertEquals(size, pool.getSize());
+        }
+        pool.doResize();
+        assertEquals(2, pool.getSize());
+        assertEquals(StripedPool.STRIPE_CAPACITY + 2, factory.destroyed.get());
+    }
+
+    @Test
+    public void closedPoolDestroysFreeAndReturnedObjects() {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 0, 0, 0, 0);
+
+        List<Object> borrowed = borrow(pool, 3);
+        pool.returnObject(borrowed.get(0));
+        pool.close();
+        assertEquals(1, factory.destroyed.get());
+        assertEquals(0, pool.getSize());
+
+        pool.returnObject(borrowed.get(1));
+        assertEquals(2, factory.destroyed.get());
+        assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void concurrentBorrowAndReturnNeverSharesAnObject() throws Exception {
+        CountingFactory factory = new CountingFactory();
+        StripedPool pool = newPool(factory, 0, 0, 24, 0);
+        Set<Object> inUse = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        AtomicInteger shared = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        List<Object> held = new ArrayList<>();
+                        for (int j = 0, n = 1 + i % 4; j < n; j++) {
+                            Object obj = pool.getObject(null);
+                            if (!inUse.add(obj)) {
+                                shared.incrementAndGet();
+                            }
+                            held.add(obj);
+                        }
+                        for (Object obj : held) {
+                            inUse.remove(obj);
+                            pool.returnObject(obj);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, shared.get());
+        assertTrue(pool.getSize() <= 24);
+        assertEquals(factory.created.get(), pool.getCreatedCount());
+        assertEquals(factory.destroyed.get(), pool.getDestroyedCount());
+        assertEquals(factory.created.get() - factory.destroyed.get(), pool.getSize());
+        assertEquals(pool.getSize(), identities(borrow(pool, pool.getSize())).size());
+    }
+
+    private static StripedPool newPool(CountingFactory factory, int steadyPoolSize, int resizeQuantity,
+            int maxPoolSize, int idleTimeoutInSeconds) {
+        StripedPool pool = new StripedPool(1L, "test", factory, steadyPoolSize, resizeQuantity,
+                maxPoolSize, idleTimeoutInSeconds, StripedPoolTest.class.getClassLoader());
+        pool.poolProbeNotifier = new EjbPoolProbeProvider();
+        return pool;
+    }
+
+    private static List<Object> borrow(StripedPool pool, int count) {
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            objects.add(pool.getObject(null));
+        }
+        return objects;
+    }
+
+    private static Set<Object> identities(List<Object> objects) {
+        Set<Object> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(objects);
+        return set;
+    }
+
+    private static List<Object> runOnNewThread(Callable<List<Object>> task) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(task).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class CountingFactory implements ObjectFactory {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger destroyed = new AtomicInteger();
+
+        @Override
+        public Object create(Object param) {
+            created.incrementAndGet();
+            return new Object();
+        }
+
+        @Override
+        public void destroy(Object object) {
+            destroyed.incrementAndGet();
+        }
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.ejb.persistent.timer;
 
@@ -220,14 +220,16 @@ public class PersistentEJBTimerService extends NonPersistentEJBTimerService {
 
         TransactionManager tm = ejbContainerUtil.getTransactionManager();
 
-        Set toRestore = null;
+        List<Object[]> toRestore = null;
 	    int totalTimersMigrated = 0;
 
         try {
 
             tm.begin();
 
-            toRestore = timerLocal_.findTimersOwnedBy(fromOwnerId);
+            // Read just enough of each timer to restore it, and claim them
+            // all with a single update
+            toRestore = timerLocal_.findActiveTimerRestoreInfoOwnedBy(fromOwnerId);
             totalTimersMigrated = timerLocal_.migrateTimers(fromOwnerId, ownerIdOfThisServer);
 
             tm.commit();
@@ -367,7 +369,7 @@ public class PersistentEJBTimerService extends NonPersistentEJBTimerService {
                 restoreTimers();
                 rc = true;
             } else {
-                int s = (timerLocal_.findActiveTimersOwnedByThisServer()).size();
+                int s = timerLocal_.countActiveTimersOwnedByThisServer();
                 if (s > 0) {
                     logger.log(Level.INFO, "[" + s + "] EJB Timers owned by this server will be restored when timeout beans are loaded");
                 } else {
@@ -405,7 +407,7 @@ public class PersistentEJBTimerService extends NonPersistentEJBTimerService {
             // is initialized.  In addition, there's an initialization
             // cost to generating the SQL for the underlying
             // jpql queries the first time any TimerBean query is called.
-            _restoreTimers(timerLocal_.findActiveTimersOwnedByThisServer());
+            _restoreTimers(timerLocal_.findActiveTimerRestoreInfoOwnedBy(ownerIdOfThisServer_));
 
         } finally {
             // try to commit regardless of success or failure.
@@ -421,11 +423,85 @@ public class PersistentEJBTimerService extends NonPersistentEJBTimerService {
      * The portion of timer migration that notifies containers about
      * automatic timers being migrated to this instance
      */
-    private void _notifyContainers(Set<TimerState> timers) {
-        for(TimerState timer: timers) {
-            EJBTimerSchedule ts = timer.getTimerSchedule();
-            if (ts != null && ts.isAutomatic()) {
-                addToSchedules(timer.getContainerId(), getPrimaryKey(timer), ts);
+    private void _notifyContainers(List<Object[]> timers) {
+        for(Object[] timer: timers) {
+            String schedule = (String) timer[5];
+            if (schedule != null) {
+                EJBTimerSchedule ts = new EJBTimerSchedule(schedule);
+                if (ts.isAutomatic()) {
+                    addToSchedules((Long) timer[1], new TimerPrimaryKey((String) timer[0]), ts);
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores timers from their restore info rows.  Timers that are due
+     * within the restore window are loaded and restored in batches; the
+     * others are kept as index entries until they come into the window.
+     */
+    private void _restoreTimers(List<Object[]> timers) {
+        List<TimerPrimaryKey> due = new ArrayList<TimerPrimaryKey>(RESTORE_BATCH_SIZE);
+        int deferred = 0;
+        for(Object[] timer: timers) {
+            TimerPrimaryKey timerId = new TimerPrimaryKey((String) timer[0]);
+            if (getTimerState(timerId) != null || getContainer((Long) timer[1]) == null) {
+                // Already restored, or left for the container to restore
+                // when it starts.
+                continue;
+            }
+
+            long lastExpirationRaw = (Long) timer[3];
+            String schedule = (String) timer[5];
+            if (deferRestoration(timerId, new Date((Long) timer[2]),
+                    (lastExpirationRaw > 0) ? new Date(lastExpirationRaw) : null,
+                    (Long) timer[4],
+                    (schedule != null) ? new EJBTimerSchedule(schedule) : null)) {
+                deferred++;
+                continue;
+            }
+
+            due.add(timerId);
+            if (due.size() == RESTORE_BATCH_SIZE) {
+                _restoreTimers((Set<TimerState>) timerLocal_.findTimers(due));
+                due.clear();
+            }
+        }
+        if (!due.isEmpty()) {
+            _restoreTimers((Set<TimerState>) timerLocal_.findTimers(due));
+        }
+
+        if (deferred > 0) {
+            logger.log(Level.INFO, "Restoration of " + deferred + " EJB timers " +
+                       "not due within the restore window has been deferred");
+        }
+    }
+
+    @Override
+    protected void restoreDeferredTimers(Collection<TimerPrimaryKey> timerIds) {
+        TransactionManager tm = ejbContainerUtil.getTransactionManager();
+        try {
+            tm.begin();
+
+            Set<TimerState> timers = new HashSet<TimerState>();
+            for (TimerState timer : (Set<TimerState>) timerLocal_.findTimers(timerIds)) {
+                // The timer may have been cancelled or migrated since
+                if (timer.getState() == STATE_ACTIVE
+                        && getOwnerIdOfThisServer().equals(timer.getOwnerId())) {
+                    timers.add(timer);
+                }
+            }
+            _restoreTimers(timers);
+
+        } catch(Exception e) {
+            logger.log(Level.WARNING, "Error restoring deferred EJB timers", e);
+        } finally {
+            // We're not modifying any state in this tx so no harm in
+            // always committing.
+            try {
+                tm.commit();
+            } catch(Exception e) {
+                logger.log(Level.FINE, "deferred timer restoration error", e);
             }
         }
     }
@@ -470,6 +546,12 @@ public class PersistentEJBTimerService extends NonPersistentEJBTimerService {
 
                 Date initialExpiration = timer.getInitialExpiration();
 
+                if (deferRestoration(timerId, initialExpiration, timer.getLastExpiration(),
+                        timer.getIntervalDuration(), timer.getTimerSchedule())) {
+                    result.add(timer);
+                    continue;
+                }
+
                 // Create an instance of RuntimeTimerState.
 
                 // Only access timedObjectPrimaryKey if timed object is
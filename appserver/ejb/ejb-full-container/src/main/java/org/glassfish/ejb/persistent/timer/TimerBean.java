@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.ejb.persistent.timer;
 
@@ -45,9 +45,11 @@ import java.io.Serializable;
 import java.io.IOException;
 import java.io.ObjectStreamException;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.logging.Logger;
@@ -551,6 +553,26 @@ public class TimerBean implements TimerLocal {
                                 EJBTimerService.STATE_CANCELLED);
     }
 
+    public Set findTimers(Collection<TimerPrimaryKey> timerIds) {
+        if (timerIds.isEmpty()) {
+            return new HashSet();
+        }
+        Collection<String> ids = new ArrayList<String>(timerIds.size());
+        for (TimerPrimaryKey timerId : timerIds) {
+            ids.add(timerId.getTimerId());
+        }
+        Query q = em.createNamedQuery("findTimersByIds");
+        q.setParameter(1, ids);
+        return new HashSet(q.getResultList());
+    }
+
+    public List<Object[]> findActiveTimerRestoreInfoOwnedBy(String ownerId) {
+        Query q = em.createNamedQuery("findTimerRestoreInfoByOwnerAndState");
+        q.setParameter(1, ownerId);
+        q.setParameter(2, EJBTimerService.STATE_ACTIVE);
+        return q.getResultList();
+    }
+
 
     //
     // Helper query methods for timer counts
@@ -37,12 +37,13 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation]
+// Portions Copyright [2016-2026] [Payara Foundation]
 
 package org.glassfish.ejb.persistent.timer;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.ejb.CreateException;
@@ -123,6 +124,17 @@ public interface TimerLocal {
     Set findActiveTimersOwnedBy(String owner);
     Set findCancelledTimersOwnedBy(String owner);
 
+    // Load the given timers with a single query
+    Set findTimers(Collection<TimerPrimaryKey> timerIds);
+
+    //
+    // Queries returning restore info, one row per timer of
+    // { timerId, containerId, initialExpirationRaw, lastExpirationRaw,
+    //   intervalDuration, schedule }
+    //
+
+    List<Object[]> findActiveTimerRestoreInfoOwnedBy(String owner);
+
 
     //
     // Queries returning counts
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.ejb.persistent.timer;
 
@@ -126,6 +126,16 @@ import com.sun.logging.LogDomains;
         name="findTimersByOwnerAndState",
         query="SELECT t FROM Timer t WHERE t.ownerId = ?1 AND t.state=?2"
     ),
+    @NamedQuery(
+        // Only the columns needed to work out the next expiration, so that
+        // restoring a large number of timers doesn't load every entity
+        name="findTimerRestoreInfoByOwnerAndState",
+        query="SELECT t.timerId, t.containerId, t.initialExpirationRaw, t.lastExpirationRaw, t.intervalDuration, t.schedule FROM Timer t WHERE t.ownerId = ?1 AND t.state=?2"
+    ),
+    @NamedQuery(
+        name="findTimersByIds",
+        query="SELECT t FROM Timer t WHERE t.timerId IN ?1"
+    ),
     @NamedQuery(
         name="countTimersByApplication",
         query="SELECT COUNT(t) FROM Timer t WHERE t.applicationId = ?1"
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2016-2020 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -39,31 +39,79 @@
  */
 package fish.payara.ha.hazelcast.store;
 
+import com.hazelcast.internal.nio.IOUtil;
 import fish.payara.nucleus.store.ClusteredStore;
 import org.glassfish.ha.store.api.BackingStore;
 import org.glassfish.ha.store.api.BackingStoreException;
 import org.glassfish.ha.store.api.BackingStoreFactory;
+import org.glassfish.ha.store.api.Storeable;
+import org.glassfish.ha.store.util.CompositeMetadata;
+import org.glassfish.ha.store.util.SimpleMetadata;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
+ * Backing store keeping its values in a Hazelcast map.
+ * <p>
+ * Values loaded or saved through this member are also kept in a bounded near
+ * cache, so that a load for a version this member already holds does not have
+ * to go to the partition owner. Entries are dropped from the near cache when
+ * another member changes them, or when Hazelcast expires or evicts them.
+ * Loads which do not ask for a version always go to the cluster, as an
+ * invalidation may still be on its way. Values are kept serialized, so every
+ * load returns a copy the caller is free to change.
  *
  * @author steve
  */
 public class HazelcastBackingStore<K extends Serializable, V extends Serializable>
         extends BackingStore<K, V> {
 
+    private static final Logger LOGGER = Logger.getLogger(HazelcastBackingStore.class.getName());
+
+    /**
+     * Default number of entries kept in the near cache
+     */
+    public static final int DEFAULT_NEAR_CACHE_MAX_SIZE = 10000;
+
     private final BackingStoreFactory factory;
     private final String storeName;
-    private String instanceName;
+    private volatile String instanceName;
     private ClusteredStore clusteredStore;
 
+    private final int nearCacheMaxSize;
+    /**
+     * Values by key, or the {@link Reservation} of a load or save in flight
+     */
+    private final ConcurrentMap<K, Object> nearCache = new ConcurrentHashMap<>();
+    private final LongAdder nearCacheHits = new LongAdder();
+    private final LongAdder nearCacheMisses = new LongAdder();
+    private UUID invalidationListenerId;
+
     public HazelcastBackingStore(BackingStoreFactory factory, String storeName, ClusteredStore clusteredStore) {
+        this(factory, storeName, clusteredStore, DEFAULT_NEAR_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * @param nearCacheMaxSize the maximum number of values kept locally, 0 disables the near cache
+     */
+    public HazelcastBackingStore(BackingStoreFactory factory, String storeName, ClusteredStore clusteredStore,
+            int nearCacheMaxSize) {
         this.factory = factory;
         this.storeName = storeName;
         this.clusteredStore = clusteredStore;
+        this.nearCacheMaxSize = Math.max(0, nearCacheMaxSize);
     }
 
     @Override
@@ -72,28 +120,50 @@ public class HazelcastBackingStore<K extends Serializable, V extends Serializabl
     }
 
     @Override
-    public V load(K k, String string) throws BackingStoreException {
+    public V load(K k, String version) throws BackingStoreException {
         init();
+        if (nearCacheMaxSize > 0 && version != null) {
+            Object cached = nearCache.get(k);
+            if (cached instanceof NearCacheEntry && ((NearCacheEntry) cached).isCurrent(version)) {
+                V value = (V) ((NearCacheEntry) cached).getValue();
+                if (value != null) {
+                    nearCacheHits.increment();
+                    return value;
+                }
+            }
+            nearCacheMisses.increment();
+        }
+        Reservation reservation = reserve(k, false);
+        V value = null;
         try {
-            return (V) clusteredStore.get(storeName, k);
+            value = (V) clusteredStore.get(storeName, k);
+            return value;
         } catch (ClassCastException cce) {
-            Logger.getLogger(HazelcastBackingStore.class.getName()).log(Level.WARNING,
-                    "ClassCastException when reading value from store", cce);
+            LOGGER.log(Level.WARNING, "ClassCastException when reading value from store", cce);
             throw new BackingStoreException(cce.getMessage());
+        } finally {
+            cache(k, reservation, value);
         }
     }
 
     @Override
     public String save(K k, V v, boolean bln) throws BackingStoreException {
         init();
-        clusteredStore.set(storeName, k, v);
-        
+        Reservation reservation = reserve(k, true);
+        boolean saved = false;
+        try {
+            saved = clusteredStore.set(storeName, k, v);
+        } finally {
+            cache(k, reservation, saved ? v : null);
+        }
+
         return instanceName;
     }
 
     @Override
     public void remove(K k) throws BackingStoreException {
         init();
+        nearCache.remove(k);
         clusteredStore.remove(storeName, k);
     }
 
@@ -103,6 +173,113 @@ public class HazelcastBackingStore<K extends Serializable, V extends Serializabl
         return clusteredStore.getMap(storeName).size();
     }
 
+    @Override
+    public void destroy() throws BackingStoreException {
+        synchronized (this) {
+            if (invalidationListenerId != null) {
+                clusteredStore.removeInvalidationListener(storeName, invalidationListenerId);
+                invalidationListenerId = null;
+            }
+        }
+        nearCache.clear();
+        if (factory instanceof HazelcastBackingStoreFactory) {
+            ((HazelcastBackingStoreFactory) factory).storeDestroyed(this);
+        }
+    }
+
+    public String getStoreName() {
+        return storeName;
+    }
+
+    /**
+     * @return the number of loads served from the near cache
+     */
+    public long getNearCacheHitCount() {
+        return nearCacheHits.sum();
+    }
+
+    /**
+     * @return the number of loads which had to go to the cluster
+     */
+    public long getNearCacheMissCount() {
+        return nearCacheMisses.sum();
+    }
+
+    /**
+     * @return the number of values currently kept in the near cache
+     */
+    public int getNearCacheSize() {
+        return nearCache.size();
+    }
+
+    /**
+     * Put a reservation for the key in the near cache, to be replaced by the
+     * value once it has been read or written. An invalidation arriving in
+     * the meantime removes the reservation, and with it the chance to cache
+     * a value which may already be stale.
+     *
+     * @param write true to take over the reservation of a load or save in
+     * flight, false to leave the key to it and not cache what is read
+     * @return the reservation, or null if what is read must not be cached
+     */
+    private Reservation reserve(K k, boolean write) {
+        if (nearCacheMaxSize == 0) {
+            return null;
+        }
+        Reservation reservation = new Reservation();
+        if (nearCache.size() >= nearCacheMaxSize && !nearCache.containsKey(k)) {
+            // the near cache is only an optimisation, dropping any entry is fine
+            Iterator<K> keys = nearCache.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        if (write) {
+            nearCache.put(k, reservation);
+            return reservation;
+        }
+        Object current = nearCache.compute(k,
+                (key, value) -> value instanceof Reservation ? value : reservation);
+        return current == reservation ? reservation : null;
+    }
+
+    private void cache(K k, Reservation reservation, V v) {
+        if (reservation == null) {
+            return;
+        }
+        NearCacheEntry entry = v == null ? null : NearCacheEntry.of(v);
+        if (entry == null) {
+            nearCache.remove(k, reservation);
+        } else {
+            nearCache.replace(k, reservation, entry);
+        }
+    }
+
+    private void invalidate(Serializable key) {
+        if (key == null) {
+            nearCache.clear();
+        } else {
+            nearCache.remove(key);
+        }
+    }
+
+    /**
+     * @return the version of a value, or -1 if it has none
+     */
+    static long getVersion(Object value) {
+        if (value instanceof Storeable) {
+            return ((Storeable) value)._storeable_getVersion();
+        }
+        if (value instanceof SimpleMetadata) {
+            return ((SimpleMetadata) value).getVersion();
+        }
+        if (value instanceof CompositeMetadata) {
+            return ((CompositeMetadata) value).getVersion();
+        }
+        return -1;
+    }
+
     private void init() throws BackingStoreException {
         if(instanceName != null) {
             return;
@@ -113,6 +290,80 @@ public class HazelcastBackingStore<K extends Serializable, V extends Serializabl
         if (!clusteredStore.isEnabled()) {
             throw new BackingStoreException("Hazelcast is not enabled, please enable Hazelcast");
         }
-        instanceName = clusteredStore.getInstanceId().toString();
+        synchronized (this) {
+            if (instanceName == null) {
+                if (nearCacheMaxSize > 0) {
+                    invalidationListenerId = clusteredStore.addInvalidationListener(storeName, this::invalidate);
+                }
+                instanceName = clusteredStore.getInstanceId().toString();
+            }
+        }
+    }
+
+    /**
+     * Marks a key whose value is being read from or written to the cluster.
+     */
+    private static final class Reservation {
+    }
+
+    /**
+     * A value kept in the near cache, in serialized form.
+     */
+    private static final class NearCacheEntry {
+
+        private final byte[] state;
+        private final ClassLoader classLoader;
+        private final long version;
+
+        private NearCacheEntry(byte[] state, ClassLoader classLoader, long version) {
+            this.state = state;
+            this.classLoader = classLoader;
+            this.version = version;
+        }
+
+        /**
+         * @return the entry for the value, or null if it cannot be serialized
+         */
+        static NearCacheEntry of(Object value) {
+            long version = getVersion(value);
+            if (version < 0) {
+                // without a version it could never be served
+                return null;
+            }
+            try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                    ObjectOutputStream out = new ObjectOutputStream(bos)) {
+                out.writeObject(value);
+                out.flush();
+                return new NearCacheEntry(bos.toByteArray(), value.getClass().getClassLoader(), version);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Cannot keep value in near cache", e);
+                return null;
+            }
+        }
+
+        /**
+         * A cached value can be used when it is at least as recent as the
+         * version asked for.
+         */
+        boolean isCurrent(String requestedVersion) {
+            try {
+                return version >= Long.parseLong(requestedVersion);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        /**
+         * @return a new copy of the value, or null if it cannot be read back
+         */
+        Object getValue() {
+            try (ObjectInputStream in = IOUtil.newObjectInputStream(classLoader, null,
+                    new ByteArrayInputStream(state))) {
+                return in.readObject();
+            } catch (IOException | ClassNotFoundException e) {
+                LOGGER.log(Level.FINE, "Cannot read value from near cache", e);
+                return null;
+            }
+        }
     }
 }
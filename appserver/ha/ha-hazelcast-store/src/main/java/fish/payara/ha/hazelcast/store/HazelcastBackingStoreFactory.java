@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2016-2021 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -39,8 +39,12 @@
  */
 package fish.payara.ha.hazelcast.store;
 
+import fish.payara.monitoring.collect.MonitoringDataCollector;
+import fish.payara.monitoring.collect.MonitoringDataSource;
 import fish.payara.nucleus.hazelcast.HazelcastCore;
 import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import fish.payara.nucleus.store.ClusteredStore;
 import jakarta.inject.Inject;
 import org.glassfish.ha.store.api.BackingStore;
@@ -55,20 +59,63 @@ import org.jvnet.hk2.annotations.Service;
  * @author steve
  */
 @Service(name = "hazelcast-factory")
-public class HazelcastBackingStoreFactory implements BackingStoreFactory {
+public class HazelcastBackingStoreFactory implements BackingStoreFactory, MonitoringDataSource {
+
+    /**
+     * Vendor specific setting holding the maximum number of entries kept in a store's near cache
+     */
+    public static final String NEAR_CACHE_MAX_SIZE = "near.cache.max.size";
+
     @Inject
     HazelcastCore core;
 
     @Inject
     ClusteredStore clusteredStore;
 
+    private final Set<HazelcastBackingStore<?, ?>> stores = ConcurrentHashMap.newKeySet();
+
     @Override
     public <K extends Serializable, V extends Serializable> BackingStore<K, V> createBackingStore(BackingStoreConfiguration<K, V> bsc) throws BackingStoreException {
-        return new HazelcastBackingStore<>(this, bsc.getStoreName(), clusteredStore);
+        HazelcastBackingStore<K, V> store = new HazelcastBackingStore<>(this, bsc.getStoreName(), clusteredStore,
+                getNearCacheMaxSize(bsc));
+        stores.add(store);
+        return store;
     }
 
     @Override
     public BackingStoreTransaction createBackingStoreTransaction() {
         return new HazelcastBackingStoreTransaction(core.getInstance().newTransactionContext());
     }
+
+    @Override
+    public void collect(MonitoringDataCollector collector) {
+        for (HazelcastBackingStore<?, ?> store : stores) {
+            long hits = store.getNearCacheHitCount();
+            long loads = hits + store.getNearCacheMissCount();
+            collector.in("near-cache").group(store.getStoreName())
+                    .collect("HitCount", hits)
+                    .collect("MissCount", loads - hits)
+                    .collect("HitRatePercent", loads == 0 ? 0L : hits * 100 / loads)
+                    .collect("EntryCount", store.getNearCacheSize());
+        }
+    }
+
+    void storeDestroyed(HazelcastBackingStore<?, ?> store) {
+        stores.remove(store);
+    }
+
+    private static int getNearCacheMaxSize(BackingStoreConfiguration<?, ?> bsc) {
+        Object value = bsc.getVendorSpecificSettings().get(NEAR_CACHE_MAX_SIZE);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                // fall back to the default
+            }
+        }
+        return HazelcastBackingStore.DEFAULT_NEAR_CACHE_MAX_SIZE;
+    }
 }
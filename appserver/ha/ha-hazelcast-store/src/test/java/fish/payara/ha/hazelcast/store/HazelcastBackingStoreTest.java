@@ -0,0 +1,209 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.ha.hazelcast.store;
+
+import fish.payara.nucleus.store.ClusteredStore;
+import org.glassfish.ha.store.api.BackingStoreException;
+import org.glassfish.ha.store.util.SimpleMetadata;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class HazelcastBackingStoreTest {
+
+    private final StubClusteredStore clusteredStore = new StubClusteredStore();
+    private final HazelcastBackingStore<String, SimpleMetadata> store =
+            new HazelcastBackingStore<>(null, "sessions", clusteredStore, 10);
+
+    @Test
+    public void savedVersionIsLoadedLocally() throws BackingStoreException {
+        store.save("a", metadata(3, "state"), true);
+
+        SimpleMetadata loaded = store.load("a", "3");
+
+        assertEquals(3, loaded.getVersion());
+        assertArrayEquals("state".getBytes(), loaded.getState());
+        assertEquals(0, clusteredStore.gets);
+        assertEquals(1, store.getNearCacheHitCount());
+    }
+
+    @Test
+    public void loadsReturnCopies() throws BackingStoreException {
+        SimpleMetadata saved = metadata(3, "state");
+        store.save("a", saved, true);
+
+        SimpleMetadata first = store.load("a", "3");
+        first.getState()[0] = 'X';
+        SimpleMetadata second = store.load("a", "3");
+
+        assertNotSame(saved, first);
+        assertNotSame(first, second);
+        assertArrayEquals("state".getBytes(), second.getState());
+    }
+
+    @Test
+    public void olderVersionIsLoadedFromTheCluster() throws BackingStoreException {
+        store.save("a", metadata(3, "state"), true);
+        clusteredStore.values.put("a", metadata(4, "newer"));
+
+        SimpleMetadata loaded = store.load("a", "4");
+
+        assertEquals(4, loaded.getVersion());
+        assertEquals(1, clusteredStore.gets);
+        assertEquals(4, store.load("a", "4").getVersion());
+        assertEquals(1, clusteredStore.gets);
+    }
+
+    @Test
+    public void loadWithoutVersionIsLoadedFromTheCluster() throws BackingStoreException {
+        store.save("a", metadata(3, "state"), true);
+
+        store.load("a", null);
+        store.load("a", null);
+
+        assertEquals(2, clusteredStore.gets);
+        assertEquals(0, store.getNearCacheHitCount());
+    }
+
+    @Test
+    public void invalidatedKeyIsLoadedFromTheCluster() throws BackingStoreException {
+        store.save("a", metadata(3, "state"), true);
+
+        clusteredStore.invalidate("a");
+        store.load("a", "3");
+
+        assertEquals(1, clusteredStore.gets);
+    }
+
+    @Test
+    public void valueInvalidatedWhileLoadingIsNotCached() throws BackingStoreException {
+        clusteredStore.values.put("a", metadata(3, "state"));
+        clusteredStore.invalidateOnGet = "a";
+
+        store.load("a", "3");
+        store.load("a", "3");
+
+        assertEquals(2, clusteredStore.gets);
+    }
+
+    @Test
+    public void invalidationOfAnotherKeyWhileLoadingDoesNotPreventCaching() throws BackingStoreException {
+        clusteredStore.values.put("a", metadata(3, "state"));
+        clusteredStore.invalidateOnGet = "b";
+
+        store.load("a", "3");
+        store.load("a", "3");
+
+        assertEquals(1, clusteredStore.gets);
+        assertEquals(1, store.getNearCacheHitCount());
+    }
+
+    @Test
+    public void clearingTheStoreEmptiesTheNearCache() throws BackingStoreException {
+        store.save("a", metadata(3, "state"), true);
+        store.save("b", metadata(3, "state"), true);
+
+        clusteredStore.invalidate(null);
+
+        assertEquals(0, store.getNearCacheSize());
+    }
+
+    @Test
+    public void nearCacheIsBounded() throws BackingStoreException {
+        for (int i = 0; i < 20; i++) {
+            store.save("key" + i, metadata(1, "state"), true);
+        }
+
+        assertEquals(10, store.getNearCacheSize());
+    }
+
+    private static SimpleMetadata metadata(long version, String state) {
+        return new SimpleMetadata(version, 0, 0, state.getBytes());
+    }
+
+    private static class StubClusteredStore extends ClusteredStore {
+
+        private final Map<Serializable, Serializable> values = new HashMap<>();
+        private Consumer<Serializable> listener;
+        private Serializable invalidateOnGet;
+        private int gets;
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public UUID getInstanceId() {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public boolean set(String storeName, Serializable key, Serializable value) {
+            values.put(key, value);
+            return true;
+        }
+
+        @Override
+        public Serializable get(String storeName, Serializable key) {
+            gets++;
+            if (invalidateOnGet != null) {
+                invalidate(invalidateOnGet);
+            }
+            return values.get(key);
+        }
+
+        @Override
+        public UUID addInvalidationListener(String storeName, Consumer<Serializable> listener) {
+            this.listener = listener;
+            return UUID.randomUUID();
+        }
+
+        void invalidate(Serializable key) {
+            listener.accept(key);
+        }
+    }
+}
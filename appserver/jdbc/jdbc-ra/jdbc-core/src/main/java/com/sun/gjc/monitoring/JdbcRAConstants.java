@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.gjc.monitoring;
 
@@ -64,6 +64,11 @@ public interface JdbcRAConstants {
      */
     public static final String STATEMENT_CACHE_MISS = "statementCacheMissEvent";
 
+    /**
+     * Represents the statement cache eviction monitoring event.
+     */
+    public static final String STATEMENT_CACHE_EVICTION = "statementCacheEvictionEvent";
+
     /**
      * Represents caching of sql query event.
      */
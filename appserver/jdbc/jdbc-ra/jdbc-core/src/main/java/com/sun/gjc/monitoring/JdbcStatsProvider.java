@@ -38,10 +38,11 @@
  * holder.
  */
 
-// Portions Copyright [2016-2018] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.gjc.monitoring;
 
+import com.sun.gjc.spi.base.datastructure.HotStatementTracker;
 import com.sun.gjc.util.SQLTrace;
 import fish.payara.jdbc.stats.FrequentSQLTraceCache;
 import fish.payara.jdbc.stats.SlowSqlTrace;
@@ -84,11 +85,24 @@ public class JdbcStatsProvider {
             "NumStatementCacheMiss", StatisticImpl.UNIT_COUNT,
             "The total number of Statement Cache misses.");
 
+    private CountStatisticImpl numStatementCacheEviction = new CountStatisticImpl(
+            "NumStatementCacheEviction", StatisticImpl.UNIT_COUNT,
+            "The total number of statements evicted from the Statement Cache.");
+
     private CountStatisticImpl numPotentialStatementLeak = new CountStatisticImpl(
             "NumPotentialStatementLeak", StatisticImpl.UNIT_COUNT,
             "The total number of potential Statement leaks");
 
+    private CountStatisticImpl hotStatementCount = new CountStatisticImpl(
+            "HotStatementCount", StatisticImpl.UNIT_COUNT,
+            "The number of frequently prepared statements remembered for statement cache warm up.");
+
+    private CountStatisticImpl hotStatementMemory = new CountStatisticImpl(
+            "HotStatementMemory", "bytes",
+            "The estimated heap used by the statements remembered for statement cache warm up.");
+
     private PoolInfo poolInfo;
+    private HotStatementTracker hotStatementTracker;
     private FrequentSQLTraceCache freqSqlTraceCache;
     private SlowSqlTraceCache slowSqlTraceCache;
 
@@ -142,6 +156,22 @@ public class JdbcStatsProvider {
         }
     }
 
+    /**
+     * Whenever a statement is evicted from the statement cache, increment numStatementCacheEviction count.
+     * @param poolName JdbcConnectionPool that has got a statement cache eviction event.
+     */
+    @ProbeListener(JdbcRAConstants.STATEMENT_CACHE_DOTTED_NAME + JdbcRAConstants.STATEMENT_CACHE_EVICTION)
+    public void statementCacheEvictionEvent(@ProbeParam("poolName") String poolName,
+                                            @ProbeParam("appName") String appName,
+                                            @ProbeParam("moduleName") String moduleName
+                                            ) {
+
+        PoolInfo poolInfo = new PoolInfo(poolName, appName, moduleName);
+        if(this.poolInfo.equals(poolInfo)){
+            numStatementCacheEviction.increment();
+        }
+    }
+
     /**
      * Whenever a sql statement that is traced is to be cache for monitoring
      * purpose, the SQLTrace object is created for the specified sql and
@@ -207,6 +237,27 @@ public class JdbcStatsProvider {
         return numStatementCacheMiss;
     }
 
+    @ManagedAttribute(id="numstatementcacheeviction")
+    public CountStatistic getNumStatementCacheEviction() {
+        return numStatementCacheEviction;
+    }
+
+    @ManagedAttribute(id="hotstatementcount")
+    public CountStatistic getHotStatementCount() {
+        if (hotStatementTracker != null) {
+            hotStatementCount.setCount(hotStatementTracker.getSize());
+        }
+        return hotStatementCount;
+    }
+
+    @ManagedAttribute(id="hotstatementmemory")
+    public CountStatistic getHotStatementMemory() {
+        if (hotStatementTracker != null) {
+            hotStatementMemory.setCount(hotStatementTracker.getMemoryFootprint());
+        }
+        return hotStatementMemory;
+    }
+
     @ManagedAttribute(id="frequsedsqlqueries")
     public ListStatistic getfreqUsedSqlQueries() {
         if (freqSqlTraceCache != null) {
@@ -247,6 +298,14 @@ public class JdbcStatsProvider {
         return numPotentialStatementLeak;
     }
     
+    /**
+     * Set the record of frequently prepared statements whose size is reported by this stats provider.
+     * @param hotStatementTracker the record of frequently prepared statements, null if warm up is not enabled
+     */
+    public void setHotStatementTracker(HotStatementTracker hotStatementTracker) {
+        this.hotStatementTracker = hotStatementTracker;
+    }
+
     /**
      * Get the FrequentSQLTraceCache associated with this stats provider.
      * @return FrequentSQLTraceCache The FrequentSQLTraceCache associated with this stats provider
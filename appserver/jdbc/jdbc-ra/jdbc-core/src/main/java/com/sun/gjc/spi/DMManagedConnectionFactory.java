@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2018-2021] Payara Foundation and/or affiliates
+// Portions Copyright [2018-2026] Payara Foundation and/or affiliates
 
 package com.sun.gjc.spi;
 
@@ -181,6 +181,7 @@ public class DMManagedConnectionFactory extends ManagedConnectionFactoryImpl {
                 }
             }
         }
+        mc.startStatementCacheWarmup();
         return mc;
     }
 
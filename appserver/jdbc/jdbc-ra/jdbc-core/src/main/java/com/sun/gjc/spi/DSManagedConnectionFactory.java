@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.gjc.spi;
 
@@ -162,6 +162,7 @@ public class DSManagedConnectionFactory extends ManagedConnectionFactoryImpl {
                 }
             }
         }
+        mc.startStatementCacheWarmup();
         return mc;
     }
 
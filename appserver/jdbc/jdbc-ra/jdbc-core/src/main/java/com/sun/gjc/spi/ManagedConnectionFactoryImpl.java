@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright 2017-2022 Payara Foundation and/or its affiliates
+// Portions Copyright 2017-2026 Payara Foundation and/or its affiliates
 
 package com.sun.gjc.spi;
 
@@ -46,6 +46,7 @@ import com.sun.enterprise.util.i18n.StringManager;
 import com.sun.gjc.common.DataSourceObjectBuilder;
 import com.sun.gjc.common.DataSourceSpec;
 import com.sun.gjc.monitoring.JdbcStatsProvider;
+import com.sun.gjc.spi.base.datastructure.HotStatementTracker;
 import com.sun.gjc.util.SQLTraceDelegator;
 import com.sun.gjc.util.SQLTraceLogger;
 import com.sun.gjc.util.SecurityUtils;
@@ -107,6 +108,7 @@ public abstract class ManagedConnectionFactoryImpl implements jakarta.resource.s
     protected boolean isLazyCm_;
     private int statementCacheSize = 0;
     private String statementCacheType = null;
+    private volatile HotStatementTracker hotStatementTracker = null;
     private long statementLeakTimeout = 0;
     private boolean statementLeakReclaim = false;
 
@@ -1122,6 +1124,38 @@ public abstract class ManagedConnectionFactoryImpl implements jakarta.resource.s
         }
     }
     
+    public String getStatementCacheWarmupSize() {
+        return spec.getDetail(DataSourceSpec.STATEMENTCACHEWARMUPSIZE);
+    }
+
+    /**
+     * Sets the number of the most frequently prepared statements of the pool that a new connection prepares
+     * into its statement cache before it is first handed out. A value of 0 disables statement cache warm up.
+     *
+     * @param statementCacheWarmupSize number of statements to warm up
+     */
+    public void setStatementCacheWarmupSize(String statementCacheWarmupSize) {
+        spec.setDetail(DataSourceSpec.STATEMENTCACHEWARMUPSIZE, statementCacheWarmupSize);
+        int warmupSize = 0;
+        if (statementCacheWarmupSize != null && !statementCacheWarmupSize.equals("null")) {
+            try {
+                warmupSize = Integer.parseInt(statementCacheWarmupSize.trim());
+            } catch (NumberFormatException nfe) {
+                if (_logger.isLoggable(Level.FINE)) {
+                    _logger.fine("Exception while setting StatementCacheWarmupSize : " + nfe.getMessage());
+                }
+            }
+        }
+        hotStatementTracker = warmupSize > 0 ? new HotStatementTracker(warmupSize) : null;
+    }
+
+    /**
+     * @return the record of frequently prepared statements or null when statement cache warm up is not enabled
+     */
+    public HotStatementTracker getHotStatementTracker() {
+        return statementCacheSize > 0 ? hotStatementTracker : null;
+    }
+
     public String getMaxCacheSize(){
         return spec.getDetail(DataSourceSpec.MAXCACHESIZE);
     }
@@ -1493,6 +1527,7 @@ public abstract class ManagedConnectionFactoryImpl implements jakarta.resource.s
             jdbcStatsProvider = new JdbcStatsProvider(getPoolName(), getApplicationName(), getModuleName(),
                     sqlTraceCacheSize, timeToKeepQueries, maxCacheSize);
             //get the poolname and use it to initialize the stats provider n register
+            jdbcStatsProvider.setHotStatementTracker(getHotStatementTracker());
             StatsProviderManager.register(
                     "jdbc-connection-pool",
                     PluginPoint.SERVER,
@@ -1546,6 +1581,9 @@ public abstract class ManagedConnectionFactoryImpl implements jakarta.resource.s
                 _logger.finest("Unregistered JDBCRA Stats Provider");
             }
         }
+        if (hotStatementTracker != null) {
+            hotStatementTracker.clear();
+        }
     }
 
     private void detectStatementLeakSupport() {
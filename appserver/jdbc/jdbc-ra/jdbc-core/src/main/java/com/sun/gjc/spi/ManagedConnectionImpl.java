@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright 2016-2022 Payara Foundation and/or its affiliates.
+// Portions Copyright 2016-2026 Payara Foundation and/or its affiliates.
 
 package com.sun.gjc.spi;
 
@@ -51,6 +51,7 @@ import com.sun.gjc.common.DataSourceObjectBuilder;
 import com.sun.gjc.spi.base.*;
 import com.sun.gjc.spi.base.datastructure.Cache;
 import com.sun.gjc.spi.base.datastructure.CacheFactory;
+import com.sun.gjc.spi.base.datastructure.HotStatementTracker;
 import com.sun.gjc.util.SQLTraceDelegator;
 import com.sun.gjc.util.StatementLeakDetector;
 import com.sun.logging.LogDomains;
@@ -69,7 +70,11 @@ import java.sql.SQLException;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jakarta.resource.NotSupportedException;
@@ -110,6 +115,20 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
 
     public static final String IS_SLOW_SQL_LOGGING_DISABLED = "-1";
 
+    private static final ThreadPoolExecutor STATEMENT_CACHE_WARMER;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        STATEMENT_CACHE_WARMER = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-statement-cache-warmer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        STATEMENT_CACHE_WARMER.allowCoreThreadTimeOut(true);
+    }
+
     protected int connectionType = ISNOTAPOOLEDCONNECTION;
     protected PooledConnection pc = null;
     protected java.sql.Connection actualConnection = null;
@@ -140,6 +159,9 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
     private int statementTimeout;
 
     private Cache statementCache = null;
+    private HotStatementTracker hotStatementTracker = null;
+    private final Object warmupLock = new Object();
+    private final AtomicInteger warmupGeneration = new AtomicInteger();
     private int cacheSize;
     private String cacheType;
     private boolean statementCaching;
@@ -223,6 +245,9 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
         logWriter = mcf.getLogWriter();
         ce = new ConnectionEvent(this, ConnectionEvent.CONNECTION_CLOSED);
         tuneStatementCaching(poolInfo, statementCacheSize, statementCacheType);
+        if (statementCaching && mcf instanceof ManagedConnectionFactoryImpl) {
+            hotStatementTracker = ((ManagedConnectionFactoryImpl) mcf).getHotStatementTracker();
+        }
         tuneStatementLeakTracing(poolInfo, statementLeakTimeout, statementLeakReclaim);
         
         connectionPool = getJdbcConnectionPool(mcf);
@@ -339,6 +364,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
         com.sun.gjc.spi.ManagedConnectionImpl mc = ch.getManagedConnection();
         isClean = false;
 
+        finishStatementCacheWarmup();
         ch.associateConnection(actualConnection, this);
         /**
          * The expectation from the above method is that the connection holder
@@ -380,8 +406,13 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
         //GJCINT
         isClean = true;
 
+        finishStatementCacheWarmup();
         ManagedConnectionFactoryImpl spiMCF = (ManagedConnectionFactoryImpl) mcf;
         resetConnectionProperties(spiMCF);
+        if (!isDestroyed && isUsable) {
+            // the connection is back in the pool, fill up what its statement cache lost while in use
+            startStatementCacheWarmup();
+        }
     }
 
     /**
@@ -428,6 +459,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
         if (isDestroyed) {
             return;
         }
+        finishStatementCacheWarmup();
         clearStatementCache();
         //Connection could be closed even before statement is closed. Connection
         //close need not call statement close() method.
@@ -709,6 +741,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
      * LocalTransactionImpl object when its end() method is called.
      */
     void transactionCompleted() {
+        finishStatementCacheWarmup();
         try {
             transactionInProgress = false;
             if (connectionType == ISPOOLEDCONNECTION || connectionType == ISXACONNECTION) {
@@ -797,11 +830,17 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
 
     /**
      * Returns the actual sql connection for this <code>ManagedConnection</code>.
+     * A statement cache warm up still running is abandoned first.
      *
      * @return the physical <code>java.sql.Connection</code>
      */
     //GJCINT
     java.sql.Connection getActualConnection() throws ResourceException {
+        finishStatementCacheWarmup();
+        return physicalConnection();
+    }
+
+    private java.sql.Connection physicalConnection() throws ResourceException {
         //GJCINT
         if (connectionType == ISXACONNECTION || connectionType == ISPOOLEDCONNECTION) {
             try {
@@ -905,6 +944,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
      * has been invoked.
      */
     void XAStartOccurred() {
+        finishStatementCacheWarmup();
         try {
             actualConnection.setAutoCommit(false);
         } catch (Exception e) {
@@ -918,6 +958,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
      * has been invoked.
      */
     void XAEndOccurred() {
+        finishStatementCacheWarmup();
         try {
             actualConnection.setAutoCommit(true);
         } catch (Exception e) {
@@ -1036,6 +1077,112 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
         }
     }
     
+    private void recordPreparedStatement(CacheObjectKey key) {
+        if (hotStatementTracker != null) {
+            hotStatementTracker.recordPrepare(key);
+        }
+    }
+
+    /**
+     * Starts preparing the statements that are most frequently prepared on the other connections of the pool into
+     * the statement cache of this connection on a background thread, so that they are not prepared on the request
+     * path later on. Called by the factory once a new connection is set up and by {@link #cleanup()} when a connection
+     * goes back to the pool. The warm up is abandoned as soon as the connection is used.
+     */
+    void startStatementCacheWarmup() {
+        if (!statementCaching || hotStatementTracker == null) {
+            return;
+        }
+        int generation = warmupGeneration.get();
+        try {
+            STATEMENT_CACHE_WARMER.execute(() -> warmStatementCache(generation));
+        } catch (RejectedExecutionException ree) {
+            // the connection is simply not warmed up
+            _logger.log(Level.FINE, "Statement cache warm up rejected", ree);
+        }
+    }
+
+    /**
+     * Abandons the statement cache warm up of this connection, waiting for the statement that is being prepared,
+     * if any, so that the connection is never used by two threads at once.
+     */
+    void finishStatementCacheWarmup() {
+        if (hotStatementTracker != null) {
+            warmupGeneration.incrementAndGet();
+            synchronized (warmupLock) {
+                // nothing to do, the warm up checks the generation before each statement
+            }
+        }
+    }
+
+    private void warmStatementCache(int generation) {
+        ConnectionWrapper conWrapper = null;
+        for (CacheObjectKey hotKey : hotStatementTracker.getHotStatements()) {
+            synchronized (warmupLock) {
+                if (warmupGeneration.get() != generation || statementCache.getSize() >= cacheSize) {
+                    return;
+                }
+                if (statementCache.containsKey(hotKey)) {
+                    continue;
+                }
+                try {
+                    if (conWrapper == null) {
+                        conWrapper = getWarmupConnection();
+                        if (conWrapper == null) {
+                            return;
+                        }
+                    }
+                    PreparedStatementWrapper ps = prepareStatement(conWrapper, hotKey);
+                    if (ps != null) {
+                        statementCache.addToCache(hotKey, ps, false);
+                    }
+                } catch (SQLException | ResourceException e) {
+                    // the statement will simply be prepared again when the application asks for it
+                    _logger.log(Level.FINE, "Unable to warm up statement cache with " + hotKey.getSql(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a connection handle that is only used to prepare the statements of the warm up, or null if
+     * statements are not wrapped
+     */
+    private ConnectionWrapper getWarmupConnection() throws ResourceException {
+        ManagedConnectionFactoryImpl spiMCF = (ManagedConnectionFactoryImpl) mcf;
+        ConnectionHolder holder = spiMCF.getJdbcObjectsFactory().getConnection(
+                physicalConnection(), this, null, spiMCF.isStatementWrappingEnabled(), null);
+        return holder instanceof ConnectionWrapper ? (ConnectionWrapper) holder : null;
+    }
+
+    /**
+     * Prepares a cacheable statement for the key through the {@code prepareCachedStatement} variant the key was
+     * created by.
+     *
+     * @return the statement, or null for keys of callable statements
+     */
+    static PreparedStatementWrapper prepareStatement(ConnectionWrapper conWrapper, CacheObjectKey key)
+            throws SQLException {
+        if (!CacheObjectKey.PREPARED_STATEMENT.equals(key.getStatementType())) {
+            return null;
+        }
+        if (key.getColumnNames() != null) {
+            return conWrapper.prepareCachedStatement(key.getSql(), key.getColumnNames(), true);
+        }
+        if (key.getColumnIndexes() != null) {
+            return conWrapper.prepareCachedStatement(key.getSql(), key.getColumnIndexes(), true);
+        }
+        if (key.getAutoGeneratedKeys() != 0) {
+            return conWrapper.prepareCachedStatement(key.getSql(), key.getAutoGeneratedKeys(), true);
+        }
+        if (key.getResultSetHoldability() != 0) {
+            return conWrapper.prepareCachedStatement(key.getSql(), key.getResultSetType(),
+                    key.getResultSetConcurrency(), key.getResultSetHoldability(), true);
+        }
+        return conWrapper.prepareCachedStatement(key.getSql(), key.getResultSetType(),
+                key.getResultSetConcurrency(), true);
+    }
+
     public PreparedStatement prepareCachedStatement(
             ConnectionWrapper conWrapper, String sql, int resultSetType, 
             int resultSetConcurrency) throws SQLException {
@@ -1072,7 +1219,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
 
                 ps.setBusy(true);
                 statementCache.addToCache(key, ps, false);
-
+                recordPreparedStatement(key);
             }
             return ps;
         } else
@@ -1117,6 +1264,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
 
                 statementCache.addToCache(key, ps, false);
                 ps.setBusy(true);
+                recordPreparedStatement(key);
             }
             return ps;
         } else
@@ -1158,6 +1306,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
 
                 statementCache.addToCache(key, ps, false);
                 ps.setBusy(true);
+                recordPreparedStatement(key);
             }
             return ps;
         } else
@@ -1198,6 +1347,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
 
                 statementCache.addToCache(key, ps, false);
                 ps.setBusy(true);
+                recordPreparedStatement(key);
             }
             return ps;
         } else
@@ -1238,6 +1388,7 @@ public class ManagedConnectionImpl implements jakarta.resource.spi.ManagedConnec
 
                 statementCache.addToCache(key, ps, false);
                 ps.setBusy(true);
+                recordPreparedStatement(key);
             }
             return ps;
         } else
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 package com.sun.gjc.spi;
 
 import com.sun.enterprise.util.i18n.StringManager;
@@ -151,6 +151,7 @@ public class XAManagedConnectionFactory extends ManagedConnectionFactoryImpl {
                 }
             }
         }
+        mc.startStatementCacheWarmup();
         return mc;
     }
 
@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.gjc.spi.base.datastructure;
 
@@ -68,6 +69,14 @@ public interface Cache {
      * @param force If existing key is to be overwritten
      */
     public void addToCache(CacheObjectKey key, Object entry, boolean force);
+
+    /**
+     * Check if an entry is found for this key object without counting it as
+     * a hit or miss of the cache.
+     * @param key whose mapping entry is to be checked.
+     * @return true if the cache has an entry for the key, busy or not
+     */
+    public boolean containsKey(CacheObjectKey key);
     
     /**
      * Clear statement cache
@@ -0,0 +1,342 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.gjc.spi.base.datastructure;
+
+import com.sun.gjc.monitoring.StatementCacheProbeProvider;
+import com.sun.gjc.spi.base.CacheObjectKey;
+import com.sun.gjc.spi.base.PreparedStatementWrapper;
+import com.sun.logging.LogDomains;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Statement cache that can be used without external synchronization.
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap} so that lookups never block. Recency is approximated with
+ * the CLOCK (second chance) algorithm: a hit only sets a flag on the entry and the eviction queue is walked when
+ * the cache is full, skipping (and clearing) the entries that were used since the previous pass.
+ * <p>
+ * Entries removed other than by the clock hand are only flagged, they are unlinked from the queue when the hand
+ * reaches them or, once more than {@code maxSize} of them have piled up, by compacting the queue.
+ */
+public class ConcurrentLRUCacheImpl implements Cache {
+
+    protected static final Logger _logger = LogDomains.getLogger(ConcurrentLRUCacheImpl.class, LogDomains.RSR_LOGGER);
+
+    private final Map<CacheObjectKey, CacheEntry> map;
+    private final ConcurrentLinkedQueue<CacheEntry> clock = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicInteger staleEntries = new AtomicInteger();
+    private final int maxSize;
+    private final PoolInfo poolInfo;
+    private StatementCacheProbeProvider probeProvider = null;
+
+    public ConcurrentLRUCacheImpl(PoolInfo poolInfo, int maxSize) {
+        this.maxSize = maxSize;
+        this.poolInfo = poolInfo;
+        this.map = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+        try {
+            probeProvider = new StatementCacheProbeProvider();
+        } catch (Exception ex) {
+            _logger.log(Level.FINE, "Unable to create statement cache probe provider", ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object checkAndUpdateCache(CacheObjectKey key) {
+        CacheEntry entry = map.get(key);
+        if (entry != null) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            if (_logger.isLoggable(Level.FINEST)) {
+                _logger.finest("Cache Hit");
+            }
+            if (probeProvider != null) {
+                probeProvider.statementCacheHitEvent(poolInfo.getName(), poolInfo.getApplicationName(), poolInfo.getModuleName());
+            }
+            return entry.entryObj;
+        }
+        if (_logger.isLoggable(Level.FINEST)) {
+            _logger.finest("Cache Miss");
+        }
+        if (probeProvider != null) {
+            probeProvider.statementCacheMissEvent(poolInfo.getName(), poolInfo.getApplicationName(), poolInfo.getModuleName());
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addToCache(CacheObjectKey key, Object o, boolean force) {
+        CacheEntry entry = new CacheEntry(key, o);
+        CacheEntry previous;
+        if (force) {
+            previous = map.put(key, entry);
+        } else {
+            previous = map.putIfAbsent(key, entry);
+            if (previous != null) {
+                // someone else cached the same statement first, ours is left uncached
+                uncache(o, false);
+                return;
+            }
+        }
+        if (previous != null) {
+            unlinkLater(previous);
+            if (previous.entryObj != o) {
+                uncache(previous.entryObj, true);
+            }
+        }
+        clock.offer(entry);
+        while (map.size() > maxSize) {
+            if (!evict()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Evicts one entry that was not used since the clock hand last passed it.
+     *
+     * @return false if there was nothing left to evict
+     */
+    private boolean evict() {
+        evictionLock.lock();
+        try {
+            if (map.size() <= maxSize) {
+                return true;
+            }
+            CacheEntry candidate;
+            while ((candidate = clock.poll()) != null) {
+                if (candidate.removed) {
+                    unlinked();
+                    continue;
+                }
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                    clock.offer(candidate);
+                    continue;
+                }
+                if (map.remove(candidate.key, candidate)) {
+                    candidate.removed = true;
+                    uncache(candidate.entryObj, true);
+                    if (probeProvider != null) {
+                        probeProvider.statementCacheEvictionEvent(poolInfo.getName(), poolInfo.getApplicationName(), poolInfo.getModuleName());
+                    }
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Flags an entry that is still queued as removed, compacting the queue when too many of those have piled up.
+     */
+    private void unlinkLater(CacheEntry entry) {
+        entry.removed = true;
+        if (staleEntries.incrementAndGet() > maxSize) {
+            compact();
+        }
+    }
+
+    /**
+     * Accounts for a flagged entry that was polled from the queue.
+     */
+    private void unlinked() {
+        staleEntries.updateAndGet(x -> x > 0 ? x - 1 : 0);
+    }
+
+    private void compact() {
+        evictionLock.lock();
+        try {
+            if (staleEntries.get() > maxSize) {
+                // entries flagged while the queue is walked are unlinked as well, so they may be counted twice,
+                // which only makes the next compaction come a little early
+                staleEntries.set(0);
+                clock.removeIf(entry -> entry.removed);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of entries in the eviction queue, including the ones not unlinked yet
+     */
+    int getQueueLength() {
+        return clock.size();
+    }
+
+    private static void uncache(Object entryObj, boolean close) {
+        if (entryObj instanceof PreparedStatementWrapper) {
+            PreparedStatementWrapper ps = (PreparedStatementWrapper) entryObj;
+            ps.setCached(false);
+            if (close) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    //ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearCache() {
+        if (_logger.isLoggable(Level.FINE)) {
+            _logger.fine("clearing objects in cache");
+        }
+        map.clear();
+        clock.clear();
+        staleEntries.set(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flushCache() {
+        Iterator<CacheEntry> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            CacheEntry entry = iterator.next();
+            iterator.remove();
+            entry.removed = true;
+            uncache(entry.entryObj, true);
+        }
+        clock.clear();
+        staleEntries.set(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void purge() {
+        CacheEntry candidate;
+        while ((candidate = clock.poll()) != null) {
+            if (candidate.removed) {
+                unlinked();
+            } else if (map.remove(candidate.key, candidate)) {
+                candidate.removed = true;
+                uncache(candidate.entryObj, true);
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void purge(Object obj) {
+        for (CacheEntry entry : map.values()) {
+            if (entry.entryObj == obj || (entry.entryObj != null && entry.entryObj.equals(obj))) {
+                if (map.remove(entry.key, entry)) {
+                    if (_logger.isLoggable(Level.FINEST)) {
+                        _logger.log(Level.FINEST, "Purging an entry from cache");
+                    }
+                    unlinkLater(entry);
+                    uncache(entry.entryObj, true);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(CacheObjectKey key) {
+        return map.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return map.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSynchronized() {
+        return true;
+    }
+
+    private static final class CacheEntry {
+        private final CacheObjectKey key;
+        private final Object entryObj;
+        private volatile boolean referenced;
+        private volatile boolean removed;
+
+        CacheEntry(CacheObjectKey key, Object entryObj) {
+            this.key = key;
+            this.entryObj = entryObj;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.gjc.spi.base.datastructure;
+
+import com.sun.gjc.spi.base.CacheObjectKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool level count of how often each statement is prepared on the connections of a pool.
+ * <p>
+ * Every connection has its own statement cache, so a statement that is hot for the application is prepared again
+ * on every new connection. This tracker counts how often each statement key was prepared across all the connections
+ * of the pool so that a new connection can prepare the most frequent ones into its own cache before the application
+ * asks for them. Only the keys and their counts are kept, driver statement metadata belongs to a single physical
+ * connection and is not shared.
+ * <p>
+ * The number of tracked statements is bounded, when full an approximately least frequently prepared statement is
+ * dropped in favour of the new one.
+ */
+public class HotStatementTracker {
+
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    /**
+     * Rough per entry overhead of the map node, the key, the record and its counter.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Map<CacheObjectKey, PrepareCount> statements = new ConcurrentHashMap<>();
+    private final int warmupSize;
+    private final int capacity;
+
+    /**
+     * @param warmupSize number of statements a new connection prepares when it is first used
+     */
+    public HotStatementTracker(int warmupSize) {
+        this.warmupSize = warmupSize;
+        this.capacity = Math.max(warmupSize * 4, 64);
+    }
+
+    /**
+     * Records that the statement identified by the key was prepared on one of the connections of the pool.
+     *
+     * @param key the key the statement is cached under in the connection's statement cache
+     */
+    public void recordPrepare(CacheObjectKey key) {
+        PrepareCount count = statements.get(key);
+        if (count == null) {
+            if (statements.size() >= capacity) {
+                evictColdest();
+            }
+            count = statements.computeIfAbsent(key, PrepareCount::new);
+        }
+        count.prepareCount.increment();
+    }
+
+    private void evictColdest() {
+        PrepareCount coldest = null;
+        long coldestCount = Long.MAX_VALUE;
+        Iterator<PrepareCount> iterator = statements.values().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && iterator.hasNext(); i++) {
+            PrepareCount candidate = iterator.next();
+            long count = candidate.prepareCount.sum();
+            if (count < coldestCount) {
+                coldest = candidate;
+                coldestCount = count;
+            }
+        }
+        if (coldest != null) {
+            statements.remove(coldest.key, coldest);
+        }
+    }
+
+    /**
+     * @return the keys of the most frequently prepared statements, at most as many as the configured warm up size
+     */
+    public List<CacheObjectKey> getHotStatements() {
+        List<PrepareCount> snapshot = new ArrayList<>(statements.values());
+        snapshot.sort(Comparator.comparingLong(PrepareCount::getPrepareCount).reversed());
+        List<CacheObjectKey> hot = new ArrayList<>(Math.min(warmupSize, snapshot.size()));
+        for (PrepareCount count : snapshot) {
+            if (hot.size() >= warmupSize) {
+                break;
+            }
+            hot.add(count.key);
+        }
+        return hot;
+    }
+
+    public int getWarmupSize() {
+        return warmupSize;
+    }
+
+    public int getSize() {
+        return statements.size();
+    }
+
+    /**
+     * @return estimate of the heap used by this tracker in bytes
+     */
+    public long getMemoryFootprint() {
+        long bytes = 0;
+        for (CacheObjectKey key : statements.keySet()) {
+            bytes += ENTRY_OVERHEAD_BYTES + 2L * key.getSql().length();
+        }
+        return bytes;
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    private static final class PrepareCount {
+        private final CacheObjectKey key;
+        private final LongAdder prepareCount = new LongAdder();
+
+        PrepareCount(CacheObjectKey key) {
+            this.key = key;
+        }
+
+        long getPrepareCount() {
+            return prepareCount.sum();
+        }
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.gjc.spi.base.datastructure;
 
@@ -132,6 +132,7 @@ public class LRUCacheImpl implements Cache {
 
             if(list.size() >= maxSize){
                 purge();
+                probeProvider.statementCacheEvictionEvent(poolInfo.getName(), poolInfo.getApplicationName(), poolInfo.getModuleName());
             }
             CacheEntry entry = new CacheEntry(o);
             list.put(key, entry);
@@ -204,6 +205,11 @@ public class LRUCacheImpl implements Cache {
         }        
     }
     
+    @Override
+    public boolean containsKey(CacheObjectKey key) {
+        return list.containsKey(key);
+    }
+
     /**
      * Returns the number of entries in the statement cache
      * @return has integer value
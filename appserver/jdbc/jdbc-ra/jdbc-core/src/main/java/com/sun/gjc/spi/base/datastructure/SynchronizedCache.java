@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package com.sun.gjc.spi.base.datastructure;
 
@@ -70,6 +70,11 @@ public class SynchronizedCache implements Cache {
         cacheImpl.purge();
     }
 
+    @Override
+    public synchronized boolean containsKey(CacheObjectKey key) {
+        return cacheImpl.containsKey(key);
+    }
+
     @Override
     public synchronized int getSize() {
         return cacheImpl.getSize();
@@ -0,0 +1,126 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.gjc.spi;
+
+import com.sun.gjc.spi.base.CacheObjectKey;
+import com.sun.gjc.spi.base.ConnectionWrapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the statements of the warm up are prepared through the same variant of
+ * {@code prepareCachedStatement} as the application used, so that they end up under the same cache key.
+ */
+public class StatementCacheWarmupTest {
+
+    private final List<List<Object>> calls = new ArrayList<>();
+
+    private final ConnectionWrapper connection = (ConnectionWrapper) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {ConnectionWrapper.class},
+            (proxy, method, args) -> {
+                calls.add(Arrays.asList(args));
+                return null;
+            });
+
+    private List<Object> onlyCall() {
+        assertEquals(1, calls.size());
+        return calls.get(0);
+    }
+
+    @Test
+    public void typeAndConcurrency() throws Exception {
+        ManagedConnectionImpl.prepareStatement(connection, new CacheObjectKey("q", CacheObjectKey.PREPARED_STATEMENT,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+        assertEquals(Arrays.asList("q", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, true), onlyCall());
+    }
+
+    @Test
+    public void holdability() throws Exception {
+        ManagedConnectionImpl.prepareStatement(connection, new CacheObjectKey("q", CacheObjectKey.PREPARED_STATEMENT,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT));
+        assertEquals(Arrays.asList("q", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+                ResultSet.HOLD_CURSORS_OVER_COMMIT, true), onlyCall());
+    }
+
+    @Test
+    public void columnNames() throws Exception {
+        String[] names = {"id"};
+        ManagedConnectionImpl.prepareStatement(connection,
+                new CacheObjectKey("q", CacheObjectKey.PREPARED_STATEMENT, names));
+        List<Object> args = onlyCall();
+        assertEquals(3, args.size());
+        assertTrue(args.get(1) == names);
+    }
+
+    @Test
+    public void columnIndexes() throws Exception {
+        int[] indexes = {1};
+        ManagedConnectionImpl.prepareStatement(connection,
+                new CacheObjectKey("q", CacheObjectKey.PREPARED_STATEMENT, indexes));
+        List<Object> args = onlyCall();
+        assertEquals(3, args.size());
+        assertTrue(args.get(1) == indexes);
+    }
+
+    @Test
+    public void autoGeneratedKeys() throws Exception {
+        ManagedConnectionImpl.prepareStatement(connection,
+                new CacheObjectKey("q", CacheObjectKey.PREPARED_STATEMENT, Statement.RETURN_GENERATED_KEYS));
+        assertEquals(Arrays.asList("q", Statement.RETURN_GENERATED_KEYS, true), onlyCall());
+    }
+
+    @Test
+    public void callableStatementsAreNotWarmedUp() throws Exception {
+        assertNull(ManagedConnectionImpl.prepareStatement(connection,
+                new CacheObjectKey("q", CacheObjectKey.CALLABLE_STATEMENT, 0, 0)));
+        assertEquals(0, calls.size());
+    }
+}
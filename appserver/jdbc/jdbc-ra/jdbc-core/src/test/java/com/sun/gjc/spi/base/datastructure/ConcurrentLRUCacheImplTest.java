@@ -0,0 +1,191 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.gjc.spi.base.datastructure;
+
+import com.sun.gjc.spi.base.CacheObjectKey;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentLRUCacheImplTest {
+
+    private static final int MAX_SIZE = 10;
+
+    private final ConcurrentLRUCacheImpl cache = new ConcurrentLRUCacheImpl(new PoolInfo("test-pool"), MAX_SIZE);
+
+    private static CacheObjectKey key(int i) {
+        return new CacheObjectKey("select " + i, CacheObjectKey.PREPARED_STATEMENT, 0, 0);
+    }
+
+    @Test
+    public void hitReturnsCachedObject() {
+        Object statement = new Object();
+        cache.addToCache(key(1), statement, false);
+        assertSame(statement, cache.checkAndUpdateCache(key(1)));
+        assertNull(cache.checkAndUpdateCache(key(2)));
+    }
+
+    @Test
+    public void unreferencedEntryIsEvictedFirst() {
+        for (int i = 0; i < MAX_SIZE; i++) {
+            cache.addToCache(key(i), new Object(), false);
+        }
+        for (int i = 1; i < MAX_SIZE; i++) {
+            assertNotNull(cache.checkAndUpdateCache(key(i)));
+        }
+        cache.addToCache(key(MAX_SIZE), new Object(), false);
+        assertEquals(MAX_SIZE, cache.getSize());
+        assertNull(cache.checkAndUpdateCache(key(0)));
+        assertNotNull(cache.checkAndUpdateCache(key(MAX_SIZE)));
+    }
+
+    @Test
+    public void containsKeyDoesNotCountAsAReference() {
+        for (int i = 0; i < MAX_SIZE; i++) {
+            cache.addToCache(key(i), new Object(), false);
+        }
+        for (int i = 1; i < MAX_SIZE; i++) {
+            assertNotNull(cache.checkAndUpdateCache(key(i)));
+        }
+        assertTrue(cache.containsKey(key(0)));
+        cache.addToCache(key(MAX_SIZE), new Object(), false);
+        assertFalse(cache.containsKey(key(0)));
+        assertTrue(cache.containsKey(key(MAX_SIZE)));
+    }
+
+    @Test
+    public void forcedReplacementKeepsOneEntryPerKey() {
+        Object first = new Object();
+        Object second = new Object();
+        cache.addToCache(key(1), first, false);
+        cache.addToCache(key(1), second, true);
+        assertEquals(1, cache.getSize());
+        assertSame(second, cache.checkAndUpdateCache(key(1)));
+    }
+
+    @Test
+    public void purgeByObjectDoesNotGrowTheQueue() {
+        for (int i = 0; i < 100_000; i++) {
+            Object statement = new Object();
+            cache.addToCache(key(i % 3), statement, false);
+            cache.purge(statement);
+        }
+        assertEquals(0, cache.getSize());
+        assertTrue("queue length " + cache.getQueueLength(), cache.getQueueLength() <= 2 * MAX_SIZE + 1);
+    }
+
+    @Test
+    public void forcedReplacementDoesNotGrowTheQueue() {
+        for (int i = 0; i < 100_000; i++) {
+            cache.addToCache(key(i % 3), new Object(), true);
+        }
+        assertEquals(3, cache.getSize());
+        assertTrue("queue length " + cache.getQueueLength(), cache.getQueueLength() <= 2 * MAX_SIZE + 3);
+    }
+
+    @Test
+    public void purgeRemovesOldestLiveEntry() {
+        cache.addToCache(key(1), new Object(), false);
+        cache.addToCache(key(2), new Object(), false);
+        cache.purge();
+        assertEquals(1, cache.getSize());
+        assertNull(cache.checkAndUpdateCache(key(1)));
+        assertNotNull(cache.checkAndUpdateCache(key(2)));
+    }
+
+    @Test
+    public void flushEmptiesCacheAndQueue() {
+        for (int i = 0; i < MAX_SIZE; i++) {
+            cache.addToCache(key(i), new Object(), false);
+        }
+        cache.flushCache();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getQueueLength());
+    }
+
+    @Test
+    public void concurrentUseStaysBounded() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        CacheObjectKey key = key((seed * 31 + i) % 40);
+                        Object statement = cache.checkAndUpdateCache(key);
+                        if (statement == null) {
+                            cache.addToCache(key, new Object(), i % 7 == 0);
+                        } else if (i % 5 == 0) {
+                            cache.purge(statement);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue("size " + cache.getSize(), cache.getSize() <= MAX_SIZE);
+        assertTrue("queue length " + cache.getQueueLength(), cache.getQueueLength() <= 2 * MAX_SIZE + threads * 2);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.gjc.spi.base.datastructure;
+
+import com.sun.gjc.spi.base.CacheObjectKey;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HotStatementTrackerTest {
+
+    private static CacheObjectKey key(String sql) {
+        return new CacheObjectKey(sql, CacheObjectKey.PREPARED_STATEMENT, 0, 0);
+    }
+
+    private static void prepare(HotStatementTracker tracker, String sql, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordPrepare(key(sql));
+        }
+    }
+
+    @Test
+    public void hotStatementsAreOrderedByPrepareCount() {
+        HotStatementTracker tracker = new HotStatementTracker(3);
+        prepare(tracker, "b", 5);
+        prepare(tracker, "a", 9);
+        prepare(tracker, "c", 2);
+        prepare(tracker, "d", 1);
+        assertEquals(Arrays.asList(key("a"), key("b"), key("c")), tracker.getHotStatements());
+    }
+
+    @Test
+    public void hotStatementsAreLimitedToWarmupSize() {
+        HotStatementTracker tracker = new HotStatementTracker(2);
+        prepare(tracker, "a", 1);
+        assertEquals(1, tracker.getHotStatements().size());
+        prepare(tracker, "b", 1);
+        prepare(tracker, "c", 1);
+        assertEquals(2, tracker.getHotStatements().size());
+        assertEquals(3, tracker.getSize());
+    }
+
+    @Test
+    public void trackedStatementsAreBounded() {
+        HotStatementTracker tracker = new HotStatementTracker(4);
+        prepare(tracker, "hot", 1000);
+        for (int i = 0; i < 10_000; i++) {
+            prepare(tracker, "cold " + i, 1);
+        }
+        assertTrue("size " + tracker.getSize(), tracker.getSize() <= 64);
+        List<CacheObjectKey> hot = tracker.getHotStatements();
+        assertEquals(key("hot"), hot.get(0));
+    }
+
+    @Test
+    public void memoryFootprintGrowsWithStatements() {
+        HotStatementTracker tracker = new HotStatementTracker(4);
+        assertEquals(0, tracker.getMemoryFootprint());
+        prepare(tracker, "select 1", 3);
+        long one = tracker.getMemoryFootprint();
+        assertTrue(one > 0);
+        prepare(tracker, "select 2", 1);
+        assertTrue(tracker.getMemoryFootprint() > one);
+        tracker.clear();
+        assertEquals(0, tracker.getSize());
+        assertEquals(0, tracker.getMemoryFootprint());
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright 2016-2022 Payara Foundation and/or affiliates
+// Portions Copyright 2016-2026 Payara Foundation and/or affiliates
 
 package org.glassfish.jdbc.deployer;
 
@@ -523,6 +523,20 @@ public class JdbcConnectionPoolDeployer implements ResourceDeployer {
                     conConnPool.setPreferValidateOverRecreate(toBoolean(value, false));
                     logFine("PREFER-VALIDATE-OVER-RECREATE : " + value);
 
+                } else if ("BACKGROUND-VALIDATION".equals(name.toUpperCase(locale))) {
+                    String value = rp.getValue();
+                    conConnPool.setBackgroundValidation(toBoolean(value, false));
+                    logFine("BACKGROUND-VALIDATION : " + value);
+
+                } else if ("BACKGROUND-VALIDATION-INTERVAL-IN-SECONDS".equals(name.toUpperCase(locale))) {
+                    String value = rp.getValue();
+                    try {
+                        conConnPool.setBackgroundValidationInterval(Integer.parseInt(value));
+                    } catch (NumberFormatException nfe) {
+                        conConnPool.setBackgroundValidationInterval(ConnectorConnectionPool.DEFAULT_BACKGROUND_VALIDATION_INTERVAL);
+                    }
+                    logFine("BACKGROUND-VALIDATION-INTERVAL-IN-SECONDS : " + value);
+
                 } else if ("STATEMENT-CACHE-TYPE".equals(name.toUpperCase(Locale.getDefault()))) {
 
                     if(adminPool.getStatementCacheType() != null) {
@@ -545,6 +559,11 @@ public class JdbcConnectionPoolDeployer implements ResourceDeployer {
                     propList.add(new ConnectorConfigProperty("MaxCacheSize",
                             rp.getValue(), "MaxCacheSize", "java.lang.String"));
                     
+                } else if ("STATEMENTCACHEWARMUPSIZE".equals(name.toUpperCase(Locale.getDefault())) || "STATEMENT-CACHE-WARMUP-SIZE".equals(name.toUpperCase(Locale.getDefault()))){
+
+                    propList.add(new ConnectorConfigProperty("StatementCacheWarmupSize",
+                            rp.getValue(), "StatementCacheWarmupSize", "java.lang.String"));
+
                 } else if (mcfConPropKeys.containsKey(name.toUpperCase(Locale.getDefault()))) {
 
                     propList.add(new ConnectorConfigProperty(
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2019] [Payara Foundation]
+// Portions Copyright [2016-2026] [Payara Foundation]
 
 package org.glassfish.jdbc.pool.monitor;
 
@@ -170,6 +170,23 @@ public class JdbcConnPoolProbeProvider extends ConnectionPoolProbeProvider {
             @ProbeParam("moduleName") String moduleName,
             @ProbeParam("count") int count) { }
 
+    /**
+     * Emits probe event/notification that the given jdbc connection pool
+     * <code>poolName</code> has completed a background validation pass.
+     *
+     * @param poolName for which the validation pass was run
+     * @param count number of connections validated
+     * @param timeTakenInMillis time taken by the validation pass
+     */
+    @Probe(name="connectionsValidatedEvent")
+    @Override
+    public void connectionsValidatedEvent(
+            @ProbeParam("poolName") String poolName,
+            @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName,
+            @ProbeParam("count") int count,
+            @ProbeParam("timeTakenInMillis") long timeTakenInMillis) { }
+
     /**
      * Emits probe event/notification that a connection request is served in the
      * time <code>timeTakenInMillis</code> for the given jdbc connection pool
@@ -0,0 +1,76 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.ejb.timer.hazelcast;
+
+import com.hazelcast.map.EntryProcessor;
+import java.util.Map;
+
+/**
+ * Moves ownership of the timers it is executed on to another instance. Run
+ * with {@link com.hazelcast.map.IMap#executeOnEntries} so that all timers of a
+ * failed or migrated instance are claimed in one operation per partition
+ * instead of a get and put per timer.
+ *
+ * @since 6.2025.1
+ */
+public class ClaimTimersProcessor implements EntryProcessor<String, HZTimer, HZTimer> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String memberName;
+    private final String ownerId;
+
+    public ClaimTimersProcessor(String memberName, String ownerId) {
+        this.memberName = memberName;
+        this.ownerId = ownerId;
+    }
+
+    @Override
+    public HZTimer process(Map.Entry<String, HZTimer> entry) {
+        HZTimer timer = entry.getValue();
+        if (timer == null) {
+            return null;
+        }
+        timer.setMemberName(memberName);
+        timer.setOwnerId(ownerId);
+        entry.setValue(timer);
+        return timer;
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2016-2021 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -42,6 +42,8 @@ package fish.payara.ejb.timer.hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 import com.hazelcast.cp.lock.FencedLock;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
 import com.sun.ejb.containers.BaseContainer;
 import com.sun.ejb.containers.EJBTimerSchedule;
 import com.sun.ejb.containers.EJBTimerService;
@@ -68,7 +70,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -533,22 +534,8 @@ public class HazelcastTimerStore extends NonPersistentEJBTimerService implements
 
         TransactionManager tm = ejbContainerUtil.getTransactionManager();
 
-        HashMap<String, HZTimer> toRestore = new HashMap<>();
-        int totalTimersMigrated = 0;
-
-        for (String pk : pkCache.keySet()) {
-            HZTimer hZTimer = pkCache.get(pk);
-            if (hZTimer.getOwnerId().equals(fromOwnerId)) {
-                toRestore.put(pk, hZTimer);
-                hZTimer.setOwnerId(ownerIdOfThisServer);
-                hZTimer.setMemberName(serverName);
-            }
-        }
-
-        for (Entry<String, HZTimer> entry : toRestore.entrySet()) {
-            pkCache.put(entry.getKey(), entry.getValue());
-            totalTimersMigrated++;
-        }
+        Collection<HZTimer> toRestore = claimTimers(Predicates.equal("ownerId", fromOwnerId));
+        int totalTimersMigrated = toRestore.size();
 
         if (totalTimersMigrated > 0) {
 
@@ -557,10 +544,10 @@ public class HazelcastTimerStore extends NonPersistentEJBTimerService implements
 
                 logger.log(Level.INFO, "Timer migration phase 1 complete. Changed ownership of {0} timers.  Now reactivating timers...", toRestore.size());
 
-                _notifyContainers(toRestore.values());
+                _notifyContainers(toRestore);
 
                 tm.begin();
-                _restoreTimers(toRestore.values());
+                _restoreTimers(toRestore);
                 success = true;
 
                 // Inform fromServer that timers have been migrated and it needs to clear its local cache
@@ -873,6 +860,12 @@ public class HazelcastTimerStore extends NonPersistentEJBTimerService implements
 
                 Date initialExpiration = timer.getInitialExpiration();
 
+                if (deferRestoration(timerId, initialExpiration, timer.getLastExpiration(),
+                        timer.getIntervalDuration(), timer.getSchedule())) {
+                    result.add(timer);
+                    continue;
+                }
+
                 // Create an instance of RuntimeTimerState.
                 // Only access timedObjectPrimaryKey if timed object is
                 // an entity bean.  That allows us to lazily load the underlying
@@ -1023,6 +1016,12 @@ public class HazelcastTimerStore extends NonPersistentEJBTimerService implements
 
                 Date initialExpiration = timer.getInitialExpiration();
 
+                if (deferRestoration(timerId, initialExpiration, timer.getLastExpiration(),
+                        timer.getIntervalDuration(), timer.getSchedule())) {
+                    result.add(timer);
+                    continue;
+                }
+
                 // Create an instance of RuntimeTimerState.
                 // Only access timedObjectPrimaryKey if timed object is
                 // an entity bean.  That allows us to lazily load the underlying
@@ -1135,13 +1134,46 @@ public class HazelcastTimerStore extends NonPersistentEJBTimerService implements
     }
 
     private Collection<HZTimer> findActiveTimersOwnedByThisServer() {
-        HashSet<HZTimer> result = new HashSet<>();
-        for (HZTimer timer : pkCache.values()) {
-            if (timer.getMemberName().equals(this.serverName)) {
-                result.add(timer);
+        // filter on the members holding the timers rather than pulling the whole map
+        return new HashSet<>(pkCache.values(Predicates.equal("memberName", serverName)));
+    }
+
+    /**
+     * Takes ownership of all timers matching the predicate in one bulk
+     * operation.
+     *
+     * @return the claimed timers
+     */
+    private Collection<HZTimer> claimTimers(Predicate<String, HZTimer> predicate) {
+        Map<String, HZTimer> claimed = pkCache.executeOnEntries(
+                new ClaimTimersProcessor(serverName, getOwnerIdOfThisServer()), predicate);
+        return new HashSet<>(claimed.values());
+    }
+
+    @Override
+    protected void restoreDeferredTimers(Collection<TimerPrimaryKey> timerIds) {
+        Set<String> keys = new HashSet<>();
+        for (TimerPrimaryKey timerId : timerIds) {
+            keys.add(timerId.timerId);
+        }
+
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(HazelcastTimerStore.class.getClassLoader());
+        try {
+            Set<HZTimer> timers = new HashSet<>();
+            for (HZTimer timer : pkCache.getAll(keys).values()) {
+                // the timer may have been claimed by another instance since
+                if (timer.getMemberName().equals(serverName)) {
+                    timers.add(timer);
+                }
+            }
+            if (!timers.isEmpty()) {
+                logger.log(Level.FINE, "Restoring {0} deferred timers", timers.size());
+                _restoreTimers(timers);
             }
+        } finally {
+            Thread.currentThread().setContextClassLoader(cl);
         }
-        return result;
     }
 
     private boolean restoreEJBTimers() {
@@ -1179,22 +1211,23 @@ public class HazelcastTimerStore extends NonPersistentEJBTimerService implements
         FencedLock hazelcastLock = hazelcast.getCPSubsystem().getLock("EJB-TIMER-LOCK");
         hazelcastLock.lock();
         try {
-            Collection<HZTimer> allTimers = pkCache.values();
+            // only take over timers whose container is deployed here, the
+            // others are left for a member that can run them
             Collection<HZTimer> removedTimers = new HashSet<>();
-            for (HZTimer timer : allTimers) {
-                if (timer.getMemberName().equals(event.getServer())) {
+            for (HZTimer timer : pkCache.values(Predicates.equal("memberName", event.getServer()))) {
+                if (getContainer(timer.getContainerId()) != null) {
                     removedTimers.add(timer);
                 }
             }
 
-
-
             if (!removedTimers.isEmpty()) {
                 logger.log(Level.INFO, "==> Restoring Timers ... ");
                 Collection<HZTimer> restored = _restoreTimers(removedTimers);
+                Map<String, HZTimer> updates = new HashMap<>();
                 for (HZTimer timer : restored) {
-                    pkCache.put(timer.getKey().getTimerId(), timer);
+                    updates.put(timer.getKey().getTimerId(), timer);
                 }
+                pkCache.putAll(updates);
                 logger.log(Level.INFO, "<== ... Timers Restored.");
             }
         } finally {
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2017-2021 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -40,12 +40,15 @@
 package fish.payara.microprofile.config.cdi;
 
 import fish.payara.microprofile.config.cdi.model.ConfigPropertyModel;
+import fish.payara.nucleus.microprofile.config.spi.CompiledConfigValue;
 import fish.payara.nucleus.microprofile.config.spi.ConfigValueResolver;
+import fish.payara.nucleus.microprofile.config.spi.PayaraConfig;
 
 import static fish.payara.nucleus.microprofile.config.spi.ConfigValueResolver.ElementPolicy.FAIL;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalDouble;
@@ -85,9 +88,39 @@ public class ConfigPropertyProducer {
     }
 
     public static final Object getGenericPropertyFromModel(ConfigPropertyModel property) {
-        Object result = null;
-        
         Config config = ConfigProvider.getConfig();
+        if (config instanceof PayaraConfig && ((PayaraConfig) config).isCompiledValuesEnabled()) {
+            return getCompiledProperty((PayaraConfig) config, property);
+        }
+        return resolveProperty(config, property);
+    }
+
+    /**
+     * Resolves the property through a {@link CompiledConfigValue} shared by all injection points with the same
+     * property name, type and default value. The value is only resolved again once the config got invalidated, or
+     * for a value from a source without change events once the cache duration has passed.
+     */
+    private static Object getCompiledProperty(PayaraConfig config, ConfigPropertyModel property) {
+        Type type = property.getInjectionPoint().getType();
+        List<Object> key = Arrays.asList(type, property.getName(), property.getDefaultValue());
+        if (type instanceof ParameterizedType && Supplier.class.equals(((ParameterizedType) type).getRawType())) {
+            // the compiled value itself is the supplier so that it follows changes without resolving on each call
+            @SuppressWarnings("unchecked")
+            Class<Object> elementType = (Class<Object>) getElementTypeFrom((ParameterizedType) type);
+            String name = property.getName();
+            String defaultValue = property.getDefaultValue();
+            return config.compile(key, name, () -> config.getValue(name, ConfigValueResolver.class)
+                    .throwOnMissingProperty(defaultValue == null)
+                    .throwOnFailedConversion()
+                    .withDefault(defaultValue)
+                    .withPolicy(FAIL)
+                    .as(elementType, null));
+        }
+        return config.compile(key, property.getName(), () -> resolveProperty(config, property)).get();
+    }
+
+    private static Object resolveProperty(Config config, ConfigPropertyModel property) {
+        Object result = null;
 
         String name = property.getName();
 
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2018-2021] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2018-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -110,6 +110,9 @@ public class SetMetricsConfigurationCommand extends SetSecureMicroprofileConfigu
     @Param(name = "virtualServers", optional = true)
     private String virtualServers;
 
+    @Param(name = "reservoir", optional = true, acceptableValues = "EXPONENTIALLY_DECAYING,SLIDING_WINDOW")
+    private String reservoir;
+
     @Inject
     private Domain domain;
 
@@ -165,6 +168,12 @@ public class SetMetricsConfigurationCommand extends SetSecureMicroprofileConfigu
                 if (virtualServers != null) {
                     configProxy.setVirtualServers(virtualServers);
                 }
+                if (reservoir != null) {
+                    configProxy.setReservoir(reservoir);
+                    if(dynamic != null && dynamic || Boolean.valueOf(metricsConfiguration.getDynamic())) {
+                        metricsService.setDefaultReservoir(reservoir);
+                    }
+                }
                 if (securityEnabled != null) {
                     configProxy.setSecurityEnabled(securityEnabled.toString());
                 }
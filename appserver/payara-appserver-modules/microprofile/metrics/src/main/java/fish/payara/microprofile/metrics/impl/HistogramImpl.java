@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- *    Copyright (c) [2018-2023] Payara Foundation and/or its affiliates. All rights reserved.
+ *    Copyright (c) [2018-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  *     The contents of this file are subject to the terms of either the GNU
  *     General Public License Version 2 only ("GPL") or the Common Development
@@ -77,7 +77,7 @@ import static fish.payara.microprofile.metrics.impl.MetricRegistryImpl.METRIC_HI
 @Vetoed
 public class HistogramImpl implements Histogram {
 
-    private final ExponentiallyDecayingReservoir reservoir;
+    private final Reservoir reservoir;
     private final LongAdder count;
     private final AtomicLong sum;
     private ConfigurationProperties configurationProperties;
@@ -85,16 +85,16 @@ public class HistogramImpl implements Histogram {
     public HistogramImpl(String metricName, 
                          Map<String, Collection<MetricsCustomPercentiles>> percentilesConfigMap,
                          Map<String, Collection<MetricsCustomBuckets>> bucketsConfigMap) {
-        this();
+        this(ReservoirType.forMetric(metricName).create());
         validateMetricsConfiguration(metricName, percentilesConfigMap, bucketsConfigMap);
     }
 
     /**
-     * Creates a new {@link HistogramImpl} using an
-     * {@link ExponentiallyDecayingReservoir}.
+     * Creates a new {@link HistogramImpl} using a reservoir of the default
+     * {@link ReservoirType}.
      */
     public HistogramImpl() {
-        this(new ExponentiallyDecayingReservoir());
+        this(ReservoirType.getDefault().create());
     }
 
     /**
@@ -102,7 +102,7 @@ public class HistogramImpl implements Histogram {
      *
      * @param reservoir the reservoir to create a histogram from
      */
-    public HistogramImpl(ExponentiallyDecayingReservoir reservoir) {
+    public HistogramImpl(Reservoir reservoir) {
         this.reservoir = reservoir;
         this.count = new LongAdder();
         this.sum = new AtomicLong();
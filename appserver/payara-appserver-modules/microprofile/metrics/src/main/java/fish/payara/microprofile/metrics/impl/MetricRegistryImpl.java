@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- *    Copyright (c) [2018-2023] Payara Foundation and/or its affiliates. All rights reserved.
+ *    Copyright (c) [2018-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  *     The contents of this file are subject to the terms of either the GNU
  *     General Public License Version 2 only ("GPL") or the Common Development
@@ -118,6 +118,8 @@ public class MetricRegistryImpl implements MetricRegistry {
     
     public static final String METRIC_TIMER_BUCKETS_PROPERTY = "mp.metrics.distribution.timer.buckets";
 
+    public static final String METRIC_RESERVOIR_PROPERTY = "payara.metrics.distribution.reservoir";
+
     private Map<String, Collection<MetricsCustomPercentiles>> percentilesConfigMap = 
             new HashMap<String, Collection<MetricsCustomPercentiles>>();
     
@@ -592,7 +594,7 @@ public class MetricRegistryImpl implements MetricRegistry {
         }
 
         if(Histogram.class.getName().equals(metricType)) {
-            return new HistogramImpl();
+            return new HistogramImpl(ReservoirType.forMetric(name).create());
         }
 
         if(Timer.class.getName().equals(metricType)) {
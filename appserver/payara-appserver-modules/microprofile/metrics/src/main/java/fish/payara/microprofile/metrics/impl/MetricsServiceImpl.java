@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- *    Copyright (c) [2018-2024] Payara Foundation and/or its affiliates. All rights reserved.
+ *    Copyright (c) [2018-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  *     The contents of this file are subject to the terms of either the GNU
  *     General Public License Version 2 only ("GPL") or the Common Development
@@ -220,6 +220,7 @@ public class MetricsServiceImpl implements MetricsService, ConfigListener, Monit
     @PostConstruct
     public void init() {
         metricsServiceConfiguration = serviceLocator.getService(MetricsServiceConfiguration.class);
+        setDefaultReservoir(metricsServiceConfiguration.getReservoir());
         // Only start if metrics are enabled
         if (isEnabled()) {
             PayaraExecutorService payaraExecutor = serviceLocator.getService(PayaraExecutorService.class, new Annotation[0]);
@@ -499,6 +500,15 @@ public class MetricsServiceImpl implements MetricsService, ConfigListener, Monit
         metricsSecure = null;
     }
 
+    /**
+     * Sets the reservoir type used by histograms and timers created from now on.
+     *
+     * @param reservoir name of a {@link ReservoirType}
+     */
+    public void setDefaultReservoir(String reservoir) {
+        ReservoirType.setDefault(ReservoirType.parse(reservoir, ReservoirType.EXPONENTIALLY_DECAYING));
+    }
+
     public boolean isSecurityEnabled() {
         return Boolean.parseBoolean(metricsServiceConfiguration.getSecurityEnabled());
     }
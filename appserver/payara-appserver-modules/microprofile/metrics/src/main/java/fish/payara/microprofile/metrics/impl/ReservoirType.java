@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.microprofile.metrics.impl;
+
+import fish.payara.microprofile.metrics.cdi.MetricUtils;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.logging.Logger;
+import org.eclipse.microprofile.config.Config;
+
+import static fish.payara.microprofile.metrics.impl.MetricRegistryImpl.METRIC_RESERVOIR_PROPERTY;
+
+/**
+ * The {@link Reservoir} implementations available to histograms and timers.
+ * <p>
+ * The default type is set globally from the metrics service configuration and can be
+ * overridden per metric with the {@value MetricRegistryImpl#METRIC_RESERVOIR_PROPERTY}
+ * MicroProfile Config property, using the same {@code name=value;name2=value2} syntax
+ * as the distribution percentiles, for example
+ * {@code payara.metrics.distribution.reservoir=com.example.*=sliding-window}.
+ */
+public enum ReservoirType {
+
+    EXPONENTIALLY_DECAYING {
+        @Override
+        public Reservoir create() {
+            return new ExponentiallyDecayingReservoir();
+        }
+    },
+    SLIDING_WINDOW {
+        @Override
+        public Reservoir create() {
+            return new SlidingWindowReservoir();
+        }
+    };
+
+    private static final Logger LOGGER = Logger.getLogger(ReservoirType.class.getName());
+
+    private static volatile ReservoirType defaultType = EXPONENTIALLY_DECAYING;
+
+    /**
+     * @return a new, empty reservoir of this type
+     */
+    public abstract Reservoir create();
+
+    public static ReservoirType getDefault() {
+        return defaultType;
+    }
+
+    public static void setDefault(ReservoirType type) {
+        defaultType = type == null ? EXPONENTIALLY_DECAYING : type;
+    }
+
+    /**
+     * Parses a reservoir type, accepting both {@code SLIDING_WINDOW} and {@code sliding-window}.
+     *
+     * @param value the type name
+     * @param fallback returned when the value is empty or not a known type
+     * @return the matching type or the fallback
+     */
+    public static ReservoirType parse(String value, ReservoirType fallback) {
+        if (value == null || value.trim().isEmpty()) {
+            return fallback;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ENGLISH).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            LOGGER.info(String.format("Unknown metrics reservoir type %s, using %s", value, fallback));
+            return fallback;
+        }
+    }
+
+    /**
+     * Returns the reservoir type configured for the given metric, or the default type.
+     *
+     * @param metricName the name of the histogram or timer
+     * @return the reservoir type to use
+     */
+    public static ReservoirType forMetric(String metricName) {
+        ReservoirType type = defaultType;
+        Config config = MetricUtils.getConfigProvider();
+        if (config == null || metricName == null) {
+            return type;
+        }
+        Optional<String> property = config.getOptionalValue(METRIC_RESERVOIR_PROPERTY, String.class);
+        if (!property.isPresent()) {
+            return type;
+        }
+        // the last matching entry wins, as for percentiles and buckets
+        for (String nameValue : property.get().split(";")) {
+            String[] keyValue = nameValue.split("=");
+            if (keyValue.length == 2 && matches(keyValue[0].trim(), metricName)) {
+                type = parse(keyValue[1], type);
+            }
+        }
+        return type;
+    }
+
+    private static boolean matches(String configuredName, String metricName) {
+        int idxWildcard = configuredName.indexOf('*');
+        if (idxWildcard > -1) {
+            return metricName.startsWith(configuredName.substring(0, idxWildcard));
+        }
+        return configuredName.equals(metricName.trim());
+    }
+}
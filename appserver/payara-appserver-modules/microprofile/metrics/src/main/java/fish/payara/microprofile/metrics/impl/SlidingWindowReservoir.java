@@ -0,0 +1,178 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.microprofile.metrics.impl;
+
+import fish.payara.microprofile.metrics.impl.WeightedSnapshot.WeightedSample;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.eclipse.microprofile.metrics.Snapshot;
+
+/**
+ * A sliding time window reservoir of {@code long}s that does not allocate or lock
+ * when recording.
+ * <p>
+ * Values are written into fixed size rings, one ring per stripe, and each thread
+ * records into the stripe picked by its id so that concurrent updates rarely touch
+ * the same cursor. Each ring keeps the most recent values together with the tick at
+ * which they were recorded. A snapshot merges the rings and keeps the values
+ * recorded within the time window, all with the same weight.
+ * <p>
+ * Compared to {@link ExponentiallyDecayingReservoir} the snapshot is more expensive
+ * but {@link #update(long)} is a couple of atomic writes, which suits metrics updated
+ * on every request such as {@code @Timed} methods.
+ */
+public class SlidingWindowReservoir implements Reservoir {
+
+    private static final int DEFAULT_SIZE = 1028;
+    private static final long DEFAULT_WINDOW = TimeUnit.MINUTES.toNanos(5);
+    private static final int MAX_STRIPES = 64;
+    private static final int MIN_STRIPE_SIZE = 64;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long windowInNanos;
+    private final Clock clock;
+
+    private volatile ConfigurationProperties configurationProperties;
+
+    /**
+     * Creates a new {@link SlidingWindowReservoir} keeping roughly the last 1028 values
+     * recorded in the past 5 minutes.
+     */
+    public SlidingWindowReservoir() {
+        this(DEFAULT_SIZE, DEFAULT_WINDOW, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a new {@link SlidingWindowReservoir}.
+     *
+     * @param size the minimum number of most recent values to keep
+     * @param window the length of the time window
+     * @param windowUnit the unit of {@code window}
+     */
+    public SlidingWindowReservoir(int size, long window, TimeUnit windowUnit) {
+        this(size, window, windowUnit, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link SlidingWindowReservoir}.
+     *
+     * @param size the minimum number of most recent values to keep
+     * @param window the length of the time window
+     * @param windowUnit the unit of {@code window}
+     * @param clock the clock used to timestamp values
+     */
+    public SlidingWindowReservoir(int size, long window, TimeUnit windowUnit, Clock clock) {
+        int stripeCount = nextPowerOfTwo(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+        int stripeSize = nextPowerOfTwo(Math.max(MIN_STRIPE_SIZE, (size + stripeCount - 1) / stripeCount));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.windowInNanos = windowUnit.toNanos(window);
+        this.clock = clock;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += Math.min(stripe.cursor.get(), stripe.values.length());
+        }
+        return (int) size;
+    }
+
+    @Override
+    public void update(long value) {
+        Stripe stripe = stripes[stripeIndex()];
+        int slot = (int) (stripe.cursor.getAndIncrement() & stripe.mask);
+        stripe.values.lazySet(slot, value);
+        stripe.ticks.lazySet(slot, clock.getTick());
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        long now = clock.getTick();
+        List<WeightedSample> samples = new ArrayList<>(size());
+        for (Stripe stripe : stripes) {
+            int recorded = (int) Math.min(stripe.cursor.get(), stripe.values.length());
+            for (int slot = 0; slot < recorded; slot++) {
+                if (now - stripe.ticks.get(slot) <= windowInNanos) {
+                    samples.add(new WeightedSample(stripe.values.get(slot), 1.0));
+                }
+            }
+        }
+        ConfigurationProperties properties = configurationProperties;
+        return properties != null ? new WeightedSnapshot(samples, properties) : new WeightedSnapshot(samples);
+    }
+
+    @Override
+    public void setConfigAdapter(ConfigurationProperties configurationProperties) {
+        this.configurationProperties = configurationProperties;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static final class Stripe {
+
+        final AtomicLongArray values;
+        final AtomicLongArray ticks;
+        final AtomicLong cursor = new AtomicLong();
+        final int mask;
+
+        Stripe(int size) {
+            this.values = new AtomicLongArray(size);
+            this.ticks = new AtomicLongArray(size);
+            this.mask = size - 1;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- *    Copyright (c) [2018-2023] Payara Foundation and/or its affiliates. All rights reserved.
+ *    Copyright (c) [2018-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  *     The contents of this file are subject to the terms of either the GNU
  *     General Public License Version 2 only ("GPL") or the Common Development
@@ -83,32 +83,32 @@ public class TimerImpl implements Timer {
     private final Histogram histogram;
     private final Clock clock;
 
-    private ExponentiallyDecayingReservoir reservoir;
+    private Reservoir reservoir;
     
     private ConfigurationProperties configurationProperties;
     
     public TimerImpl(String metricName, Map<String, Collection<MetricsCustomPercentiles>> percentilesConfigMap,
                      Map<String, Collection<MetricsCustomBuckets>> timerBucketsConfigMap, Clock clock) {
-        this(clock);
+        this(ReservoirType.forMetric(metricName).create(), clock);
         validateMetricsConfiguration(metricName, percentilesConfigMap, timerBucketsConfigMap);
     }
 
     /**
-     * Creates a new {@link TimerImpl} using an
-     * {@link ExponentiallyDecayingReservoir} and the default {@link Clock}.
+     * Creates a new {@link TimerImpl} using a reservoir of the default
+     * {@link ReservoirType} and the default {@link Clock}.
      */
     public TimerImpl() {
-        this(new ExponentiallyDecayingReservoir());
+        this(ReservoirType.getDefault().create());
     }
 
     /**
-     * Creates a new {@link TimerImpl} using an
-     * {@link ExponentiallyDecayingReservoir} and the provided {@link Clock}.
+     * Creates a new {@link TimerImpl} using a reservoir of the default
+     * {@link ReservoirType} and the provided {@link Clock}.
      *
      * @param clock the {@link Clock} implementation the created timer should use
      */
     public TimerImpl(Clock clock) {
-        this(new ExponentiallyDecayingReservoir(), clock);
+        this(ReservoirType.getDefault().create(), clock);
     }
 
     /**
@@ -117,7 +117,7 @@ public class TimerImpl implements Timer {
      * @param reservoir the {@link Reservoir} implementation the timer should
      * use
      */
-    public TimerImpl(ExponentiallyDecayingReservoir reservoir) {
+    public TimerImpl(Reservoir reservoir) {
         this(reservoir, Clock.defaultClock());
     }
 
@@ -129,7 +129,7 @@ public class TimerImpl implements Timer {
      * use
      * @param clock the {@link Clock} implementation the timer should use
      */
-    public TimerImpl(ExponentiallyDecayingReservoir reservoir, Clock clock) {
+    public TimerImpl(Reservoir reservoir, Clock clock) {
         this.clock = clock;
         this.reservoir = reservoir;
         this.histogram = new HistogramImpl(reservoir);
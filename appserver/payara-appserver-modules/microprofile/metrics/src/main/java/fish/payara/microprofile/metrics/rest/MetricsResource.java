@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- *    Copyright (c) [2018-2023] Payara Foundation and/or its affiliates. All rights reserved.
+ *    Copyright (c) [2018-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  *     The contents of this file are subject to the terms of either the GNU
  *     General Public License Version 2 only ("GPL") or the Common Development
@@ -53,12 +53,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.core.MediaType;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.Optional;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.glassfish.internal.api.Globals;
 
@@ -67,6 +69,9 @@ import static jakarta.servlet.http.HttpServletResponse.*;
 import static jakarta.ws.rs.HttpMethod.GET;
 import static jakarta.ws.rs.HttpMethod.OPTIONS;
 import static jakarta.ws.rs.core.HttpHeaders.ACCEPT;
+import static jakarta.ws.rs.core.HttpHeaders.ACCEPT_ENCODING;
+import static jakarta.ws.rs.core.HttpHeaders.CONTENT_ENCODING;
+import static jakarta.ws.rs.core.HttpHeaders.VARY;
 import static jakarta.ws.rs.core.MediaType.TEXT_PLAIN;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -81,6 +86,8 @@ public class MetricsResource extends HttpServlet {
     private static final Logger LOG = Logger.getLogger(MetricsResource.class.getName());
     private static final String APPLICATION_WILDCARD = "application/*";
     private static final Pattern PATTERN_Q_PART = Pattern.compile("\\s*q\\s*=\\s*(.+)");
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 8192;
 
     /**
      * Processes requests for both HTTP <code>GET</code> and <code>OPTIONS</code>
@@ -112,74 +119,96 @@ public class MetricsResource extends HttpServlet {
             return;
         }
 
+        boolean compress = false;
         try {
             String contentType = getContentType(request, response);
             if (contentType != null) {
                 response.setContentType(contentType);
                 response.setCharacterEncoding(UTF_8.name());
-                MetricsWriter outputWriter = getOutputWriter(request, response, metricsService, contentType);
-                if (outputWriter != null) {
-                    if (scopeParameter != null && !scopeParameter.isEmpty()) {
-                        String scope;
-                        try {
-                            if (scopeParameter.equals(MetricRegistry.BASE_SCOPE)) {
-                                scope = MetricRegistry.BASE_SCOPE;
-                            } else if (scopeParameter.equals(MetricRegistry.VENDOR_SCOPE)) {
-                                scope = MetricRegistry.VENDOR_SCOPE;
-                            } else if (scopeParameter.equals(MetricRegistry.APPLICATION_SCOPE)) {
-                                scope = MetricRegistry.APPLICATION_SCOPE;
-                            } else {
-                                scope = scopeParameter;
-                            }
-                        } catch (RuntimeException ex) {
-                            throw new NoSuchRegistryException(scopeParameter);
-                        }
-
-                        for (String name : metricsService.getContextNames()) {
-                            Optional<String> availableScopeOptional = metricsService.getContext(name)
-                                    .getRegistries().keySet().stream().filter(k -> k.equals(scope)).findAny();
-                            if (!availableScopeOptional.isPresent()) {
-                                availableScope = false;
-                            } else {
-                                availableScope = true;
-                            }
+                String scope = null;
+                if (scopeParameter != null && !scopeParameter.isEmpty()) {
+                    try {
+                        if (scopeParameter.equals(MetricRegistry.BASE_SCOPE)) {
+                            scope = MetricRegistry.BASE_SCOPE;
+                        } else if (scopeParameter.equals(MetricRegistry.VENDOR_SCOPE)) {
+                            scope = MetricRegistry.VENDOR_SCOPE;
+                        } else if (scopeParameter.equals(MetricRegistry.APPLICATION_SCOPE)) {
+                            scope = MetricRegistry.APPLICATION_SCOPE;
+                        } else {
+                            scope = scopeParameter;
                         }
+                    } catch (RuntimeException ex) {
+                        throw new NoSuchRegistryException(scopeParameter);
+                    }
 
-                        if (!availableScope) {
-                            response.sendError(SC_NOT_FOUND, "Not available scope to consume");
+                    for (String name : metricsService.getContextNames()) {
+                        String selectedScope = scope;
+                        Optional<String> availableScopeOptional = metricsService.getContext(name)
+                                .getRegistries().keySet().stream().filter(k -> k.equals(selectedScope)).findAny();
+                        if (!availableScopeOptional.isPresent()) {
+                            availableScope = false;
+                        } else {
+                            availableScope = true;
                         }
+                    }
 
-                        if (availableScope && scope != null && metricName != null) {
-                            outputWriter.write(scope, metricName);
-                        } else if (availableScope) {
-                            outputWriter.write(scope);
-                        }
-                    } else {
-                        outputWriter.write();
+                    if (!availableScope) {
+                        response.sendError(SC_NOT_FOUND, "Not available scope to consume");
+                        return;
                     }
                 }
+
+                // the scope is validated before the body is opened so error pages are never gzip encoded
+                compress = acceptsGzip(request.getHeader(ACCEPT_ENCODING));
+                response.addHeader(VARY, ACCEPT_ENCODING);
+                Writer writer = getResponseWriter(response, compress);
+                MetricsWriter outputWriter = getOutputWriter(writer, metricsService);
+                if (scope != null && metricName != null) {
+                    outputWriter.write(scope, metricName);
+                } else if (scope != null) {
+                    outputWriter.write(scope);
+                } else {
+                    outputWriter.write();
+                }
+                if (compress) {
+                    // finishes the gzip stream
+                    writer.close();
+                }
             }
         } catch (NoSuchRegistryException ex) {
-            response.sendError(SC_NOT_FOUND, String.format("[%s] registry not found", scopeParameter));
+            sendError(response, compress, SC_NOT_FOUND, String.format("[%s] registry not found", scopeParameter));
         } catch (NoSuchMetricException ex) {
-            response.sendError(SC_NOT_FOUND, String.format("[%s] metric not found", metricName));
+            sendError(response, compress, SC_NOT_FOUND, String.format("[%s] metric not found", metricName));
+        }
+    }
+
+    private static void sendError(HttpServletResponse response, boolean compressed, int status, String message)
+            throws IOException {
+        if (compressed && !response.isCommitted()) {
+            // drops the Content-Encoding header and the partially written gzip stream
+            response.reset();
         }
+        response.sendError(status, message);
     }
 
+    /**
+     * Returns the writer the metrics are streamed to. When the client accepts it the output is gzip compressed on the
+     * fly, otherwise the response writer is used as is.
+     */
     @SuppressWarnings("resource")
-    private static MetricsWriter getOutputWriter(HttpServletRequest request,
-            HttpServletResponse response, MetricsService service, String contentType) throws IOException {
-        Writer writer = response.getWriter();
-        String method = request.getMethod();
-        if (GET.equalsIgnoreCase(method)) {
-            if (TEXT_PLAIN.equals(contentType)) {
-                return new MetricsWriterImpl(new OpenMetricsExporter(writer),
-                    service.getContextNames(), service::getContext, MetricUtils.resolveGlobalTagsConfiguration());
-            }
+    private static Writer getResponseWriter(HttpServletResponse response, boolean compress) throws IOException {
+        if (!compress) {
+            return response.getWriter();
         }
-        return null;
+        response.setHeader(CONTENT_ENCODING, GZIP);
+        return new OutputStreamWriter(new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE), UTF_8);
     }
-    
+
+    private static MetricsWriter getOutputWriter(Writer writer, MetricsService service) {
+        return new MetricsWriterImpl(new OpenMetricsExporter(writer),
+                service.getContextNames(), service::getContext, MetricUtils.resolveGlobalTagsConfiguration());
+    }
+
     private static String getContentType(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String method = request.getMethod();
         String accept = request.getHeader(ACCEPT);
@@ -221,6 +250,19 @@ public class MetricsResource extends HttpServlet {
         return Optional.of(MediaType.TEXT_PLAIN);
     }
 
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String coding = encoding.split(";")[0].trim();
+            if (GZIP.equalsIgnoreCase(coding)) {
+                return parseQValue(encoding) > 0;
+            }
+        }
+        return false;
+    }
+
     private static double parseQValue(final String format) {
         return Stream.of(format.split(";")).skip(1)
                 .map(PATTERN_Q_PART::matcher)
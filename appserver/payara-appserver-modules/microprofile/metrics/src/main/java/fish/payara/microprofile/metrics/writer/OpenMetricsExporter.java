@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2020-2023 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -101,6 +101,7 @@ public class OpenMetricsExporter implements MetricExporter {
 
     public OpenMetricsExporter(Writer out) {
         this(null, out instanceof PrintWriter ? (PrintWriter) out : new PrintWriter(out), new HashSet<>(), new HashSet<>());
+        OpenMetricsRenderCache.INSTANCE.startScrape();
     }
 
     protected OpenMetricsExporter(String scope, PrintWriter out, Set<String> typeWrittenByGlobalName,
@@ -289,7 +290,7 @@ public class OpenMetricsExporter implements MetricExporter {
             // write metadata only once per metric
             return;
         }
-        out.append("# TYPE ").append(globalName).append(' ').append(type.name()).append('\n');
+        out.append(OpenMetricsRenderCache.INSTANCE.typeLine(globalName, type.name()));
     }
 
     protected void appendHELP(String globalName, Metadata metadata) {
@@ -298,12 +299,11 @@ public class OpenMetricsExporter implements MetricExporter {
            return;
         }
         Optional<String> description = metadata.description();
-        out.append("# HELP ").append(globalName).append(' ').append(description.isPresent() ? description.get(): "").append('\n');
+        out.append(OpenMetricsRenderCache.INSTANCE.helpLine(globalName, description.isPresent() ? description.get() : ""));
     }
 
     protected void appendValue(String globalName, Tag[] tags, Number value) {
-        out.append(globalName);
-        out.append(tagsToString(tags));
+        out.append(globalName).append(tagsToString(tags));
         if(globalName.equals(GC_TOTAL_ID) || globalName.equals(GC_TIME_SECONDS_TOTAL_ID)) {
             out.append(' ').append(value.toString()).append('\n');
         } else {
@@ -331,9 +331,10 @@ public class OpenMetricsExporter implements MetricExporter {
     }
 
     protected static String tagsToString(Tag[] tags) {
-        if (tags.length == 0) {
-            return "";
-        }
+        return OpenMetricsRenderCache.INSTANCE.renderedTags(tags, OpenMetricsExporter::renderTags);
+    }
+
+    private static String renderTags(Tag[] tags) {
         String result = "";
         result += "{";
         for (int i = 0; i < tags.length; i++) {
@@ -400,9 +401,9 @@ public class OpenMetricsExporter implements MetricExporter {
 
     private String globalName(MetricID metricID, String suffix) {
         String name = metricID.getName();
-        return sanitizeMetricName(!suffix.isEmpty() && (name.endsWith(suffix) || name.contains(".total"))
-                ? name
-                : name + suffix);
+        return OpenMetricsRenderCache.INSTANCE.sanitizedName(
+                !suffix.isEmpty() && (name.endsWith(suffix) || name.contains(".total")) ? name : name + suffix,
+                OpenMetricsExporter::sanitizeMetricName);
     }
 
     private static CharSequence escapeTagValue(String name) {
@@ -0,0 +1,213 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.microprofile.metrics.writer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.metrics.Tag;
+
+/**
+ * Caches the parts of the OpenMetrics output that do not change between two scrapes: the sanitized metric names,
+ * the rendered tag blocks (<code>{name="value",...}</code>) of each time series and the <code># TYPE</code> and
+ * <code># HELP</code> lines of each metric. Only the values themselves have to be rendered anew on each scrape.
+ *
+ * The cache is shared by all exporters and each kind of entry is bounded by the maximum number of entries. When a
+ * kind is full the entries that were not used during the last {@link #IDLE_SCRAPES} scrapes are dropped, as these
+ * belong to metrics that are no longer registered. Should it still be full, the remaining entries are kept and the new
+ * text is rendered without being cached, so a server with more time series than the cache can hold does not evict
+ * the entries of the next scrape over and over again.
+ *
+ * @since 6.2025.1
+ */
+final class OpenMetricsRenderCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 16384;
+
+    /**
+     * Number of scrapes an entry may go unused before it is dropped from a full cache. Scrapes of a single scope only
+     * use some of the entries, so more than one scrape has to pass.
+     */
+    static final int IDLE_SCRAPES = 10;
+
+    static final OpenMetricsRenderCache INSTANCE = new OpenMetricsRenderCache(DEFAULT_MAX_ENTRIES);
+
+    private final int maxEntries;
+    private volatile int scrape;
+    private final Section<String> sanitizedNames = new Section<>();
+    private final Section<List<Tag>> renderedTags = new Section<>();
+    private final Section<String> typeLines = new Section<>();
+    private final Section<String> helpLines = new Section<>();
+
+    OpenMetricsRenderCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Marks the start of a new scrape. Entries used from now on are considered in use by this scrape.
+     */
+    void startScrape() {
+        // a lost update of concurrent scrapes only makes entries look idle a little later
+        scrape++;
+    }
+
+    String sanitizedName(String name, Function<String, String> sanitizer) {
+        String sanitized = sanitizedNames.get(name, null);
+        if (sanitized == null) {
+            sanitized = sanitizer.apply(name);
+            sanitizedNames.put(name, null, sanitized);
+        }
+        return sanitized;
+    }
+
+    String renderedTags(Tag[] tags, Function<Tag[], String> renderer) {
+        if (tags.length == 0) {
+            return "";
+        }
+        String rendered = renderedTags.get(Arrays.asList(tags), null);
+        if (rendered == null) {
+            // the key must not be backed by the caller's array
+            Tag[] key = tags.clone();
+            rendered = renderer.apply(key);
+            renderedTags.put(Arrays.asList(key), null, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * @return the <code># TYPE</code> line including the line break
+     */
+    String typeLine(String globalName, String type) {
+        String line = typeLines.get(globalName, type);
+        if (line == null) {
+            line = "# TYPE " + globalName + ' ' + type + '\n';
+            typeLines.put(globalName, type, line);
+        }
+        return line;
+    }
+
+    /**
+     * @return the <code># HELP</code> line including the line break
+     */
+    String helpLine(String globalName, String description) {
+        String line = helpLines.get(globalName, description);
+        if (line == null) {
+            line = "# HELP " + globalName + ' ' + description + '\n';
+            helpLines.put(globalName, description, line);
+        }
+        return line;
+    }
+
+    int size() {
+        return sanitizedNames.size() + renderedTags.size() + typeLines.size() + helpLines.size();
+    }
+
+    void clear() {
+        sanitizedNames.clear();
+        renderedTags.clear();
+        typeLines.clear();
+        helpLines.clear();
+    }
+
+    private static final class Entry {
+
+        /**
+         * The input the text was rendered from in addition to the key, null if the key is all there is
+         */
+        final String input;
+        final String text;
+        int lastUsed;
+
+        Entry(String input, String text, int lastUsed) {
+            this.input = input;
+            this.text = text;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final class Section<K> {
+
+        private final ConcurrentMap<K, Entry> entries = new ConcurrentHashMap<>();
+        private int sweptAt = -1;
+
+        String get(K key, String input) {
+            Entry entry = entries.get(key);
+            if (entry == null || !Objects.equals(entry.input, input)) {
+                return null;
+            }
+            entry.lastUsed = scrape;
+            return entry.text;
+        }
+
+        void put(K key, String input, String text) {
+            if (entries.size() >= maxEntries && !entries.containsKey(key) && !sweep()) {
+                return;
+            }
+            entries.put(key, new Entry(input, text, scrape));
+        }
+
+        /**
+         * Drops the idle entries, at most once per scrape so that a cache full of entries in use does not scan them
+         * on every miss.
+         *
+         * @return true if there is room for another entry
+         */
+        private synchronized boolean sweep() {
+            int current = scrape;
+            if (sweptAt != current) {
+                sweptAt = current;
+                entries.values().removeIf(entry -> current - entry.lastUsed > IDLE_SCRAPES);
+            }
+            return entries.size() < maxEntries;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        void clear() {
+            entries.clear();
+        }
+    }
+}
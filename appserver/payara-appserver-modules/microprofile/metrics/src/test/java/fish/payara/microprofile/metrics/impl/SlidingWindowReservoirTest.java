@@ -0,0 +1,122 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.microprofile.metrics.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SlidingWindowReservoir}.
+ */
+public class SlidingWindowReservoirTest {
+
+    private final AtomicLong tick = new AtomicLong();
+
+    @Test
+    public void snapshotContainsRecordedValues() {
+        SlidingWindowReservoir reservoir = new SlidingWindowReservoir(100, 1, TimeUnit.MINUTES, tick::get);
+        for (int i = 1; i <= 10; i++) {
+            reservoir.update(i);
+        }
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(10, reservoir.size());
+        assertEquals(10, snapshot.size());
+        assertEquals(1, min(snapshot));
+        assertEquals(10, snapshot.getMax(), 0d);
+        assertEquals(5.5d, snapshot.getMean(), 0.001d);
+    }
+
+    @Test
+    public void valuesOutsideTheWindowAreDropped() {
+        SlidingWindowReservoir reservoir = new SlidingWindowReservoir(100, 1, TimeUnit.MINUTES, tick::get);
+        reservoir.update(1000);
+        tick.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        reservoir.update(1);
+        reservoir.update(2);
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals(2, snapshot.getMax(), 0d);
+    }
+
+    @Test
+    public void oldestValuesAreOverwrittenWhenFull() {
+        SlidingWindowReservoir reservoir = new SlidingWindowReservoir(1, 1, TimeUnit.MINUTES, tick::get);
+        for (int i = 0; i < 100_000; i++) {
+            reservoir.update(i);
+        }
+        // a single thread records into a single stripe, which keeps its 64 most recent values
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(64, reservoir.size());
+        assertEquals(64, snapshot.size());
+        assertEquals(100_000 - 64, min(snapshot));
+        assertEquals(100_000 - 1, snapshot.getMax(), 0d);
+    }
+
+    @Test
+    public void concurrentUpdatesAreAllRecorded() throws InterruptedException {
+        SlidingWindowReservoir reservoir = new SlidingWindowReservoir(100_000, 1, TimeUnit.MINUTES, tick::get);
+        int threads = 8;
+        int updates = 250;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < updates; i++) {
+                    reservoir.update(42);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(threads * updates, snapshot.size());
+        assertEquals(42, min(snapshot));
+        assertEquals(42, snapshot.getMax(), 0d);
+    }
+
+    private static long min(Snapshot snapshot) {
+        return ((WeightedSnapshot) snapshot).getValues()[0];
+    }
+}
@@ -45,8 +45,11 @@ import org.junit.Test;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Optional;
 
+import static fish.payara.microprofile.metrics.rest.MetricsResource.acceptsGzip;
 import static fish.payara.microprofile.metrics.rest.MetricsResource.parseMetricsAcceptHeader;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class AcceptContentTypeTest {
     @Test
@@ -82,4 +85,13 @@ public class AcceptContentTypeTest {
         assertEquals(Optional.of("text/plain"),
                 parseMetricsAcceptHeader("text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8"));
     }
+
+    @Test
+    public void gzipEncoding() {
+        assertTrue(acceptsGzip("gzip"));
+        assertTrue(acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(acceptsGzip("gzip;q=0"));
+        assertFalse(acceptsGzip("identity"));
+        assertFalse(acceptsGzip(null));
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.microprofile.metrics.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.metrics.Tag;
+import org.junit.Test;
+
+/**
+ * Tests the reuse and the eviction of the {@link OpenMetricsRenderCache}.
+ */
+public class OpenMetricsRenderCacheTest {
+
+    private final AtomicInteger renderings = new AtomicInteger();
+    private final Function<String, String> sanitizer = name -> {
+        renderings.incrementAndGet();
+        return name.replace('.', '_');
+    };
+
+    @Test
+    public void renderedTextIsReused() {
+        OpenMetricsRenderCache cache = new OpenMetricsRenderCache(10);
+        String first = cache.sanitizedName("a.b", sanitizer);
+
+        assertEquals("a_b", first);
+        assertSame(first, cache.sanitizedName("a.b", sanitizer));
+        assertEquals(1, renderings.get());
+    }
+
+    @Test
+    public void tagsAreCachedByValueNotByTheCallersArray() {
+        OpenMetricsRenderCache cache = new OpenMetricsRenderCache(10);
+        Tag[] tags = { new Tag("app", "one") };
+        Function<Tag[], String> renderer = t -> {
+            renderings.incrementAndGet();
+            return "{app=\"" + t[0].getTagValue() + "\"}";
+        };
+
+        assertEquals("{app=\"one\"}", cache.renderedTags(tags, renderer));
+        tags[0] = new Tag("app", "two");
+        assertEquals("{app=\"two\"}", cache.renderedTags(tags, renderer));
+        assertEquals("{app=\"one\"}", cache.renderedTags(new Tag[] { new Tag("app", "one") }, renderer));
+        assertEquals(2, renderings.get());
+        assertEquals("", cache.renderedTags(new Tag[0], renderer));
+    }
+
+    @Test
+    public void metadataLinesAreCachedPerNameAndInput() {
+        OpenMetricsRenderCache cache = new OpenMetricsRenderCache(10);
+
+        assertEquals("# TYPE visitors_total counter\n", cache.typeLine("visitors_total", "counter"));
+        assertSame(cache.typeLine("visitors_total", "counter"), cache.typeLine("visitors_total", "counter"));
+        assertEquals("# TYPE visitors_total gauge\n", cache.typeLine("visitors_total", "gauge"));
+        assertEquals("# HELP visitors_total The visitors\n", cache.helpLine("visitors_total", "The visitors"));
+        assertSame(cache.helpLine("visitors_total", "The visitors"), cache.helpLine("visitors_total", "The visitors"));
+        assertEquals("# HELP visitors_total \n", cache.helpLine("visitors_total", ""));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void fullCacheKeepsEntriesInUseAndRendersNewOnesUncached() {
+        OpenMetricsRenderCache cache = new OpenMetricsRenderCache(2);
+        cache.sanitizedName("a", sanitizer);
+        cache.sanitizedName("b", sanitizer);
+
+        cache.sanitizedName("c", sanitizer);
+        cache.sanitizedName("c", sanitizer);
+        cache.sanitizedName("a", sanitizer);
+        cache.sanitizedName("b", sanitizer);
+
+        assertEquals(2, cache.size());
+        assertEquals(4, renderings.get());
+    }
+
+    @Test
+    public void fullCacheDropsEntriesIdleForMoreThanTheIdleScrapes() {
+        OpenMetricsRenderCache cache = new OpenMetricsRenderCache(2);
+        cache.sanitizedName("a", sanitizer);
+        cache.sanitizedName("b", sanitizer);
+        for (int i = 0; i <= OpenMetricsRenderCache.IDLE_SCRAPES; i++) {
+            cache.startScrape();
+            cache.sanitizedName("b", sanitizer);
+        }
+
+        cache.sanitizedName("c", sanitizer);
+        cache.sanitizedName("c", sanitizer);
+        cache.sanitizedName("b", sanitizer);
+
+        assertEquals(2, cache.size());
+        assertEquals(3, renderings.get());
+        cache.sanitizedName("a", sanitizer);
+        assertEquals(4, renderings.get());
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.web.admin.monitor;
+
+import org.glassfish.external.statistics.CountStatistic;
+import org.glassfish.external.statistics.impl.CountStatisticImpl;
+import org.glassfish.external.statistics.impl.StatisticImpl;
+import org.glassfish.gmbal.AMXMetadata;
+import org.glassfish.gmbal.Description;
+import org.glassfish.gmbal.ManagedAttribute;
+import org.glassfish.gmbal.ManagedObject;
+
+/**
+ * Provides the static resource cache statistics of a web module. The
+ * values are read from the module's cache whenever they are requested.
+ *
+ * @since 6.2025.1
+ */
+@AMXMetadata(type="resource-cache-mon", group="monitoring")
+@ManagedObject
+@Description("Web Module Resource Cache Statistics")
+public class ResourceCacheStatsProvider {
+
+    /**
+     * Source of the statistics, implemented by the web container on top of
+     * the resource cache of a web module.
+     */
+    public interface Source {
+
+        long getHitsCount();
+
+        long getMissCount();
+
+        long getEvictionCount();
+
+        long getNotFoundHitsCount();
+
+        int getCacheSize();
+
+        int getNotFoundCacheSize();
+    }
+
+    private static final String HIT_COUNT_DESCRIPTION =
+        "Number of resource lookups served from the cache";
+
+    private static final String MISS_COUNT_DESCRIPTION =
+        "Number of resource lookups not found in the cache";
+
+    private static final String EVICTION_COUNT_DESCRIPTION =
+        "Number of cached resources evicted to make room for others";
+
+    private static final String NOT_FOUND_HIT_COUNT_DESCRIPTION =
+        "Number of lookups of missing resources served from the cache";
+
+    private static final String CACHE_SIZE_DESCRIPTION =
+        "Size of the cached resources in KB";
+
+    private static final String NOT_FOUND_CACHE_SIZE_DESCRIPTION =
+        "Number of cached lookups of missing resources";
+
+    private final String moduleName;
+    private final String vsName;
+    private final Source source;
+    private final CountStatisticImpl hitCount;
+    private final CountStatisticImpl missCount;
+    private final CountStatisticImpl evictionCount;
+    private final CountStatisticImpl notFoundHitCount;
+    private final CountStatisticImpl cacheSize;
+    private final CountStatisticImpl notFoundCacheSize;
+
+    public ResourceCacheStatsProvider(String moduleName, String vsName, Source source) {
+        this.moduleName = moduleName;
+        this.vsName = vsName;
+        this.source = source;
+        hitCount = new CountStatisticImpl(
+            "ResourceCacheHitCount", StatisticImpl.UNIT_COUNT,
+            HIT_COUNT_DESCRIPTION);
+        missCount = new CountStatisticImpl(
+            "ResourceCacheMissCount", StatisticImpl.UNIT_COUNT,
+            MISS_COUNT_DESCRIPTION);
+        evictionCount = new CountStatisticImpl(
+            "ResourceCacheEvictionCount", StatisticImpl.UNIT_COUNT,
+            EVICTION_COUNT_DESCRIPTION);
+        notFoundHitCount = new CountStatisticImpl(
+            "ResourceCacheNotFoundHitCount", StatisticImpl.UNIT_COUNT,
+            NOT_FOUND_HIT_COUNT_DESCRIPTION);
+        cacheSize = new CountStatisticImpl(
+            "ResourceCacheSize", "KB",
+            CACHE_SIZE_DESCRIPTION);
+        notFoundCacheSize = new CountStatisticImpl(
+            "ResourceCacheNotFoundSize", StatisticImpl.UNIT_COUNT,
+            NOT_FOUND_CACHE_SIZE_DESCRIPTION);
+    }
+
+    @ManagedAttribute(id="resourcecachehitcount")
+    @Description(HIT_COUNT_DESCRIPTION)
+    public CountStatistic getHitCount() {
+        hitCount.setCount(source.getHitsCount());
+        return hitCount;
+    }
+
+    @ManagedAttribute(id="resourcecachemisscount")
+    @Description(MISS_COUNT_DESCRIPTION)
+    public CountStatistic getMissCount() {
+        missCount.setCount(source.getMissCount());
+        return missCount;
+    }
+
+    @ManagedAttribute(id="resourcecacheevictioncount")
+    @Description(EVICTION_COUNT_DESCRIPTION)
+    public CountStatistic getEvictionCount() {
+        evictionCount.setCount(source.getEvictionCount());
+        return evictionCount;
+    }
+
+    @ManagedAttribute(id="resourcecachenotfoundhitcount")
+    @Description(NOT_FOUND_HIT_COUNT_DESCRIPTION)
+    public CountStatistic getNotFoundHitCount() {
+        notFoundHitCount.setCount(source.getNotFoundHitsCount());
+        return notFoundHitCount;
+    }
+
+    @ManagedAttribute(id="resourcecachesize")
+    @Description(CACHE_SIZE_DESCRIPTION)
+    public CountStatistic getCacheSize() {
+        cacheSize.setCount(source.getCacheSize());
+        return cacheSize;
+    }
+
+    @ManagedAttribute(id="resourcecachenotfoundsize")
+    @Description(NOT_FOUND_CACHE_SIZE_DESCRIPTION)
+    public CountStatistic getNotFoundCacheSize() {
+        notFoundCacheSize.setCount(source.getNotFoundCacheSize());
+        return notFoundCacheSize;
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    public String getVSName() {
+        return vsName;
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019-2021] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 /*
  * To change this template, choose Tools | Templates
  * and open the template in the editor.
@@ -173,6 +173,26 @@ public class WebStatsProviderBootstrap implements PostConstruct, MonitoringDataS
         statspList.add(websp);
     }
 
+    /**
+     * Registers the resource cache statistics of a web module whose
+     * application stats providers have already been registered.
+     */
+    public void registerResourceCacheStatsProvider(String monitoringName,
+            String vsName, ResourceCacheStatsProvider.Source source) {
+        Map<String, Queue<Object>> statsProviderMap = vsNameToStatsProviderMap.get(vsName);
+        Queue<Object> statspList = statsProviderMap == null ? null : statsProviderMap.get(monitoringName);
+        if (statspList == null) {
+            return;
+        }
+        ResourceCacheStatsProvider resourceCacheStatsProvider =
+                new ResourceCacheStatsProvider(monitoringName, vsName, source);
+        StatsProviderManager.register(
+                WEB_CONTAINER, PluginPoint.APPLICATIONS,
+                getNodeString(monitoringName, vsName),
+                resourceCacheStatsProvider);
+        statspList.add(resourceCacheStatsProvider);
+    }
+
     public void unregisterApplicationStatsProviders(String monitoringName,
             String vsName) {
 
@@ -217,7 +237,8 @@ public class WebStatsProviderBootstrap implements PostConstruct, MonitoringDataS
             for (Entry<String, Queue<Object>> serverEntry : entry.entrySet()) {
                 String monitoringName = serverEntry.getKey();
                 for (Object provider : serverEntry.getValue()) {
-                    if (provider instanceof RequestStatsProvider) {
+                    if (provider instanceof RequestStatsProvider
+                            || provider instanceof ResourceCacheStatsProvider) {
                         web.group(monitoringName).collectObject(provider, MonitoringDataCollection::collectObject);
                     }
                 }
@@ -55,7 +55,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright 2016-2024 Payara Foundation and/or its affiliates
+// Portions Copyright 2016-2026 Payara Foundation and/or its affiliates
 
 package org.glassfish.web.loader;
 
@@ -126,6 +126,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -138,6 +139,7 @@ import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.jar.Attributes;
 import java.util.jar.Attributes.Name;
@@ -275,7 +277,7 @@ public class WebappClassLoader
     /**
      * Last time a JAR was accessed.
      */
-    protected long lastJarAccessed = 0L;
+    protected volatile long lastJarAccessed = 0L;
 
     /**
      * The list of local repositories, in the order they should be searched
@@ -306,12 +308,26 @@ public class WebappClassLoader
      */
     protected final Object jarFilesLock = new Object();
 
+    /**
+     * Held while reading from the JARs without holding
+     * <code>jarFilesLock</code>. The JARs are only closed while holding the
+     * write lock, which is always taken inside <code>jarFilesLock</code>.
+     */
+    private final ReentrantReadWriteLock jarAccessLock = new ReentrantReadWriteLock();
+
     /**
      * The list of JARs, in the order they should be searched
      * for locally loaded classes or resources.
      */
     protected File[] jarRealFiles = new File[0];
 
+    /**
+     * Index of the directories found in the JARs, built when the class
+     * loader is started and rebuilt whenever a JAR is added afterwards.
+     * Written while holding <code>jarFilesLock</code>.
+     */
+    private volatile JarIndex jarIndex = null;
+
     /**
      * The path which will be monitored for added Jar files.
      */
@@ -377,7 +393,7 @@ public class WebappClassLoader
     /**
      * Has this component been started?
      */
-    protected boolean started = false;
+    protected volatile boolean started = false;
 
     /**
      * Has external repositories.
@@ -465,6 +481,9 @@ public class WebappClassLoader
 
         CONSTRUCTOR_ARGS_TYPES = constructorArgsTypes;
         CONSTRUCTOR_ARGUMENTS = constructorArguments;
+
+        // Classes are loaded under a per class name lock, see getClassLoadingLock
+        registerAsParallelCapable();
     }
 
     // ----------------------------------------------------------- Constructors
@@ -574,6 +593,23 @@ public class WebappClassLoader
         }
     }
 
+
+    /**
+     * Index from each directory found in the JARs to the positions in
+     * <code>jarFiles</code> of the JARs containing it, in search order,
+     * together with the JAR files it was built from.
+     */
+    private static final class JarIndex {
+
+        final Map<String, int[]> directories;
+        final File[] jarRealFiles;
+
+        JarIndex(Map<String, int[]> directories, File[] jarRealFiles) {
+            this.directories = directories;
+            this.jarRealFiles = jarRealFiles;
+        }
+    }
+
     // START PE 4985680
     /**
      * Adds the given package name to the list of packages that may always be
@@ -635,7 +671,9 @@ public class WebappClassLoader
         Class clazz = null;
         if (!this.resourceEntries.containsKey(name)) {
             definePackage(name, entry);
-            clazz = defineLoadedClass(name, entry);
+            synchronized (getClassLoadingLock(name)) {
+                clazz = defineLoadedClass(name, entry);
+            }
             this.resourceEntries.put(name, entry);
             for (Map.Entry<String, GeneratedResourceEntry> e : entry.generatedResources.entrySet()) {
                 String generatedClassName = e.getKey();
@@ -1070,6 +1108,11 @@ public class WebappClassLoader
             }
             result4[jarRealFiles.length] = file;
             jarRealFiles = result4;
+
+            if (started) {
+                // Lookups in the JARs rely on the index being complete
+                jarIndex = openJARs() ? buildJarIndex() : null;
+            }
         }
     }
 
@@ -1256,7 +1299,7 @@ public class WebappClassLoader
             try {
                 ResourceEntry entry = findClassInternal(name);
 
-                synchronized (this) {
+                synchronized (getClassLoadingLock(name)) {
                     if (entry.loadedClass == null) {
                         clazz = defineLoadedClass(name, entry);
                     } else {
@@ -1739,80 +1782,102 @@ public class WebappClassLoader
      * @exception ClassNotFoundException if the class was not found
      */
     @Override
-    protected synchronized Class<?> loadClass(String name, boolean resolve)
+    protected Class<?> loadClass(String name, boolean resolve)
         throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
 
-        if (logger.isLoggable(Level.FINER)) {
-            logger.log(Level.FINER, "loadClass({0})", name);
-        }
+            if (logger.isLoggable(Level.FINER)) {
+                logger.log(Level.FINER, "loadClass({0})", name);
+            }
 
-        Class<?> clazz = null;
+            Class<?> clazz = null;
 
-        // Don't load classes if class loader is stopped
-        if (!started) {
-            throw new IllegalStateException(
-                getString(LogFacade.NOT_STARTED, name));
-        }
+            // Don't load classes if class loader is stopped
+            if (!started) {
+                throw new IllegalStateException(
+                    getString(LogFacade.NOT_STARTED, name));
+            }
 
-        // (0) Check our previously loaded local class cache
-        clazz = findLoadedClass0(name);
-        if (clazz != null) {
-            if (logger.isLoggable(Level.FINER)) {
-                logger.log(Level.FINER, "  Returning class from cache");
+            // (0) Check our previously loaded local class cache
+            clazz = findLoadedClass0(name);
+            if (clazz != null) {
+                if (logger.isLoggable(Level.FINER)) {
+                    logger.log(Level.FINER, "  Returning class from cache");
+                }
+                if (resolve) {
+                    resolveClass(clazz);
+                }
+                return clazz;
             }
-            if (resolve) {
-                resolveClass(clazz);
+
+            // (0.1) Check our previously loaded class cache
+            clazz = findLoadedClass(name);
+            if (clazz != null) {
+                if (logger.isLoggable(Level.FINER)) {
+                    logger.log(Level.FINER, "  Returning class from cache");
+                }
+                if (resolve) {
+                    resolveClass(clazz);
+                }
+                return clazz;
             }
-            return clazz;
-        }
 
-        // (0.1) Check our previously loaded class cache
-        clazz = findLoadedClass(name);
-        if (clazz != null) {
-            if (logger.isLoggable(Level.FINER)) {
-                logger.log(Level.FINER, "  Returning class from cache");
+            // (0.5) Permission to access this class when using a SecurityManager
+            if ( securityManager != null && packageDefinitionEnabled) {
+                int i = name.lastIndexOf('.');
+                if (i >= 0) {
+                    try {
+                        securityManager.checkPackageAccess(name.substring(0,i));
+                    } catch (SecurityException se) {
+                        String error = getString(LogFacade.SECURITY_EXCEPTION, name);
+                        if (logger.isLoggable(Level.INFO)) {
+                            logger.log(Level.INFO, error, se);
+                        }
+                        throw new ClassNotFoundException(error, se);
+                    }
+                }
             }
-            if (resolve) {
-                resolveClass(clazz);
+
+            ClassLoader delegateLoader = parent;
+            if (delegateLoader == null) {
+                delegateLoader = system;
             }
-            return clazz;
-        }
 
-        // (0.5) Permission to access this class when using a SecurityManager
-        if ( securityManager != null && packageDefinitionEnabled) {
-            int i = name.lastIndexOf('.');
-            if (i >= 0) {
+            boolean isWhitelisted = application.isWhitelistEnabled() && DOLUtils.isWhiteListed(application, name);
+            boolean delegateLoad = (delegate && (application.isWhitelistEnabled() ? isWhitelisted : true)) || filter(name);
+
+            // (1) Delegate to our parent if requested
+            if (delegateLoad) {
+                // Check delegate first
+                if (logger.isLoggable(Level.FINER)) {
+                    logger.log(Level.FINER, "  Delegating to classloader1 {0}", delegateLoader);
+                }
                 try {
-                    securityManager.checkPackageAccess(name.substring(0,i));
-                } catch (SecurityException se) {
-                    String error = getString(LogFacade.SECURITY_EXCEPTION, name);
-                    if (logger.isLoggable(Level.INFO)) {
-                        logger.log(Level.INFO, error, se);
+                    clazz = delegateLoader.loadClass(name);
+                    if (clazz != null) {
+                        if (logger.isLoggable(Level.FINER)) {
+                            logger.log(Level.FINER, "  Loading class from delegate");
+                        }
+                        if (resolve) {
+                            resolveClass(clazz);
+                        }
+                        return clazz;
                     }
-                    throw new ClassNotFoundException(error, se);
+                } catch (ClassNotFoundException e) {
+                    // Ignore
                 }
             }
-        }
 
-        ClassLoader delegateLoader = parent;
-        if (delegateLoader == null) {
-            delegateLoader = system;
-        }
-
-        boolean isWhitelisted = application.isWhitelistEnabled() && DOLUtils.isWhiteListed(application, name);
-        boolean delegateLoad = (delegate && (application.isWhitelistEnabled() ? isWhitelisted : true)) || filter(name);
 
-        // (1) Delegate to our parent if requested
-        if (delegateLoad) {
-            // Check delegate first
+            // (2) Search local repositories
             if (logger.isLoggable(Level.FINER)) {
-                logger.log(Level.FINER, "  Delegating to classloader1 {0}", delegateLoader);
+                logger.log(Level.FINER, "  Searching local repositories");
             }
             try {
-                clazz = delegateLoader.loadClass(name);
+                clazz = findClass(name);
                 if (clazz != null) {
                     if (logger.isLoggable(Level.FINER)) {
-                        logger.log(Level.FINER, "  Loading class from delegate");
+                        logger.log(Level.FINER, "  Loading class from local repository");
                     }
                     if (resolve) {
                         resolveClass(clazz);
@@ -1822,57 +1887,37 @@ public class WebappClassLoader
             } catch (ClassNotFoundException e) {
                 // Ignore
             }
-        }
 
+            // If we haven't found it locally, and we're using bundled JSF, DON'T delegate any lookup if it's a JSF class
+            if (useMyFaces && !delegateLoad && (name.startsWith("javax.faces") || name.startsWith("jakarta.faces") || name.startsWith("com.sun.faces"))) {
+                throw new ClassNotFoundException(String.format("Class [%s] could not be found in bundled JSF", name));
+            }
 
-        // (2) Search local repositories
-        if (logger.isLoggable(Level.FINER)) {
-            logger.log(Level.FINER, "  Searching local repositories");
-        }
-        try {
-            clazz = findClass(name);
-            if (clazz != null) {
+            // (3) Delegate if class was not found locally
+            if ((application.isWhitelistEnabled()? isWhitelisted : true) && !delegateLoad) {
                 if (logger.isLoggable(Level.FINER)) {
-                    logger.log(Level.FINER, "  Loading class from local repository");
+                    logger.log(Level.FINER, "  Delegating to classloader {0}", delegateLoader);
                 }
-                if (resolve) {
-                    resolveClass(clazz);
-                }
-                return clazz;
-            }
-        } catch (ClassNotFoundException e) {
-            // Ignore
-        }
-
-        // If we haven't found it locally, and we're using bundled JSF, DON'T delegate any lookup if it's a JSF class
-        if (useMyFaces && !delegateLoad && (name.startsWith("javax.faces") || name.startsWith("jakarta.faces") || name.startsWith("com.sun.faces"))) {
-            throw new ClassNotFoundException(String.format("Class [%s] could not be found in bundled JSF", name));
-        }
-
-        // (3) Delegate if class was not found locally
-        if ((application.isWhitelistEnabled()? isWhitelisted : true) && !delegateLoad) {
-            if (logger.isLoggable(Level.FINER)) {
-                logger.log(Level.FINER, "  Delegating to classloader {0}", delegateLoader);
-            }
-            try {
-                clazz = delegateLoader.loadClass(name);
-                if (clazz != null) {
-                    if (logger.isLoggable(Level.FINER)) {
-                        logger.log(Level.FINER, "  Loading class from delegate");
-                    }
-                    if (resolve) {
-                        resolveClass(clazz);
+                try {
+                    clazz = delegateLoader.loadClass(name);
+                    if (clazz != null) {
+                        if (logger.isLoggable(Level.FINER)) {
+                            logger.log(Level.FINER, "  Loading class from delegate");
+                        }
+                        if (resolve) {
+                            resolveClass(clazz);
+                        }
+                        return clazz;
                     }
-                    return clazz;
+                } catch (ClassNotFoundException e) {
+                    // Ignore
                 }
-            } catch (ClassNotFoundException e) {
-                // Ignore
             }
+            else if(application.isWhitelistEnabled() && !isWhitelisted) {
+                throw new ClassNotFoundException(String.format("Whitelist enabled, but class [%s] is not whitelisted", name));
+            }
+            throw new ClassNotFoundException(name);
         }
-        else if(application.isWhitelistEnabled() && !isWhitelisted) {
-            throw new ClassNotFoundException(String.format("Whitelist enabled, but class [%s] is not whitelisted", name));
-        }
-        throw new ClassNotFoundException(name);
     }
 
     /**
@@ -2005,6 +2050,14 @@ public class WebappClassLoader
      */
     public void start() {
         started = true;
+
+        // Index the JARs up front, so that lookups never have to build the
+        // index while holding jarFilesLock
+        synchronized (jarFilesLock) {
+            if (openJARs()) {
+                jarIndex = buildJarIndex();
+            }
+        }
     }
 
     public boolean isStarted() {
@@ -2054,23 +2107,29 @@ public class WebappClassLoader
         clearJaxRSCache();
 
         synchronized(jarFilesLock) {
-            started = false;
+            // Lookups reading the JARs check the started flag under the read lock
+            jarAccessLock.writeLock().lock();
+            try {
+                started = false;
 
-            int length = files.length;
-            for (int i = 0; i < length; i++) {
-                files[i] = null;
-            }
+                int length = files.length;
+                for (int i = 0; i < length; i++) {
+                    files[i] = null;
+                }
 
-            length = jarFiles.length;
-            for (int i = 0; i < length; i++) {
-                try {
-                    if (jarFiles[i] != null) {
-                        jarFiles[i].close();
+                length = jarFiles.length;
+                for (int i = 0; i < length; i++) {
+                    try {
+                        if (jarFiles[i] != null) {
+                            jarFiles[i].close();
+                        }
+                    } catch (IOException e) {
+                        // Ignore
                     }
-                } catch (IOException e) {
-                    // Ignore
+                    jarFiles[i] = null;
                 }
-                jarFiles[i] = null;
+            } finally {
+                jarAccessLock.writeLock().unlock();
             }
 
             try {
@@ -2087,6 +2146,7 @@ public class WebappClassLoader
             files = null;
             jarFiles = null;
             jarRealFiles = null;
+            jarIndex = null;
             jarPath = null;
             jarNames.clear();
             lastModifiedDates = null;
@@ -2117,17 +2177,22 @@ public class WebappClassLoader
         if (jarFiles.length > 0) {
             synchronized (jarFilesLock) {
                 if (force || (System.currentTimeMillis() > (lastJarAccessed + 90000))) {
-                    for (int i = 0; i < jarFiles.length; i++) {
-                        try {
-                            if (jarFiles[i] != null) {
-                                jarFiles[i].close();
-                                jarFiles[i] = null;
-                            }
-                        } catch (IOException e) {
-                            if (logger.isLoggable(Level.FINE)) {
-                                logger.log(Level.FINE, "Failed to close JAR", e);
+                    jarAccessLock.writeLock().lock();
+                    try {
+                        for (int i = 0; i < jarFiles.length; i++) {
+                            try {
+                                if (jarFiles[i] != null) {
+                                    jarFiles[i].close();
+                                    jarFiles[i] = null;
+                                }
+                            } catch (IOException e) {
+                                if (logger.isLoggable(Level.FINE)) {
+                                    logger.log(Level.FINE, "Failed to close JAR", e);
+                                }
                             }
                         }
+                    } finally {
+                        jarAccessLock.writeLock().unlock();
                     }
 
                     try {
@@ -2813,7 +2878,7 @@ public class WebappClassLoader
             throw new ClassNotFoundException(name);
         }
 
-        synchronized (this) {
+        synchronized (getClassLoadingLock(name)) {
             Class<?> clazz = entry.loadedClass;
             if (clazz != null) {
                 return entry;
@@ -2873,9 +2938,7 @@ public class WebappClassLoader
         entry = findResourceInternalFromRepositories(name, path);
 
         if (entry == null) {
-            synchronized (jarFilesLock) {
-                entry = findResourceInternalFromJars(name, path);
-            }
+            entry = findResourceInternalFromJars(name, path);
         }
 
         if (entry == null) {
@@ -2985,25 +3048,70 @@ public class WebappClassLoader
 
     /**
      * Attempts to load the requested resource from this classloader's
-     * JAR files.
+     * JAR files. Only the JARs containing the directory of the resource
+     * are searched, and they are read under the read lock of
+     * <code>jarAccessLock</code> rather than <code>jarFilesLock</code>.
      *
      * @return The requested resource, or null if not found
      */
     private ResourceEntry findResourceInternalFromJars(String name,
                                                        String path) {
 
+        JarIndex index = getJarIndex();
+        if (index == null) {
+            return null;
+        }
+        int[] candidates = index.directories.get(getJarIndexKey(path));
+        if (candidates == null) {
+            return null;
+        }
+
+        while (true) {
+            jarAccessLock.readLock().lock();
+            try {
+                if (!started) {
+                    return null;
+                }
+                // The index is read before the JARs, which are only ever
+                // replaced by a longer array, so every candidate is present
+                JarFile[] jars = jarFiles;
+                if (isOpen(jars, candidates)) {
+                    lastJarAccessed = System.currentTimeMillis();
+                    return findResourceInternalFromJars(name, path, candidates, jars, index.jarRealFiles);
+                }
+            } finally {
+                jarAccessLock.readLock().unlock();
+            }
+            // The JARs have been closed in the meantime, open them again
+            // without holding the read lock
+            if (!openJARs()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Attempts to load the requested resource from the given candidate JARs.
+     * Must be called while holding the read lock of
+     * <code>jarAccessLock</code>.
+     *
+     * @return The requested resource, or null if not found
+     */
+    private ResourceEntry findResourceInternalFromJars(String name,
+                                                       String path,
+                                                       int[] candidates,
+                                                       JarFile[] jarFiles,
+                                                       File[] jarRealFiles) {
+
         ResourceEntry entry = null;
         JarEntry jarEntry = null;
         int contentLength = -1;
         InputStream binaryStream = null;
 
-        if (!openJARs()) {
-            return null;
-        }
+        int candidatesLength = candidates.length;
 
-        int jarFilesLength = jarFiles.length;
-
-        for (int i=0; (entry == null) && (i < jarFilesLength); i++) {
+        for (int c=0; (entry == null) && (c < candidatesLength); c++) {
+            int i = candidates[c];
             jarEntry = jarFiles[i].getJarEntry(path);
 
             if (jarEntry != null) {
@@ -3045,6 +3153,96 @@ public class WebappClassLoader
         return entry;
     }
 
+    private static boolean isOpen(JarFile[] jars, int[] candidates) {
+        for (int i : candidates) {
+            if (jars[i] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the directories contained in each JAR. The index
+     * is built when the class loader is started, so it is only built here
+     * if the JARs could not be opened at that time.
+     */
+    private JarIndex getJarIndex() {
+        JarIndex index = jarIndex;
+        if (index == null) {
+            synchronized (jarFilesLock) {
+                if (jarIndex == null && started && openJARs()) {
+                    jarIndex = buildJarIndex();
+                }
+                index = jarIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Indexes the directories contained in each JAR. Must be called while
+     * holding <code>jarFilesLock</code> with the JARs opened.
+     */
+    private JarIndex buildJarIndex() {
+        Map<String, int[]> index = new HashMap<>();
+        for (int i = 0; i < jarFiles.length; i++) {
+            if (jarFiles[i] == null) {
+                continue;
+            }
+            for (String directory : getJarDirectories(jarFiles[i])) {
+                int[] jars = index.get(directory);
+                if (jars == null) {
+                    jars = new int[] { i };
+                } else {
+                    jars = Arrays.copyOf(jars, jars.length + 1);
+                    jars[jars.length - 1] = i;
+                }
+                index.put(directory, jars);
+            }
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, "Indexed {0} directories in {1} JARs of {2}",
+                    new Object[] { index.size(), jarFiles.length, contextName });
+        }
+        return new JarIndex(index, jarRealFiles);
+    }
+
+    /**
+     * Returns every directory of the given JAR, including the parents of
+     * its entries since getJarEntry also finds a directory when its name is
+     * given without a trailing '/'.
+     */
+    private static Set<String> getJarDirectories(JarFile jarFile) {
+        Set<String> directories = new HashSet<>();
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            String directory = getJarIndexKey(entries.nextElement().getName());
+            while (directories.add(directory) && !directory.isEmpty()) {
+                directory = getJarIndexKey(directory);
+            }
+        }
+        return directories;
+    }
+
+    /**
+     * Returns the directory of the given JAR entry name, ignoring the
+     * versioned prefix of multi-release JAR entries.
+     */
+    private static String getJarIndexKey(String name) {
+        if (name.startsWith("META-INF/versions/")) {
+            int versionEnd = name.indexOf('/', "META-INF/versions/".length());
+            if (versionEnd > 0) {
+                name = name.substring(versionEnd + 1);
+            }
+        }
+        if (name.endsWith("/")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        int pos = name.lastIndexOf('/');
+        return pos < 0 ? "" : name.substring(0, pos);
+    }
+
     private synchronized void extractResources() {
         if (!antiJARLocking || resourcesExtracted) {
             return;
@@ -3229,9 +3427,7 @@ public class WebappClassLoader
 
         ResourceEntry entry = resourceEntries.get(name);
         if (entry != null) {
-            synchronized(this) {
-                return entry.loadedClass;
-            }
+            return entry.loadedClass;
         }
         return null;  // FIXME - findLoadedResource()
 
@@ -3509,7 +3705,11 @@ public class WebappClassLoader
 
     }
 
-    private synchronized Class<?> defineLoadedClass(String name, ResourceEntry entry) {
+    /**
+     * Defines the class of the given entry. Callers must hold the class
+     * loading lock of the class name.
+     */
+    private Class<?> defineLoadedClass(String name, ResourceEntry entry) {
         Class<?> clazz;
         // Create the code source object
         CodeSource codeSource
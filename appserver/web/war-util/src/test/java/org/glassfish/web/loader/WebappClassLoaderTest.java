@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2020] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2020-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -39,6 +39,8 @@
  */
 package org.glassfish.web.loader;
 
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -158,6 +160,26 @@ public class WebappClassLoaderTest {
         }
     }
 
+    @Test
+    public void check_findResource_uses_jar_index() throws Exception {
+        final WebappClassLoader webappClassLoader = new WebappClassLoader(getClass().getClassLoader(), null);
+        webappClassLoader.start();
+        webappClassLoader.setResources(new FileDirContext());
+
+        try {
+            add(webappClassLoader);
+            assertNotNull(webappClassLoader.findResource("org/junit/Test.class"));
+            assertNull(webappClassLoader.findResource("org/junit/DoesNotExist.class"));
+            assertNull(webappClassLoader.findResource("does/not/exist/Test.class"));
+
+            // JARs added later must be part of the index too
+            add(webappClassLoader);
+            assertNotNull(webappClassLoader.findResource("org/junit/Assert.class"));
+        } finally {
+            webappClassLoader.close();
+        }
+    }
+
     private void add(WebappClassLoader webappClassLoader) throws IOException {
         List<JarFile> jarFiles = findJarFiles();
 
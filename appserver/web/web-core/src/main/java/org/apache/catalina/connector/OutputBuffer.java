@@ -55,12 +55,13 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright [2019-2021] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package org.apache.catalina.connector;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.channels.InterruptedByTimeoutException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -343,6 +344,31 @@ public class OutputBuffer extends Writer
     }
 
 
+    /**
+     * Writes the remaining content of the given buffer without copying it
+     * into the response buffer first, so that direct and memory-mapped
+     * buffers reach the network as they are.
+     *
+     * @param byteBuffer the buffer to write
+     * @throws IOException An underlying IOException occurred
+     */
+    public void writeByteBuffer(ByteBuffer byteBuffer) throws IOException {
+
+        if (suspended)
+            return;
+
+        if (grizzlyOutputBuffer.isClosed())
+            return;
+        if (log.isLoggable(Level.FINE))
+            log.log(Level.FINE, "writeByteBuffer({0})", byteBuffer.remaining());
+
+        int len = byteBuffer.remaining();
+        grizzlyOutputBuffer.writeByteBuffer(byteBuffer);
+        bytesWritten += len;
+
+    }
+
+
     // XXX Char or byte ?
     public void writeByte(int b)
         throws IOException {
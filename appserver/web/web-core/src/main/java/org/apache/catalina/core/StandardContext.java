@@ -55,7 +55,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright 2016-2024 Payara Foundation and/or its affiliates
+// Portions Copyright 2016-2026 Payara Foundation and/or its affiliates
 
 package org.apache.catalina.core;
 
@@ -680,6 +680,12 @@ public class StandardContext
      */
     protected int cacheTTL = 5000;
 
+    /**
+     * TTL in ms of cached lookups for resources which do not exist,
+     * -1 to use the cache TTL.
+     */
+    protected int notFoundCacheTTL = -1;
+
     /**
      * Non proxied resources.
      */
@@ -933,6 +939,20 @@ public class StandardContext
         return cacheTTL;
     }
 
+    /**
+     * Set the TTL of cached lookups for resources which do not exist.
+     */
+    public void setNotFoundCacheTTL(int notFoundCacheTTL) {
+        this.notFoundCacheTTL = notFoundCacheTTL;
+    }
+
+    /**
+     * Get the TTL of cached lookups for resources which do not exist.
+     */
+    public int getNotFoundCacheTTL() {
+        return notFoundCacheTTL;
+    }
+
     /**
      * Return the maximum size of the cache in KB.
      */
@@ -1936,6 +1956,7 @@ public class StandardContext
             baseDirContext.setCached(isCachingAllowed());
             baseDirContext.setCacheTTL(getCacheTTL());
             baseDirContext.setCacheMaxSize(getCacheMaxSize());
+            baseDirContext.setNotFoundCacheTTL(getNotFoundCacheTTL());
         }
         if (resources instanceof FileDirContext) {
             filesystemBased = true;
@@ -1972,6 +1993,7 @@ public class StandardContext
             ((BaseDirContext) resources).setCached(isCachingAllowed());
             ((BaseDirContext) resources).setCacheTTL(getCacheTTL());
             ((BaseDirContext) resources).setCacheMaxSize(getCacheMaxSize());
+            ((BaseDirContext) resources).setNotFoundCacheTTL(getNotFoundCacheTTL());
         }
         if (resources instanceof FileDirContext) {
             filesystemBased = true;
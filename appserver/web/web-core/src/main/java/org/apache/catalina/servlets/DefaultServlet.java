@@ -56,7 +56,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright [2019-2023] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 package org.apache.catalina.servlets;
 
@@ -75,9 +75,26 @@ import java.io.RandomAccessFile;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.naming.InitialContext;
 import javax.naming.NameClassPair;
 import javax.naming.NamingException;
@@ -104,6 +121,7 @@ import javax.xml.transform.stream.StreamSource;
 import com.sun.enterprise.util.io.FileUtils;
 import org.apache.catalina.Globals;
 import org.apache.catalina.LogFacade;
+import org.apache.catalina.connector.CoyoteOutputStream;
 import org.apache.catalina.core.ContextsAdapterUtility;
 import org.apache.catalina.util.ServerInfo;
 import org.apache.catalina.util.URLEncoder;
@@ -265,6 +283,29 @@ public class DefaultServlet extends HttpServlet {
     protected int sendfileSize = 48 * 1024;
 
 
+    /**
+     * Minimum size in bytes above which file-backed resources are written
+     * from memory-mapped regions of the file instead of being read through
+     * a stream. Zero or a negative value disables it.
+     */
+    protected long mappedFileSize = 1024 * 1024;
+
+
+    /**
+     * Precompressed variants to look for, as pairs of content encoding and
+     * file suffix, in order of preference. Empty if disabled.
+     */
+    protected String[][] precompressed = new String[0][];
+
+
+    /**
+     * Should a strong ETag be calculated from the content of static
+     * resources, instead of the weak ETag derived from the length and last
+     * modified time?
+     */
+    protected boolean useStrongETags = false;
+
+
     /**
      * Should the Accept-Ranges: bytes header be send with static resources?
      */
@@ -327,6 +368,51 @@ public class DefaultServlet extends HttpServlet {
     protected static final int BUFFER_SIZE = 4096;
 
 
+    /**
+     * The largest region of a file mapped into memory at once.
+     */
+    protected static final long MAPPED_REGION_SIZE = 8 * 1024 * 1024;
+
+
+    /**
+     * Precompressed variants looked for when <code>precompressed</code> is
+     * set to <code>true</code>.
+     */
+    private static final String[][] DEFAULT_PRECOMPRESSED = {
+        {"br", ".br"}, {"gzip", ".gz"}
+    };
+
+
+    /**
+     * Releases the memory mapping of a mapped region, or null if the JVM
+     * offers no way to do so, in which case files are not mapped.
+     */
+    private static final MethodHandle UNMAP = findUnmap();
+
+
+    /**
+     * Calculates strong ETags of resources whose content is not in memory,
+     * so that request threads never read whole files to hash them.
+     */
+    private static final ThreadPoolExecutor eTagExecutor;
+
+
+    /**
+     * Canonical paths of the files a strong ETag is being calculated for.
+     */
+    private static final Set<String> pendingETags = ConcurrentHashMap.newKeySet();
+
+    static {
+        eTagExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "payara-default-servlet-etag");
+                    t.setDaemon(true);
+                    return t;
+                });
+        eTagExecutor.allowCoreThreadTimeOut(true);
+    }
+
+
     // --------------------------------------------------------- Public Methods
 
 
@@ -368,6 +454,14 @@ public class DefaultServlet extends HttpServlet {
             sendfileSize =
                 Integer.parseInt(sc.getInitParameter("sendfileSize")) * 1024;
 
+        if (sc.getInitParameter("mappedFileSize") != null)
+            mappedFileSize =
+                Long.parseLong(sc.getInitParameter("mappedFileSize")) * 1024;
+
+        precompressed = parsePrecompressed(sc.getInitParameter("precompressed"));
+
+        useStrongETags = Boolean.parseBoolean(sc.getInitParameter("useStrongETags"));
+
         if (sc.getInitParameter("maxHeaderRangeItems") != null) {
             maxHeaderRangeItems =
                 Integer.parseInt(sc.getInitParameter("maxHeaderRangeItems"));
@@ -422,6 +516,31 @@ public class DefaultServlet extends HttpServlet {
     }
 
 
+    /**
+     * Parses the <code>precompressed</code> init parameter, which is either
+     * <code>true</code> for the default Brotli and gzip variants, or a comma
+     * separated list of <code>encoding=suffix</code> pairs in order of
+     * preference, e.g. <code>br=.br,gzip=.gz</code>.
+     */
+    static String[][] parsePrecompressed(String value) {
+        if (value == null || value.trim().isEmpty() || "false".equalsIgnoreCase(value.trim())) {
+            return new String[0][];
+        }
+        if ("true".equalsIgnoreCase(value.trim())) {
+            return DEFAULT_PRECOMPRESSED;
+        }
+        List<String[]> variants = new ArrayList<>();
+        for (String variant : value.split(",")) {
+            int separator = variant.indexOf('=');
+            if (separator > 0 && separator < variant.trim().length() - 1) {
+                variants.add(new String[] {variant.substring(0, separator).trim(),
+                        variant.substring(separator + 1).trim()});
+            }
+        }
+        return variants.toArray(new String[0][]);
+    }
+
+
     @SuppressWarnings("unchecked")
     private ArrayList<AlternateDocBase> getAlternateDocBases() {
 
@@ -808,13 +927,15 @@ public class DefaultServlet extends HttpServlet {
 
         CacheEntry cacheEntry = null;
         ProxyDirContext proxyDirContext = resources;
+        ProxyDirContext lookupContext = proxyDirContext;
         if (alternateDocBases == null || alternateDocBases.isEmpty()) {
             cacheEntry = proxyDirContext.lookupCache(path);
         } else {
             AlternateDocBase match = AlternateDocBase.findMatch(
                                             path, alternateDocBases);
             if (match != null) {
-                cacheEntry = ((ProxyDirContext) ContextsAdapterUtility.unwrap(match.getResources())).lookupCache(path);
+                lookupContext = (ProxyDirContext) ContextsAdapterUtility.unwrap(match.getResources());
+                cacheEntry = lookupContext.lookupCache(path);
             } else {
                 // None of the url patterns for alternate docbases matched
                 cacheEntry = proxyDirContext.lookupCache(path);
@@ -853,6 +974,32 @@ public class DefaultServlet extends HttpServlet {
             return;
         }
 
+        // Find content type.
+        String contentType = cacheEntry.attributes.getMimeType();
+        if (contentType == null && !cacheEntry.attributes.isMimeTypeInitialized()) {
+            contentType = getServletContext().getMimeType(cacheEntry.name);
+            cacheEntry.attributes.setMimeType(contentType);
+        }
+
+        // Serve a precompressed variant if there is one the client accepts.
+        // From here on cacheEntry refers to the representation being served.
+        String contentEncoding = null;
+        if (cacheEntry.context == null && precompressed.length > 0
+                && request.getAttribute(RequestDispatcher.INCLUDE_REQUEST_URI) == null) {
+            PrecompressedEntry variant = findPrecompressed(request, lookupContext, path);
+            if (variant != null) {
+                response.addHeader("Vary", "Accept-Encoding");
+                if (variant.cacheEntry != null) {
+                    cacheEntry = variant.cacheEntry;
+                    contentEncoding = variant.encoding;
+                }
+            }
+        }
+
+        if (useStrongETags && cacheEntry.context == null) {
+            setStrongETag(cacheEntry);
+        }
+
         // Check if the conditions specified in the optional If headers are
         // satisfied.
         if (cacheEntry.context == null) {
@@ -867,13 +1014,6 @@ public class DefaultServlet extends HttpServlet {
 
         }
 
-        // Find content type.
-        String contentType = cacheEntry.attributes.getMimeType();
-        if (contentType == null && !cacheEntry.attributes.isMimeTypeInitialized()) {
-            contentType = getServletContext().getMimeType(cacheEntry.name);
-            cacheEntry.attributes.setMimeType(contentType);
-        }
-
         ArrayList<Range> ranges = null;
         long contentLength = -1L;
 
@@ -900,7 +1040,13 @@ public class DefaultServlet extends HttpServlet {
             }
 
             // Parse range specifier
-            ranges = parseRange(request, response, cacheEntry.attributes);
+            if (contentEncoding == null) {
+                ranges = parseRange(request, response, cacheEntry.attributes);
+            } else {
+                // Precompressed variants are only served whole
+                ranges = FULL;
+                response.setHeader("Content-Encoding", contentEncoding);
+            }
 
             // ETag header
             response.setHeader("ETag", cacheEntry.attributes.getETag());
@@ -985,7 +1131,8 @@ public class DefaultServlet extends HttpServlet {
                     // Silent catch
                 }
                 if (ostream != null) {
-                    if (!checkSendfile(request, response, cacheEntry, contentLength, null))
+                    if (!checkSendfile(request, response, cacheEntry, contentLength, null)
+                            && !copyMapped(cacheEntry, ostream, 0, contentLength))
                         copy(cacheEntry, renderResult, ostream);
                 } else {
                     copy(cacheEntry, renderResult, writer);
@@ -1035,7 +1182,8 @@ public class DefaultServlet extends HttpServlet {
                         // Silent catch
                     }
                     if (ostream != null) {
-                        if (!checkSendfile(request, response, cacheEntry, range.end - range.start + 1, range))
+                        if (!checkSendfile(request, response, cacheEntry, range.end - range.start + 1, range)
+                                && !copyMapped(cacheEntry, ostream, range.start, range.end - range.start + 1))
                             copy(cacheEntry, ostream, range);
                     } else {
                         copy(cacheEntry, writer, range);
@@ -1902,6 +2050,241 @@ public class DefaultServlet extends HttpServlet {
     }
 
 
+    /**
+     * Writes a region of a file-backed resource from memory-mapped regions
+     * of the file, if the resource is at least <code>mappedFileSize</code>
+     * bytes and its content is not already cached on the heap. The mapped
+     * regions are handed to the connector as they are when the output stream
+     * supports it, and transferred through the file channel otherwise.
+     * <p>
+     * Each region is flushed before it is unmapped, as the connector copies
+     * whatever it cannot write to the socket right away. If the write fails
+     * the region is left to the garbage collector instead.
+     *
+     * @param cacheEntry The cache entry of the resource
+     * @param ostream The output stream to write to
+     * @param start Offset of the first byte to write
+     * @param length Number of bytes to write
+     * @return true if the content was written, false if it still has to be
+     * copied
+     * @exception IOException if an input/output error occurs
+     */
+    protected boolean copyMapped(CacheEntry cacheEntry,
+                                 ServletOutputStream ostream,
+                                 long start, long length)
+        throws IOException {
+
+        if ((mappedFileSize <= 0)
+            || (UNMAP == null)
+            || (cacheEntry.resource == null)
+            || (cacheEntry.attributes.getContentLength() < mappedFileSize)
+            || (cacheEntry.resource.getContent() != null)) {
+            return false;
+        }
+        String canonicalPath = cacheEntry.attributes.getCanonicalPath();
+        if (canonicalPath == null) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(canonicalPath),
+                                                    StandardOpenOption.READ)) {
+            long end = Math.min(start + length, channel.size());
+            long position = start;
+            if (ostream instanceof CoyoteOutputStream) {
+                CoyoteOutputStream coyoteStream = (CoyoteOutputStream) ostream;
+                while (position < end) {
+                    long size = Math.min(MAPPED_REGION_SIZE, end - position);
+                    MappedByteBuffer region =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                    coyoteStream.write(region);
+                    coyoteStream.flush();
+                    unmap(region);
+                    position += size;
+                }
+            } else {
+                while (position < end) {
+                    position += channel.transferTo(position, end - position,
+                                                   Channels.newChannel(ostream));
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Releases the memory mapping of a region once nothing refers to it any
+     * more.
+     */
+    private static void unmap(MappedByteBuffer region) {
+        try {
+            UNMAP.invokeExact((ByteBuffer) region);
+        } catch (Throwable t) {
+            // The mapping is released when the region is garbage collected
+        }
+    }
+
+
+    private static MethodHandle findUnmap() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner",
+                            MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Finds the precompressed variant of a resource to serve for the given
+     * request, following the order of the <code>precompressed</code>
+     * setting.
+     *
+     * @return null if the resource has no precompressed variant, otherwise
+     * the variant accepted by the client, with a null entry if the client
+     * accepts none of them
+     */
+    private PrecompressedEntry findPrecompressed(HttpServletRequest request,
+                                                 ProxyDirContext context,
+                                                 String path) {
+        boolean found = false;
+        for (String[] variant : precompressed) {
+            CacheEntry entry = context.lookupCache(path + variant[1]);
+            if (entry == null || !entry.exists || entry.context != null) {
+                continue;
+            }
+            found = true;
+            if (acceptsEncoding(request, variant[0])) {
+                return new PrecompressedEntry(entry, variant[0]);
+            }
+        }
+        return found ? new PrecompressedEntry(null, null) : null;
+    }
+
+
+    /**
+     * Checks whether any Accept-Encoding header of the request accepts the
+     * given encoding with a non-zero quality.
+     */
+    static boolean acceptsEncoding(HttpServletRequest request,
+                                   String encoding) {
+        boolean wildcardAccepted = false;
+        Enumeration<String> headers = request.getHeaders("Accept-Encoding");
+        while (headers != null && headers.hasMoreElements()) {
+            for (String token : headers.nextElement().split(",")) {
+                String[] parts = token.split(";");
+                String coding = parts[0].trim();
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (coding.equalsIgnoreCase(encoding)) {
+                    // an explicit entry takes precedence over the wildcard
+                    return quality > 0;
+                } else if (coding.equals("*")) {
+                    wildcardAccepted = quality > 0;
+                }
+            }
+        }
+        return wildcardAccepted;
+    }
+
+
+    /**
+     * Replaces the weak ETag of a resource with one calculated from its
+     * content. The ETag is kept with the cached resource attributes, so it is
+     * only calculated again once the resource has changed. Content which is
+     * not in memory is hashed in the background, and the weak ETag is used
+     * until that is done.
+     */
+    private void setStrongETag(CacheEntry cacheEntry) {
+        ResourceAttributes attributes = cacheEntry.attributes;
+        String eTag = attributes.getETag();
+        if (cacheEntry.resource == null || (eTag != null && !eTag.startsWith("W/"))) {
+            return;
+        }
+
+        byte[] content = cacheEntry.resource.getContent();
+        if (content != null) {
+            MessageDigest digest = newETagDigest();
+            if (digest != null) {
+                digest.update(content);
+                attributes.setETag(strongETag(digest));
+            }
+            return;
+        }
+
+        String canonicalPath = attributes.getCanonicalPath();
+        if (canonicalPath != null && pendingETags.add(canonicalPath)) {
+            try {
+                eTagExecutor.execute(() -> {
+                    try {
+                        setStrongETag(attributes, new File(canonicalPath));
+                    } finally {
+                        pendingETags.remove(canonicalPath);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pendingETags.remove(canonicalPath);
+            }
+        }
+    }
+
+
+    /**
+     * Sets the strong ETag of a file-backed resource, unless the file has
+     * changed since its attributes were read.
+     */
+    static void setStrongETag(ResourceAttributes attributes, File file) {
+        MessageDigest digest = newETagDigest();
+        if (digest == null) {
+            return;
+        }
+        long lastModified = file.lastModified();
+        try (InputStream is = new FileInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int len;
+            while ((len = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, len);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        if (lastModified == file.lastModified()
+                && lastModified == attributes.getLastModified()
+                && file.length() == attributes.getContentLength()) {
+            attributes.setETag(strongETag(digest));
+        }
+    }
+
+
+    private static MessageDigest newETagDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+
+    private static String strongETag(MessageDigest digest) {
+        return "\"" + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(digest.digest()) + "\"";
+    }
+
+
     /**
      * Check if the if-match condition is satisfied.
      *
@@ -2540,6 +2923,21 @@ public class DefaultServlet extends HttpServlet {
         }
     }
 
+    /**
+     * A precompressed variant of a resource, and the content encoding it is
+     * served with.
+     */
+    private static class PrecompressedEntry {
+
+        private final CacheEntry cacheEntry;
+        private final String encoding;
+
+        PrecompressedEntry(CacheEntry cacheEntry, String encoding) {
+            this.cacheEntry = cacheEntry;
+            this.encoding = encoding;
+        }
+    }
+
     /**
      * Enumeration of sorting mechanisms for directory listings.
      */
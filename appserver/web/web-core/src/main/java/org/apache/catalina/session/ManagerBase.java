@@ -55,7 +55,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package org.apache.catalina.session;
 
@@ -179,7 +179,7 @@ public abstract class ManagerBase implements Manager {
     /**
      * A random number generator to use when generating session identifiers.
      */
-    private SecureRandom random = null;
+    private volatile SecureRandom random = null;
     
     
     /**
@@ -187,7 +187,7 @@ public abstract class ManagerBase implements Manager {
      * when generating universally unique session identifiers.
      * HERCULES: add
      */
-    protected UuidGenerator uuidGenerator = new UuidGeneratorImpl();     
+    protected volatile UuidGenerator uuidGenerator = new UuidGeneratorImpl();     
 
 
     /**
@@ -220,6 +220,12 @@ public abstract class ManagerBase implements Manager {
      * session identifier.
      */
     protected final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The active sessions indexed by expiry time, so that the background
+     * expiry check only visits the sessions that are due.
+     */
+    private final SessionExpiryIndex expiryIndex = new SessionExpiryIndex();
     
     // Number of sessions created by this manager
     protected int sessionCounter=0;
@@ -286,6 +292,8 @@ public abstract class ManagerBase implements Manager {
     
     /**
      * Set the UuidGenerator for this Manager.
+     * Session identifiers are generated without holding any lock on this
+     * manager, so the generator must be safe for concurrent use.
      * HERCULES:added
      */
     public void setUuidGenerator(UuidGenerator aUuidGenerator) {
@@ -564,39 +572,50 @@ public abstract class ManagerBase implements Manager {
      * generating session identifiers.  If there is no such generator
      * currently defined, construct and seed a new one.
      */
-    public synchronized SecureRandom getRandom() {
-        if (this.random == null) {
-            // Calculate the new random number generator seed
-            long seed = System.currentTimeMillis();
-            long t1 = seed;
-            char entropy[] = getEntropy().toCharArray();
-            for (int i = 0; i < entropy.length; i++) {
-                 long update = ((byte) entropy[i]) << ((i % 8) * 8);
-                 seed ^= update;
-            }
-            try {
-                 // Construct and seed a new random number generator
-                 Class<?> clazz = Class.forName(randomClass);
-                 this.random = (SecureRandom) clazz.newInstance();
-                 this.random.setSeed(seed);
-            } catch (Exception e) {
-                 // Fall back to the simple case
-                String msg = MessageFormat.format(rb.getString(LogFacade.INIT_RANDOM_NUMBER_GENERATOR_EXCEPTION),
-                                                  randomClass);
-                 log.log(Level.SEVERE, msg, e);
-                 this.random = new SecureRandom();
-                 this.random.setSeed(seed);
+    public SecureRandom getRandom() {
+        SecureRandom current = this.random;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (this.random == null) {
+                this.random = createRandom();
             }
-            long t2=System.currentTimeMillis();
-            if( (t2-t1) > 100 )
-                 if (log.isLoggable(Level.FINE)) {
-                     String msg = MessageFormat.format(rb.getString(LogFacade.SEEDING_RANDOM_NUMBER_GENERATOR_CLASS),
-                                                       randomClass);
-                     log.log(Level.FINE, "{0} {1}", new Object[]{msg, t2-t1});
-                 }
+            return this.random;
         }
+    }
 
-        return (this.random);
+    private SecureRandom createRandom() {
+        SecureRandom newRandom;
+        // Calculate the new random number generator seed
+        long seed = System.currentTimeMillis();
+        long t1 = seed;
+        char entropy[] = getEntropy().toCharArray();
+        for (int i = 0; i < entropy.length; i++) {
+             long update = ((byte) entropy[i]) << ((i % 8) * 8);
+             seed ^= update;
+        }
+        try {
+             // Construct and seed a new random number generator
+             Class<?> clazz = Class.forName(randomClass);
+             newRandom = (SecureRandom) clazz.newInstance();
+             newRandom.setSeed(seed);
+        } catch (Exception e) {
+             // Fall back to the simple case
+            String msg = MessageFormat.format(rb.getString(LogFacade.INIT_RANDOM_NUMBER_GENERATOR_EXCEPTION),
+                                              randomClass);
+             log.log(Level.SEVERE, msg, e);
+             newRandom = new SecureRandom();
+             newRandom.setSeed(seed);
+        }
+        long t2=System.currentTimeMillis();
+        if( (t2-t1) > 100 )
+             if (log.isLoggable(Level.FINE)) {
+                 String msg = MessageFormat.format(rb.getString(LogFacade.SEEDING_RANDOM_NUMBER_GENERATOR_CLASS),
+                                                   randomClass);
+                 log.log(Level.FINE, "{0} {1}", new Object[]{msg, t2-t1});
+             }
+        return newRandom;
     }
 
     /**
@@ -709,6 +728,7 @@ public abstract class ManagerBase implements Manager {
     @Override
     public void add(Session session) {
         sessions.put(session.getIdInternal(), session);
+        scheduleExpiry(session);
         int size = sessions.size();
         if (size > maxActive) {
             synchronized(maxActiveUpdateLock) {
@@ -893,6 +913,7 @@ public abstract class ManagerBase implements Manager {
      */
     public void clearSessions() {
         sessions.clear();
+        expiryIndex.clear();
     }    
 
 
@@ -912,6 +933,59 @@ public abstract class ManagerBase implements Manager {
     @Override
     public void remove(Session session) {
         sessions.remove(session.getIdInternal());
+        unscheduleExpiry(session);
+    }
+
+
+    /**
+     * Updates the position of the given session in the expiry index after
+     * its last access time or maximum inactive interval has changed. Sessions
+     * that are not currently active in this manager are ignored.
+     *
+     * @param session the session to index
+     */
+    protected void scheduleExpiry(Session session) {
+        if (session instanceof StandardSession) {
+            String id = session.getIdInternal();
+            if (id != null && sessions.get(id) == session) {
+                expiryIndex.schedule((StandardSession) session);
+            }
+        }
+    }
+
+
+    /**
+     * Removes the given session from the expiry index.
+     *
+     * @param session the session to remove
+     */
+    protected void unscheduleExpiry(Session session) {
+        if (session instanceof StandardSession) {
+            expiryIndex.remove((StandardSession) session);
+        }
+    }
+
+
+    /**
+     * Removes from the expiry index and returns the active sessions that may
+     * have expired by the given time. Callers must still check each session,
+     * and pass the ones that remain valid back to {@link #scheduleExpiry}.
+     *
+     * @param timeNow the current time in milliseconds
+     * @return the sessions due for an expiry check
+     */
+    protected List<StandardSession> pollExpiredSessions(long timeNow) {
+        List<StandardSession> expired = expiryIndex.pollExpired(timeNow);
+        expired.removeIf(session -> sessions.get(session.getIdInternal()) != session);
+        return expired;
+    }
+
+
+    /**
+     * Removes all sessions from the expiry index.
+     */
+    protected void clearExpiryIndex() {
+        expiryIndex.clear();
     }
 
     @Override
@@ -981,7 +1055,7 @@ public abstract class ManagerBase implements Manager {
      * Generate and return a new session identifier.
      * Hercules:added
      */
-    protected synchronized String generateSessionId(Object obj) {
+    protected String generateSessionId(Object obj) {
         return uuidGenerator.generateUuid(obj);
     }   
     
@@ -989,7 +1063,7 @@ public abstract class ManagerBase implements Manager {
      * Generate and return a new session identifier.
      * Hercules:modified
      */
-    protected synchronized String generateSessionId() {
+    protected String generateSessionId() {
         return generateSessionId(new Object());
     }    
 
@@ -55,7 +55,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright 2016-2024 Payara Foundation and/or its affiliates
+// Portions Copyright 2016-2026 Payara Foundation and/or its affiliates
 
 package org.apache.catalina.session;
 
@@ -606,9 +606,8 @@ public abstract class PersistentManagerBase extends ManagerBase implements Lifec
         if (!started)
             return;
 
-        final List<Session> sessions = findSessions();
-        for (final Session session1 : sessions) {
-            StandardSession session = (StandardSession) session1;
+        // only the sessions that are due, not every active session
+        for (final StandardSession session : pollExpiredSessions(System.currentTimeMillis())) {
             if (store.isHighAvailability()) {
                 try {
                     //verify if session also is on the store and compare lastAccessTime and thisAccessedTime
@@ -629,7 +628,11 @@ public abstract class PersistentManagerBase extends ManagerBase implements Lifec
                         session.unlockBackground();
                     }
                 }
-            }            
+            }
+            if (session.getIsValid()) {
+                // in use or accessed since it was indexed, check it again later
+                scheduleExpiry(session);
+            }
         }
     }
 
@@ -879,6 +882,7 @@ public abstract class PersistentManagerBase extends ManagerBase implements Lifec
 
         // Initialize our internal data structures
         sessions.clear();
+        clearExpiryIndex();
 
         if (store == null)
             return;
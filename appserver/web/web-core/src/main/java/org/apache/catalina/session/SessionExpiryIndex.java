@@ -0,0 +1,169 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.apache.catalina.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of sessions by the time at which they will expire, so that the
+ * background expiry pass only has to look at the sessions that are due rather
+ * than at every active session.
+ * <p>
+ * Sessions are grouped into buckets of {@code bucketMillis} width. A session
+ * is moved to a new bucket whenever its expiry time changes, and a bucket is
+ * handed out once its upper bound has passed. The sessions returned by
+ * {@link #pollExpired(long)} are no longer indexed; callers re-add the ones
+ * that turn out to still be valid.
+ *
+ * @since 6.2025.1
+ */
+final class SessionExpiryIndex {
+
+    static final long DEFAULT_BUCKET_MILLIS = 1000L;
+
+    private final long bucketMillis;
+    private final ConcurrentSkipListMap<Long, Set<StandardSession>> buckets = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<StandardSession, Long> scheduled = new ConcurrentHashMap<>();
+
+    SessionExpiryIndex() {
+        this(DEFAULT_BUCKET_MILLIS);
+    }
+
+    SessionExpiryIndex(long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket width must be greater than 0");
+        }
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * Indexes the session under its current expiry time, moving it out of
+     * any bucket it was previously in. Sessions that never time out are
+     * removed from the index.
+     */
+    void schedule(StandardSession session) {
+        int maxInactiveInterval = session.getMaxInactiveInterval();
+        if (maxInactiveInterval < 0) {
+            remove(session);
+            return;
+        }
+        long expiryTime = session.getThisAccessedTime() + maxInactiveInterval * 1000L;
+        // round up so that a bucket is only due once all of its sessions are
+        long bucket = Math.floorDiv(expiryTime, bucketMillis) + 1;
+        scheduled.compute(session, (key, previous) -> {
+            if (previous == null || previous != bucket) {
+                if (previous != null) {
+                    removeFromBucket(previous, key);
+                }
+                addToBucket(bucket, key);
+            }
+            return bucket;
+        });
+    }
+
+    /**
+     * Removes the session from the index.
+     */
+    void remove(StandardSession session) {
+        scheduled.computeIfPresent(session, (key, previous) -> {
+            removeFromBucket(previous, key);
+            return null;
+        });
+    }
+
+    /**
+     * Removes and returns every session whose bucket is due at the given
+     * time. The sessions are candidates only; their expiry still has to be
+     * checked, as it may have been extended without the index being updated.
+     */
+    List<StandardSession> pollExpired(long now) {
+        List<StandardSession> expired = new ArrayList<>();
+        ConcurrentNavigableMap<Long, Set<StandardSession>> due = buckets.headMap(Math.floorDiv(now, bucketMillis), true);
+        Map.Entry<Long, Set<StandardSession>> entry;
+        while ((entry = due.pollFirstEntry()) != null) {
+            Long bucket = entry.getKey();
+            for (StandardSession session : entry.getValue()) {
+                // skip sessions that moved to another bucket in the meantime
+                if (scheduled.remove(session, bucket)) {
+                    expired.add(session);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Removes all sessions from the index.
+     */
+    void clear() {
+        scheduled.clear();
+        buckets.clear();
+    }
+
+    /**
+     * @return the number of sessions currently indexed
+     */
+    int size() {
+        return scheduled.size();
+    }
+
+    private void addToBucket(Long bucket, StandardSession session) {
+        Set<StandardSession> sessions;
+        do {
+            sessions = buckets.computeIfAbsent(bucket, key -> ConcurrentHashMap.newKeySet());
+            sessions.add(session);
+            // retry if the bucket was polled before the session went in
+        } while (buckets.get(bucket) != sessions);
+    }
+
+    private void removeFromBucket(Long bucket, StandardSession session) {
+        // empty buckets are left in place and discarded once they are due
+        Set<StandardSession> sessions = buckets.get(bucket);
+        if (sessions != null) {
+            sessions.remove(session);
+        }
+    }
+}
@@ -56,7 +56,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright [2016-2021] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package org.apache.catalina.session;
 
@@ -462,6 +462,7 @@ public class StandardManager extends ManagerBase implements Lifecycle, PropertyC
 
         // Initialize our internal data structures
         sessions.clear();
+        clearExpiryIndex();
 
         ObjectInputStream ois = null;
         try {
@@ -494,6 +495,7 @@ public class StandardManager extends ManagerBase implements Lifecycle, PropertyC
                         StandardSession.deserialize(ois, this);
                     session.setManager(this);
                     sessions.put(session.getIdInternal(), session);
+                    scheduleExpiry(session);
                     session.activate();
                 }
             } catch (ClassNotFoundException e) {
@@ -982,9 +984,8 @@ public class StandardManager extends ManagerBase implements Lifecycle, PropertyC
 
         long timeNow = System.currentTimeMillis();
 
-        final List<Session> sessions = findSessions();
-        for (final Session session : sessions) {
-            final StandardSession sess = (StandardSession) session;
+        // only the sessions that are due, not every active session
+        for (final StandardSession sess : pollExpiredSessions(timeNow)) {
             if (sess.lockBackground()) {
                 try {
                     sess.isValid();
@@ -992,6 +993,10 @@ public class StandardManager extends ManagerBase implements Lifecycle, PropertyC
                     sess.unlockBackground();
                 }
             }
+            if (sess.getIsValid()) {
+                // in use or accessed since it was indexed, check it again later
+                scheduleExpiry(sess);
+            }
         }
 
         long timeEnd = System.currentTimeMillis();
@@ -56,7 +56,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright 2016-2024 Payara Foundation and/or its affiliates
+// Portions Copyright 2016-2026 Payara Foundation and/or its affiliates
 
 package org.apache.catalina.session;
 
@@ -372,6 +372,7 @@ public class StandardSession implements HttpSession, Session, Serializable {
         this.creationTime = time;
         this.lastAccessedTime = time;
         this.thisAccessedTime = time;
+        updateExpiry();
 
     }
 
@@ -593,6 +594,7 @@ public class StandardSession implements HttpSession, Session, Serializable {
 
     public void setThisAccessedTime(long accessedTime) {
         this.thisAccessedTime = accessedTime;
+        updateExpiry();
     }
 
     /**
@@ -637,6 +639,7 @@ public class StandardSession implements HttpSession, Session, Serializable {
     @Override
     public void setMaxInactiveInterval(int interval) {
         this.maxInactiveInterval = interval;
+        updateExpiry();
         if (isValid && interval == 0) {
             expire();
         }
@@ -768,6 +771,7 @@ public class StandardSession implements HttpSession, Session, Serializable {
         isAccessed = true;
         this.lastAccessedTime = this.thisAccessedTime;
         this.thisAccessedTime = System.currentTimeMillis();
+        updateExpiry();
         evaluateIfValid();
     }
 
@@ -2186,6 +2190,17 @@ public class StandardSession implements HttpSession, Session, Serializable {
     }
 
 
+    /**
+     * Moves this session within the expiry index of its manager after its
+     * expiry time has changed.
+     */
+    protected void updateExpiry() {
+        if (manager instanceof ManagerBase) {
+            ((ManagerBase) manager).scheduleExpiry(this);
+        }
+    }
+
+
     protected void evaluateIfValid() {
         /*
 	 * If this session has expired or is in the process of expiring or
@@ -0,0 +1,269 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.apache.catalina.servlets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.apache.catalina.connector.OutputBuffer;
+import org.apache.naming.resources.CacheEntry;
+import org.apache.naming.resources.Resource;
+import org.apache.naming.resources.ResourceAttributes;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DefaultServletTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void precompressedIsDisabledByDefault() {
+        assertEquals(0, DefaultServlet.parsePrecompressed(null).length);
+        assertEquals(0, DefaultServlet.parsePrecompressed(" ").length);
+        assertEquals(0, DefaultServlet.parsePrecompressed("false").length);
+    }
+
+    @Test
+    public void precompressedTrueLooksForBrotliThenGzip() {
+        String[][] variants = DefaultServlet.parsePrecompressed("TRUE");
+
+        assertEquals(2, variants.length);
+        assertArrayEquals(new String[] {"br", ".br"}, variants[0]);
+        assertArrayEquals(new String[] {"gzip", ".gz"}, variants[1]);
+    }
+
+    @Test
+    public void precompressedListKeepsOrderAndSkipsInvalidPairs() {
+        String[][] variants = DefaultServlet.parsePrecompressed(" gzip = .gz,=.x,br=,zstd=.zst");
+
+        assertEquals(2, variants.length);
+        assertArrayEquals(new String[] {"gzip", ".gz"}, variants[0]);
+        assertArrayEquals(new String[] {"zstd", ".zst"}, variants[1]);
+    }
+
+    @Test
+    public void encodingIsAcceptedWhenListed() {
+        assertTrue(DefaultServlet.acceptsEncoding(request("deflate, gzip;q=0.5"), "gzip"));
+        assertTrue(DefaultServlet.acceptsEncoding(request("deflate, gzip;q=0.5"), "GZIP"));
+        assertFalse(DefaultServlet.acceptsEncoding(request("deflate, gzip;q=0.5"), "br"));
+    }
+
+    @Test
+    public void encodingWithZeroQualityIsNotAccepted() {
+        assertFalse(DefaultServlet.acceptsEncoding(request("gzip;q=0"), "gzip"));
+        assertFalse(DefaultServlet.acceptsEncoding(request("gzip;q=nonsense"), "gzip"));
+    }
+
+    @Test
+    public void explicitEncodingTakesPrecedenceOverWildcard() {
+        assertTrue(DefaultServlet.acceptsEncoding(request("*"), "br"));
+        assertFalse(DefaultServlet.acceptsEncoding(request("*, br;q=0"), "br"));
+        assertTrue(DefaultServlet.acceptsEncoding(request("*;q=0, br"), "br"));
+        assertFalse(DefaultServlet.acceptsEncoding(request("*;q=0"), "br"));
+    }
+
+    @Test
+    public void encodingIsLookedForInEveryHeader() {
+        assertTrue(DefaultServlet.acceptsEncoding(request("identity", "br"), "br"));
+    }
+
+    @Test
+    public void noEncodingIsAcceptedWithoutHeader() {
+        assertFalse(DefaultServlet.acceptsEncoding(request(), "gzip"));
+    }
+
+    @Test
+    public void smallOrCachedResourcesAreNotMapped() throws IOException {
+        byte[] content = content(4096);
+        File file = file(content);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertFalse(servlet(8192).copyMapped(cacheEntry(file, content.length, null),
+                stream(out), 0, content.length));
+        assertFalse(servlet(16).copyMapped(cacheEntry(file, content.length, content),
+                stream(out), 0, content.length));
+        assertFalse(servlet(0).copyMapped(cacheEntry(file, content.length, null),
+                stream(out), 0, content.length));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void rangeIsTransferredToOtherStreams() throws IOException {
+        byte[] content = content(64 * 1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertTrue(servlet(16).copyMapped(cacheEntry(file(content), content.length, null),
+                stream(out), 100, 1000));
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 1100), out.toByteArray());
+    }
+
+    @Test
+    public void mappedRegionsAreFlushedBeforeTheNextOneIsWritten() throws IOException {
+        byte[] content = content((int) DefaultServlet.MAPPED_REGION_SIZE + 1000);
+        RecordingOutputBuffer buffer = new RecordingOutputBuffer();
+
+        assertTrue(servlet(16).copyMapped(cacheEntry(file(content), content.length, null),
+                new CoyoteOutputStream(buffer), 10, content.length - 10));
+        assertArrayEquals(Arrays.copyOfRange(content, 10, content.length), buffer.written.toByteArray());
+        assertEquals(Arrays.asList("write", "flush", "write", "flush"), buffer.calls);
+    }
+
+    @Test
+    public void strongETagIsOnlySetForUnchangedFile() throws IOException {
+        byte[] content = content(1000);
+        File file = file(content);
+        ResourceAttributes current = attributes(file, content.length);
+        ResourceAttributes stale = attributes(file, content.length);
+        stale.setLastModified(file.lastModified() - 1000);
+
+        DefaultServlet.setStrongETag(current, file);
+        DefaultServlet.setStrongETag(stale, file);
+
+        assertTrue(current.getETag().startsWith("\""));
+        assertTrue(stale.getETag().startsWith("W/"));
+    }
+
+    private static HttpServletRequest request(String... acceptEncoding) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeaders("Accept-Encoding"))
+                .thenReturn(Collections.enumeration(Arrays.asList(acceptEncoding)));
+        return request;
+    }
+
+    private static DefaultServlet servlet(long mappedFileSize) {
+        DefaultServlet servlet = new DefaultServlet();
+        servlet.mappedFileSize = mappedFileSize;
+        return servlet;
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+
+    private File file(byte[] content) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private static ResourceAttributes attributes(File file, long length) {
+        ResourceAttributes attributes = new ResourceAttributes() {
+            @Override
+            public String getCanonicalPath() {
+                return file.getAbsolutePath();
+            }
+        };
+        attributes.setContentLength(length);
+        attributes.setLastModified(file.lastModified());
+        return attributes;
+    }
+
+    private static CacheEntry cacheEntry(File file, long length, byte[] cachedContent) {
+        CacheEntry cacheEntry = new CacheEntry();
+        cacheEntry.attributes = attributes(file, length);
+        cacheEntry.resource = cachedContent == null ? new Resource() : new Resource(cachedContent);
+        return cacheEntry;
+    }
+
+    private static ServletOutputStream stream(ByteArrayOutputStream out) {
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+    }
+
+    /**
+     * Copies what is written, as mapped regions must not be read once they
+     * have been flushed.
+     */
+    private static class RecordingOutputBuffer extends OutputBuffer {
+
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void writeByteBuffer(ByteBuffer byteBuffer) {
+            byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.get(bytes);
+            written.write(bytes, 0, bytes.length);
+            calls.add("write");
+        }
+
+        @Override
+        public void flush() {
+            calls.add("flush");
+        }
+    }
+}
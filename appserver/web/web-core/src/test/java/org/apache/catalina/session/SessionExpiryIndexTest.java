@@ -0,0 +1,125 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.apache.catalina.session;
+
+import java.util.List;
+import org.apache.catalina.Manager;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class SessionExpiryIndexTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void sessionIsReturnedOnlyOnceDue() {
+        SessionExpiryIndex index = new SessionExpiryIndex();
+        StandardSession session = session(NOW, 60);
+        index.schedule(session);
+
+        assertTrue(index.pollExpired(NOW + 59_000).isEmpty());
+        List<StandardSession> expired = index.pollExpired(NOW + 61_000);
+        assertEquals(1, expired.size());
+        assertSame(session, expired.get(0));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void accessMovesSessionToLaterBucket() {
+        SessionExpiryIndex index = new SessionExpiryIndex();
+        StandardSession session = session(NOW, 60);
+        index.schedule(session);
+
+        session.setThisAccessedTime(NOW + 30_000);
+        index.schedule(session);
+
+        assertTrue(index.pollExpired(NOW + 61_000).isEmpty());
+        assertEquals(1, index.pollExpired(NOW + 91_000).size());
+    }
+
+    @Test
+    public void sessionsThatNeverExpireAreNotIndexed() {
+        SessionExpiryIndex index = new SessionExpiryIndex();
+        StandardSession session = session(NOW, 60);
+        index.schedule(session);
+
+        session.setMaxInactiveInterval(-1);
+        index.schedule(session);
+
+        assertEquals(0, index.size());
+        assertTrue(index.pollExpired(Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void removedSessionIsNotReturned() {
+        SessionExpiryIndex index = new SessionExpiryIndex();
+        StandardSession first = session(NOW, 60);
+        StandardSession second = session(NOW, 60);
+        index.schedule(first);
+        index.schedule(second);
+
+        index.remove(first);
+
+        List<StandardSession> expired = index.pollExpired(NOW + 61_000);
+        assertEquals(1, expired.size());
+        assertSame(second, expired.get(0));
+    }
+
+    @Test
+    public void onlyDueBucketsArePolled() {
+        SessionExpiryIndex index = new SessionExpiryIndex();
+        for (int i = 0; i < 100; i++) {
+            index.schedule(session(NOW + i * 1000L, 10));
+        }
+
+        assertEquals(50, index.pollExpired(NOW + 60_000).size());
+        assertEquals(50, index.size());
+        assertEquals(50, index.pollExpired(NOW + 120_000).size());
+    }
+
+    private static StandardSession session(long accessedTime, int maxInactiveInterval) {
+        StandardSession session = new StandardSession(mock(Manager.class));
+        session.setThisAccessedTime(accessedTime);
+        session.setMaxInactiveInterval(maxInactiveInterval);
+        return session;
+    }
+}
@@ -37,12 +37,14 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2018] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.enterprise.web;
 
+import com.sun.enterprise.util.uuid.PregeneratingUuidGenerator;
 import org.apache.catalina.Context;
 import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.ManagerBase;
 import org.glassfish.web.LogFacade;
 import org.glassfish.web.config.serverbeans.SessionProperties;
 import org.glassfish.web.deployment.runtime.ManagerProperties;
@@ -86,18 +88,28 @@ public abstract class BasePersistenceStrategyBuilder
     protected int maxIdleBackup = DEFAULT_MAX_IDLE_BACKUP;
     protected static final int DEFAULT_MIN_IDLE_SWAP = -1;
     protected int minIdleSwap = DEFAULT_MIN_IDLE_SWAP;
+    protected int sessionIdPregenerateCount = 0;
     protected static final int DEFAULT_MAX_IDLE_SWAP = -1;
     protected int maxIdleSwap = DEFAULT_MAX_IDLE_SWAP;
     protected static final int DEFAULT_SESSION_TIMEOUT = 1800;   // 30 minute
     protected int sessionMaxInactiveInterval = DEFAULT_SESSION_TIMEOUT;
     protected String persistentCookieName = "GLASSFISHCOOKIE";
     protected boolean relaxCacheVersionSemantics = true;
+    protected long replicationFlushInterval = 0L;
+    protected boolean replicationDeltaEncoding = false;
+    protected String replicationAttributeSerializer = null;
+    protected int replicationNearCacheSize = -1;
 
     // Special constant for Java Server Faces
     protected static final String JSF_HA_ENABLED = "com.sun.appserver.enableHighAvailability";
     
     protected static final String MIN_IDLE_SWAP_PROPERTY = "minIdleSwap";
     protected static final String MAX_IDLE_SWAP_PROPERTY = "maxIdleSwap";
+    protected static final String SESSION_ID_PREGENERATE_COUNT_PROPERTY = "sessionIdPregenerateCount";
+    protected static final String REPLICATION_FLUSH_INTERVAL_PROPERTY = "replicationFlushIntervalMillis";
+    protected static final String REPLICATION_DELTA_ENCODING_PROPERTY = "replicationDeltaEncoding";
+    protected static final String REPLICATION_ATTRIBUTE_SERIALIZER_PROPERTY = "replicationAttributeSerializer";
+    protected static final String REPLICATION_NEAR_CACHE_SIZE_PROPERTY = "replicationNearCacheSize";
 
     public void initializePersistenceStrategy(
             Context ctx,
@@ -135,6 +147,19 @@ public abstract class BasePersistenceStrategyBuilder
         sctx.restrictedSetPipeline(new WebPipeline(sctx));
     }
     
+    /**
+     * Makes the given manager hand out session ids generated ahead of time
+     * if the <code>sessionIdPregenerateCount</code> property is set.
+     * Builders call this once the session id generator of the manager has
+     * been configured.
+     */
+    protected void configureSessionIdPregeneration(ManagerBase mgr) {
+        if (sessionIdPregenerateCount > 0) {
+            mgr.setUuidGenerator(new PregeneratingUuidGenerator(
+                    mgr.getUuidGenerator(), sessionIdPregenerateCount));
+        }
+    }
+
     public void setDefaultParams(Context ctx, SessionManager smBean) {
         
         reapInterval = DEFAULT_REAP_INTERVAL;
@@ -240,6 +265,28 @@ public abstract class BasePersistenceStrategyBuilder
                             } catch (NumberFormatException e) {
                                 // XXX need error message
                             }
+                        } else if (name.equalsIgnoreCase(SESSION_ID_PREGENERATE_COUNT_PROPERTY)) {
+                            try {
+                                sessionIdPregenerateCount = Integer.parseInt(value);
+                            } catch (NumberFormatException e) {
+                                // XXX need error message
+                            }
+                        } else if (name.equalsIgnoreCase(REPLICATION_FLUSH_INTERVAL_PROPERTY)) {
+                            try {
+                                replicationFlushInterval = Long.parseLong(value);
+                            } catch (NumberFormatException e) {
+                                // XXX need error message
+                            }
+                        } else if (name.equalsIgnoreCase(REPLICATION_DELTA_ENCODING_PROPERTY)) {
+                            replicationDeltaEncoding = Boolean.parseBoolean(value);
+                        } else if (name.equalsIgnoreCase(REPLICATION_ATTRIBUTE_SERIALIZER_PROPERTY)) {
+                            replicationAttributeSerializer = value;
+                        } else if (name.equalsIgnoreCase(REPLICATION_NEAR_CACHE_SIZE_PROPERTY)) {
+                            try {
+                                replicationNearCacheSize = Integer.parseInt(value);
+                            } catch (NumberFormatException e) {
+                                // XXX need error message
+                            }
                         }
                     }
                 }
@@ -334,6 +381,28 @@ public abstract class BasePersistenceStrategyBuilder
                         } catch (NumberFormatException e) {
                             // XXX need error message
                         }
+                    } else if (name.equalsIgnoreCase(SESSION_ID_PREGENERATE_COUNT_PROPERTY)) {
+                        try {
+                            sessionIdPregenerateCount = Integer.parseInt(value);
+                        } catch (NumberFormatException e) {
+                            // XXX need error message
+                        }
+                    } else if (name.equalsIgnoreCase(REPLICATION_FLUSH_INTERVAL_PROPERTY)) {
+                        try {
+                            replicationFlushInterval = Long.parseLong(value);
+                        } catch (NumberFormatException e) {
+                            // XXX need error message
+                        }
+                    } else if (name.equalsIgnoreCase(REPLICATION_DELTA_ENCODING_PROPERTY)) {
+                        replicationDeltaEncoding = Boolean.parseBoolean(value);
+                    } else if (name.equalsIgnoreCase(REPLICATION_ATTRIBUTE_SERIALIZER_PROPERTY)) {
+                        replicationAttributeSerializer = value;
+                    } else if (name.equalsIgnoreCase(REPLICATION_NEAR_CACHE_SIZE_PROPERTY)) {
+                        try {
+                            replicationNearCacheSize = Integer.parseInt(value);
+                        } catch (NumberFormatException e) {
+                            // XXX need error message
+                        }
                     } else if (name.equalsIgnoreCase("relaxCacheVersionSemantics")) {
                         relaxCacheVersionSemantics = Boolean.parseBoolean(value);
                     } else if (name.equalsIgnoreCase("sessionFilename")) {
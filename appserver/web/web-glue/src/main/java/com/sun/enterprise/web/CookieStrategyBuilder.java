@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.enterprise.web;
 
@@ -70,6 +71,7 @@ public class CookieStrategyBuilder extends BasePersistenceStrategyBuilder {
         // END OF 6364900        
 
         ctx.setManager(mgr);
+        configureSessionIdPregeneration(mgr);
 
         if (!((StandardContext)ctx).isSessionTimeoutOveridden()) {
             mgr.setMaxInactiveInterval(sessionMaxInactiveInterval); 
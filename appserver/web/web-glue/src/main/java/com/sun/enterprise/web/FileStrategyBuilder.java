@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2018] Payara Foundation and/or affiliates
+// Portions Copyright [2018-2026] Payara Foundation and/or affiliates
 
 package com.sun.enterprise.web;
 
@@ -80,6 +80,7 @@ public class FileStrategyBuilder extends BasePersistenceStrategyBuilder {
         //END OF 6364900        
 
         ctx.setManager(mgr);
+        configureSessionIdPregeneration(mgr);
 
         if(!((StandardContext)ctx).isSessionTimeoutOveridden()) {
             mgr.setMaxInactiveInterval(sessionMaxInactiveInterval);
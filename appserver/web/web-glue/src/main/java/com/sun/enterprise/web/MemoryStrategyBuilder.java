@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.enterprise.web;
 
@@ -103,6 +104,8 @@ public class MemoryStrategyBuilder extends BasePersistenceStrategyBuilder {
             }
         }
         // END CR 6275709
+
+        configureSessionIdPregeneration(mgr);
         
         if (!((StandardContext)ctx).isSessionTimeoutOveridden()) {
             mgr.setMaxInactiveInterval(sessionMaxInactiveInterval); 
@@ -37,13 +37,14 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2019] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.enterprise.web;
 
 import com.sun.enterprise.config.serverbeans.*;
 import com.sun.enterprise.config.serverbeans.VirtualServer;
 import com.sun.enterprise.web.accesslog.AccessLogFormatter;
+import com.sun.enterprise.web.accesslog.AccessLogRingBuffer;
 import com.sun.enterprise.web.accesslog.CombinedAccessLogFormatterImpl;
 import com.sun.enterprise.web.accesslog.CommonAccessLogFormatterImpl;
 import com.sun.enterprise.web.accesslog.DefaultAccessLogFormatterImpl;
@@ -63,10 +64,14 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.text.FieldPosition;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.glassfish.internal.api.LogManager;
@@ -81,6 +86,12 @@ import org.glassfish.internal.api.LogManager;
  * </p>This class uses a direct <code>ByteBuffer</code> to store and write
  * logs.
  *
+ * <p>When the asynchronous writer is enabled, request threads format their
+ * entries into per-thread buffers and hand them to a single writer thread
+ * through an {@link AccessLogRingBuffer}, instead of formatting into a shared
+ * buffer under a lock. The writer thread batches the entries into large
+ * writes to the log file.</p>
+ *
  * @author Jean-Francois Arcand
  * @author Charlie J. Hunt
  */
@@ -121,6 +132,33 @@ public final class PEAccessLogValve
      */
     private final static int DEFAULT_FILE_SIZE_ROTATION_LIMIT = 0;
 
+    /**
+     * The number of entries that can wait for the asynchronous writer.
+     */
+    private static final int ASYNC_QUEUE_CAPACITY = 16384;
+
+    /**
+     * The minimum size of the buffer the asynchronous writer batches into.
+     */
+    private static final int ASYNC_MIN_BATCH_SIZE = 65536;
+
+    /**
+     * The initial size of the per-thread buffers entries are formatted into
+     * when the asynchronous writer is enabled.
+     */
+    private static final int ASYNC_INITIAL_ENTRY_SIZE = 1024;
+
+    /**
+     * How long a request thread waits before retrying when the asynchronous
+     * writer has fallen behind.
+     */
+    private static final long ASYNC_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * How long the asynchronous writer sleeps when there is nothing to write.
+     */
+    private static final long ASYNC_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private static final String LOG_ROTATION_TIME_FORMAT
             = "'T'HH-mm-ss";
 
@@ -293,6 +331,38 @@ public final class PEAccessLogValve
      */
     private Object lock = new Object();
 
+    /**
+     * Should entries be handed to a dedicated writer thread instead of being
+     * written under the lock by the request thread?
+     */
+    private boolean asyncWriter = false;
+
+    /**
+     * The entries waiting for the asynchronous writer.
+     */
+    private AccessLogRingBuffer ringBuffer;
+
+    /**
+     * The per-thread buffers entries are formatted into when the asynchronous
+     * writer is enabled.
+     */
+    private ThreadLocal<EntryEncoder> entryEncoders;
+
+    /**
+     * The asynchronous writer thread.
+     */
+    private volatile Thread asyncWriterThread = null;
+
+    /**
+     * The asynchronous writer thread completion semaphore.
+     */
+    private volatile boolean asyncWriterDone = false;
+
+    /**
+     * True while the asynchronous writer is waiting for entries.
+     */
+    private volatile boolean asyncWriterParked = false;
+
     /**
      * Return writerThread interval (seconds)
      */
@@ -351,6 +421,23 @@ public final class PEAccessLogValve
         return bufferSize;
     }
 
+    /**
+     * Are entries written by a dedicated writer thread?
+     */
+    public boolean isAsyncWriter() {
+        return asyncWriter;
+    }
+
+    /**
+     * Set whether request threads should hand their entries to a dedicated
+     * writer thread rather than writing them under a shared lock.
+     *
+     * @param asyncWriter true to use the asynchronous writer
+     */
+    public void setAsyncWriter(boolean asyncWriter) {
+        this.asyncWriter = asyncWriter;
+    }
+
     // ------------------------------------------------------------- Properties
     /**
      * Are we supposed to add datestamp to first access log file we create,
@@ -571,6 +658,11 @@ public final class PEAccessLogValve
             return;
         }
 
+        if (asyncWriter) {
+            enqueue(request, response);
+            return;
+        }
+
         synchronized (lock){
             // Reset properly the buffer in case of an unexpected
             // exception.
@@ -649,6 +741,130 @@ public final class PEAccessLogValve
         }
     }
 
+    /**
+     * Formats the entry for the given request on the calling thread and
+     * hands it to the asynchronous writer.
+     */
+    private void enqueue(Request request, Response response) {
+        if (formatter == null) {
+            return;
+        }
+
+        byte[] entry;
+        try {
+            entry = entryEncoders.get().encode(formatter, request, response);
+        } catch (BufferOverflowException ex) {
+            _logger.log(
+                    Level.SEVERE,
+                    LogFacade.ACCESS_LOG_UNABLE_TO_WRITE,
+                    new Object[] {ex});
+            return;
+        }
+
+        while (!ringBuffer.offer(entry)) {
+            if (!started) {
+                return;
+            }
+            // The writer has fallen behind, wake it up and retry
+            LockSupport.unpark(asyncWriterThread);
+            LockSupport.parkNanos(ASYNC_BACKOFF_NANOS);
+        }
+
+        if (asyncWriterParked && (flushRealTime
+                || ringBuffer.size() >= ringBuffer.capacity() / 2)) {
+            LockSupport.unpark(asyncWriterThread);
+        }
+    }
+
+    /**
+     * Body of the asynchronous writer thread: drains the queued entries into
+     * a batch buffer, and writes the batch once the queue is empty and either
+     * <code>flushRealTime</code> is set or the write interval has elapsed, or
+     * when the batch buffer is full.
+     */
+    private void drainEntries() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(
+                Math.max(bufferSize, ASYNC_MIN_BATCH_SIZE));
+        long writeIntervalMillis = writeInterval * 1000L;
+        long nextWrite = System.currentTimeMillis() + writeIntervalMillis;
+
+        while (true) {
+            byte[] entry = ringBuffer.poll();
+            if (entry != null) {
+                if (entry.length > batch.remaining()) {
+                    writeBatch(batch);
+                    if (entry.length > batch.capacity()) {
+                        ByteBuffer oversized = ByteBuffer.wrap(entry);
+                        oversized.position(entry.length);
+                        writeBatch(oversized);
+                        continue;
+                    }
+                }
+                batch.put(entry);
+                continue;
+            }
+
+            long now = System.currentTimeMillis();
+            if (batch.position() > 0
+                    && (flushRealTime || asyncWriterDone || now >= nextWrite)) {
+                writeBatch(batch);
+                nextWrite = now + writeIntervalMillis;
+            }
+
+            if (asyncWriterDone && ringBuffer.isEmpty()) {
+                return;
+            }
+
+            asyncWriterParked = true;
+            if (ringBuffer.isEmpty() && !asyncWriterDone) {
+                if (flushRealTime || batch.position() == 0) {
+                    LockSupport.parkNanos(ASYNC_IDLE_NANOS);
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(
+                            Math.max(nextWrite - now, 1)));
+                }
+            }
+            asyncWriterParked = false;
+        }
+    }
+
+    /**
+     * Writes the given batch to the log file, applying the same rotation
+     * rules as {@link #log()}, and clears it.
+     */
+    private void writeBatch(ByteBuffer batch) {
+
+        if (rotatable) {
+            synchronized (lock) {
+                rotateLog();
+            }
+        }
+
+        synchronized (lock) {
+            try {
+                batch.flip();
+                if (accessLogToConsole && batch.hasRemaining()) {
+                    String entries = Charset.defaultCharset().decode(batch.duplicate()).toString();
+                    logManager.getOutStream().print(entries.replaceAll("(?m)^", "AccessLog: "));
+                }
+                while (batch.hasRemaining()) {
+                    fileChannel.write(batch);
+                }
+            } catch (IOException ex) {
+                ;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        if (rotatable && maximumLogFileSize > 0
+                && logFile.length() >= maximumLogFileSize) {
+            synchronized (lock) {
+                rotate();
+            }
+        }
+    }
+
     /*
      * Configures this access log valve.
      *
@@ -768,6 +984,13 @@ public final class PEAccessLogValve
             }
         }
         
+        /*
+         * The accessLogAsyncWriter property of <virtual-server> selects the
+         * asynchronous writer
+         */
+        setAsyncWriter(Boolean.parseBoolean(vsBean.getPropertyValue(
+                Constants.ACCESS_LOG_ASYNC_WRITER_PROPERTY)));
+
         String acFilePrefix = vsBean.getPropertyValue(Constants.ACCESS_LOG_PREFIX);
         if(acFilePrefix != null && !acFilePrefix.trim().isEmpty() && !"null".equals(acFilePrefix) && !"null".equals(accessLogPrefix)) {
             setPrefix(acFilePrefix + ".");
@@ -1227,7 +1450,12 @@ public final class PEAccessLogValve
 
         lastAccessLogCreationTime = systime;
 
-        if (!flushRealTime){
+        if (asyncWriter) {
+            ringBuffer = new AccessLogRingBuffer(ASYNC_QUEUE_CAPACITY);
+            final int maxEntrySize = bufferSize;
+            entryEncoders = ThreadLocal.withInitial(() -> new EntryEncoder(maxEntrySize));
+            asyncThreadStart();
+        } else if (!flushRealTime){
             // Start the background writer writerThread
             threadStart();
         }
@@ -1254,7 +1482,10 @@ public final class PEAccessLogValve
         lifecycle.fireLifecycleEvent(STOP_EVENT, null);
         started = false;
 
-        if (!flushRealTime){
+        if (asyncWriterThread != null) {
+            // Stop the asynchronous writer once it has written what is queued
+            asyncThreadStop();
+        } else if (!flushRealTime){
             // Stop the background writer thread
             threadStop();
         }
@@ -1332,4 +1563,88 @@ public final class PEAccessLogValve
         writerThread = null;
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Start the asynchronous writer thread
+     */
+    private void asyncThreadStart() {
+
+        if (asyncWriterThread != null)
+            return;
+
+        asyncWriterDone = false;
+        asyncWriterParked = false;
+        asyncWriterThread = new Thread(this::drainEntries, "AccessLogAsyncWriter");
+        asyncWriterThread.setDaemon(true);
+        asyncWriterThread.start();
+
+    }
+
+    /**
+     * Stop the asynchronous writer thread after it has drained its queue
+     */
+    private void asyncThreadStop() {
+
+        if (asyncWriterThread == null)
+            return;
+
+        asyncWriterDone = true;
+        LockSupport.unpark(asyncWriterThread);
+        try {
+            asyncWriterThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        asyncWriterThread = null;
+
+    }
+
+    /**
+     * Per-thread state used to format and encode an entry for the
+     * asynchronous writer. The character buffer starts small and grows up to
+     * the configured buffer size.
+     */
+    private static final class EntryEncoder {
+
+        private final int maxSize;
+        private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private CharBuffer chars;
+        private ByteBuffer bytes;
+
+        EntryEncoder(int maxSize) {
+            this.maxSize = maxSize;
+            allocate(Math.min(ASYNC_INITIAL_ENTRY_SIZE, maxSize));
+        }
+
+        byte[] encode(AccessLogFormatter formatter, Request request,
+                Response response) {
+            while (true) {
+                chars.clear();
+                try {
+                    formatter.appendLogEntry(request, response, chars);
+                    chars.put('\n');
+                    break;
+                } catch (BufferOverflowException ex) {
+                    if (chars.capacity() >= maxSize) {
+                        throw ex;
+                    }
+                    allocate(Math.min(chars.capacity() * 2, maxSize));
+                }
+            }
+            chars.flip();
+            bytes.clear();
+            encoder.reset();
+            encoder.encode(chars, bytes, true);
+            encoder.flush(bytes);
+            return Arrays.copyOf(bytes.array(), bytes.position());
+        }
+
+        private void allocate(int size) {
+            chars = CharBuffer.allocate(size);
+            bytes = ByteBuffer.allocate((int) Math.ceil(size * encoder.maxBytesPerChar()));
+        }
+    }
+}
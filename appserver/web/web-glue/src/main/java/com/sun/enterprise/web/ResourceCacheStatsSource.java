@@ -0,0 +1,107 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.web;
+
+import javax.naming.directory.DirContext;
+
+import org.apache.naming.resources.ProxyDirContext;
+import org.apache.naming.resources.ResourceCache;
+import org.glassfish.web.admin.monitor.ResourceCacheStatsProvider;
+
+/**
+ * Exposes the resource cache of a web module to its
+ * {@link ResourceCacheStatsProvider}. The cache is resolved on every read,
+ * as it is only created when the module starts and is replaced when the
+ * module is reloaded.
+ *
+ * @since 6.2025.1
+ */
+class ResourceCacheStatsSource implements ResourceCacheStatsProvider.Source {
+
+    private final WebModule webModule;
+
+    ResourceCacheStatsSource(WebModule webModule) {
+        this.webModule = webModule;
+    }
+
+    @Override
+    public long getHitsCount() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0L : cache.getHitsCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0L : cache.getMissCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0L : cache.getEvictionCount();
+    }
+
+    @Override
+    public long getNotFoundHitsCount() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0L : cache.getNotFoundHitsCount();
+    }
+
+    @Override
+    public int getCacheSize() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0 : cache.getCacheSize();
+    }
+
+    @Override
+    public int getNotFoundCacheSize() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0 : cache.getNotFoundCacheSize();
+    }
+
+    private ResourceCache getCache() {
+        DirContext resources = webModule.getResources();
+        if (resources instanceof ProxyDirContext) {
+            return ((ProxyDirContext) resources).getCache();
+        }
+        return null;
+    }
+}
@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2024] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package com.sun.enterprise.web;
 
@@ -1812,6 +1812,8 @@ public class WebContainer implements org.glassfish.api.container.Container, Post
         webModule.setMonitoringNodeName(monitoringNodeName);
 
         webStatsProviderBootstrap.registerApplicationStatsProviders(monitoringNodeName, virtualServer.getName(), getServletNames(webBundleDescriptor));
+        webStatsProviderBootstrap.registerResourceCacheStatsProvider(monitoringNodeName, virtualServer.getName(),
+                new ResourceCacheStatsSource(webModule));
 
         virtualServer.addChild(webModule);
 
@@ -2702,7 +2704,7 @@ public class WebContainer implements org.glassfish.api.container.Container, Post
             virtualServer.reconfigureAccessLog(globalAccessLogBufferSize, globalAccessLogWriteInterval, serviceLocator, domain, globalAccessLoggingEnabled, globalAccessLogPrefix);
         } else if (ACCESS_LOG_BUFFER_SIZE_PROPERTY.equals(name)) {
             virtualServer.reconfigureAccessLog(globalAccessLogBufferSize, globalAccessLogWriteInterval, serviceLocator, domain, globalAccessLoggingEnabled, globalAccessLogPrefix);
-        } else if (ACCESS_LOG_PREFIX.equals(name)) {
+        } else if (ACCESS_LOG_PREFIX.equals(name) || ACCESS_LOG_ASYNC_WRITER_PROPERTY.equals(name)) {
             virtualServer.reconfigureAccessLog(globalAccessLogBufferSize, globalAccessLogWriteInterval, serviceLocator, domain, globalAccessLoggingEnabled, globalAccessLogPrefix);
         } else if ("allowRemoteHost".equals(name) || "denyRemoteHost".equals(name)) {
             virtualServer.configureRemoteHostFilterValve();
@@ -0,0 +1,136 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.web.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue of encoded access log entries, filled by any number of
+ * request threads and drained by a single writer thread. Producers claim a
+ * slot with a compare-and-set on the tail counter, so no lock is taken on the
+ * request path.
+ *
+ * @since 6.2025.1
+ */
+public final class AccessLogRingBuffer {
+
+    private final AtomicReferenceArray<byte[]> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // only written by the consumer
+    private volatile long head;
+
+    /**
+     * @param capacity the minimum number of entries the buffer can hold,
+     * rounded up to a power of two
+     */
+    public AccessLogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Adds an entry. Safe to call from any thread.
+     *
+     * @param entry the encoded entry
+     * @return false if the buffer is full
+     */
+    public boolean offer(byte[] entry) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.lazySet((int) claimed & mask, entry);
+        return true;
+    }
+
+    /**
+     * Removes the oldest entry. Must only be called from the consumer thread.
+     *
+     * @return the entry, or null if there is none ready yet
+     */
+    public byte[] poll() {
+        long current = head;
+        int index = (int) current & mask;
+        byte[] entry = slots.get(index);
+        if (entry == null) {
+            // empty, or a producer has claimed the slot but not yet filled it
+            return null;
+        }
+        slots.lazySet(index, null);
+        head = current + 1;
+        return entry;
+    }
+
+    /**
+     * @return true if no entry has been claimed since the last poll
+     */
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    /**
+     * @return the number of entries claimed but not yet polled
+     */
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    /**
+     * @return the maximum number of entries held
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.web.accesslog;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AccessLogRingBufferTest {
+
+    private static final int ENTRIES_PER_PRODUCER = 100_000;
+
+    @Test
+    public void entriesArePolledInOrder() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        assertTrue(buffer.isEmpty());
+        for (byte i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(new byte[] {i}));
+        }
+        assertEquals(4, buffer.size());
+        for (byte i = 0; i < 4; i++) {
+            assertEquals(i, buffer.poll()[0]);
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void fullBufferRejectsEntriesUntilPolled() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        for (byte i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(new byte[] {i}));
+        }
+        assertFalse(buffer.offer(new byte[] {4}));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll()[0]);
+        assertTrue(buffer.offer(new byte[] {4}));
+        assertFalse(buffer.offer(new byte[] {5}));
+
+        // the rejected entry was not stored
+        for (byte i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll()[0]);
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void orderIsKeptWhenWrappingAround() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        int offered = 0;
+        int polled = 0;
+        // fill the buffer and drain all but one entry, so that the slots wrap many times
+        for (int round = 0; round < 100; round++) {
+            while (buffer.offer(ByteBuffer.allocate(4).putInt(offered).array())) {
+                offered++;
+            }
+            assertEquals(buffer.capacity(), buffer.size());
+            while (buffer.size() > 1) {
+                assertEquals(polled++, ByteBuffer.wrap(buffer.poll()).getInt());
+            }
+        }
+        assertEquals(polled++, ByteBuffer.wrap(buffer.poll()).getInt());
+        assertTrue(buffer.isEmpty());
+        assertEquals(offered, polled);
+    }
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new AccessLogRingBuffer(5).capacity());
+        assertEquals(1, new AccessLogRingBuffer(1).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacityIsRejected() {
+        new AccessLogRingBuffer(0);
+    }
+
+    @Test
+    public void noEntriesAreLostOrReorderedWithConcurrentProducers() throws Exception {
+        // A small buffer makes the producers run into a full buffer and wrap around
+        int producers = 4;
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(64);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < ENTRIES_PER_PRODUCER; i++) {
+                    byte[] entry = ByteBuffer.allocate(8).putInt(producer).putInt(i).array();
+                    while (!buffer.offer(entry)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        int[] next = new int[producers];
+        long total = (long) producers * ENTRIES_PER_PRODUCER;
+        start.countDown();
+        for (long received = 0; received < total; ) {
+            byte[] entry = buffer.poll();
+            if (entry == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            ByteBuffer decoded = ByteBuffer.wrap(entry);
+            int producer = decoded.getInt();
+            // entries from one producer must arrive in the order they were offered
+            assertEquals(next[producer]++, decoded.getInt());
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int p = 0; p < producers; p++) {
+            assertEquals(ENTRIES_PER_PRODUCER, next[p]);
+        }
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+    }
+}
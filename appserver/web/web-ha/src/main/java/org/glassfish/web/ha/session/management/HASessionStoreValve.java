@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 /*
  * HASessionStoreValve.java
@@ -49,17 +50,26 @@ package org.glassfish.web.ha.session.management;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.apache.catalina.valves.ValveBase;
 import org.apache.catalina.Globals;
+import org.apache.catalina.LifecycleException;
 import org.apache.catalina.Manager;
 import org.apache.catalina.Request;
 import org.apache.catalina.Response;
 import org.apache.catalina.Session;
 import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.StandardSession;
 import org.glassfish.ha.common.HACookieManager;
 
 /**
@@ -74,12 +84,74 @@ public class HASessionStoreValve extends ValveBase {
      */
     private static final Logger _logger 
         = HAStoreBase._logger;
+
+    /**
+     * Thread writing the coalesced saves of all web modules.
+     */
+    private static final ScheduledExecutorService FLUSH_EXECUTOR =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HASessionStoreFlusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * Interval in ms at which pending saves are written, 0 to save
+     * sessions at the end of each request.
+     */
+    private long flushInterval = 0L;
+
+    /**
+     * Sessions modified since the last flush, by id. A session used by
+     * several requests within an interval is only saved once.
+     */
+    private final ConcurrentMap<String, Session> pendingSaves = new ConcurrentHashMap<>();
+
+    private volatile ScheduledFuture<?> flushTask;
     
     /** Creates a new instance of HASessionStoreValve */
     public HASessionStoreValve() {
         super();           
     }
 
+    /**
+     * Return the interval in ms at which modified sessions are saved, or 0
+     * if they are saved at the end of each request.
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Set the interval in ms at which modified sessions are saved. With a
+     * positive interval, sessions are saved by a background thread instead
+     * of at the end of the request, so a replica may be up to one interval
+     * plus the time to write the batch behind the primary copy.
+     */
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void start() throws LifecycleException {
+        super.start();
+        if (flushInterval > 0 && flushTask == null) {
+            flushTask = FLUSH_EXECUTOR.scheduleWithFixedDelay(this::flushPendingSaves,
+                    flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() throws LifecycleException {
+        ScheduledFuture<?> task = flushTask;
+        flushTask = null;
+        if (task != null) {
+            task.cancel(false);
+        }
+        flushPendingSaves();
+        super.stop();
+    }
+
     /**
      * invoke call-back; nothing to do on the way in
      * @param request
@@ -174,12 +246,45 @@ public class HASessionStoreValve extends ValveBase {
                                session);
             }
             if (session != null) {
-                WebEventPersistentManager pMgr = 
-                        (WebEventPersistentManager) manager;
-                pMgr.doValveSave(session);
+                if (flushTask != null) {
+                    pendingSaves.put(sessionId, session);
+                } else {
+                    WebEventPersistentManager pMgr = 
+                            (WebEventPersistentManager) manager;
+                    pMgr.doValveSave(session);
+                }
             }
         }
         HACookieManager.reset();
     }    
+
+    /**
+     * Save the sessions modified since the last flush. A session is saved
+     * under its background lock; one still in use by a request is left for
+     * the next flush.
+     */
+    private void flushPendingSaves() {
+        for (Map.Entry<String, Session> entry : pendingSaves.entrySet()) {
+            Session session = entry.getValue();
+            StandardSession lockable = session instanceof StandardSession
+                    ? (StandardSession) session : null;
+            if (lockable != null && !lockable.lockBackground()) {
+                continue;
+            }
+            try {
+                pendingSaves.remove(entry.getKey(), session);
+                Manager manager = session.getManager();
+                if (manager instanceof WebEventPersistentManager) {
+                    ((WebEventPersistentManager) manager).doValveSave(session);
+                }
+            } catch (RuntimeException ex) {
+                _logger.log(Level.WARNING, "exception occurred flushing session id=" + session.getIdInternal(), ex);
+            } finally {
+                if (lockable != null) {
+                    lockable.unlockBackground();
+                }
+            }
+        }
+    }
     
 }
@@ -0,0 +1,239 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.web.ha.session.management;
+
+import java.io.IOException;
+
+/**
+ * Compresses replicated attribute state in the LZ4 block format. This is a
+ * fast, greedy single-pass compressor: it trades some ratio against GZIP
+ * for a much lower CPU cost, which matters more on the request path.
+ * <p>
+ * Each frame starts with a one byte method (stored or compressed) and the
+ * uncompressed length, so data which does not compress is kept as is.
+ *
+ * @since 6.2025.1
+ */
+final class Lz4BlockCodec {
+
+    private static final byte METHOD_STORED = 0;
+    private static final byte METHOD_LZ4 = 1;
+    private static final int HEADER_LENGTH = 5;
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 65535;
+    private static final int HASH_LOG = 12;
+
+    private Lz4BlockCodec() {
+    }
+
+    static byte[] compress(byte[] src) {
+        int length = src.length;
+        byte[] dst = new byte[HEADER_LENGTH + length + length / 255 + 16];
+        int end = compressBlock(src, length, dst, HEADER_LENGTH);
+        if (end - HEADER_LENGTH >= length) {
+            byte[] stored = new byte[HEADER_LENGTH + length];
+            writeHeader(stored, METHOD_STORED, length);
+            System.arraycopy(src, 0, stored, HEADER_LENGTH, length);
+            return stored;
+        }
+        writeHeader(dst, METHOD_LZ4, length);
+        byte[] result = new byte[end];
+        System.arraycopy(dst, 0, result, 0, end);
+        return result;
+    }
+
+    static byte[] decompress(byte[] src) throws IOException {
+        if (src.length < HEADER_LENGTH) {
+            throw new IOException("Truncated replication frame");
+        }
+        int length = ((src[1] & 0xFF) << 24) | ((src[2] & 0xFF) << 16)
+                | ((src[3] & 0xFF) << 8) | (src[4] & 0xFF);
+        if (length < 0) {
+            throw new IOException("Corrupt replication frame length " + length);
+        }
+        byte[] dst = new byte[length];
+        if (src[0] == METHOD_STORED) {
+            if (src.length - HEADER_LENGTH != length) {
+                throw new IOException("Corrupt replication frame");
+            }
+            System.arraycopy(src, HEADER_LENGTH, dst, 0, length);
+            return dst;
+        }
+        if (src[0] != METHOD_LZ4) {
+            throw new IOException("Unknown replication frame method " + src[0]);
+        }
+        try {
+            if (decompressBlock(src, HEADER_LENGTH, dst) != length) {
+                throw new IOException("Corrupt replication frame");
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt replication frame", e);
+        }
+        return dst;
+    }
+
+    private static void writeHeader(byte[] dst, byte method, int length) {
+        dst[0] = method;
+        dst[1] = (byte) (length >>> 24);
+        dst[2] = (byte) (length >>> 16);
+        dst[3] = (byte) (length >>> 8);
+        dst[4] = (byte) length;
+    }
+
+    private static int compressBlock(byte[] src, int length, byte[] dst, int dstOffset) {
+        int op = dstOffset;
+        int anchor = 0;
+        if (length > MF_LIMIT) {
+            int[] table = new int[1 << HASH_LOG];
+            int matchLimit = length - LAST_LITERALS;
+            int mfLimit = length - MF_LIMIT;
+            int ip = 0;
+            while (ip < mfLimit) {
+                int sequence = readInt(src, ip);
+                int hash = (sequence * -1640531535) >>> (32 - HASH_LOG);
+                int ref = table[hash] - 1;
+                table[hash] = ip + 1;
+                if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    ip++;
+                    continue;
+                }
+                while (ip > anchor && ref > 0 && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                int tokenPosition = op;
+                op = writeSequence(src, anchor, ip - anchor, dst, op);
+                dst[op++] = (byte) (ip - ref);
+                dst[op++] = (byte) ((ip - ref) >>> 8);
+                int extra = matchLength - MIN_MATCH;
+                dst[tokenPosition] |= (byte) Math.min(extra, 15);
+                if (extra >= 15) {
+                    op = writeLength(extra - 15, dst, op);
+                }
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        return writeSequence(src, anchor, length - anchor, dst, op);
+    }
+
+    /**
+     * Writes the token and the literals of a sequence. The match length bits
+     * of the token are left to the caller.
+     */
+    private static int writeSequence(byte[] src, int literalStart, int literalLength, byte[] dst, int op) {
+        int tokenPosition = op++;
+        int token;
+        if (literalLength >= 15) {
+            token = 15 << 4;
+            op = writeLength(literalLength - 15, dst, op);
+        } else {
+            token = literalLength << 4;
+        }
+        System.arraycopy(src, literalStart, dst, op, literalLength);
+        op += literalLength;
+        dst[tokenPosition] = (byte) token;
+        return op;
+    }
+
+    private static int writeLength(int length, byte[] dst, int op) {
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int decompressBlock(byte[] src, int ip, byte[] dst) throws IOException {
+        int op = 0;
+        while (true) {
+            int token = src[ip++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == 15) {
+                int b;
+                do {
+                    b = src[ip++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            System.arraycopy(src, ip, dst, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+            if (ip >= src.length) {
+                return op;
+            }
+            int offset = (src[ip++] & 0xFF) | ((src[ip++] & 0xFF) << 8);
+            int matchLength = token & 0x0F;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            int ref = op - offset;
+            if (offset == 0 || ref < 0) {
+                throw new IOException("Corrupt replication frame offset " + offset);
+            }
+            if (offset >= matchLength) {
+                System.arraycopy(dst, ref, dst, op, matchLength);
+                op += matchLength;
+            } else {
+                for (int i = 0; i < matchLength; i++) {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        }
+    }
+
+    private static int readInt(byte[] src, int i) {
+        return (src[i] & 0xFF) | ((src[i + 1] & 0xFF) << 8)
+                | ((src[i + 2] & 0xFF) << 16) | ((src[i + 3] & 0xFF) << 24);
+    }
+}
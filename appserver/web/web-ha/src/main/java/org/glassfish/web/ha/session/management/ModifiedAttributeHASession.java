@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016-2017] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 /*
  * ModifiedAttributeHASession.java
@@ -184,6 +184,10 @@ public class ModifiedAttributeHASession extends BaseHASession {
      */    
     public void setAttribute(String name, Object value) {
         super.setAttribute(name, value);
+        updateAttributeState(name, value);
+    }
+
+    private synchronized void updateAttributeState(String name, Object value) {
         SessionAttributeState attributeState = getAttributeState(name);
         if (_logger.isLoggable(Level.FINE)) {
             _logger.fine("ModifiedAttributeHASession>>setAttribute name=" + name + " attributeState=" + attributeState);
@@ -228,6 +232,10 @@ public class ModifiedAttributeHASession extends BaseHASession {
 
 
         super.removeAttribute(name);
+        markAttributeRemoved(name);
+    }
+
+    private synchronized void markAttributeRemoved(String name) {
         SessionAttributeState attributeState = getAttributeState(name);
         if(attributeState != null) {
             if(attributeState.isPersistent()) {
@@ -306,10 +314,105 @@ public class ModifiedAttributeHASession extends BaseHASession {
         _dirtyFlag = isDirty;
     }
     
+    /**
+     * Take the names of the attributes changed since the last save and mark
+     * the attributes as saved, in one step with respect to setAttribute and
+     * removeAttribute, so that a change made while the delta is written is
+     * kept for the next save.
+     */
+    synchronized AttributeDelta takeAttributeDelta() {
+        AttributeDelta delta = new AttributeDelta(getAddedAttributes(),
+                getModifiedAttributes(), getDeletedAttributes());
+        Iterator<SessionAttributeState> states = _attributeStates.values().iterator();
+        while (states.hasNext()) {
+            SessionAttributeState state = states.next();
+            if (state.isDeleted()) {
+                states.remove();
+            } else {
+                state.setPersistent(true);
+                state.setDirty(false);
+            }
+        }
+        setDirty(false);
+        return delta;
+    }
+
+    /**
+     * Mark the attributes of a delta which could not be saved as changed
+     * again, unless they were changed once more in the meantime.
+     */
+    synchronized void restoreAttributeDelta(AttributeDelta delta) {
+        for (String name : delta.getChangedAttributes()) {
+            SessionAttributeState state = _attributeStates.get(name);
+            if (state != null && state.isPersistent() && !state.isDeleted()) {
+                state.setDirty(true);
+            }
+        }
+        for (String name : delta.getDeletedAttributes()) {
+            if (!_attributeStates.containsKey(name)) {
+                SessionAttributeState state = SessionAttributeState.createPersistentAttribute();
+                state.setDeleted(true);
+                _attributeStates.put(name, state);
+            }
+        }
+        setDirty(true);
+    }
+
     /* Private Helper method to be used in HAAttributeStore only */ 
     Enumeration<String> privateGetAttributeList() {
 
         return (new Enumerator<String>(new ArrayList<String>(attributes.keySet())));
 
     }
+
+    /**
+     * return a copy of this session without its attributes, for the
+     * delta store to replicate the session header on its own; the copy
+     * is not added to the manager
+     */
+    ModifiedAttributeHASession createHeaderCopy() {
+        ModifiedAttributeHASession copy = new ModifiedAttributeHASession(getManager());
+        copy.id = id;
+        copy.creationTime = creationTime;
+        copy.lastAccessedTime = lastAccessedTime;
+        copy.thisAccessedTime = thisAccessedTime;
+        copy.maxInactiveInterval = maxInactiveInterval;
+        copy.isNew = isNew;
+        copy.isValid = isValid;
+        copy.principal = principal;
+        copy.authType = authType;
+        copy.userName = userName;
+        copy.ssoId = ssoId;
+        return copy;
+    }
+
+    /**
+     * The names of the attributes changed since the last save.
+     */
+    static final class AttributeDelta {
+
+        private final List<String> changedAttributes;
+        private final List<String> deletedAttributes;
+
+        AttributeDelta(List<String> addedAttributes, List<String> modifiedAttributes,
+                List<String> deletedAttributes) {
+            this.changedAttributes = new ArrayList<>(addedAttributes);
+            this.changedAttributes.addAll(modifiedAttributes);
+            this.deletedAttributes = deletedAttributes;
+        }
+
+        /**
+         * Return the names of the added and modified attributes.
+         */
+        List<String> getChangedAttributes() {
+            return changedAttributes;
+        }
+
+        /**
+         * Return the names of the removed attributes.
+         */
+        List<String> getDeletedAttributes() {
+            return deletedAttributes;
+        }
+    }
 }
@@ -0,0 +1,293 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.web.ha.session.management;
+
+import com.sun.enterprise.container.common.spi.util.JavaEEIOUtils;
+import org.apache.catalina.Container;
+import org.apache.catalina.Loader;
+import org.apache.catalina.Session;
+import org.apache.catalina.session.StandardSession;
+import org.glassfish.ha.store.api.BackingStore;
+import org.glassfish.ha.store.api.BackingStoreException;
+import org.glassfish.web.ha.LogFacade;
+import org.glassfish.web.ha.session.management.ModifiedAttributeHASession.AttributeDelta;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Replicates only the attributes of a session which changed since it was
+ * last saved.
+ * <p>
+ * Every attribute is kept in the backing store under its own key, next to
+ * a header record holding the session without its attributes and the
+ * names of the attributes to load with it. A save writes the header plus
+ * one record per added or modified attribute and removes the records of
+ * deleted attributes, so neither the serialization cost nor the amount of
+ * data sent grows with attributes which were not touched. Attribute values
+ * are written with the configured {@link SessionAttributeSerializer}, or
+ * Java serialization, and compressed with {@link Lz4BlockCodec}.
+ *
+ * @since 6.2025.1
+ */
+public class ReplicationDeltaStore extends ReplicationAttributeStore {
+
+    private static final String ATTRIBUTE_KEY_SEPARATOR = "\u0000";
+
+    private String attributeSerializerClassName;
+
+    private volatile SessionAttributeSerializer attributeSerializer;
+
+    /** Creates a new instance of ReplicationDeltaStore */
+    public ReplicationDeltaStore(JavaEEIOUtils ioUtils) {
+        super(ioUtils);
+    }
+
+    /**
+     * Set the class name of the {@link SessionAttributeSerializer} to use,
+     * or <code>null</code> for Java serialization.
+     */
+    public void setAttributeSerializerClassName(String attributeSerializerClassName) {
+        this.attributeSerializerClassName = attributeSerializerClassName;
+        this.attributeSerializer = null;
+    }
+
+    public String getAttributeSerializerClassName() {
+        return attributeSerializerClassName;
+    }
+
+    @Override
+    public void doValveSave(Session session) throws IOException {
+        saveDelta(session);
+    }
+
+    @Override
+    public void doSave(Session session) throws IOException {
+        saveDelta(session);
+    }
+
+    @Override
+    public void doRemove(String id) throws IOException {
+        removeAttributes(id);
+        super.doRemove(id);
+    }
+
+    @Override
+    public synchronized void removeSynchronized(String id) throws IOException {
+        removeAttributes(id);
+        super.removeSynchronized(id);
+    }
+
+    private void saveDelta(Session session) throws IOException {
+        if (!(session instanceof ModifiedAttributeHASession)
+                || !((StandardSession) session).getIsValid()) {
+            return;
+        }
+        ModifiedAttributeHASession modAttrSession = (ModifiedAttributeHASession) session;
+        if (session.getPrincipal() != null) {
+            modAttrSession.setUserName(session.getPrincipal().getName());
+        }
+        String id = session.getIdInternal();
+        long version = modAttrSession.getVersion();
+        long lastAccessTime = modAttrSession.getLastAccessedTimeInternal();
+        long maxInactiveInterval = modAttrSession.getMaxInactiveInterval() * 1000L;
+        boolean isNew = !modAttrSession.isPersistent();
+        BackingStore<String, CompositeMetadata> replicator = getCompositeMetadataBackingStore();
+
+        // Changes made from here on are left for the next save
+        AttributeDelta delta = modAttrSession.takeAttributeDelta();
+        boolean saved = false;
+        try {
+            List<String> changedAttrs = delta.getChangedAttributes();
+            for (String name : changedAttrs) {
+                Object value = modAttrSession.getAttribute(name);
+                if (value == null) {
+                    continue;
+                }
+                byte[] state;
+                try {
+                    state = encode(value);
+                } catch (IOException ex) {
+                    if (_logger.isLoggable(Level.FINE)) {
+                        _logger.log(Level.FINE, "ReplicationDeltaStore>>cannot serialize attribute " + name
+                                + " of session " + id, ex);
+                    }
+                    continue;
+                }
+                List<SessionAttributeMetadata> entry = new ArrayList<>(1);
+                entry.add(new SessionAttributeMetadata(name, SessionAttributeMetadata.Operation.UPDATE, state));
+                replicator.save(getAttributeKey(id, name),
+                        new CompositeMetadata(version, lastAccessTime, maxInactiveInterval, entry, null, null),
+                        isNew);
+            }
+            for (String name : delta.getDeletedAttributes()) {
+                replicator.remove(getAttributeKey(id, name));
+            }
+
+            // The header goes last, so it never names an attribute that is
+            // not in the store yet
+            List<SessionAttributeMetadata> index = new ArrayList<>();
+            Enumeration<String> names = modAttrSession.privateGetAttributeList();
+            while (names.hasMoreElements()) {
+                index.add(new SessionAttributeMetadata(names.nextElement(),
+                        SessionAttributeMetadata.Operation.UPDATE, null));
+            }
+            byte[] header = getByteArray(modAttrSession.createHeaderCopy());
+            replicator.save(id,
+                    new CompositeMetadata(version, lastAccessTime, maxInactiveInterval, index, header, null),
+                    isNew);
+            if (_logger.isLoggable(Level.FINE)) {
+                _logger.fine("ReplicationDeltaStore>>saved session " + id + " with "
+                        + changedAttrs.size() + " changed attribute(s)");
+            }
+            saved = true;
+        } catch (BackingStoreException ex) {
+            throw new IOException("Error during save: " + ex.getMessage(), ex);
+        } finally {
+            if (!saved) {
+                modAttrSession.restoreAttributeDelta(delta);
+            }
+        }
+    }
+
+    /**
+     * Resolve the attribute names of a header record to the attribute
+     * records before loading them into the session.
+     */
+    @Override
+    protected void loadAttributes(ModifiedAttributeHASession modifiedAttributeSession,
+            Collection attributeList) {
+        List<SessionAttributeMetadata> resolved = new ArrayList<>();
+        BackingStore<String, CompositeMetadata> replicator = getCompositeMetadataBackingStore();
+        String id = modifiedAttributeSession.getIdInternal();
+        for (Object next : attributeList) {
+            SessionAttributeMetadata attrMetadata = (SessionAttributeMetadata) next;
+            if (attrMetadata.getState() != null) {
+                resolved.add(attrMetadata);
+                continue;
+            }
+            try {
+                CompositeMetadata attrRecord = replicator.load(
+                        getAttributeKey(id, attrMetadata.getAttributeName()), null);
+                if (attrRecord != null) {
+                    resolved.addAll(attrRecord.getEntries());
+                }
+            } catch (BackingStoreException ex) {
+                if (_logger.isLoggable(Level.FINE)) {
+                    _logger.log(Level.FINE, "ReplicationDeltaStore>>cannot load attribute "
+                            + attrMetadata.getAttributeName() + " of session " + id, ex);
+                }
+            }
+        }
+        super.loadAttributes(modifiedAttributeSession, resolved);
+    }
+
+    @Override
+    protected Object getAttributeValue(byte[] state) throws IOException, ClassNotFoundException {
+        byte[] data = Lz4BlockCodec.decompress(state);
+        SessionAttributeSerializer serializer = getAttributeSerializer();
+        if (serializer == null) {
+            return super.getAttributeValue(data);
+        }
+        return serializer.deserialize(data, getClassLoader());
+    }
+
+    private byte[] encode(Object value) throws IOException {
+        SessionAttributeSerializer serializer = getAttributeSerializer();
+        byte[] data = serializer == null ? getByteArray(value) : serializer.serialize(value);
+        return Lz4BlockCodec.compress(data);
+    }
+
+    private void removeAttributes(String id) {
+        BackingStore<String, CompositeMetadata> replicator = getCompositeMetadataBackingStore();
+        try {
+            CompositeMetadata header = replicator.load(id, null);
+            if (header == null) {
+                return;
+            }
+            for (SessionAttributeMetadata attrMetadata : header.getEntries()) {
+                replicator.remove(getAttributeKey(id, attrMetadata.getAttributeName()));
+            }
+        } catch (BackingStoreException ex) {
+            _logger.log(Level.WARNING, LogFacade.EXCEPTION_REMOVING_SYNCHRONIZED, ex);
+        }
+    }
+
+    private SessionAttributeSerializer getAttributeSerializer() throws IOException {
+        SessionAttributeSerializer serializer = attributeSerializer;
+        if (serializer != null || attributeSerializerClassName == null) {
+            return serializer;
+        }
+        try {
+            ClassLoader classLoader = getClassLoader();
+            if (classLoader == null) {
+                classLoader = getClass().getClassLoader();
+            }
+            serializer = (SessionAttributeSerializer) Class.forName(attributeSerializerClassName,
+                    true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            throw new IOException("Cannot create session attribute serializer "
+                    + attributeSerializerClassName, ex);
+        }
+        attributeSerializer = serializer;
+        return serializer;
+    }
+
+    private ClassLoader getClassLoader() {
+        Container container = manager.getContainer();
+        Loader loader = container == null ? null : container.getLoader();
+        return loader == null ? null : loader.getClassLoader();
+    }
+
+    @SuppressWarnings("unchecked")
+    private BackingStore<String, CompositeMetadata> getCompositeMetadataBackingStore() {
+        ReplicationManagerBase<CompositeMetadata> mgr
+                = (ReplicationManagerBase<CompositeMetadata>) this.getManager();
+        return mgr.getBackingStore();
+    }
+
+    private static String getAttributeKey(String id, String attributeName) {
+        return id + ATTRIBUTE_KEY_SEPARATOR + attributeName;
+    }
+}
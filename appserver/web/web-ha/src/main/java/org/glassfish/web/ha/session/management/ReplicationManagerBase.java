@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2016] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2016-2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.web.ha.session.management;
 
@@ -196,6 +196,7 @@ public abstract class ReplicationManagerBase<T extends Storeable> extends Persis
         }
         Session removed = null;
         removed = sessions.remove(session.getIdInternal());
+        unscheduleExpiry(session);
         if (removed != null && _logger.isLoggable(Level.FINE)){
             _logger.fine("Remove from manager cache id=" + session.getId());
         }
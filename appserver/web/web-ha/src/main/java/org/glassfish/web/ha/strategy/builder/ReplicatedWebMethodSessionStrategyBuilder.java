@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2018-2021] Payara Foundation and/or affiliates
+// Portions Copyright [2018-2026] Payara Foundation and/or affiliates
 
 package org.glassfish.web.ha.strategy.builder;
 
@@ -96,15 +96,24 @@ public class ReplicatedWebMethodSessionStrategyBuilder extends BasePersistenceSt
                     new ReplicationStore(ioUtils),
                     ctx, serverConfigLookup);
         } else if (this.getPersistenceScope().equals("modified-attribute")) {
+            ReplicationAttributeStore store;
+            if (replicationDeltaEncoding) {
+                ReplicationDeltaStore deltaStore = new ReplicationDeltaStore(ioUtils);
+                deltaStore.setAttributeSerializerClassName(replicationAttributeSerializer);
+                store = deltaStore;
+            } else {
+                store = new ReplicationAttributeStore(ioUtils);
+            }
             setupReplicationWebEventPersistentManager(CompositeMetadata.class,
                     new ModifiedAttributeSessionFactory(),
-                    new ReplicationAttributeStore(ioUtils),
+                    store,
                     ctx, serverConfigLookup);
         } else {
             throw new IllegalArgumentException(this.getPersistenceScope());
         }
 
         HASessionStoreValve haValve = new HASessionStoreValve();
+        haValve.setFlushInterval(replicationFlushInterval);
         StandardContext stdCtx = (StandardContext) ctx;
         stdCtx.addValve((GlassFishValve)haValve);
 
@@ -119,6 +128,9 @@ public class ReplicatedWebMethodSessionStrategyBuilder extends BasePersistenceSt
         vendorMap.put("async.replication", asyncReplicationValue);
         vendorMap.put("broadcast.remove.expired", false);
         vendorMap.put("value.class.is.thread.safe", true);
+        if (replicationNearCacheSize >= 0) {
+            vendorMap.put("near.cache.max.size", replicationNearCacheSize);
+        }
         ReplicationWebEventPersistentManager<T> rwepMgr = getReplicationWebEventPersistentManager();
         rwepMgr.setSessionFactory(sessionFactory);
         rwepMgr.createBackingStore(this.getPassedInPersistenceType(), ctx.getPath(), metadataClass, vendorMap);
@@ -133,6 +145,7 @@ public class ReplicatedWebMethodSessionStrategyBuilder extends BasePersistenceSt
         rwepMgr.setDisableJreplica(disableJreplica);
 
         ctx.setManager(rwepMgr);
+        configureSessionIdPregeneration(rwepMgr);
         if(!((StandardContext)ctx).isSessionTimeoutOveridden()) {
             rwepMgr.setMaxInactiveInterval(sessionMaxInactiveInterval);
         }
@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.web.ha.session.management;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class Lz4BlockCodecTest {
+
+    @Test
+    public void emptyDataRoundTrips() throws IOException {
+        assertRoundTrip(new byte[0]);
+        assertRoundTrip(new byte[] {42});
+    }
+
+    @Test
+    public void incompressibleDataIsStored() throws IOException {
+        byte[] data = random(10_000, 1);
+
+        byte[] compressed = assertRoundTrip(data);
+        assertEquals(data.length + 5, compressed.length);
+    }
+
+    @Test
+    public void repetitiveDataIsCompressed() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("attribute-").append(i % 10).append(';');
+        }
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = assertRoundTrip(data);
+        assertTrue(compressed.length < data.length / 10);
+    }
+
+    @Test
+    public void longRunsOfOneByteRoundTrip() throws IOException {
+        byte[] data = new byte[100_000];
+        Arrays.fill(data, (byte) 'x');
+
+        byte[] compressed = assertRoundTrip(data);
+        assertTrue(compressed.length < 1000);
+    }
+
+    @Test
+    public void dataLargerThanTheMatchWindowRoundTrips() throws IOException {
+        // Repeats further apart than the 64 KB match distance cannot be
+        // referenced, nearer ones can
+        byte[] chunk = random(70_000, 2);
+        byte[] data = new byte[chunk.length * 4 + 3 * 1000];
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(chunk, 0, data, i * chunk.length, chunk.length);
+        }
+        System.arraycopy(chunk, 0, data, chunk.length * 4, 1000);
+        System.arraycopy(chunk, 0, data, chunk.length * 4 + 1000, 1000);
+        System.arraycopy(chunk, 0, data, chunk.length * 4 + 2000, 1000);
+
+        byte[] compressed = assertRoundTrip(data);
+        assertTrue(compressed.length < data.length);
+    }
+
+    @Test
+    public void mixedDataRoundTrips() throws IOException {
+        Random random = new Random(3);
+        for (int length : new int[] {5, 12, 13, 16, 64, 255, 270, 4096, 65_535, 65_536, 200_000}) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : 'a' + i % 7);
+            }
+            assertRoundTrip(data);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedFrameIsRejected() throws IOException {
+        Lz4BlockCodec.decompress(new byte[] {1, 0, 0});
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownMethodIsRejected() throws IOException {
+        Lz4BlockCodec.decompress(new byte[] {7, 0, 0, 0, 1, 0});
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptBlockIsRejected() throws IOException {
+        byte[] compressed = Lz4BlockCodec.compress(new byte[1000]);
+        Lz4BlockCodec.decompress(Arrays.copyOf(compressed, compressed.length - 3));
+    }
+
+    private static byte[] assertRoundTrip(byte[] data) throws IOException {
+        byte[] compressed = Lz4BlockCodec.compress(data);
+        assertArrayEquals(data, Lz4BlockCodec.decompress(compressed));
+        return compressed;
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
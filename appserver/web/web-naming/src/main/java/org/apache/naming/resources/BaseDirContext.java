@@ -55,6 +55,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package org.apache.naming.resources;
 
@@ -148,6 +149,12 @@ public abstract class BaseDirContext implements DirContext {
     protected int cacheMaxSize = 10240; // 10 MB
 
 
+    /**
+     * TTL of cached not found entries, -1 to use the cache TTL.
+     */
+    protected int notFoundCacheTTL = -1;
+
+
     // ------------------------------------------------------------- Properties
 
 
@@ -248,6 +255,22 @@ public abstract class BaseDirContext implements DirContext {
     }
 
 
+    /**
+     * Set the TTL of cached not found entries, -1 to use the cache TTL.
+     */
+    public void setNotFoundCacheTTL(int notFoundCacheTTL) {
+        this.notFoundCacheTTL = notFoundCacheTTL;
+    }
+
+
+    /**
+     * Get the TTL of cached not found entries.
+     */
+    public int getNotFoundCacheTTL() {
+        return notFoundCacheTTL;
+    }
+
+
     // --------------------------------------------------------- Public Methods
 
 
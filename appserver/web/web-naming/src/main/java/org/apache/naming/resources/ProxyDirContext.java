@@ -55,6 +55,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package org.apache.naming.resources;
 
@@ -113,6 +114,7 @@ public class ProxyDirContext implements DirContext {
                 cache = (ResourceCache) 
                     Class.forName(cacheClassName).newInstance();
                 cache.setCacheMaxSize(baseDirContext.getCacheMaxSize());
+                cache.setNotFoundCacheTTL(baseDirContext.getNotFoundCacheTTL());
                 cacheTTL = baseDirContext.getCacheTTL();
                 cacheObjectMaxSize = baseDirContext.getCacheMaxSize() / 20;
             }
@@ -1601,13 +1603,8 @@ public class ProxyDirContext implements DirContext {
         // Set timestamp
         entry.timestamp = System.currentTimeMillis() + cacheTTL;
 
-        // Add new entry to cache
-        synchronized (cache) {
-            // Check cache size, and remove elements if too big
-            if ((cache.lookup(name) == null) && cache.allocate(entry.size)) {
-                cache.load(entry);
-            }
-        }
+        // Add new entry to cache, if there is room for it
+        cache.insert(entry);
 
     }
 
@@ -1618,9 +1615,7 @@ public class ProxyDirContext implements DirContext {
     protected boolean cacheUnload(String name) {
         if (cache == null)
             return false;
-        synchronized (cache) {
-            return cache.unload(name);
-        }
+        return cache.unload(name);
     }
 
 
@@ -55,14 +55,26 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-// Portions Copyright [2017] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2017-2026] [Payara Foundation and/or its affiliates]
 package org.apache.naming.resources;
 
-import java.util.HashMap;
-import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implements a special purpose cache.
+ * <p>
+ * Entries for existing resources are held in a concurrent map and bounded
+ * by {@link #getCacheMaxSize()}. When the cache is full, a newly loaded
+ * entry only displaces an older one if it has been requested more often,
+ * as estimated by a small frequency sketch, so a burst of one-off requests
+ * cannot flush the frequently used resources. Lookups of names which do
+ * not exist are remembered in a separate, count-bounded negative cache
+ * which never competes with real content for space.
  * 
  * @author <a href="mailto:remm@apache.org">Remy Maucherat</a>
  * @version $Revision: 1.3 $
@@ -78,26 +90,41 @@ public class ResourceCache {
     
     
     // ----------------------------------------------------- Instance Variables
-      
-    
-    /**
-     * Random generator used to determine elements to free.
-     */
-    protected SecureRandom random = new SecureRandom();
     
     
     /**
      * Cache.
      * Path -> Cache entry.
      */
-    protected CacheEntry[] cache = new CacheEntry[0];
+    protected final ConcurrentMap<String, CacheEntry> cache =
+        new ConcurrentHashMap<>();
+
+
+    /**
+     * Entries of the cache in insertion order, used to pick the candidates
+     * for eviction.
+     */
+    protected final ConcurrentLinkedQueue<CacheEntry> evictionQueue =
+        new ConcurrentLinkedQueue<>();
+
+
+    /**
+     * Number of unloaded entries which may still be in the eviction queue.
+     */
+    protected final AtomicInteger unloadedCount = new AtomicInteger();
 
 
     /**
      * Not found cache.
      */
-    protected HashMap<String, CacheEntry> notFoundCache =
-        new HashMap<String, CacheEntry>();
+    protected final ConcurrentMap<String, CacheEntry> notFoundCache =
+        new ConcurrentHashMap<>();
+
+
+    /**
+     * Access frequency estimates used to decide cache admission.
+     */
+    protected final FrequencySketch frequencySketch = new FrequencySketch(8192);
 
 
     /**
@@ -125,22 +152,41 @@ public class ResourceCache {
     protected int spareNotFoundEntries = 500;
 
 
+    /**
+     * TTL of not found entries in ms, or -1 to keep the expiry set by the
+     * caller.
+     */
+    protected int notFoundCacheTTL = -1;
+
+
     /**
      * Current cache size in KB.
      */
-    protected int cacheSize = 0;
+    protected final AtomicInteger cacheSize = new AtomicInteger();
 
 
     /**
      * Number of accesses to the cache.
      */
-    protected long accessCount = 0;
+    protected final LongAdder accessCount = new LongAdder();
 
 
     /**
      * Number of cache hits.
      */
-    protected long hitsCount = 0;
+    protected final LongAdder hitsCount = new LongAdder();
+
+
+    /**
+     * Number of cache hits served from the not found cache.
+     */
+    protected final LongAdder notFoundHitsCount = new LongAdder();
+
+
+    /**
+     * Number of entries removed to make space for others.
+     */
+    protected final LongAdder evictionCount = new LongAdder();
 
 
     // ------------------------------------------------------------- Properties
@@ -148,11 +194,9 @@ public class ResourceCache {
 
     /**
      * Return the access count.
-     * Note: Update is not synced, so the number may not be completely 
-     * accurate.
      */
     public long getAccessCount() {
-        return accessCount;
+        return accessCount.sum();
     }
 
 
@@ -174,9 +218,18 @@ public class ResourceCache {
 
     /**
      * Return the current cache size in KB.
+     * Not found entries are not included.
      */
     public int getCacheSize() {
-        return cacheSize;
+        return cacheSize.get();
+    }
+
+
+    /**
+     * Return the number of entries in the not found cache.
+     */
+    public int getNotFoundCacheSize() {
+        return notFoundCache.size();
     }
 
 
@@ -197,12 +250,34 @@ public class ResourceCache {
 
 
     /**
-     * Return the number of cache hits.
-     * Note: Update is not synced, so the number may not be completely 
-     * accurate.
+     * Return the number of cache hits, including not found cache hits.
      */
     public long getHitsCount() {
-        return hitsCount;
+        return hitsCount.sum();
+    }
+
+
+    /**
+     * Return the number of cache hits served from the not found cache.
+     */
+    public long getNotFoundHitsCount() {
+        return notFoundHitsCount.sum();
+    }
+
+
+    /**
+     * Return the number of cache misses.
+     */
+    public long getMissCount() {
+        return Math.max(0, accessCount.sum() - hitsCount.sum());
+    }
+
+
+    /**
+     * Return the number of entries evicted to make space for others.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
     }
 
 
@@ -238,186 +313,163 @@ public class ResourceCache {
     }
 
 
-    // --------------------------------------------------------- Public Methods
-
-
-    public boolean allocate(int space) {
-
-        int toFree = space - (cacheMaxSize - cacheSize);
-
-        if (toFree <= 0) {
-            return true;
-        }
-
-        // Increase the amount to free so that allocate won't have to run right
-        // away again
-        toFree += (cacheMaxSize / 20);
+    /**
+     * Return the TTL of not found entries in ms.
+     */
+    public int getNotFoundCacheTTL() {
+        return notFoundCacheTTL;
+    }
 
-        int size = notFoundCache.size();
-        if (size > spareNotFoundEntries) {
-            notFoundCache.clear();
-            cacheSize -= size;
-            toFree -= size;
-        }
 
-        if (toFree <= 0) {
-            return true;
-        }
+    /**
+     * Set the TTL of not found entries in ms, or -1 to keep the expiry
+     * set by the caller.
+     */
+    public void setNotFoundCacheTTL(int notFoundCacheTTL) {
+        this.notFoundCacheTTL = notFoundCacheTTL;
+    }
 
-        int attempts = 0;
-        int entriesFound = 0;
-        long totalSpace = 0;
-        int[] toRemove = new int[maxAllocateIterations];
-        while (toFree > 0) {
-            if (attempts == maxAllocateIterations) {
-                // Give up, no changes are made to the current cache
-                return false;
-            }
-            if (toFree > 0) {
-                // Randomly select an entry in the array
-                int entryPos = -1;
-                boolean unique = false;
-                int count = 0;
-                while (!unique) {
-                    unique = true;
-                    entryPos = random.nextInt(cache.length) ;
-                    // Guarantee uniqueness
-                    for (int i = 0; i < entriesFound; i++) {
-                        if (toRemove[i] == entryPos) {
-                            unique = false;
-                        }
-                    }
-                }
-                long entryAccessRatio = 
-                    ((cache[entryPos].accessCount * 100) / accessCount);
-                if (entryAccessRatio < desiredEntryAccessRatio) {
-                    toRemove[entriesFound] = entryPos;
-                    totalSpace += cache[entryPos].size;
-                    toFree -= cache[entryPos].size;
-                    entriesFound++;
-                }
-            }
-            attempts++;
-        }
 
-        // Now remove the selected entries
-        java.util.Arrays.sort(toRemove, 0, entriesFound);
-        CacheEntry[] newCache = new CacheEntry[cache.length - entriesFound];
-        int pos = 0;
-        int n = -1;
-        if (entriesFound > 0) {
-            n = toRemove[0];
-            for (int i = 0; i < cache.length; i++) {
-                if (i == n) {
-                    if ((pos + 1) < entriesFound) {
-                        n = toRemove[pos + 1];
-                        pos++;
-                    } else {
-                        pos++;
-                        n = -1;
-                    }
-                } else {
-                    newCache[i - pos] = cache[i];
-                }
-            }
-        }
-        cache = newCache;
-        cacheSize -= totalSpace;
+    // --------------------------------------------------------- Public Methods
 
-        return true;
 
+    /**
+     * Make room for the given amount of KB, evicting entries which are
+     * not accessed often enough.
+     */
+    public boolean allocate(int space) {
+        return makeSpace(space, Integer.MAX_VALUE);
     }
 
 
     public CacheEntry lookup(String name) {
 
-        CacheEntry cacheEntry = null;
-        accessCount++;
-        int pos = find(cache, name);
-        if ((pos != -1) && (name.equals(cache[pos].name))) {
-            cacheEntry = cache[pos];
-        }
+        accessCount.increment();
+        frequencySketch.increment(name);
+        CacheEntry cacheEntry = cache.get(name);
         if (cacheEntry == null) {
-            try {
-                cacheEntry = notFoundCache.get(name);
-            } catch (Exception e) {
-                // Ignore: the reliability of this lookup is not critical
+            cacheEntry = notFoundCache.get(name);
+            if (cacheEntry != null) {
+                notFoundHitsCount.increment();
             }
         }
         if (cacheEntry != null) {
-            hitsCount++;
+            hitsCount.increment();
         }
         return cacheEntry;
 
     }
 
 
+    /**
+     * Add the given entry if the cache can make room for it. An entry
+     * for an existing resource only replaces older entries which are
+     * requested less often than it is.
+     *
+     * @return <code>true</code> if the entry was added
+     */
+    public boolean insert(CacheEntry entry) {
+        if (!entry.exists) {
+            loadNotFound(entry);
+            return true;
+        }
+        if (cache.containsKey(entry.name)) {
+            return false;
+        }
+        if (!reserveSpace(entry.size, frequencySketch.frequency(entry.name))) {
+            return false;
+        }
+        if (cache.putIfAbsent(entry.name, entry) != null) {
+            cacheSize.addAndGet(-entry.size);
+            return false;
+        }
+        evictionQueue.offer(entry);
+        return true;
+    }
+
+
     public void load(CacheEntry entry) {
         if (entry.exists) {
-            if (insertCache(entry)) {
-                cacheSize += entry.size;
-            }
+            insertCache(entry);
         } else {
-            int sizeIncrement = (notFoundCache.get(entry.name) == null) ? 1 : 0;
-            notFoundCache.put(entry.name, entry);
-            cacheSize += sizeIncrement;
+            loadNotFound(entry);
         }
     }
 
 
     public boolean unload(String name) {
-        CacheEntry removedEntry = removeCache(name);
+        CacheEntry removedEntry = cache.remove(name);
         if (removedEntry != null) {
-            cacheSize -= removedEntry.size;
-            return true;
-        } else if (notFoundCache.remove(name) != null) {
-            
-            cacheSize--;
+            cacheSize.addAndGet(-removedEntry.size);
+            if (unloadedCount.incrementAndGet() > cache.size() + maxAllocateIterations) {
+                purgeEvictionQueue();
+            }
             return true;
         }
-        return false;
+        return notFoundCache.remove(name) != null;
     }
 
 
+    // -------------------------------------------------------- Private Methods
+
+
     /**
-     * Find a map elemnt given its name in a sorted array of map elements.
-     * This will return the index for the closest inferior or equal item in the
-     * given array.
+     * Evict entries until the given amount of KB fits.
      */
-    private static final int find(CacheEntry[] map, String name) {
+    private boolean makeSpace(int space, int candidateFrequency) {
+        if (!reserveSpace(space, candidateFrequency)) {
+            return false;
+        }
+        cacheSize.addAndGet(-space);
+        return true;
+    }
 
-        int a = 0;
-        int b = map.length - 1;
 
-        // Special cases: -1 and 0
-        if (b == -1) {
-            return -1;
-        }
-        if (name.compareTo(map[0].name) < 0) {
-            return -1;
-        }
-        if (b == 0) {
-            return 0;
+    /**
+     * Evict entries until the given amount of KB fits, then add it to the
+     * cache size, so that concurrent inserts cannot together exceed
+     * {@link #cacheMaxSize}. Entries requested at least as often as the
+     * candidate, or above the desired access ratio, are given another round
+     * in the queue instead.
+     */
+    private boolean reserveSpace(int space, int candidateFrequency) {
+
+        if (space > cacheMaxSize) {
+            return false;
         }
 
-        int i = 0;
+        long totalAccessCount = accessCount.sum();
+        int attempts = 0;
         while (true) {
-            i = (b + a) >>> 1;
-            int result = name.compareTo(map[i].name);
-            if (result > 0) {
-                a = i;
-            } else if (result == 0) {
-                return i;
-            } else {
-                b = i;
-            }
-            if ((b - a) == 1) {
-                int result2 = name.compareTo(map[b].name);
-                if (result2 < 0) {
-                    return a;
-                } else {
-                    return b;
+            int size = cacheSize.get();
+            if (size + space <= cacheMaxSize) {
+                if (cacheSize.compareAndSet(size, size + space)) {
+                    return true;
                 }
+                continue;
+            }
+            if (attempts++ == maxAllocateIterations) {
+                return false;
+            }
+            CacheEntry victim = evictionQueue.poll();
+            if (victim == null) {
+                return false;
+            }
+            if (cache.get(victim.name) != victim) {
+                // Unloaded concurrently
+                unloadedCount.decrementAndGet();
+                continue;
+            }
+            if (frequencySketch.frequency(victim.name) >= candidateFrequency
+                    || (totalAccessCount > 0
+                        && (victim.accessCount * 100) / totalAccessCount
+                            >= desiredEntryAccessRatio)) {
+                evictionQueue.offer(victim);
+                continue;
+            }
+            if (cache.remove(victim.name, victim)) {
+                cacheSize.addAndGet(-victim.size);
+                evictionCount.increment();
             }
         }
 
@@ -425,40 +477,132 @@ public class ResourceCache {
 
 
     /**
-     * Insert into the right place in a sorted MapElement array, and prevent
-     * duplicates.
+     * Drop the entries which were unloaded from the eviction queue.
      */
-    private final boolean insertCache(CacheEntry newElement) {
-        CacheEntry[] oldCache = cache;
-        int pos = find(oldCache, newElement.name);
-        if ((pos != -1) && (newElement.name.equals(oldCache[pos].name))) {
+    private void purgeEvictionQueue() {
+        unloadedCount.set(0);
+        evictionQueue.removeIf(entry -> cache.get(entry.name) != entry);
+    }
+
+
+    private boolean insertCache(CacheEntry entry) {
+        if (cache.putIfAbsent(entry.name, entry) != null) {
             return false;
         }
-        CacheEntry[] newCache = new CacheEntry[cache.length + 1];
-        System.arraycopy(oldCache, 0, newCache, 0, pos + 1);
-        newCache[pos + 1] = newElement;
-        System.arraycopy
-            (oldCache, pos + 1, newCache, pos + 2, oldCache.length - pos - 1);
-        cache = newCache;
+        evictionQueue.offer(entry);
+        cacheSize.addAndGet(entry.size);
         return true;
     }
 
 
+    private void loadNotFound(CacheEntry entry) {
+        if (notFoundCacheTTL >= 0) {
+            entry.timestamp = System.currentTimeMillis() + notFoundCacheTTL;
+        }
+        notFoundCache.put(entry.name, entry);
+        if (notFoundCache.size() > spareNotFoundEntries) {
+            trimNotFoundCache();
+        }
+    }
+
+
+    /**
+     * Drop expired not found entries and, if that is not enough, arbitrary
+     * ones until a quarter of the spare entries is free again.
+     */
+    private void trimNotFoundCache() {
+        long now = System.currentTimeMillis();
+        Iterator<CacheEntry> entries = notFoundCache.values().iterator();
+        while (entries.hasNext()) {
+            if (entries.next().timestamp < now) {
+                entries.remove();
+            }
+        }
+        int target = (spareNotFoundEntries * 3) / 4;
+        entries = notFoundCache.values().iterator();
+        while (notFoundCache.size() > target && entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+    }
+
+
+    // ---------------------------------------------------------- Inner Classes
+
+
     /**
-     * Insert into the right place in a sorted MapElement array.
+     * Count-min sketch of 4 bit counters giving an approximate number of
+     * recent lookups of a name. Sixteen counters are packed in each long.
+     * All counters are halved periodically so the estimate follows changes
+     * in popularity. Updates are not synchronized; a lost increment only
+     * makes the estimate lower.
      */
-    private final CacheEntry removeCache(String name) {
-        CacheEntry[] oldCache = cache;
-        int pos = find(oldCache, name);
-        if ((pos != -1) && (name.equals(oldCache[pos].name))) {
-            CacheEntry[] newCache = new CacheEntry[cache.length - 1];
-            System.arraycopy(oldCache, 0, newCache, 0, pos);
-            System.arraycopy(oldCache, pos + 1, newCache, pos, 
-                             oldCache.length - pos - 1);
-            cache = newCache;
-            return oldCache[pos];
+    protected static final class FrequencySketch {
+
+        private static final int[] SEEDS = {
+            0x97cb3127, 0xb0d5f32d, 0x5cb3b8b1, 0x2f1bd1b5
+        };
+
+        private static final int MAX_COUNT = 15;
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int shift;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int size) {
+            int capacity = Integer.highestOneBit(Math.max(16, size - 1) << 1);
+            table = new long[capacity >>> 4];
+            shift = 32 - Integer.numberOfTrailingZeros(capacity);
+            sampleSize = capacity * 2;
+        }
+
+        int frequency(String name) {
+            int hash = spread(name.hashCode());
+            int frequency = MAX_COUNT;
+            for (int seed : SEEDS) {
+                frequency = Math.min(frequency, count((hash * seed) >>> shift));
+            }
+            return frequency;
+        }
+
+        void increment(String name) {
+            int hash = spread(name.hashCode());
+            boolean added = false;
+            for (int seed : SEEDS) {
+                int counter = (hash * seed) >>> shift;
+                int offset = (counter & 15) << 2;
+                // Read the word once, so a racing update cannot carry over
+                // into the neighbouring counter
+                long word = table[counter >>> 4];
+                if (((word >>> offset) & MAX_COUNT) < MAX_COUNT) {
+                    table[counter >>> 4] = word + (1L << offset);
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int count(int counter) {
+            return (int) (table[counter >>> 4] >>> ((counter & 15) << 2)) & MAX_COUNT;
+        }
+
+        private void reset() {
+            additions = 0;
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x45d9f3b;
+            return hash ^ (hash >>> 16);
         }
-        return null;
     }
 
 
@@ -0,0 +1,226 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.apache.naming.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResourceCacheTest {
+
+    @Test
+    public void insertedEntryIsLookedUp() {
+        ResourceCache cache = new ResourceCache();
+        CacheEntry entry = entry("/index.html", 10);
+
+        assertNull(cache.lookup("/index.html"));
+        assertTrue(cache.insert(entry));
+
+        assertSame(entry, cache.lookup("/index.html"));
+        assertEquals(10, cache.getCacheSize());
+        assertEquals(2, cache.getAccessCount());
+        assertEquals(1, cache.getHitsCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void entryLargerThanTheCacheIsNotInserted() {
+        ResourceCache cache = cache(100);
+
+        assertFalse(cache.insert(entry("/large", 101)));
+        assertEquals(0, cache.getCacheSize());
+    }
+
+    @Test
+    public void unloadFreesSpace() {
+        ResourceCache cache = cache(100);
+        cache.insert(entry("/a", 60));
+
+        assertTrue(cache.unload("/a"));
+        assertFalse(cache.unload("/a"));
+        assertEquals(0, cache.getCacheSize());
+        assertTrue(cache.insert(entry("/b", 60)));
+    }
+
+    @Test
+    public void unloadedEntriesAreDroppedFromTheEvictionQueue() {
+        ResourceCache cache = cache(100_000);
+        for (int i = 0; i < 1000; i++) {
+            cache.insert(entry("/" + i, 1));
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.unload("/" + i);
+        }
+
+        assertTrue(cache.evictionQueue.size() <= cache.getMaxAllocateIterations() + 1);
+    }
+
+    @Test
+    public void rarelyRequestedEntryIsEvictedForAFrequentOne() {
+        ResourceCache cache = cache(100);
+        cache.setDesiredEntryAccessRatio(Long.MAX_VALUE);
+        cache.lookup("/old");
+        cache.insert(entry("/old", 60));
+        for (int i = 0; i < 5; i++) {
+            cache.lookup("/new");
+        }
+
+        assertTrue(cache.insert(entry("/new", 60)));
+        assertNull(cache.lookup("/old"));
+        assertEquals(60, cache.getCacheSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void frequentEntryIsNotEvictedForAOneOffRequest() {
+        ResourceCache cache = cache(100);
+        cache.setDesiredEntryAccessRatio(Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            cache.lookup("/popular");
+        }
+        cache.insert(entry("/popular", 60));
+        cache.lookup("/once");
+
+        assertFalse(cache.insert(entry("/once", 60)));
+        assertNotNull(cache.lookup("/popular"));
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void concurrentInsertsNeverExceedTheMaximumSize() throws InterruptedException {
+        ResourceCache cache = cache(1000);
+        cache.setDesiredEntryAccessRatio(Long.MAX_VALUE);
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    String name = "/" + thread + "/" + i;
+                    cache.lookup(name);
+                    cache.insert(entry(name, 100 + i % 100));
+                    cache.unload("/" + thread + "/" + (i - 2));
+                    int size = cache.getCacheSize();
+                    if (size > 1000) {
+                        synchronized (sizes) {
+                            sizes.add(size);
+                        }
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue("Cache sizes over the maximum: " + sizes, sizes.isEmpty());
+        int cachedSize = cache.cache.values().stream().mapToInt(entry -> entry.size).sum();
+        assertEquals(cachedSize, cache.getCacheSize());
+    }
+
+    @Test
+    public void notFoundEntriesAreBounded() {
+        ResourceCache cache = new ResourceCache();
+        cache.setSpareNotFoundEntries(100);
+        for (int i = 0; i < 1000; i++) {
+            CacheEntry entry = entry("/missing/" + i, 0);
+            entry.exists = false;
+            entry.timestamp = Long.MAX_VALUE;
+            cache.insert(entry);
+        }
+
+        assertTrue(cache.getNotFoundCacheSize() <= 100);
+        assertEquals(0, cache.getCacheSize());
+    }
+
+    @Test
+    public void sketchCountsUpToFifteen() {
+        ResourceCache.FrequencySketch sketch = new ResourceCache.FrequencySketch(8192);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("/a");
+        }
+        assertEquals(10, sketch.frequency("/a"));
+        assertEquals(0, sketch.frequency("/b"));
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("/a");
+        }
+        assertEquals(15, sketch.frequency("/a"));
+        assertEquals(0, sketch.frequency("/b"));
+    }
+
+    @Test
+    public void sketchIsHalvedPeriodically() {
+        ResourceCache.FrequencySketch sketch = new ResourceCache.FrequencySketch(8192);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("/a");
+        }
+        for (int i = 0; i < 40_000; i++) {
+            sketch.increment("/" + i);
+        }
+
+        assertTrue(sketch.frequency("/a") < 15);
+    }
+
+    private static ResourceCache cache(int maxSize) {
+        ResourceCache cache = new ResourceCache();
+        cache.setCacheMaxSize(maxSize);
+        return cache;
+    }
+
+    private static CacheEntry entry(String name, int size) {
+        CacheEntry entry = new CacheEntry();
+        entry.name = name;
+        entry.size = size;
+        return entry;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.sse.api;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends the same Server-Sent events to a group of connections.
+ *
+ * <p>
+ * Each event is encoded only once into a {@link ServerSentEventFrame} which is
+ * shared by all connections. Broadcasting never waits for a client: the frame
+ * is queued on every connection and written as soon as the client can take
+ * it. When a client falls behind and its queue is full, the
+ * {@link SlowConsumerPolicy} decides what happens. For example:
+ * <pre><code>
+ * &#64;ServerSentEvent("/prices")
+ * public class PriceHandler extends ServerSentEventHandler {
+ *     static final ServerSentEventBroadcaster PRICES =
+ *             new ServerSentEventBroadcaster(16, SlowConsumerPolicy.COALESCE);
+ *
+ *     &#64;Override
+ *     public void onConnected(ServerSentEventConnection connection) {
+ *         super.onConnected(connection);
+ *         PRICES.add(connection);
+ *     }
+ * }
+ *
+ * PRICES.broadcast(new ServerSentEventData().event("YHOO").data("+2"));
+ * </code></pre>
+ *
+ * @since 6.2025.1
+ */
+public final class ServerSentEventBroadcaster {
+
+    /**
+     * What to do with an event for a connection whose queue is full
+     */
+    public enum SlowConsumerPolicy {
+        /**
+         * The new event is not sent to the connection
+         */
+        DROP,
+        /**
+         * The new event replaces a queued event of the same event type, or is
+         * not sent to the connection if there is no such event
+         */
+        COALESCE,
+        /**
+         * The connection is closed
+         */
+        DISCONNECT
+    }
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private final Set<ServerSentEventConnection> connections = ConcurrentHashMap.newKeySet();
+    private final int queueCapacity;
+    private final SlowConsumerPolicy policy;
+    private final LongAdder undelivered = new LongAdder();
+
+    public ServerSentEventBroadcaster() {
+        this(DEFAULT_QUEUE_CAPACITY, SlowConsumerPolicy.DROP);
+    }
+
+    /**
+     * @param queueCapacity maximum number of events queued per connection
+     * @param policy what to do when a connection's queue is full
+     */
+    public ServerSentEventBroadcaster(int queueCapacity, SlowConsumerPolicy policy) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1: " + queueCapacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must not be null");
+        }
+        this.queueCapacity = queueCapacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Adds a connection to receive the broadcasted events
+     *
+     * @param connection Server-Sent event connection
+     */
+    public void add(ServerSentEventConnection connection) {
+        connections.add(connection);
+    }
+
+    /**
+     * Stops broadcasting events to a connection
+     *
+     * @param connection Server-Sent event connection
+     */
+    public void remove(ServerSentEventConnection connection) {
+        connections.remove(connection);
+    }
+
+    /**
+     * Returns the connections currently receiving the broadcasted events
+     *
+     * @return unmodifiable view of the connections
+     */
+    public Set<ServerSentEventConnection> getConnections() {
+        return Collections.unmodifiableSet(connections);
+    }
+
+    /**
+     * Sends the Server-Sent event to all connections
+     *
+     * @param eventData Server-Sent event data
+     * @return number of connections the event was queued on
+     */
+    public int broadcast(ServerSentEventData eventData) {
+        return broadcast(ServerSentEventFrame.of(eventData));
+    }
+
+    /**
+     * Sends the encoded Server-Sent event to all connections. Closed
+     * connections are removed from the broadcaster.
+     *
+     * @param frame encoded Server-Sent event
+     * @return number of connections the event was queued on
+     */
+    public int broadcast(ServerSentEventFrame frame) {
+        int queued = 0;
+        for (ServerSentEventConnection connection : connections) {
+            try {
+                if (connection.offer(frame, queueCapacity, policy)) {
+                    queued++;
+                } else {
+                    undelivered.increment();
+                }
+            } catch (IllegalStateException e) {
+                // connection was closed
+                connections.remove(connection);
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Number of times an event could not be queued on a connection because
+     * the connection's queue was full
+     *
+     * @return count of undelivered events
+     */
+    public long getUndeliveredCount() {
+        return undelivered.sum();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return policy;
+    }
+}
@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.sse.api;
 
@@ -88,6 +89,22 @@ public abstract class ServerSentEventConnection implements Closeable {
     public abstract void sendMessage(ServerSentEventData eventData)
             throws IOException;
 
+    /**
+     * Queues the encoded Server-Sent event without waiting for the client.
+     * Once this method has been called, the connection writes all events,
+     * including those sent with {@code sendMessage}, without blocking.
+     *
+     * @param frame encoded Server-Sent event
+     * @param queueCapacity maximum number of events queued on this connection
+     * @param policy what to do when the queue is full
+     * @return true if the event was queued, false if it was dropped or
+     *         the connection was closed because of the policy
+     * @throws IllegalStateException when called after calling close method
+     * @see ServerSentEventBroadcaster
+     */
+    public abstract boolean offer(ServerSentEventFrame frame, int queueCapacity,
+            ServerSentEventBroadcaster.SlowConsumerPolicy policy);
+
     /**
      * Closes the connection
      */
@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.sse.api;
 
@@ -83,6 +84,7 @@ package org.glassfish.sse.api;
 public final class ServerSentEventData {
     
     private final StringBuilder strBuilder = new StringBuilder();
+    private String event;
 
     public ServerSentEventData comment(String comment) {
         strBuilder.append(':');
@@ -105,6 +107,7 @@ public final class ServerSentEventData {
     }
 
     public ServerSentEventData event(String event) {
+        this.event = event;
         strBuilder.append("event:");
         strBuilder.append(event);
         strBuilder.append('\n');
@@ -131,6 +134,15 @@ public final class ServerSentEventData {
         return this;
     }
 
+    /**
+     * Event type of this event, used to coalesce queued events
+     *
+     * @return null if no event type was set
+     */
+    String getEvent() {
+        return event;
+    }
+
     @Override
     public String toString() {
         return strBuilder.toString();
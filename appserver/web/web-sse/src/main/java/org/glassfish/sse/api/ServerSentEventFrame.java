@@ -0,0 +1,120 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.sse.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A Server-Sent Event encoded to its wire format.
+ *
+ * <p>
+ * Encoding happens once, when the frame is created, and the frame never
+ * changes afterwards. The same frame can therefore be queued on any number of
+ * connections without being copied or encoded again.
+ *
+ * @see ServerSentEventBroadcaster
+ * @since 6.2025.1
+ */
+public final class ServerSentEventFrame {
+
+    private final byte[] bytes;
+    private final String event;
+
+    private ServerSentEventFrame(byte[] bytes, String event) {
+        this.bytes = bytes;
+        this.event = event;
+    }
+
+    /**
+     * Encodes the Server-Sent event, including the blank line ending it
+     *
+     * @param eventData Server-Sent event data
+     * @return the encoded event
+     */
+    public static ServerSentEventFrame of(ServerSentEventData eventData) {
+        String text = eventData.toString() + '\n';
+        return new ServerSentEventFrame(text.getBytes(StandardCharsets.UTF_8), eventData.getEvent());
+    }
+
+    /**
+     * Event type of the encoded event
+     *
+     * @return null if the event has no event type
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Number of bytes of the encoded event
+     *
+     * @return length in bytes
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Read-only view of the encoded event
+     *
+     * @return a new buffer positioned at the start of the event
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes the encoded event to the given stream
+     *
+     * @param out stream to write to
+     * @throws IOException when there is an error in writing
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
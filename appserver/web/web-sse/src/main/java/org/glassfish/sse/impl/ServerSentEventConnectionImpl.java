@@ -37,6 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
+// Portions Copyright [2026] [Payara Foundation and/or its affiliates]
 
 package org.glassfish.sse.impl;
 
@@ -45,26 +46,44 @@ import jakarta.servlet.AsyncContext;
 import jakarta.servlet.AsyncEvent;
 import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.glassfish.sse.api.*;
+import org.glassfish.sse.api.ServerSentEventBroadcaster.SlowConsumerPolicy;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * ServerSentEventClientImpl class.
  *
+ * <p>
+ * Events are written with blocking writes until the first event is
+ * {@link #offer offered}. From then on, the response is switched to
+ * non-blocking writes and all events go through a queue which is drained
+ * whenever the client can take more data.
+ *
  * @author Jitendra Kotamraju
  */
-final class ServerSentEventConnectionImpl extends ServerSentEventConnection implements AsyncListener {
+final class ServerSentEventConnectionImpl extends ServerSentEventConnection implements AsyncListener, WriteListener {
     final HttpServletRequest request;
     final ServerSentEventHandler sseh;
     final AsyncContext asyncContext;
     final CreationalContext<?> cc;
     private final ServerSentEventApplication owner;
-    private boolean closed;
+    private volatile boolean closed;
+    private final AtomicBoolean destroyed = new AtomicBoolean();
+
+    // guarded by itself
+    private final LinkedList<ServerSentEventFrame> queue = new LinkedList<>();
+    // only changes while holding the sseh lock
+    private volatile boolean nonBlocking;
 
     ServerSentEventConnectionImpl(ServerSentEventApplication owner, HttpServletRequest request,
                 ServerSentEventHandler sseh, CreationalContext<?> cc, AsyncContext asyncContext) {
@@ -97,6 +116,14 @@ final class ServerSentEventConnectionImpl extends ServerSentEventConnection impl
             throw new IllegalStateException("sendMessage cannot be called after the connection is closed.");
         }
         synchronized (sseh) {       // so that events don't interleave
+            if (nonBlocking) {
+                // the stream no longer allows blocking writes, queue behind the offered events
+                synchronized (queue) {
+                    queue.add(ServerSentEventFrame.of(eventData));
+                }
+                drain();
+                return;
+            }
             try {
                 // Write message on response and flush
                 HttpServletResponse res = (HttpServletResponse) asyncContext.getResponse();
@@ -110,9 +137,110 @@ final class ServerSentEventConnectionImpl extends ServerSentEventConnection impl
         }
     }
 
+    @Override
+    public boolean offer(ServerSentEventFrame frame, int queueCapacity, SlowConsumerPolicy policy) {
+        if (closed) {
+            throw new IllegalStateException("offer cannot be called after the connection is closed.");
+        }
+        boolean queued;
+        synchronized (queue) {
+            if (queue.size() < queueCapacity) {
+                queue.add(frame);
+                queued = true;
+            } else if (policy == SlowConsumerPolicy.COALESCE) {
+                queued = coalesce(frame);
+            } else {
+                queued = false;
+            }
+        }
+        if (!queued) {
+            if (policy == SlowConsumerPolicy.DISCONNECT) {
+                close();
+            }
+            return false;
+        }
+        if (!nonBlocking) {
+            startNonBlocking();
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * Replaces the most recently queued frame of the same event type.
+     * Must be called while holding the queue lock.
+     */
+    private boolean coalesce(ServerSentEventFrame frame) {
+        if (frame.getEvent() == null) {
+            return false;
+        }
+        ListIterator<ServerSentEventFrame> frames = queue.listIterator(queue.size());
+        while (frames.hasPrevious()) {
+            if (Objects.equals(frames.previous().getEvent(), frame.getEvent())) {
+                frames.set(frame);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void startNonBlocking() {
+        synchronized (sseh) {
+            if (!nonBlocking && !closed) {
+                try {
+                    asyncContext.getResponse().getOutputStream().setWriteListener(this);
+                    nonBlocking = true;
+                } catch (IOException e) {
+                    destroy();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes queued frames for as long as the client can take them without
+     * blocking. Whatever is left is written from {@link #onWritePossible()}.
+     */
+    private void drain() {
+        synchronized (sseh) {
+            if (!nonBlocking || closed) {
+                return;
+            }
+            try {
+                ServletOutputStream sos = asyncContext.getResponse().getOutputStream();
+                boolean written = false;
+                while (sos.isReady()) {
+                    ServerSentEventFrame frame;
+                    synchronized (queue) {
+                        frame = queue.poll();
+                    }
+                    if (frame == null) {
+                        if (written) {
+                            sos.flush();
+                        }
+                        return;
+                    }
+                    frame.writeTo(sos);
+                    written = true;
+                }
+            } catch (IOException e) {
+                destroy();
+            }
+        }
+    }
+
     @Override
     public void close() {
-        closed = true;
+        destroy();
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
         destroy();
     }
 
@@ -137,6 +265,13 @@ final class ServerSentEventConnectionImpl extends ServerSentEventConnection impl
     }
 
     private void destroy() {
+        closed = true;
+        if (!destroyed.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (queue) {
+            queue.clear();
+        }
         cc.release();
         owner.destroyConnection(this);
         asyncContext.complete();        // calls onComplete()
@@ -0,0 +1,232 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.sse.impl;
+
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.glassfish.sse.api.ServerSentEventBroadcaster;
+import org.glassfish.sse.api.ServerSentEventBroadcaster.SlowConsumerPolicy;
+import org.glassfish.sse.api.ServerSentEventData;
+import org.glassfish.sse.api.ServerSentEventFrame;
+import org.glassfish.sse.api.ServerSentEventHandler;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ServerSentEventConnectionImplTest {
+
+    @Test
+    public void framesAreQueuedUntilTheClientCanTakeThem() throws IOException {
+        Client client = new Client(false);
+
+        assertTrue(client.connection.offer(frame(null, "1"), 2, SlowConsumerPolicy.DROP));
+        assertTrue(client.connection.offer(frame(null, "2"), 2, SlowConsumerPolicy.DROP));
+        assertEquals("", client.received());
+
+        client.ready();
+        assertEquals("data:1\n\ndata:2\n\n", client.received());
+    }
+
+    @Test
+    public void dropPolicyDiscardsNewFramesForAFullQueue() throws IOException {
+        Client client = new Client(false);
+        client.connection.offer(frame(null, "1"), 1, SlowConsumerPolicy.DROP);
+
+        assertFalse(client.connection.offer(frame(null, "2"), 1, SlowConsumerPolicy.DROP));
+
+        client.ready();
+        assertEquals("data:1\n\n", client.received());
+        assertFalse(client.completed);
+    }
+
+    @Test
+    public void coalescePolicyReplacesTheQueuedFrameOfTheSameEvent() throws IOException {
+        Client client = new Client(false);
+        client.connection.offer(frame("price", "1"), 2, SlowConsumerPolicy.COALESCE);
+        client.connection.offer(frame("volume", "2"), 2, SlowConsumerPolicy.COALESCE);
+
+        assertTrue(client.connection.offer(frame("price", "3"), 2, SlowConsumerPolicy.COALESCE));
+        assertFalse(client.connection.offer(frame("trade", "4"), 2, SlowConsumerPolicy.COALESCE));
+        assertFalse(client.connection.offer(frame(null, "5"), 2, SlowConsumerPolicy.COALESCE));
+
+        client.ready();
+        assertEquals("event:price\ndata:3\n\nevent:volume\ndata:2\n\n", client.received());
+    }
+
+    @Test
+    public void disconnectPolicyClosesTheConnection() {
+        Client client = new Client(false);
+        client.connection.offer(frame(null, "1"), 1, SlowConsumerPolicy.DISCONNECT);
+
+        assertFalse(client.connection.offer(frame(null, "2"), 1, SlowConsumerPolicy.DISCONNECT));
+        assertTrue(client.completed);
+        assertTrue(client.released);
+        try {
+            client.connection.offer(frame(null, "3"), 1, SlowConsumerPolicy.DISCONNECT);
+            fail("offer on a closed connection");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void slowClientDoesNotHoldBackOthers() throws IOException {
+        ServerSentEventBroadcaster broadcaster = new ServerSentEventBroadcaster(2, SlowConsumerPolicy.DROP);
+        Client fast = new Client(true);
+        Client slow = new Client(false);
+        broadcaster.add(fast.connection);
+        broadcaster.add(slow.connection);
+
+        assertEquals(2, broadcaster.broadcast(new ServerSentEventData().data("1")));
+        assertEquals(2, broadcaster.broadcast(new ServerSentEventData().data("2")));
+        assertEquals(1, broadcaster.broadcast(new ServerSentEventData().data("3")));
+
+        assertEquals("data:1\n\ndata:2\n\ndata:3\n\n", fast.received());
+        assertEquals("", slow.received());
+        assertEquals(1, broadcaster.getUndeliveredCount());
+        slow.ready();
+        assertEquals("data:1\n\ndata:2\n\n", slow.received());
+    }
+
+    @Test
+    public void disconnectedClientIsRemovedFromTheBroadcaster() {
+        ServerSentEventBroadcaster broadcaster = new ServerSentEventBroadcaster(1, SlowConsumerPolicy.DISCONNECT);
+        Client fast = new Client(true);
+        Client slow = new Client(false);
+        broadcaster.add(fast.connection);
+        broadcaster.add(slow.connection);
+
+        broadcaster.broadcast(new ServerSentEventData().data("1"));
+        broadcaster.broadcast(new ServerSentEventData().data("2"));
+        assertTrue(slow.completed);
+        assertEquals(2, broadcaster.getConnections().size());
+
+        assertEquals(1, broadcaster.broadcast(new ServerSentEventData().data("3")));
+        assertEquals(1, broadcaster.getConnections().size());
+        assertTrue(broadcaster.getConnections().contains(fast.connection));
+    }
+
+    private static ServerSentEventFrame frame(String event, String data) {
+        ServerSentEventData eventData = new ServerSentEventData();
+        if (event != null) {
+            eventData.event(event);
+        }
+        return ServerSentEventFrame.of(eventData.data(data));
+    }
+
+    /**
+     * A client connection whose output stream only accepts data once it is
+     * ready, like a non-blocking stream to a client which has fallen behind.
+     */
+    private static final class Client {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final ServerSentEventConnectionImpl connection;
+        private boolean ready;
+        private WriteListener writeListener;
+        private boolean completed;
+        private boolean released;
+
+        Client(boolean ready) {
+            this.ready = ready;
+            ServletOutputStream stream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return Client.this.ready;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    writeListener = listener;
+                }
+
+                @Override
+                public void write(int b) {
+                    out.write(b);
+                }
+            };
+            HttpServletResponse response = proxy(HttpServletResponse.class, (method, args) ->
+                    method.equals("getOutputStream") ? stream : null);
+            AsyncContext asyncContext = proxy(AsyncContext.class, (method, args) -> {
+                if (method.equals("getResponse")) {
+                    return response;
+                }
+                if (method.equals("complete")) {
+                    completed = true;
+                }
+                return null;
+            });
+            CreationalContext<?> creationalContext = proxy(CreationalContext.class, (method, args) -> {
+                if (method.equals("release")) {
+                    released = true;
+                }
+                return null;
+            });
+            connection = new ServerSentEventConnectionImpl(
+                    new ServerSentEventApplication(ServerSentEventHandler.class, "/events"),
+                    null, new ServerSentEventHandler() { }, creationalContext, asyncContext);
+        }
+
+        void ready() throws IOException {
+            ready = true;
+            writeListener.onWritePossible();
+        }
+
+        String received() {
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> answer.answer(method.getName(), args)));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.util.uuid;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link UuidGenerator} that hands out identifiers generated ahead of time
+ * by a background thread, falling back to generating them on the calling
+ * thread whenever the queue runs empty. The queue is topped up once it drops
+ * to half of its capacity.
+ * <p>
+ * Identifiers taken from the queue are not derived from the object passed to
+ * {@link #generateUuid(Object)}; they rely on the random part alone.
+ *
+ * @since 6.2025.1
+ */
+public class PregeneratingUuidGenerator implements UuidGenerator {
+
+    private static final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uuid-pregenerator");
+        thread.setDaemon(true);
+        thread.setContextClassLoader(PregeneratingUuidGenerator.class.getClassLoader());
+        return thread;
+    });
+
+    private final UuidGenerator delegate;
+    private final BlockingQueue<String> uuids;
+    private final int refillThreshold;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * @param delegate the generator producing the identifiers
+     * @param capacity the number of identifiers to keep ready
+     */
+    public PregeneratingUuidGenerator(UuidGenerator delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        this.delegate = delegate;
+        this.uuids = new ArrayBlockingQueue<>(capacity);
+        this.refillThreshold = capacity / 2;
+        scheduleRefill();
+    }
+
+    @Override
+    public String generateUuid() {
+        String uuid = next();
+        return uuid != null ? uuid : delegate.generateUuid();
+    }
+
+    @Override
+    public String generateUuid(Object obj) {
+        String uuid = next();
+        return uuid != null ? uuid : delegate.generateUuid(obj);
+    }
+
+    /**
+     * @return the number of identifiers currently ready
+     */
+    public int getAvailable() {
+        return uuids.size();
+    }
+
+    private String next() {
+        String uuid = uuids.poll();
+        if (uuids.size() <= refillThreshold) {
+            scheduleRefill();
+        }
+        return uuid;
+    }
+
+    private void scheduleRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            try {
+                refillExecutor.execute(this::refill);
+            } catch (RejectedExecutionException e) {
+                refilling.set(false);
+            }
+        }
+    }
+
+    private void refill() {
+        try {
+            while (uuids.remainingCapacity() > 0 && uuids.offer(delegate.generateUuid())) {
+                // keep going until full
+            }
+        } finally {
+            refilling.set(false);
+        }
+    }
+}
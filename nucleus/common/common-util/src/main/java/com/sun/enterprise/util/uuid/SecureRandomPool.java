@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.util.uuid;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * A fixed set of {@link SecureRandom} instances shared by callers on many
+ * threads. Each thread always uses the same instance, chosen from its id, so
+ * concurrent callers are spread over the pool instead of queueing on a single
+ * generator.
+ * <p>
+ * The instances use the DRBG algorithm, falling back to SHA1PRNG. Both keep
+ * their state in the instance, unlike the default NativePRNG whose instances
+ * all share one global lock, so the stripes do not contend with each other.
+ *
+ * @since 6.2025.1
+ */
+public final class SecureRandomPool {
+
+    private final SecureRandom[] randoms;
+    private final int mask;
+
+    /**
+     * Creates a pool with one instance per available processor.
+     */
+    public SecureRandomPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param size the minimum number of instances, rounded up to a power of two
+     */
+    public SecureRandomPool(int size) {
+        int length = 1;
+        while (length < size) {
+            length <<= 1;
+        }
+        randoms = new SecureRandom[length];
+        mask = length - 1;
+        byte[] seed = new byte[1];
+        for (int i = 0; i < length; i++) {
+            randoms[i] = newInstance();
+            // Force self-seeding now rather than on the first request
+            randoms[i].nextBytes(seed);
+        }
+    }
+
+    private static SecureRandom newInstance() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            try {
+                return SecureRandom.getInstance("SHA1PRNG");
+            } catch (NoSuchAlgorithmException e1) {
+                return new SecureRandom();
+            }
+        }
+    }
+
+    /**
+     * @return the instance assigned to the calling thread
+     */
+    public SecureRandom get() {
+        return randoms[(int) Thread.currentThread().getId() & mask];
+    }
+
+    /**
+     * @return the number of instances in the pool
+     */
+    public int size() {
+        return randoms.length;
+    }
+}
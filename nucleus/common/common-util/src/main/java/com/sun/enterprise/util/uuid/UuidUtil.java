@@ -37,7 +37,7 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2019] Payara Foundation and/or affiliates
+// Portions Copyright [2019-2026] Payara Foundation and/or affiliates
 
 /*
  * UuidUtil.java
@@ -49,7 +49,6 @@ package com.sun.enterprise.util.uuid;
 
 import java.net.InetAddress;
 import java.rmi.server.UID;
-import java.security.SecureRandom;
 
 /**
  * Class UuidUtil
@@ -188,8 +187,8 @@ public class UuidUtil
         return result;
     }
 
-    private static synchronized int getNextInt() {
-        return _seeder.nextInt();
+    private static int getNextInt() {
+        return _seeders.get().nextInt();
     }
 
     private static String getNextRandomString() {
@@ -208,7 +207,8 @@ public class UuidUtil
         return result;
     }
 
-    private static SecureRandom _seeder = new SecureRandom();
+    // one generator per processor so concurrent callers do not contend on a single instance
+    private static final SecureRandomPool _seeders = new SecureRandomPool();
 
     /**
      * Method main
@@ -0,0 +1,151 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package com.sun.enterprise.util.uuid;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UuidUtilTest {
+
+    private static final int IDS_PER_THREAD = 20000;
+
+    @Test
+    public void idsAreUniqueAcrossThreads() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        generate(new UuidGeneratorImpl(), 8, ids);
+        assertEquals(8 * IDS_PER_THREAD, ids.size());
+    }
+
+    @Test
+    public void idsAreUniqueForTheSameObject() {
+        Object session = new Object();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < IDS_PER_THREAD; i++) {
+            assertTrue(ids.add(UuidUtil.generateUuid(session)));
+        }
+    }
+
+    @Test
+    public void idKeepsFormat() {
+        // time, identity hash code, address and random part, 7 hex digits each
+        String id = UuidUtil.generateUuid(new Object());
+        assertTrue(id, id.matches("[0-9a-f]{28}"));
+    }
+
+    @Test
+    public void idContainsIdentityHashCodeOfTheObject() {
+        Object session = new Object();
+        String hash = Integer.toHexString(System.identityHashCode(session));
+        hash = hash.length() < 7 ? (hash + "0000000").substring(0, 7) : hash.substring(hash.length() - 7);
+        assertEquals(hash, UuidUtil.generateUuid(session).substring(7, 14));
+        assertEquals(hash, UuidUtil.generateUuid(session).substring(7, 14));
+    }
+
+    @Test
+    public void poolSizeIsPowerOfTwo() {
+        assertEquals(1, new SecureRandomPool(1).size());
+        assertEquals(4, new SecureRandomPool(3).size());
+        assertEquals(8, new SecureRandomPool(8).size());
+    }
+
+    @Test
+    public void poolUsesTheSameDrbgInstanceOnTheSameThread() {
+        SecureRandomPool pool = new SecureRandomPool(4);
+        assertSame(pool.get(), pool.get());
+        assertEquals("DRBG", pool.get().getAlgorithm());
+    }
+
+    @Test
+    public void pregeneratedIdsAreUnique() throws Exception {
+        PregeneratingUuidGenerator generator = new PregeneratingUuidGenerator(new UuidGeneratorImpl(), 1000);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        generate(generator, 4, ids);
+        assertEquals(4 * IDS_PER_THREAD, ids.size());
+    }
+
+    @Test
+    public void pregeneratingGeneratorFillsQueue() throws Exception {
+        PregeneratingUuidGenerator generator = new PregeneratingUuidGenerator(new UuidGeneratorImpl(), 100);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (generator.getAvailable() < 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(100, generator.getAvailable());
+        assertTrue(generator.generateUuid().matches("[0-9a-f]{28}"));
+        assertTrue(generator.getAvailable() < 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pregeneratingGeneratorRejectsEmptyQueue() {
+        new PregeneratingUuidGenerator(new UuidGeneratorImpl(), 0);
+    }
+
+    private static void generate(UuidGenerator generator, int threads, Set<String> ids) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    Object session = new Object();
+                    for (int j = 0; j < IDS_PER_THREAD; j++) {
+                        ids.add(generator.generateUuid(session));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
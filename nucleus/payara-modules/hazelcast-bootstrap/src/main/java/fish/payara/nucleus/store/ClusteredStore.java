@@ -1,6 +1,6 @@
 /*
  *
- * Copyright (c) 2016-2023 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -40,9 +40,18 @@ package fish.payara.nucleus.store;
 
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.map.MapEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
 import com.hazelcast.map.impl.MapService;
 import fish.payara.monitoring.collect.MonitoringDataCollector;
 import fish.payara.monitoring.collect.MonitoringDataSource;
@@ -63,6 +72,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import org.glassfish.internal.api.JavaEEContextUtil;
 import org.glassfish.internal.api.JavaEEContextUtil.Context;
@@ -216,6 +226,50 @@ public class ClusteredStore implements EventListener, MonitoringDataSource {
         return result;
     }
 
+    /**
+     * Registers a listener which is told about keys of a Hazelcast store whose
+     * values this member can no longer trust: entries added, updated or removed
+     * by another member, and entries which expired or were evicted.
+     * The listener is given a {@code null} key when the whole store was cleared.
+     * <p>
+     * Values are not included in the events, so the listener is cheap for the
+     * owning members to notify.
+     * @param storeName The name of the store to listen to
+     * @param listener Receives the key of each invalidated entry
+     * @return the registration id, or null if Hazelcast is not enabled
+     */
+    public UUID addInvalidationListener(String storeName, Consumer<Serializable> listener) {
+        UUID result = null;
+        if (isEnabled()) {
+            try (Context ctx = ctxUtil.empty().pushContext()) {
+                IMap<Serializable, Object> map = hzCore.getInstance().getMap(storeName);
+                if (map != null) {
+                    result = map.addEntryListener(new InvalidationListener(listener), false);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes a listener registered with {@link #addInvalidationListener(String, Consumer)}.
+     * @param storeName The name of the store the listener was added to
+     * @param registrationId The id returned when the listener was added
+     * @return true if the listener was removed, false otherwise
+     */
+    public boolean removeInvalidationListener(String storeName, UUID registrationId) {
+        boolean result = false;
+        if (registrationId != null && isEnabled()) {
+            try (Context ctx = ctxUtil.empty().pushContext()) {
+                var map = hzCore.getInstance().getMap(storeName);
+                if (map != null) {
+                    result = map.removeEntryListener(registrationId);
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void event(Event event) {
@@ -256,4 +310,58 @@ public class ClusteredStore implements EventListener, MonitoringDataSource {
         }
         return result;
     }
+
+    private static final class InvalidationListener implements EntryAddedListener<Serializable, Object>,
+            EntryUpdatedListener<Serializable, Object>, EntryRemovedListener<Serializable, Object>,
+            EntryEvictedListener<Serializable, Object>, EntryExpiredListener<Serializable, Object>,
+            MapClearedListener, MapEvictedListener {
+
+        private final Consumer<Serializable> listener;
+
+        InvalidationListener(Consumer<Serializable> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<Serializable, Object> event) {
+            invalidateIfRemote(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Serializable, Object> event) {
+            invalidateIfRemote(event);
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<Serializable, Object> event) {
+            invalidateIfRemote(event);
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<Serializable, Object> event) {
+            listener.accept(event.getKey());
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<Serializable, Object> event) {
+            listener.accept(event.getKey());
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            listener.accept(null);
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            listener.accept(null);
+        }
+
+        private void invalidateIfRemote(EntryEvent<Serializable, Object> event) {
+            // changes made through this member are already reflected by the caller
+            if (event.getMember() == null || !event.getMember().localMember()) {
+                listener.accept(event.getKey());
+            }
+        }
+    }
 }
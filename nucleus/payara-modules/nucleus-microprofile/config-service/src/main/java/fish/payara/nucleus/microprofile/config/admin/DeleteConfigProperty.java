@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2017-2021] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2017-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -54,6 +54,7 @@ import static fish.payara.nucleus.microprofile.config.admin.ConfigSourceConstant
 import static fish.payara.nucleus.microprofile.config.admin.ConfigSourceConstants.MODULE;
 import static fish.payara.nucleus.microprofile.config.admin.ConfigSourceConstants.SERVER;
 
+import org.glassfish.api.ActionReport;
 import org.glassfish.api.Param;
 import org.glassfish.api.admin.AdminCommand;
 import org.glassfish.api.admin.AdminCommandContext;
@@ -74,6 +75,7 @@ import fish.payara.nucleus.microprofile.config.source.ModuleConfigSource;
 import fish.payara.nucleus.microprofile.config.source.ServerConfigSource;
 import fish.payara.nucleus.microprofile.config.source.extension.ExtensionConfigSource;
 import fish.payara.nucleus.microprofile.config.source.extension.ExtensionConfigSourceService;
+import fish.payara.nucleus.microprofile.config.spi.ConfigProviderResolverImpl;
 import fish.payara.nucleus.microprofile.config.spi.MicroprofileConfigConfiguration;
 
 /**
@@ -113,6 +115,9 @@ public class DeleteConfigProperty implements AdminCommand {
     @Inject
     private ExtensionConfigSourceService extensionService;
 
+    @Inject
+    private ConfigProviderResolverImpl configProvider;
+
     @Override
     public void execute(AdminCommandContext context) {
         try {
@@ -190,6 +195,9 @@ public class DeleteConfigProperty implements AdminCommand {
         } catch (TransactionFailure txFailure) {
             context.getActionReport().failure(Logger.getLogger(SetConfigProperty.class.getCanonicalName()), "Failed to set config property", txFailure);
         }
+        if (context.getActionReport().getActionExitCode() != ActionReport.ExitCode.FAILURE) {
+            configProvider.sendValueChanged(propertyName);
+        }
     }
 
 }
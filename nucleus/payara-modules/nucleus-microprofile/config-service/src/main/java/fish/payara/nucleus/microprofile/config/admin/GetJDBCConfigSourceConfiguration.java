@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2020-2021] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2020-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -76,7 +76,8 @@ import org.jvnet.hk2.annotations.Service;
 })
 public class GetJDBCConfigSourceConfiguration implements AdminCommand {
 
-    private final String[] OUTPUT_HEADERS = {"JNDI Name", "Table Name", "Key-Column Name", "Value-Column Name"};
+    private final String[] OUTPUT_HEADERS = {"JNDI Name", "Table Name", "Key-Column Name", "Value-Column Name", "Prefetch",
+        "Refresh Interval", "Version-Column Name"};
 
     @Inject
     private Target targetUtil;
@@ -103,7 +104,10 @@ public class GetJDBCConfigSourceConfiguration implements AdminCommand {
             jdbcConfigSourceConfiguration.getJndiName(),
             jdbcConfigSourceConfiguration.getTableName(),
             jdbcConfigSourceConfiguration.getKeyColumnName(),
-            jdbcConfigSourceConfiguration.getValueColumnName()
+            jdbcConfigSourceConfiguration.getValueColumnName(),
+            jdbcConfigSourceConfiguration.getPrefetch(),
+            jdbcConfigSourceConfiguration.getRefreshInterval(),
+            jdbcConfigSourceConfiguration.getVersionColumnName()
         };
         columnFormatter.addRow(outputValues);
         actionReport.appendMessage(columnFormatter.toString());
@@ -113,6 +117,9 @@ public class GetJDBCConfigSourceConfiguration implements AdminCommand {
         extraPropertiesMap.put("tableName", jdbcConfigSourceConfiguration.getTableName());
         extraPropertiesMap.put("keyColumnName", jdbcConfigSourceConfiguration.getKeyColumnName());
         extraPropertiesMap.put("valueColumnName", jdbcConfigSourceConfiguration.getValueColumnName());
+        extraPropertiesMap.put("prefetch", jdbcConfigSourceConfiguration.getPrefetch());
+        extraPropertiesMap.put("refreshInterval", jdbcConfigSourceConfiguration.getRefreshInterval());
+        extraPropertiesMap.put("versionColumnName", jdbcConfigSourceConfiguration.getVersionColumnName());
 
         Properties extraProperties = new Properties();
         extraProperties.put("jdbcConfigSourceConfiguration", extraPropertiesMap);
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2017-2020] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2017-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -192,11 +192,14 @@ public class DirConfigSource extends PayaraConfigSource implements ConfigSource
                     if ( kind == ENTRY_MODIFY || (kind == ENTRY_CREATE && Files.isSymbolicLink(path)) ) {
                         logger.finer("MPCONFIG DirConfigSource: processing new or updated file \""+path.toString()+"\".");
                         BasicFileAttributes atts = Files.readAttributes(path, BasicFileAttributes.class);
-                        upsertPropertyFromPath(path, atts);
+                        if (upsertPropertyFromPath(path, atts)) {
+                            notifyValueChanged(path);
+                        }
                     }
                     if (Files.notExists(path) && ! watchedFileKeys.containsValue(path) && kind == ENTRY_DELETE) {
                         logger.finer("MPCONFIG DirConfigSource: removing deleted file \""+path.toString()+"\".");
                         removePropertyFromPath(path);
+                        notifyValueChanged(path);
                     }
                 } catch (IOException e) {
                     logger.log(WARNING, "MPCONFIG DirConfigSource: could not process event '"+kind+"' on '"+path+"'", e);
@@ -330,6 +333,12 @@ public class DirConfigSource extends PayaraConfigSource implements ConfigSource
         return false;
     }
     
+    private void notifyValueChanged(Path path) {
+        if (configService != null) {
+            configService.sendValueChanged(parsePropertyNameFromPath(path, this.directory));
+        }
+    }
+
     final void removePropertyFromPath(Path path) {
         String property = parsePropertyNameFromPath(path, this.directory);
         // not present? go away silently.
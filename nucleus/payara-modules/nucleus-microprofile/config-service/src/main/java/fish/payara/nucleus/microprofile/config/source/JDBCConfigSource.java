@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2020-2021] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2020-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -40,26 +40,62 @@
 package fish.payara.nucleus.microprofile.config.source;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import org.glassfish.internal.api.Globals;
 
+import fish.payara.nucleus.executorservice.PayaraExecutorService;
 import fish.payara.nucleus.microprofile.config.spi.JDBCConfigSourceConfiguration;
 
 public class JDBCConfigSource extends PayaraConfigSource {
 
     private static final Logger LOGGER = Logger.getLogger(JDBCConfigSource.class.getName());
 
+    private static final int DEFAULT_REFRESH_INTERVAL = 60;
+
     private final JDBCConfigSourceConfiguration config;
+    private final Function<JDBCConfigSourceConfiguration, JDBCConfigSourceHelper> helperFactory;
+
+    /**
+     * The table content when prefetching is enabled.
+     */
+    private volatile Snapshot snapshot;
+
+    // guarded by this
+    private RefreshTask refreshTask;
 
     public JDBCConfigSource() {
         this.config = Globals.getDefaultHabitat().getService(JDBCConfigSourceConfiguration.class);
+        this.helperFactory = JDBCConfigSourceHelper::new;
+    }
+
+    /**
+     * Should only be used for test purposes, the snapshot is then not refreshed in the background
+     * @param config the source settings
+     * @param helperFactory creates the helper querying the table
+     */
+    JDBCConfigSource(JDBCConfigSourceConfiguration config,
+            Function<JDBCConfigSourceConfiguration, JDBCConfigSourceHelper> helperFactory) {
+        super(true);
+        this.config = config;
+        this.helperFactory = helperFactory;
     }
 
     @Override
     public Map<String, String> getProperties() {
+        if (isPrefetch()) {
+            return getSnapshot().values;
+        }
         JDBCConfigSourceHelper helper = getHelper();
         if (helper == null) {
             return null;
@@ -86,6 +122,9 @@ public class JDBCConfigSource extends PayaraConfigSource {
 
     @Override
     public String getValue(String propertyName) {
+        if (isPrefetch()) {
+            return getSnapshot().values.get(propertyName);
+        }
         JDBCConfigSourceHelper helper = getHelper();
         if (helper == null) {
             return null;
@@ -108,9 +147,174 @@ public class JDBCConfigSource extends PayaraConfigSource {
 
     private JDBCConfigSourceHelper getHelper() {
         if (config != null) {
-            return new JDBCConfigSourceHelper(config);
+            return helperFactory.apply(config);
         }
         return null;
     }
 
+    private boolean isPrefetch() {
+        return config != null && Boolean.parseBoolean(config.getPrefetch());
+    }
+
+    /**
+     * Returns the current snapshot of the table. The database is only queried on the first access or when the
+     * configuration of the source has changed, otherwise the snapshot is kept up to date by a background task.
+     */
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.sourceKey.equals(sourceKey(config))) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            String sourceKey = sourceKey(config);
+            if (current == null || !current.sourceKey.equals(sourceKey)) {
+                current = loadSnapshot(sourceKey, null);
+                snapshot = current;
+            }
+            if (configService != null) {
+                scheduleRefresh(configService.getExecutor());
+            }
+            return current;
+        }
+    }
+
+    // guarded by this
+    private void scheduleRefresh(PayaraExecutorService executor) {
+        int interval = getRefreshInterval(config);
+        if (refreshTask != null && refreshTask.interval == interval) {
+            return;
+        }
+        if (refreshTask != null) {
+            refreshTask.cancel();
+        }
+        refreshTask = new RefreshTask(this, executor, interval);
+    }
+
+    private void refresh(RefreshTask task) {
+        try {
+            if (refresh()) {
+                synchronized (this) {
+                    scheduleRefresh(task.executor);
+                }
+                return;
+            }
+            synchronized (this) {
+                if (refreshTask == task) {
+                    refreshTask = null;
+                }
+            }
+            task.cancel();
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Failed to refresh JDBC config source", ex);
+        }
+    }
+
+    /**
+     * Reloads the snapshot, or drops it if prefetching has been disabled.
+     *
+     * @return false if prefetching has been disabled
+     */
+    boolean refresh() {
+        if (!isPrefetch()) {
+            snapshot = null;
+            return false;
+        }
+        String sourceKey = sourceKey(config);
+        Snapshot current = snapshot;
+        Snapshot refreshed = loadSnapshot(sourceKey,
+                current != null && current.sourceKey.equals(sourceKey) ? current : null);
+        synchronized (this) {
+            snapshot = refreshed;
+        }
+        return true;
+    }
+
+    /**
+     * Loads the table content with a single query. If a version column is configured and the version is unchanged the
+     * previous snapshot is returned as is. If the query fails the previous snapshot is kept.
+     */
+    private Snapshot loadSnapshot(String sourceKey, Snapshot previous) {
+        JDBCConfigSourceHelper helper = helperFactory.apply(config);
+        try {
+            String version = helper.getDataVersion();
+            if (previous != null && previous.loaded && version != null && version.equals(previous.version)) {
+                return previous;
+            }
+            return new Snapshot(sourceKey, version, helper.selectAllConfigValues(), true);
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Error in config source SQL execution", ex);
+            return previous != null ? previous : new Snapshot(sourceKey, null, Collections.emptyMap(), false);
+        } finally {
+            try {
+                helper.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Error closing JDBC connection", e);
+            }
+        }
+    }
+
+    private static int getRefreshInterval(JDBCConfigSourceConfiguration config) {
+        try {
+            return Math.max(1, Integer.parseInt(config.getRefreshInterval()));
+        } catch (NumberFormatException ex) {
+            return DEFAULT_REFRESH_INTERVAL;
+        }
+    }
+
+    private static String sourceKey(JDBCConfigSourceConfiguration config) {
+        return String.join("|", config.getJndiName(), config.getTableName(), config.getKeyColumnName(),
+                config.getValueColumnName(), Objects.toString(config.getVersionColumnName(), ""));
+    }
+
+    /**
+     * Periodically refreshes the snapshot of a source. Only weakly references the source so that the source of a
+     * config that is no longer used can be collected, the task then cancels itself.
+     */
+    private static final class RefreshTask implements Runnable {
+
+        private final WeakReference<JDBCConfigSource> source;
+        private final PayaraExecutorService executor;
+        private final int interval;
+        private final ScheduledFuture<?> future;
+
+        RefreshTask(JDBCConfigSource source, PayaraExecutorService executor, int interval) {
+            this.source = new WeakReference<>(source);
+            this.executor = executor;
+            this.interval = interval;
+            this.future = executor.scheduleWithFixedDelay(this, interval, interval, SECONDS);
+        }
+
+        @Override
+        public void run() {
+            JDBCConfigSource jdbcConfigSource = source.get();
+            if (jdbcConfigSource == null) {
+                cancel();
+                return;
+            }
+            jdbcConfigSource.refresh(this);
+        }
+
+        void cancel() {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * An immutable copy of the config table.
+     */
+    private static final class Snapshot {
+
+        final String sourceKey;
+        final String version;
+        final Map<String, String> values;
+        final boolean loaded;
+
+        Snapshot(String sourceKey, String version, Map<String, String> values, boolean loaded) {
+            this.sourceKey = sourceKey;
+            this.version = version;
+            this.values = Collections.unmodifiableMap(values);
+            this.loaded = loaded;
+        }
+    }
 }
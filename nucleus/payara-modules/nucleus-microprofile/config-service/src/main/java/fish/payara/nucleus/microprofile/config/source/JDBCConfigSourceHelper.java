@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2020] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2020-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -64,36 +64,43 @@ public class JDBCConfigSourceHelper implements Closeable {
 
     private final PreparedStatement selectOne;
     private final PreparedStatement selectAll;
+    private final PreparedStatement selectVersion;
 
     public JDBCConfigSourceHelper(JDBCConfigSourceConfiguration configuration) {
+        this(configuration, getDatasource(configuration.getJndiName()));
+    }
 
-        String jdbcJNDIName = configuration.getJndiName();
+    JDBCConfigSourceHelper(JDBCConfigSourceConfiguration configuration, DataSource datasource) {
 
         Connection connection = null;
         PreparedStatement selectOne = null;
         PreparedStatement selectAll = null;
-
-        if (jdbcJNDIName != null && !jdbcJNDIName.trim().isEmpty()) {
-            DataSource datasource = getDatasource(jdbcJNDIName);
-            if (datasource != null) {
-                String table = configuration.getTableName();
-                String keyColumn = configuration.getKeyColumnName();
-                String valueColumn = configuration.getValueColumnName();
-                String queryOne = "select " + valueColumn + " from " + table + " where " + keyColumn + " = ?";
-                String queryAll = "select " + keyColumn + ", " + valueColumn + " from " + table;
-                try {
-                    connection = datasource.getConnection();
-                    selectOne = connection.prepareStatement(queryOne);
-                    selectAll = connection.prepareStatement(queryAll);
-                } catch (SQLException ex) {
-                    LOGGER.log(Level.WARNING, ex.getLocalizedMessage(), ex);
+        PreparedStatement selectVersion = null;
+
+        if (datasource != null) {
+            String table = configuration.getTableName();
+            String keyColumn = configuration.getKeyColumnName();
+            String valueColumn = configuration.getValueColumnName();
+            String queryOne = "select " + valueColumn + " from " + table + " where " + keyColumn + " = ?";
+            String queryAll = "select " + keyColumn + ", " + valueColumn + " from " + table;
+            String versionColumn = configuration.getVersionColumnName();
+            try {
+                connection = datasource.getConnection();
+                selectOne = connection.prepareStatement(queryOne);
+                selectAll = connection.prepareStatement(queryAll);
+                if (versionColumn != null && !versionColumn.trim().isEmpty()) {
+                    selectVersion = connection.prepareStatement(
+                            "select count(*), max(" + versionColumn + ") from " + table);
                 }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.WARNING, ex.getLocalizedMessage(), ex);
             }
         }
 
         this.connection = connection;
         this.selectOne = selectOne;
         this.selectAll = selectAll;
+        this.selectVersion = selectVersion;
     }
 
     public synchronized String getConfigValue(String propertyName) {
@@ -115,10 +122,7 @@ public class JDBCConfigSourceHelper implements Closeable {
         Map<String, String> result = new HashMap<>();
         if (selectAll != null) {
             try {
-                ResultSet resultSet = selectAll.executeQuery();
-                while (resultSet.next()) {
-                    result.put(resultSet.getString(1), resultSet.getString(2));
-                }
+                result = selectAllConfigValues();
             } catch (SQLException ex) {
                 LOGGER.log(Level.WARNING, "Error in config source SQL execution", ex);
             }
@@ -126,6 +130,45 @@ public class JDBCConfigSourceHelper implements Closeable {
         return result;
     }
 
+    /**
+     * Same as {@link #getAllConfigValues()} but reports failures to the caller instead of returning an empty result,
+     * so that a caller holding a previous result can keep it.
+     *
+     * @return all key-value pairs of the config table
+     * @throws SQLException if the config source is not connected or the query failed
+     */
+    public synchronized Map<String, String> selectAllConfigValues() throws SQLException {
+        if (selectAll == null) {
+            throw new SQLException("JDBC config source is not connected");
+        }
+        Map<String, String> result = new HashMap<>();
+        ResultSet resultSet = selectAll.executeQuery();
+        while (resultSet.next()) {
+            result.put(resultSet.getString(1), resultSet.getString(2));
+        }
+        return result;
+    }
+
+    /**
+     * The row count is part of the version so that deleting a row that does not hold the maximum version is noticed.
+     *
+     * @return the number of rows and the maximum value of the configured version column, or null if no version column
+     *         is configured or the query failed
+     */
+    public synchronized String getDataVersion() {
+        if (selectVersion != null) {
+            try {
+                ResultSet resultSet = selectVersion.executeQuery();
+                if (resultSet.next()) {
+                    return resultSet.getLong(1) + ":" + resultSet.getString(2);
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.WARNING, "Error in config source SQL execution", ex);
+            }
+        }
+        return null;
+    }
+
     @Override
     public void close() throws IOException {
         if (connection != null) {
@@ -137,7 +180,10 @@ public class JDBCConfigSourceHelper implements Closeable {
         }
     }
 
-    private DataSource getDatasource(String jndiName) {
+    private static DataSource getDatasource(String jndiName) {
+        if (jndiName == null || jndiName.trim().isEmpty()) {
+            return null;
+        }
         try {
             InitialContext ctx = new InitialContext();
             return (DataSource) ctx.lookup(jndiName);
@@ -0,0 +1,106 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.nucleus.microprofile.config.spi;
+
+import java.util.function.Supplier;
+
+/**
+ * A config value accessor compiled for a particular property, target type and default. The value is resolved through
+ * the config sources, expanded and converted once and then returned as is until the {@link PayaraConfig} it belongs
+ * to is invalidated, which happens when a property is changed through {@link MicroprofileConfigEvents}. Unlike values
+ * looked up with {@link PayaraConfig#getValue(String, Class)} it is read without building a cache key or looking up a
+ * map.
+ * <p>
+ * Not all sources send change events (e.g. JDBC, environment variables, system properties or cloud sources). A value
+ * taken from one of those expires after the cache duration of the config, like a value looked up by name. A value from
+ * a source which sends change events is read without checking the clock.
+ *
+ * @param <T> type of the value
+ * @since 6.2025.1
+ */
+public final class CompiledConfigValue<T> implements Supplier<T> {
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private static final class Resolved<T> {
+        final T value;
+        final long generation;
+        final long expiresAt;
+
+        Resolved(T value, long generation, long expiresAt) {
+            this.value = value;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final PayaraConfig config;
+    private final String propertyName;
+    private final Supplier<T> resolver;
+    private volatile Resolved<T> resolved;
+
+    CompiledConfigValue(PayaraConfig config, String propertyName, Supplier<T> resolver) {
+        this.config = config;
+        this.propertyName = propertyName;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public T get() {
+        // read the generation first, an invalidation while resolving then causes another resolution on next access
+        long generation = config.getGeneration();
+        Resolved<T> current = resolved;
+        if (current == null || current.generation != generation
+                || current.expiresAt != NEVER && System.currentTimeMillis() >= current.expiresAt) {
+            current = new Resolved<>(resolver.get(), generation, expiresAt());
+            resolved = current;
+        }
+        return current.value;
+    }
+
+    private long expiresAt() {
+        long ttl = config.getCacheDurationMilliSeconds();
+        if (ttl <= 0) {
+            // a TTL of zero or less disables caching, the value then expires at once
+            return System.currentTimeMillis();
+        }
+        return config.isChangeNotified(propertyName) ? NEVER : System.currentTimeMillis() + ttl;
+    }
+}
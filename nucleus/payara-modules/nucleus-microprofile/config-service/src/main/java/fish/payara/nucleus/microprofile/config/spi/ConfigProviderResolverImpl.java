@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2017-2023] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2017-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -548,19 +548,40 @@ public class ConfigProviderResolverImpl extends ConfigProviderResolver implement
         }
     }
 
+    /**
+     * Notifies all configs that the value of the given property might have changed in one of the config sources by
+     * sending a {@link MicroprofileConfigEvents#CONFIG_VALUE_CHANGED} event.
+     *
+     * @param propertyName name of the changed property
+     */
+    public void sendValueChanged(String propertyName) {
+        if (events != null) {
+            events.send(new Event<>(MicroprofileConfigEvents.CONFIG_VALUE_CHANGED, propertyName), false);
+        }
+    }
+
     @Override
     public void event(Event<?> event) {
         if (event.is(EventTypes.SERVER_STARTUP)) {
-            if (serverLevelConfig != null) {
-                serverLevelConfig.clearCache();
-            }
-            for (String appName : applicationRegistry.getAllApplicationNames()) {
-                PayaraConfig appConfig = applicationRegistry.get(appName).getTransientAppMetaData(METADATA_KEY, PayaraConfig.class);
-                //Server will have already populated cache in deployment before this point,
-                //cache needs clearing as config extensions have not yet been loaded and may have values
-                if (appConfig != null) {
-                    appConfig.clearCache();
-                }
+            //Server will have already populated cache in deployment before this point,
+            //cache needs clearing as config extensions have not yet been loaded and may have values
+            clearCaches();
+        }
+        if (event.is(MicroprofileConfigEvents.CONFIG_VALUE_CHANGED)) {
+            LOG.log(Level.FINE, "Invalidating config values as property {0} changed", event.hook());
+            clearCaches();
+        }
+    }
+
+    private void clearCaches() {
+        if (serverLevelConfig != null) {
+            serverLevelConfig.clearCache();
+        }
+        for (String appName : applicationRegistry.getAllApplicationNames()) {
+            ApplicationInfo info = applicationRegistry.get(appName);
+            PayaraConfig appConfig = info == null ? null : info.getTransientAppMetaData(METADATA_KEY, PayaraConfig.class);
+            if (appConfig != null) {
+                appConfig.clearCache();
             }
         }
     }
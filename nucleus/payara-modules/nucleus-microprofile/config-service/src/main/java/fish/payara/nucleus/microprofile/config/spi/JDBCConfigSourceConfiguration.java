@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2020 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -62,4 +62,28 @@ public interface JDBCConfigSourceConfiguration extends ConfigBeanProxy, ConfigEx
     @Attribute(required = true)
     String getValueColumnName();
     void setValueColumnName(String valueColumName);
+
+    /**
+     * When enabled the whole table is loaded with a single query into an in-memory snapshot which is refreshed in the
+     * background, so that looking up a value never queries the database.
+     */
+    @Attribute(defaultValue = "false", dataType = Boolean.class)
+    String getPrefetch();
+    void setPrefetch(String prefetch);
+
+    /**
+     * The interval in seconds between two background refreshes of the prefetched snapshot.
+     */
+    @Attribute(defaultValue = "60", dataType = Integer.class)
+    String getRefreshInterval();
+    void setRefreshInterval(String refreshInterval);
+
+    /**
+     * An optional column holding a version number or last-modified timestamp of each row. When set, the snapshot is
+     * only reloaded if the number of rows or the maximum value of this column has changed since the last refresh, so
+     * inserts, updates that bump the column and deletes are all picked up.
+     */
+    @Attribute
+    String getVersionColumnName();
+    void setVersionColumnName(String versionColumnName);
 }
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2017-2023 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -41,6 +41,14 @@ package fish.payara.nucleus.microprofile.config.spi;
 
 import fish.payara.nucleus.microprofile.config.converters.ArrayConverter;
 import fish.payara.nucleus.microprofile.config.converters.AutomaticConverter;
+import fish.payara.nucleus.microprofile.config.source.ApplicationConfigSource;
+import fish.payara.nucleus.microprofile.config.source.ClusterConfigSource;
+import fish.payara.nucleus.microprofile.config.source.ConfigConfigSource;
+import fish.payara.nucleus.microprofile.config.source.DirConfigSource;
+import fish.payara.nucleus.microprofile.config.source.DomainConfigSource;
+import fish.payara.nucleus.microprofile.config.source.ModuleConfigSource;
+import fish.payara.nucleus.microprofile.config.source.PropertiesConfigSource;
+import fish.payara.nucleus.microprofile.config.source.ServerConfigSource;
 import fish.payara.nucleus.microprofile.config.util.ConfigValueType;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigValue;
@@ -56,6 +64,7 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import static fish.payara.nucleus.microprofile.config.spi.ConfigValueResolverImpl.getCacheKey;
@@ -71,6 +80,10 @@ import java.util.logging.Logger;
  * {@link #getValue(String, Class)} is called. This cache can be bypassed by constructing the {@link PayaraConfig} with
  * a TTL of zero (or negative).
  *
+ * Alternatively values can be resolved through {@link CompiledConfigValue}s which are cheaper to read, and which are
+ * invalidated at once by {@link #clearCache()} when a property changes. Those only expire after the same TTL if their
+ * value comes from a source which does not send change events.
+ *
  * @author Steve Millidge (Payara Foundation)
  * @author Jan Bernitt (caching part, ConfigValueResolver)
  */
@@ -79,9 +92,20 @@ public class PayaraConfig implements Config {
     private static final String MP_CONFIG_CACHE_DURATION = "mp.config.cache.duration";
     private static final String MP_CONFIG_EXPANSION_ENABLED_STRING = "mp.config.property.expressions.enabled";
     private static final String MP_CONFIG_PROFILE_NAME_STRING = "mp.config.profile";
+    private static final String COMPILED_VALUES_ENABLED_STRING = "payara.microprofile.config.compiled-values.enabled";
 
     private static final Logger log = Logger.getLogger(PayaraConfig.class.getName());
 
+    /**
+     * Sources whose values only change through set-config-property and delete-config-property, or for the directory
+     * source through its file watcher, all of which send a {@link MicroprofileConfigEvents#CONFIG_VALUE_CHANGED}
+     * event. Properties files never change.
+     */
+    private static final Set<Class<?>> CHANGE_NOTIFYING_SOURCES = Set.of(DomainConfigSource.class,
+            ConfigConfigSource.class, ServerConfigSource.class, ClusterConfigSource.class,
+            ApplicationConfigSource.class, ModuleConfigSource.class, DirConfigSource.class,
+            PropertiesConfigSource.class);
+
     private static final class CacheEntry {
         final ConfigValueImpl value;
         final long expires;
@@ -97,6 +121,9 @@ public class PayaraConfig implements Config {
     private final long defaultCacheDurationMilliSeconds;
 
     private final Map<String, CacheEntry> cachedValuesByProperty = new ConcurrentHashMap<>();
+    private final Map<Object, CompiledConfigValue<?>> compiledValuesByKey = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Boolean compiledValuesEnabled;
 
     private volatile long configuredCacheDurationMilliSeconds;
     private volatile long configuredCacheDurationMilliSecondsExpires = 0; // force value reload at start
@@ -311,10 +338,68 @@ public class PayaraConfig implements Config {
         return Optional.empty();
     }
     
+    /**
+     * Clears all cached values and invalidates all {@link CompiledConfigValue}s of this config.
+     */
     public void clearCache() {
+        generation.incrementAndGet();
+        compiledValuesEnabled = null;
         cachedValuesByProperty.clear();
     }
 
+    long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * The setting is only looked up once, and again after {@link #clearCache()}.
+     *
+     * @return true if injected values should be resolved through {@link CompiledConfigValue}s
+     */
+    public boolean isCompiledValuesEnabled() {
+        Boolean enabled = compiledValuesEnabled;
+        if (enabled == null) {
+            enabled = getOptionalValue(COMPILED_VALUES_ENABLED_STRING, Boolean.class).orElse(false);
+            compiledValuesEnabled = enabled;
+        }
+        return enabled;
+    }
+
+    /**
+     * Returns the {@link CompiledConfigValue} for the given key, compiling it on first use.
+     *
+     * @param key identifies the value, usually a combination of property name, target type and default value
+     * @param propertyName name of the property the value is resolved from
+     * @param resolver resolves and converts the value whenever the config got invalidated
+     * @return the accessor for the value, shared by all callers using an equal key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompiledConfigValue<T> compile(Object key, String propertyName, Supplier<T> resolver) {
+        return (CompiledConfigValue<T>) compiledValuesByKey.computeIfAbsent(key,
+                k -> new CompiledConfigValue<>(this, propertyName, resolver));
+    }
+
+    /**
+     * A property defined by a source which sends change events is invalidated by {@link #clearCache()} when it
+     * changes. Values taken from other sources, defaults and values with expressions, which may refer to any source,
+     * must be looked up again once the TTL has passed.
+     *
+     * @return true if a change of the current value of the property causes a call to {@link #clearCache()}
+     */
+    boolean isChangeNotified(String propertyName) {
+        ConfigValue value = getConfigValue(propertyName);
+        if (value.getValue() == null || value.getSourceName() == null
+                || value.getRawValue() != null && value.getRawValue().contains("${")) {
+            return false;
+        }
+        for (ConfigSource source : sources) {
+            if (value.getSourceName().equals(source.getName())) {
+                return CHANGE_NOTIFYING_SOURCES.contains(source.getClass());
+            }
+        }
+        return false;
+    }
+
     private <E> Optional<Converter<Object>> createArrayConverter(Class<E> elementType) {
         final Optional<Converter<E>> elementConverter = getConverter(elementType);
         if (!elementConverter.isPresent()) {
@@ -410,6 +495,7 @@ public class PayaraConfig implements Config {
     void addConfigSource(ConfigSource added) {
         sources.add(added);
         Collections.sort(sources, new ConfigSourceComparator());
+        clearCache();
     }
     
 }
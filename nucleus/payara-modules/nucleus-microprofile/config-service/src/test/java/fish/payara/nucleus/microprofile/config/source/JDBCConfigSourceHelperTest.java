@@ -0,0 +1,141 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.nucleus.microprofile.config.source;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JDBCConfigSourceHelperTest {
+
+    private final List<String> preparedQueries = new ArrayList<>();
+    private final Map<String, String> settings = new HashMap<>();
+
+    public JDBCConfigSourceHelperTest() {
+        settings.put("JndiName", "jdbc/config");
+        settings.put("TableName", "config");
+        settings.put("KeyColumnName", "name");
+        settings.put("ValueColumnName", "value");
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JDBCConfigSourceHelperTest.class.getClassLoader(),
+                new Class<?>[] { type }, handler));
+    }
+
+    /**
+     * A data source whose statements all return a single row holding the given row count and value.
+     */
+    private DataSource dataSource(long count, String value) {
+        ResultSet resultSet = proxy(ResultSet.class, new InvocationHandler() {
+            private boolean read;
+
+            @Override
+            public Object invoke(Object p, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "next":
+                        boolean next = !read;
+                        read = true;
+                        return next;
+                    case "getLong":
+                        return count;
+                    case "getString":
+                        return value;
+                    default:
+                        return null;
+                }
+            }
+        });
+        PreparedStatement statement = proxy(PreparedStatement.class,
+                (p, method, args) -> method.getName().equals("executeQuery") ? resultSet : null);
+        Connection connection = proxy(Connection.class, (p, method, args) -> {
+            if (method.getName().equals("prepareStatement")) {
+                preparedQueries.add((String) args[0]);
+                return statement;
+            }
+            return null;
+        });
+        return proxy(DataSource.class,
+                (p, method, args) -> method.getName().equals("getConnection") ? connection : null);
+    }
+
+    @Test
+    public void versionCombinesRowCountAndMaxVersion() {
+        settings.put("VersionColumnName", "version");
+        JDBCConfigSourceHelper helper = new JDBCConfigSourceHelper(
+                JDBCConfigSourceTest.configuration(settings), dataSource(3, "17"));
+
+        assertTrue(preparedQueries.contains("select count(*), max(version) from config"));
+        assertEquals("3:17", helper.getDataVersion());
+    }
+
+    @Test
+    public void versionIsNullWithoutVersionColumn() {
+        JDBCConfigSourceHelper helper = new JDBCConfigSourceHelper(
+                JDBCConfigSourceTest.configuration(settings), dataSource(3, "17"));
+
+        assertEquals(2, preparedQueries.size());
+        assertNull(helper.getDataVersion());
+    }
+
+    @Test
+    public void versionIsNullWithoutDataSource() {
+        settings.put("VersionColumnName", "version");
+        JDBCConfigSourceHelper helper = new JDBCConfigSourceHelper(JDBCConfigSourceTest.configuration(settings), null);
+
+        assertNull(helper.getDataVersion());
+        assertNull(helper.getConfigValue("a"));
+    }
+}
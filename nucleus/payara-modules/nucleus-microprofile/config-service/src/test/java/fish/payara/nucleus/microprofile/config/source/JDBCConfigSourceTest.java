@@ -0,0 +1,263 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.nucleus.microprofile.config.source;
+
+import fish.payara.nucleus.microprofile.config.spi.JDBCConfigSourceConfiguration;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JDBCConfigSourceTest {
+
+    private final Map<String, String> settings = new HashMap<>();
+    private final JDBCConfigSourceConfiguration config = configuration(settings);
+    private final Table table = new Table();
+    private final JDBCConfigSource source = new JDBCConfigSource(config, c -> new TableHelper(c, table));
+
+    public JDBCConfigSourceTest() {
+        settings.put("JndiName", "jdbc/config");
+        settings.put("TableName", "config");
+        settings.put("KeyColumnName", "name");
+        settings.put("ValueColumnName", "value");
+        settings.put("Prefetch", "true");
+    }
+
+    static JDBCConfigSourceConfiguration configuration(Map<String, String> settings) {
+        return (JDBCConfigSourceConfiguration) Proxy.newProxyInstance(JDBCConfigSourceTest.class.getClassLoader(),
+                new Class<?>[] { JDBCConfigSourceConfiguration.class }, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("get")) {
+                        return settings.get(name.substring(3));
+                    }
+                    if (name.startsWith("set")) {
+                        settings.put(name.substring(3), (String) args[0]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(name);
+                });
+    }
+
+    @Test
+    public void prefetchLoadsTheTableOnce() {
+        table.put("a", "1", 1);
+        table.put("b", "2", 2);
+
+        assertEquals("1", source.getValue("a"));
+        assertEquals("2", source.getValue("b"));
+        assertNull(source.getValue("c"));
+        assertEquals(2, source.getProperties().size());
+        assertEquals(1, table.loads.get());
+    }
+
+    @Test
+    public void withoutPrefetchEveryLookupQueriesTheTable() {
+        settings.put("Prefetch", "false");
+        table.put("a", "1", 1);
+
+        assertEquals("1", source.getValue("a"));
+        table.put("a", "2", 2);
+        assertEquals("2", source.getValue("a"));
+        assertEquals(0, table.loads.get());
+    }
+
+    @Test
+    public void refreshSkipsReloadWhenVersionIsUnchanged() {
+        settings.put("VersionColumnName", "version");
+        table.put("a", "1", 1);
+        assertEquals("1", source.getValue("a"));
+
+        assertTrue(source.refresh());
+        assertEquals(1, table.loads.get());
+    }
+
+    @Test
+    public void refreshPicksUpUpdates() {
+        settings.put("VersionColumnName", "version");
+        table.put("a", "1", 1);
+        assertEquals("1", source.getValue("a"));
+
+        table.put("a", "2", 2);
+        assertTrue(source.refresh());
+        assertEquals("2", source.getValue("a"));
+    }
+
+    @Test
+    public void refreshPicksUpDeletes() {
+        settings.put("VersionColumnName", "version");
+        table.put("a", "1", 1);
+        table.put("b", "2", 2);
+        assertEquals("1", source.getValue("a"));
+
+        // the deleted row does not hold the maximum version, only the row count changes
+        table.delete("a");
+        assertTrue(source.refresh());
+        assertNull(source.getValue("a"));
+        assertEquals("2", source.getValue("b"));
+    }
+
+    @Test
+    public void failedRefreshKeepsPreviousSnapshot() {
+        table.put("a", "1", 1);
+        assertEquals("1", source.getValue("a"));
+
+        table.failing = true;
+        assertTrue(source.refresh());
+        assertEquals("1", source.getValue("a"));
+    }
+
+    @Test
+    public void changedSettingsReloadTheTable() {
+        table.put("a", "1", 1);
+        assertEquals("1", source.getValue("a"));
+
+        settings.put("TableName", "other");
+        table.put("a", "2", 2);
+        assertEquals("2", source.getValue("a"));
+        assertEquals(2, table.loads.get());
+    }
+
+    @Test
+    public void refreshStopsWhenPrefetchIsDisabled() {
+        table.put("a", "1", 1);
+        assertEquals("1", source.getValue("a"));
+
+        settings.put("Prefetch", "false");
+        assertEquals(false, source.refresh());
+        table.put("a", "2", 2);
+        assertEquals("2", source.getValue("a"));
+    }
+
+    @Test
+    public void snapshotsAreNotSharedBetweenSources() {
+        table.put("a", "1", 1);
+        assertEquals("1", source.getValue("a"));
+
+        Map<String, String> otherSettings = new HashMap<>(settings);
+        Table otherTable = new Table();
+        otherTable.put("a", "other", 1);
+        JDBCConfigSource other = new JDBCConfigSource(configuration(otherSettings),
+                c -> new TableHelper(c, otherTable));
+
+        assertEquals("other", other.getValue("a"));
+        assertEquals("1", source.getValue("a"));
+    }
+
+    /**
+     * An in-memory config table with a version column.
+     */
+    private static final class Table {
+
+        final Map<String, String> values = new HashMap<>();
+        final Map<String, Integer> versions = new HashMap<>();
+        final AtomicInteger loads = new AtomicInteger();
+        volatile boolean failing;
+
+        synchronized void put(String key, String value, int version) {
+            values.put(key, value);
+            versions.put(key, version);
+        }
+
+        synchronized void delete(String key) {
+            values.remove(key);
+            versions.remove(key);
+        }
+
+        synchronized String version() {
+            return versions.size() + ":" + versions.values().stream().max(Integer::compare).orElse(null);
+        }
+    }
+
+    private static final class TableHelper extends JDBCConfigSourceHelper {
+
+        private final JDBCConfigSourceConfiguration config;
+        private final Table table;
+
+        TableHelper(JDBCConfigSourceConfiguration config, Table table) {
+            super(config, null);
+            this.config = config;
+            this.table = table;
+        }
+
+        @Override
+        public String getConfigValue(String propertyName) {
+            synchronized (table) {
+                return table.values.get(propertyName);
+            }
+        }
+
+        @Override
+        public Map<String, String> getAllConfigValues() {
+            synchronized (table) {
+                return new HashMap<>(table.values);
+            }
+        }
+
+        @Override
+        public Map<String, String> selectAllConfigValues() throws SQLException {
+            if (table.failing) {
+                throw new SQLException("connection lost");
+            }
+            table.loads.incrementAndGet();
+            return getAllConfigValues();
+        }
+
+        @Override
+        public String getDataVersion() {
+            String versionColumn = config.getVersionColumnName();
+            if (versionColumn == null || table.failing) {
+                return null;
+            }
+            return table.version();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
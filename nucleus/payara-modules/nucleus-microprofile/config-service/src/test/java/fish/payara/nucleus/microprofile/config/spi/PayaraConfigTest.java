@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2020-2023 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -46,7 +46,10 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.ElementType;
 import java.lang.reflect.Array;
@@ -55,11 +58,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import fish.payara.nucleus.microprofile.config.source.PropertiesConfigSource;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigValue;
 import org.eclipse.microprofile.config.spi.ConfigSource;
@@ -275,6 +280,87 @@ public class PayaraConfigTest {
         assertEquals(ttl, new PayaraConfig(emptyList(), emptyMap(), ttl).getCacheDurationMilliSeconds());
     }
 
+    @Test
+    public void compiledValuesExpireWithCacheDuration() throws InterruptedException {
+        PayaraConfig payaraConfig = (PayaraConfig) config;
+        CompiledConfigValue<Integer> value = payaraConfig.compile("int1", "int1", () -> config.getValue("int1", Integer.class));
+        long cacheExpiresAt = System.currentTimeMillis() + CACHE_TTL;
+        assertEquals(Integer.valueOf(1), value.get());
+        // sources like environment variables or JDBC do not send change events
+        source1.getProperties().put("int1", "11");
+        if (System.currentTimeMillis() < cacheExpiresAt) {
+            assertEquals(Integer.valueOf(1), value.get());
+        }
+        Thread.sleep(CACHE_TTL * 2);
+        assertEquals(Integer.valueOf(11), value.get());
+    }
+
+    @Test
+    public void compiledValuesFromChangeNotifyingSourcesDoNotExpire() throws InterruptedException {
+        Properties properties = new Properties();
+        properties.setProperty("static1", "value1");
+        PayaraConfig payaraConfig = new PayaraConfig(
+                asList(source1, source2, new PropertiesConfigSource(properties)), emptyMap(), CACHE_TTL);
+        CompiledConfigValue<String> value = payaraConfig.compile("static1", "static1",
+                () -> payaraConfig.getValue("static1", String.class));
+        assertEquals("value1", value.get());
+        properties.setProperty("static1", "changed1");
+        Thread.sleep(CACHE_TTL * 2);
+        assertEquals("value1", value.get());
+        payaraConfig.clearCache();
+        assertEquals("changed1", value.get());
+    }
+
+    @Test
+    public void onlyValuesFromChangeNotifyingSourcesAreChangeNotified() {
+        Properties properties = new Properties();
+        properties.setProperty("static1", "value1");
+        properties.setProperty("expression1", "${key1}");
+        PayaraConfig payaraConfig = new PayaraConfig(
+                asList(source1, source2, new PropertiesConfigSource(properties)), emptyMap(), CACHE_TTL);
+        assertTrue(payaraConfig.isChangeNotified("static1"));
+        assertFalse(payaraConfig.isChangeNotified("key1"));
+        assertFalse(payaraConfig.isChangeNotified("expression1"));
+        assertFalse(payaraConfig.isChangeNotified("missing"));
+    }
+
+    @Test
+    public void compiledValuesAreNotCachedWithoutTTL() {
+        PayaraConfig payaraConfig = new PayaraConfig(asList(source1, source2), emptyMap(), 0);
+        CompiledConfigValue<String> value = payaraConfig.compile("key1", "key1", () -> payaraConfig.getValue("key1", String.class));
+        assertEquals("value1", value.get());
+        source1.getProperties().put("key1", "changed1");
+        assertEquals("changed1", value.get());
+    }
+
+    @Test
+    public void compiledValuesEnabledIsReadOncePerInvalidation() {
+        PayaraConfig payaraConfig = (PayaraConfig) config;
+        assertFalse(payaraConfig.isCompiledValuesEnabled());
+        source2.getProperties().put("payara.microprofile.config.compiled-values.enabled", "true");
+        assertFalse(payaraConfig.isCompiledValuesEnabled());
+        payaraConfig.clearCache();
+        assertTrue(payaraConfig.isCompiledValuesEnabled());
+    }
+
+    @Test
+    public void compiledValuesAreInvalidatedByClearCache() {
+        PayaraConfig payaraConfig = (PayaraConfig) config;
+        CompiledConfigValue<String> value = payaraConfig.compile("key2", "key2", () -> config.getValue("key2", String.class));
+        assertEquals("value2", value.get());
+        source2.getProperties().put("key2", "changed2");
+        payaraConfig.clearCache();
+        assertEquals("changed2", value.get());
+    }
+
+    @Test
+    public void compiledValuesAreSharedByKey() {
+        PayaraConfig payaraConfig = (PayaraConfig) config;
+        CompiledConfigValue<String> value = payaraConfig.compile("key1", "key1", () -> config.getValue("key1", String.class));
+        assertSame(value, payaraConfig.compile("key1", "key1", () -> "other"));
+        assertEquals("value1", payaraConfig.compile("key1", "key1", () -> "other").get());
+    }
+
     private <T> void assertCachedValue(ConfigSource source, String key, Class<T> propertyType, T expectedValue1,
             T expectedValue2) throws InterruptedException {
         long cacheExpiresAt = System.currentTimeMillis() + CACHE_TTL;
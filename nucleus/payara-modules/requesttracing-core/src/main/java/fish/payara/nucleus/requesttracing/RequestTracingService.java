@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2016-2024] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2016-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -245,6 +245,9 @@ public class RequestTracingService implements EventListener, ConfigListener, Mon
             executionOptions.setHistoricTraceStoreSize(Integer.parseInt(configuration.getHistoricTraceStoreSize()));
             executionOptions.setHistoricTraceStoreTimeout(TimeUtil.setStoreTimeLimit(configuration.getHistoricTraceStoreTimeout()));
 
+            executionOptions.setOffHeapTraceStoreEnabled(Boolean.parseBoolean(configuration.getOffHeapTraceStoreEnabled()));
+            executionOptions.setOffHeapTraceStoreCapacity(Integer.parseInt(configuration.getOffHeapTraceStoreCapacity()));
+
             bootstrapNotifierList();
         }
 
@@ -258,7 +261,8 @@ public class RequestTracingService implements EventListener, ConfigListener, Mon
 
             // Set up the historic request trace store if enabled
             if (executionOptions.isHistoricTraceStoreEnabled()) {
-                historicRequestTraceStore = RequestTraceStoreFactory.getStore(executionOptions.getReservoirSamplingEnabled(), true);
+                historicRequestTraceStore = RequestTraceStoreFactory.getStore(executionOptions.getReservoirSamplingEnabled(), true,
+                        executionOptions.getTraceStoreOffHeapCapacity());
                 initStoreSize(historicRequestTraceStore, executionOptions::getHistoricTraceStoreSize, "historicRequestTraceStoreSize");
 
 
@@ -277,7 +281,8 @@ public class RequestTracingService implements EventListener, ConfigListener, Mon
             }
 
             // Set up the general request trace store
-            requestTraceStore = RequestTraceStoreFactory.getStore(executionOptions.getReservoirSamplingEnabled(), false);
+            requestTraceStore = RequestTraceStoreFactory.getStore(executionOptions.getReservoirSamplingEnabled(), false,
+                    executionOptions.getTraceStoreOffHeapCapacity());
             initStoreSize(requestTraceStore, executionOptions::getTraceStoreSize, "requestTraceStoreSize");
 
             // Disable cleanup task if it's null, less than 0, or reservoir sampling is enabled
@@ -502,14 +507,17 @@ public class RequestTracingService implements EventListener, ConfigListener, Mon
             uncollectedTraces.add(requestTrace);
 
             Runnable addTask = () -> {
-                RequestTrace removedTrace = requestTraceStore.addTrace(requestTrace);
+                List<RequestTrace> removedTraces = new ArrayList<>(
+                        requestTraceStore.addTraceAndGetRemoved(requestTrace, null));
 
-                // Store the trace in the historic trace store if it's enabled, avoiding recalculation
+                // Store the trace in the historic trace store if it's enabled, avoiding recalculation.
+                // The trace chosen by the storage strategy is the last one removed
                 if (executionOptions.isHistoricTraceStoreEnabled()) {
+                    RequestTrace removedTrace = removedTraces.isEmpty() ? null : removedTraces.get(removedTraces.size() - 1);
                     historicRequestTraceStore.addTrace(requestTrace, removedTrace);
                 }
 
-                if (removedTrace != null) {
+                if (!removedTraces.isEmpty()) {
                     if (hazelcast.isEnabled()) {
                         eventBus.publish(EVENT_BUS_LISTENER_NAME, new ClusterMessage(
                                 RequestTracingEvents.STORE_FULL.toString()));
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) [2016-2021] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2016-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -151,6 +151,12 @@ public class GetRequestTracingConfiguration implements AdminCommand {
                     writeVariableToActionReport(mainActionReport, "Historic Trace Store Timeout (secs)", configuration.getHistoricTraceStoreTimeout());
                 }
             }
+
+            // Print off-heap trace store details
+            writeVariableToActionReport(mainActionReport, "Off-Heap Trace Store Enabled?", configuration.getOffHeapTraceStoreEnabled());
+            if (Boolean.parseBoolean(configuration.getOffHeapTraceStoreEnabled())) {
+                writeVariableToActionReport(mainActionReport, "Off-Heap Trace Store Capacity (bytes)", configuration.getOffHeapTraceStoreCapacity());
+            }
         }
 
         // Create the extraProps for the general request tracing configuration
@@ -173,6 +179,8 @@ public class GetRequestTracingConfiguration implements AdminCommand {
         mainExtraPropsMap.put("historicTraceStoreEnabled", configuration.getHistoricTraceStoreEnabled());
         mainExtraPropsMap.put("historicTraceStoreSize", configuration.getHistoricTraceStoreSize());
         mainExtraPropsMap.put("historicTraceStoreTimeout", configuration.getHistoricTraceStoreTimeout());
+        mainExtraPropsMap.put("offHeapTraceStoreEnabled", configuration.getOffHeapTraceStoreEnabled());
+        mainExtraPropsMap.put("offHeapTraceStoreCapacity", configuration.getOffHeapTraceStoreCapacity());
         
         mainExtraProps.put("requestTracingConfiguration", mainExtraPropsMap);
         mainActionReport.setExtraProperties(mainExtraProps);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) [2016-2021] Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) [2016-2026] Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -174,6 +174,12 @@ public class SetRequestTracingConfiguration implements AdminCommand {
     @Param(name = "historicTraceStoreTimeout", optional = true)
     private String historicTraceStoreTimeout;
 
+    @Param(name = "offHeapTraceStoreEnabled", optional = true)
+    private Boolean offHeapTraceStoreEnabled;
+
+    @Param(name = "offHeapTraceStoreCapacity", optional = true)
+    private Integer offHeapTraceStoreCapacity;
+
     @Param(name = "enableNotifiers", alias = "enable-notifiers", optional = true)
     private List<String> enableNotifiers;
 
@@ -260,6 +266,13 @@ public class SetRequestTracingConfiguration implements AdminCommand {
                             proxy.setHistoricTraceStoreTimeout(historicTraceStoreTimeout);
                         }
 
+                        if (offHeapTraceStoreEnabled != null) {
+                            proxy.setOffHeapTraceStoreEnabled(offHeapTraceStoreEnabled.toString());
+                        }
+                        if (offHeapTraceStoreCapacity != null) {
+                            proxy.setOffHeapTraceStoreCapacity(offHeapTraceStoreCapacity.toString());
+                        }
+
                         List<String> notifiers = proxy.getNotifierList();
                         if (enableNotifiers != null) {
                             for (String notifier : enableNotifiers) {
@@ -403,6 +416,17 @@ public class SetRequestTracingConfiguration implements AdminCommand {
                     "Request Tracing Historic Trace Store Timeout is set to {0}.", historicTraceStoreTimeout) + "\n");
         }
 
+        if (offHeapTraceStoreEnabled != null) {
+            service.getExecutionOptions().setOffHeapTraceStoreEnabled(offHeapTraceStoreEnabled);
+            actionReport.appendMessage(strings.getLocalString("requesttracing.configure.offheap.status.success",
+                    "Request Tracing Off-Heap Trace Store status is set to {0}.", offHeapTraceStoreEnabled) + "\n");
+        }
+        if (offHeapTraceStoreCapacity != null) {
+            service.getExecutionOptions().setOffHeapTraceStoreCapacity(offHeapTraceStoreCapacity);
+            actionReport.appendMessage(strings.getLocalString("requesttracing.configure.offheap.capacity.success",
+                    "Request Tracing Off-Heap Trace Store Capacity is set to {0}.", offHeapTraceStoreCapacity) + "\n");
+        }
+
         Set<String> notifiers = service.getExecutionOptions().getEnabledNotifiers();
         if (enableNotifiers != null) {
             enableNotifiers.forEach(notifiers::add);
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2016-2021 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -135,6 +135,15 @@ public interface RequestTracingServiceConfiguration extends ConfigExtension {
     String getHistoricTraceStoreTimeout();
     void setHistoricTraceStoreTimeout(String value) throws PropertyVetoException;
 
+    @Attribute(defaultValue = "false", dataType = Boolean.class)
+    String getOffHeapTraceStoreEnabled();
+    void setOffHeapTraceStoreEnabled(String value) throws PropertyVetoException;
+
+    @Attribute(defaultValue = "4194304", dataType = Integer.class)
+    @Min(value = 1, message = "Off-heap trace store capacity must be greater than 0")
+    String getOffHeapTraceStoreCapacity();
+    void setOffHeapTraceStoreCapacity(String value) throws PropertyVetoException;
+
     @Element("notifier")
     List<String> getNotifierList();
 
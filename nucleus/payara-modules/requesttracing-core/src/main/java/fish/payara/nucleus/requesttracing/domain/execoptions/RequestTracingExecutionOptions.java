@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2016-2020 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -78,6 +78,9 @@ public class RequestTracingExecutionOptions {
     // Default timeout value **NOT** taken from RequestTracingServiceConfiguration, but from TimeUtil.setStoreTimeLimit
     private Long historicTraceStoreTimeout = 0L;
 
+    private Boolean offHeapTraceStoreEnabled = false;
+    private Integer offHeapTraceStoreCapacity = 4194304;
+
     private final Set<String> enabledNotifiers = new LinkedHashSet<>();
 
     public Boolean isEnabled() {
@@ -244,6 +247,42 @@ public class RequestTracingExecutionOptions {
         this.historicTraceStoreTimeout = historicTraceStoreTimeout;
     }
     
+    public Boolean isOffHeapTraceStoreEnabled() {
+        if (offHeapTraceStoreEnabled == null) {
+            return false;
+        }
+
+        return offHeapTraceStoreEnabled;
+    }
+
+    public void setOffHeapTraceStoreEnabled(Boolean offHeapTraceStoreEnabled) {
+        this.offHeapTraceStoreEnabled = offHeapTraceStoreEnabled;
+    }
+
+    /**
+     * Gets the number of bytes of off-heap memory each trace store may use
+     * @return
+     */
+    public Integer getOffHeapTraceStoreCapacity() {
+        return offHeapTraceStoreCapacity;
+    }
+
+    /**
+     * Sets the number of bytes of off-heap memory each trace store may use
+     * @param offHeapTraceStoreCapacity
+     */
+    public void setOffHeapTraceStoreCapacity(Integer offHeapTraceStoreCapacity) {
+        this.offHeapTraceStoreCapacity = offHeapTraceStoreCapacity;
+    }
+
+    /**
+     * Returns the off-heap capacity to create the trace stores with
+     * @return the capacity in bytes, or 0 if the traces are kept on the heap
+     */
+    public int getTraceStoreOffHeapCapacity() {
+        return isOffHeapTraceStoreEnabled() && offHeapTraceStoreCapacity != null ? offHeapTraceStoreCapacity : 0;
+    }
+    
     /**
      * Gets the notifier options configured with request tracing
      * @return 
@@ -283,6 +322,8 @@ public class RequestTracingExecutionOptions {
                 + ", historicTraceStoreEnabled=" + historicTraceStoreEnabled
                 + " ,historicTraceStoreSize=" + historicTraceStoreSize
                 + ", historicTraceStoreTimeout=" + historicTraceStoreTimeout
+                + ", offHeapTraceStoreEnabled=" + offHeapTraceStoreEnabled
+                + ", offHeapTraceStoreCapacity=" + offHeapTraceStoreCapacity
                 + "}";
     }
 }
@@ -0,0 +1,520 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.nucleus.requesttracing.store;
+
+import fish.payara.notification.requesttracing.RequestTrace;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A store of {@link RequestTrace} objects that keeps the traces outside of the java heap.
+ * <p>
+ * Each trace is serialised and compressed straight into direct memory: the compressed bytes are written into a
+ * direct encode buffer and copied from there into a direct {@link ByteBuffer} of fixed capacity, and they are
+ * inflated from that buffer again when the trace is read, so the encoded form of a trace never lives on the heap.
+ * The memory used by the store is bounded by twice that capacity no matter how large the individual traces are, and
+ * the encode buffer only grows beyond its initial size for traces that need it. Only a small index entry holding
+ * the position, the elapsed time and the start time of each trace stays on the heap. Traces are decoded lazily when
+ * they are read, for example by the {@code list-requesttraces} command.
+ * <p>
+ * Once the number of traces exceeds the maximum store size a trace is selected for removal the same way the
+ * {@link fish.payara.nucleus.requesttracing.store.strategy.LongestTraceStorageStrategy} or the
+ * {@link fish.payara.nucleus.requesttracing.store.strategy.ReservoirTraceStorageStrategy} would, but based on the
+ * index entries so that no trace has to be decoded to make that choice. Once the buffer itself is full the oldest
+ * traces are removed until the new trace fits.
+ *
+ * @since 6.2025.1
+ */
+public class OffHeapRequestTraceStore implements RequestTraceStoreInterface {
+
+    private static final Logger LOGGER = Logger.getLogger(OffHeapRequestTraceStore.class.getName());
+
+    private static final int INITIAL_ENCODE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Index entries of the stored traces, in the order of their position in the buffer
+     */
+    private final List<Entry> entries = new ArrayList<>();
+    private final ByteBuffer buffer;
+    private final boolean reservoirSamplingEnabled;
+    private final Random random = new Random();
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+    private final BufferEncoder encoder = new BufferEncoder();
+    private final BufferDecoder decoder = new BufferDecoder();
+    private ByteBuffer encodeBuffer;
+
+    private IntSupplier maxStoreSize;
+    private int writePosition;
+    private int usedBytes;
+
+    OffHeapRequestTraceStore(int capacity, boolean reservoirSamplingEnabled) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Off-heap trace store capacity must be greater than 0");
+        }
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.encodeBuffer = ByteBuffer.allocateDirect(Math.min(capacity, INITIAL_ENCODE_BUFFER_SIZE));
+        this.reservoirSamplingEnabled = reservoirSamplingEnabled;
+        this.maxStoreSize = () -> 0;
+    }
+
+    @Override
+    public RequestTrace addTrace(RequestTrace trace) {
+        return addTrace(trace, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * More than one trace may have to be removed to make room for the new trace, use
+     * {@link #addTraceAndGetRemoved(RequestTrace, RequestTrace)} to get all of them. This method returns the trace
+     * removed last, which is the one selected by the storage strategy if the maximum store size was exceeded.
+     */
+    @Override
+    public RequestTrace addTrace(RequestTrace trace, RequestTrace traceToRemove) {
+        List<RequestTrace> removed = addTraceAndGetRemoved(trace, traceToRemove);
+        return removed.isEmpty() ? null : removed.get(removed.size() - 1);
+    }
+
+    /**
+     * Adds a request trace to the store. The oldest traces are removed first until the new trace fits into the
+     * buffer, then a trace is selected for removal if the maximum store size is exceeded.
+     *
+     * @param trace The trace to add
+     * @param traceToRemove The trace to remove if present and the maximum store size is exceeded
+     * @return The traces that were removed in the order they were removed, or the added trace itself if it can never
+     * fit into the buffer
+     */
+    @Override
+    public synchronized List<RequestTrace> addTraceAndGetRemoved(RequestTrace trace, RequestTrace traceToRemove) {
+        int length;
+        try {
+            length = encode(trace);
+        } catch (TraceTooLargeException ex) {
+            // the trace can never fit, treat it as removed straight away
+            return Collections.singletonList(trace);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to encode request trace for the off-heap trace store", ex);
+            return Collections.emptyList();
+        }
+        List<RequestTrace> removed = new ArrayList<>(1);
+        while (buffer.capacity() - writePosition < length) {
+            if (buffer.capacity() - usedBytes < length) {
+                // decode before compacting, which may overwrite the bytes of the removed trace
+                addIfDecoded(removed, decode(removeEntry(0)));
+            }
+            compact();
+        }
+        Entry entry = new Entry(trace, writePosition, length);
+        ByteBuffer target = buffer.duplicate();
+        target.position(writePosition);
+        target.put(encodeBuffer);
+        writePosition += length;
+        usedBytes += length;
+        entries.add(entry);
+
+        if (entries.size() > maxStoreSize.getAsInt()) {
+            int index = traceToRemove == null ? -1 : indexOf(traceToRemove);
+            addIfDecoded(removed, decode(removeEntry(index >= 0 ? index : selectForRemoval())));
+        }
+        return removed;
+    }
+
+    /**
+     * Gets a view of the traces in the store. Traces are only decoded once the iterator reaches them, and removing a
+     * trace from the returned collection removes it from the store.
+     */
+    @Override
+    public Collection<RequestTrace> getTraces() {
+        return new AbstractCollection<RequestTrace>() {
+
+            @Override
+            public Iterator<RequestTrace> iterator() {
+                return new TraceIterator(snapshot(Integer.MAX_VALUE));
+            }
+
+            @Override
+            public int size() {
+                return OffHeapRequestTraceStore.this.size();
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return o instanceof RequestTrace && removeTrace((RequestTrace) o);
+            }
+        };
+    }
+
+    @Override
+    public Collection<RequestTrace> getTraces(int limit) {
+        List<RequestTrace> traces = new ArrayList<>();
+        new TraceIterator(snapshot(limit)).forEachRemaining(traces::add);
+        return traces;
+    }
+
+    @Override
+    public synchronized void setSize(IntSupplier maxSize) {
+        int currentMaxSize = maxSize.getAsInt();
+        while (entries.size() > currentMaxSize) {
+            removeEntry(selectForRemoval());
+        }
+        this.maxStoreSize = maxSize;
+    }
+
+    @Override
+    public int getStoreSize() {
+        return maxStoreSize.getAsInt();
+    }
+
+    @Override
+    public synchronized Collection<RequestTrace> emptyStore() {
+        List<RequestTrace> traces = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            entry.removed = true;
+            addIfDecoded(traces, decode(entry));
+        }
+        entries.clear();
+        writePosition = 0;
+        usedBytes = 0;
+        return traces;
+    }
+
+    /**
+     * @return the number of bytes of the off-heap buffer currently holding traces
+     */
+    public synchronized int getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return the maximum number of bytes the store will hold
+     */
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized List<Entry> snapshot(int limit) {
+        return new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+    }
+
+    private synchronized RequestTrace decodeIfPresent(Entry entry) {
+        return entry.removed ? null : decode(entry);
+    }
+
+    private synchronized boolean removeTrace(RequestTrace trace) {
+        int index = indexOf(trace);
+        if (index < 0) {
+            return false;
+        }
+        removeEntry(index);
+        return true;
+    }
+
+    private int indexOf(RequestTrace trace) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).matches(trace)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Selects the shortest trace, or any trace at random when reservoir sampling is enabled.
+     */
+    private int selectForRemoval() {
+        if (reservoirSamplingEnabled) {
+            return random.nextInt(entries.size());
+        }
+        int shortest = 0;
+        for (int i = 1; i < entries.size(); i++) {
+            Entry next = entries.get(i);
+            Entry current = entries.get(shortest);
+            if (next.elapsedTime < current.elapsedTime
+                    || next.elapsedTime == current.elapsedTime && isBefore(next.startTime, current.startTime)) {
+                shortest = i;
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * Removes an entry from the index. Its bytes stay in the buffer until the next compaction.
+     */
+    private Entry removeEntry(int index) {
+        Entry entry = entries.remove(index);
+        entry.removed = true;
+        usedBytes -= entry.length;
+        if (entries.isEmpty()) {
+            writePosition = 0;
+        } else if (entry.offset + entry.length == writePosition) {
+            writePosition = entry.offset;
+        }
+        return entry;
+    }
+
+    /**
+     * Moves all stored traces to the start of the buffer, closing the gaps left by removed traces.
+     */
+    private void compact() {
+        int position = 0;
+        for (Entry entry : entries) {
+            if (entry.offset != position) {
+                ByteBuffer source = buffer.duplicate();
+                source.position(entry.offset).limit(entry.offset + entry.length);
+                ByteBuffer target = buffer.duplicate();
+                target.position(position);
+                target.put(source);
+                entry.offset = position;
+            }
+            position += entry.length;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * Serialises and compresses a trace into the encode buffer, leaving the buffer ready to be read.
+     *
+     * @return the number of bytes the encoded trace takes up
+     * @throws TraceTooLargeException if the encoded trace is larger than the capacity of the store
+     */
+    private int encode(RequestTrace trace) throws IOException {
+        encodeBuffer.clear();
+        deflater.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(encoder)) {
+            out.writeObject(trace);
+            out.flush();
+            encoder.finish();
+        }
+        encodeBuffer.flip();
+        return encodeBuffer.remaining();
+    }
+
+    /**
+     * Inflates and deserialises a trace straight from the buffer. Must be called while holding the lock, before the
+     * bytes of the entry are overwritten.
+     */
+    private RequestTrace decode(Entry entry) {
+        ByteBuffer source = buffer.duplicate();
+        source.position(entry.offset).limit(entry.offset + entry.length);
+        inflater.reset();
+        inflater.setInput(source);
+        try (ObjectInputStream in = new ObjectInputStream(decoder)) {
+            return (RequestTrace) in.readObject();
+        } catch (IOException | ClassNotFoundException ex) {
+            LOGGER.log(Level.WARNING, "Unable to decode request trace from the off-heap trace store", ex);
+            return null;
+        }
+    }
+
+    private static void addIfDecoded(List<RequestTrace> traces, RequestTrace trace) {
+        if (trace != null) {
+            traces.add(trace);
+        }
+    }
+
+    private static boolean isBefore(Instant a, Instant b) {
+        return a != null && b != null && a.isBefore(b);
+    }
+
+    /**
+     * Compresses everything written to it into the encode buffer, growing that buffer up to the capacity of the
+     * store.
+     */
+    private final class BufferEncoder extends OutputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(int b) throws IOException {
+            single[0] = (byte) b;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+
+        void finish() throws IOException {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+        }
+
+        private void deflate() throws IOException {
+            if (!encodeBuffer.hasRemaining()) {
+                if (encodeBuffer.capacity() >= buffer.capacity()) {
+                    throw new TraceTooLargeException();
+                }
+                ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(2L * encodeBuffer.capacity(), buffer.capacity()));
+                encodeBuffer.flip();
+                grown.put(encodeBuffer);
+                encodeBuffer = grown;
+            }
+            deflater.deflate(encodeBuffer);
+        }
+    }
+
+    /**
+     * Inflates the input of the inflater, which is set to the bytes of a stored trace before each use.
+     */
+    private final class BufferDecoder extends InputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            try {
+                int read;
+                while ((read = inflater.inflate(b, off, len)) == 0) {
+                    if (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()) {
+                        return -1;
+                    }
+                }
+                return read;
+            } catch (DataFormatException ex) {
+                throw new IOException(ex);
+            }
+        }
+    }
+
+    private static final class TraceTooLargeException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Decodes the traces of a snapshot of the index one at a time, skipping traces removed in the meantime.
+     */
+    private final class TraceIterator implements Iterator<RequestTrace> {
+
+        private final Iterator<Entry> snapshot;
+        private RequestTrace next;
+
+        TraceIterator(List<Entry> snapshot) {
+            this.snapshot = snapshot.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && snapshot.hasNext()) {
+                next = decodeIfPresent(snapshot.next());
+            }
+            return next != null;
+        }
+
+        @Override
+        public RequestTrace next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RequestTrace trace = next;
+            next = null;
+            return trace;
+        }
+    }
+
+    /**
+     * The on-heap part of a stored trace
+     */
+    private static final class Entry {
+
+        final int length;
+        final long elapsedTime;
+        final Instant startTime;
+        final UUID traceId;
+        int offset;
+        boolean removed;
+
+        Entry(RequestTrace trace, int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+            this.elapsedTime = trace.getElapsedTime();
+            this.startTime = trace.getStartTime();
+            this.traceId = trace.getTraceSpans().isEmpty() ? null : trace.getTraceId();
+        }
+
+        boolean matches(RequestTrace trace) {
+            return elapsedTime == trace.getElapsedTime()
+                    && Objects.equals(startTime, trace.getStartTime())
+                    && Objects.equals(traceId, trace.getTraceSpans().isEmpty() ? null : trace.getTraceId());
+        }
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
- * Copyright (c) 2017-2020 Payara Foundation and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017-2026 Payara Foundation and/or its affiliates. All rights reserved.
  *
  * The contents of this file are subject to the terms of either the GNU
  * General Public License Version 2 only ("GPL") or the Common Development
@@ -41,6 +41,7 @@ package fish.payara.nucleus.requesttracing.store;
 
 import fish.payara.notification.requesttracing.RequestTrace;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.function.IntSupplier;
 
 /**
@@ -64,6 +65,18 @@ public interface RequestTraceStoreInterface {
      * @return The trace that was removed, or null if no trace was removed
      */
     RequestTrace addTrace(RequestTrace trace, RequestTrace traceToRemove);
+
+    /**
+     * Adds a request trace to the store, removing the specified trace if present and necessary. Stores that may
+     * have to remove more than one trace to make room for the new one return all of them.
+     * @param trace The trace to add
+     * @param traceToRemove The trace to remove if present
+     * @return The traces that were removed in the order they were removed, empty if no trace was removed
+     */
+    default Collection<RequestTrace> addTraceAndGetRemoved(RequestTrace trace, RequestTrace traceToRemove) {
+        RequestTrace removed = addTrace(trace, traceToRemove);
+        return removed == null ? Collections.emptyList() : Collections.singletonList(removed);
+    }
     
     /**
      * Gets the entire contents of the store.
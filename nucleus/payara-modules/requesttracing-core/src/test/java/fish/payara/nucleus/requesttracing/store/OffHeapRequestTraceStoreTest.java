@@ -0,0 +1,182 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Payara Foundation and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://github.com/payara/Payara/blob/main/LICENSE.txt
+ * See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at glassfish/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * The Payara Foundation designates this particular file as subject to the "Classpath"
+ * exception as provided by the Payara Foundation in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package fish.payara.nucleus.requesttracing.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import fish.payara.notification.requesttracing.EventType;
+import fish.payara.notification.requesttracing.RequestTrace;
+import fish.payara.notification.requesttracing.RequestTraceSpan;
+
+/**
+ * Tests correctness of the {@link OffHeapRequestTraceStore}.
+ */
+public class OffHeapRequestTraceStoreTest extends AbstractRequestTraceStoreTest {
+
+    public OffHeapRequestTraceStoreTest() {
+        super(new OffHeapRequestTraceStore(1024 * 1024, true));
+    }
+
+    @Test
+    public void storedTracesAreDecodedEqualToTheOriginal() {
+        store.setSize(() -> 10);
+        RequestTrace trace = createTrace();
+        store.addTrace(trace);
+        Collection<RequestTrace> traces = store.getTraces(1);
+        assertEquals(1, traces.size());
+        RequestTrace decoded = traces.iterator().next();
+        assertEquals(trace, decoded);
+        assertEquals(trace.getTraceId(), decoded.getTraceId());
+        assertEquals(trace.getStartTime(), decoded.getStartTime());
+    }
+
+    @Test
+    public void removingFromTheTracesRemovesFromTheStore() {
+        store.setSize(() -> 10);
+        store.addTrace(createTrace());
+        store.addTrace(createTrace());
+        Collection<RequestTrace> traces = store.getTraces();
+        RequestTrace first = traces.iterator().next();
+        assertTrue(traces.remove(first));
+        assertEquals(1, store.getTraces().size());
+    }
+
+    @Test
+    public void shortestTraceIsRemovedWhenFull() {
+        OffHeapRequestTraceStore longest = new OffHeapRequestTraceStore(1024 * 1024, false);
+        longest.setSize(() -> 2);
+        longest.addTrace(createTrace(300000000L));
+        RequestTrace shortest = createTrace(100000000L);
+        longest.addTrace(shortest);
+        RequestTrace removed = longest.addTrace(createTrace(200000000L));
+        assertNotNull(removed);
+        assertEquals(shortest, removed);
+        assertEquals(2, longest.getTraces().size());
+    }
+
+    @Test
+    public void oldestTracesAreRemovedWhenTheCapacityIsExceeded() {
+        RequestTrace trace = createTrace();
+        OffHeapRequestTraceStore sizing = new OffHeapRequestTraceStore(1024 * 1024, false);
+        sizing.setSize(() -> 1);
+        sizing.addTrace(trace);
+        int traceBytes = sizing.getUsedBytes();
+
+        OffHeapRequestTraceStore bounded = new OffHeapRequestTraceStore(traceBytes * 3 + traceBytes / 2, false);
+        bounded.setSize(() -> 100);
+        for (int i = 0; i < 10; i++) {
+            bounded.addTrace(createTrace());
+            assertTrue(bounded.getUsedBytes() <= bounded.getCapacity());
+        }
+        assertEquals(3, bounded.getTraces().size());
+    }
+
+    @Test
+    public void allTracesRemovedToMakeRoomAreReturned() {
+        RequestTrace large = createLargeTrace(50);
+        int traceBytes = encodedSize(createTrace());
+        int largeBytes = encodedSize(large);
+        assertTrue(largeBytes > 2 * traceBytes);
+
+        OffHeapRequestTraceStore bounded = new OffHeapRequestTraceStore(largeBytes + traceBytes / 2, false);
+        bounded.setSize(() -> 100);
+        List<RequestTrace> added = new ArrayList<>();
+        while (bounded.getUsedBytes() + traceBytes <= bounded.getCapacity()) {
+            RequestTrace trace = createTrace();
+            assertTrue(bounded.addTraceAndGetRemoved(trace, null).isEmpty());
+            added.add(trace);
+        }
+        assertTrue(added.size() >= 2);
+
+        Collection<RequestTrace> removed = bounded.addTraceAndGetRemoved(large, null);
+        assertEquals(added, new ArrayList<>(removed));
+        assertEquals(1, bounded.getTraces().size());
+        assertEquals(large, bounded.getTraces().iterator().next());
+    }
+
+    @Test
+    public void traceLargerThanTheInitialEncodeBufferIsDecodedEqualToTheOriginal() {
+        OffHeapRequestTraceStore large = new OffHeapRequestTraceStore(4 * 1024 * 1024, false);
+        large.setSize(() -> 10);
+        RequestTrace trace = createLargeTrace(8000);
+        large.addTrace(trace);
+        assertTrue(large.getUsedBytes() > 64 * 1024);
+        RequestTrace decoded = large.getTraces().iterator().next();
+        assertEquals(trace, decoded);
+        assertEquals(trace.getTraceSpans().getFirst().getSpanTags(), decoded.getTraceSpans().getFirst().getSpanTags());
+    }
+
+    @Test
+    public void traceLargerThanTheCapacityIsNotStored() {
+        OffHeapRequestTraceStore tiny = new OffHeapRequestTraceStore(16, false);
+        tiny.setSize(() -> 10);
+        RequestTrace trace = createTrace();
+        assertSame(trace, tiny.addTrace(trace));
+        assertEquals(0, tiny.getTraces().size());
+    }
+
+    private static int encodedSize(RequestTrace trace) {
+        OffHeapRequestTraceStore sizing = new OffHeapRequestTraceStore(1024 * 1024, false);
+        sizing.setSize(() -> 1);
+        sizing.addTrace(trace);
+        return sizing.getUsedBytes();
+    }
+
+    private static RequestTrace createLargeTrace(int tags) {
+        RequestTrace trace = new RequestTrace();
+        RequestTraceSpan span = new RequestTraceSpan(EventType.TRACE_START, "op1");
+        for (int i = 0; i < tags; i++) {
+            span.addSpanTag("tag" + i, UUID.randomUUID().toString());
+        }
+        trace.addEvent(span);
+        trace.endTrace();
+        return trace;
+    }
+}
@@ -37,9 +37,10 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-// Portions Copyright [2018] [Payara Foundation and/or its affiliates]
+// Portions Copyright [2018-2026] [Payara Foundation and/or its affiliates]
 package com.sun.enterprise.security;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.security.Principal;
 import java.security.PrivilegedExceptionAction;
@@ -115,4 +116,13 @@ public interface SecurityManager {
 
     public Object invoke(Method beanClassMethod, boolean isLocal, Object o, Object[] oa) throws Throwable;
 
+    /**
+     * Same as {@link #invoke(Method, boolean, Object, Object[])}, but calls the method through a handle bound by the
+     * container, typed {@code (Object, Object[])Object}, where the security context allows it. Failures of the method
+     * are still reported as an InvocationTargetException.
+     */
+    default Object invoke(MethodHandle beanMethodHandle, Method beanClassMethod, boolean isLocal, Object o, Object[] oa) throws Throwable {
+        return invoke(beanClassMethod, isLocal, o, oa);
+    }
+
 }